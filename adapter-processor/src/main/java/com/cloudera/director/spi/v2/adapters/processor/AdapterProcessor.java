@@ -0,0 +1,173 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.adapters.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+/**
+ * Generates the adapters requested by {@code GenerateAdapters} annotations. For every V2
+ * interface listed by an annotation, a final adapter class is generated in the package of the
+ * annotated class, between the V2 interface and its V1 counterpart, in the direction given by
+ * the annotation. An adapter that cannot be generated, for example because a method has no
+ * counterpart or a value has no converter, fails the compilation.
+ */
+@SupportedAnnotationTypes(AdapterProcessor.GENERATE_ADAPTERS)
+public final class AdapterProcessor extends AbstractProcessor {
+
+  /**
+   * The name of the annotation processed by this processor.
+   */
+  static final String GENERATE_ADAPTERS = "com.cloudera.director.spi.v2.adapters.v1.GenerateAdapters";
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    for (TypeElement annotation : annotations) {
+      for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+          if (mirror.getAnnotationType().asElement().equals(annotation)) {
+            process((TypeElement) element, mirror);
+          }
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Generates the adapters requested by the specified annotation.
+   *
+   * @param holder the annotated class
+   * @param mirror the annotation
+   */
+  private void process(TypeElement holder, AnnotationMirror mirror) {
+    Direction direction = null;
+    List<TypeElement> v2Interfaces = new ArrayList<TypeElement>();
+    List<TypeElement> converterClasses = new ArrayList<TypeElement>();
+    for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+        : processingEnv.getElementUtils().getElementValuesWithDefaults(mirror).entrySet()) {
+      String name = entry.getKey().getSimpleName().toString();
+      Object value = entry.getValue().getValue();
+      if ("direction".equals(name)) {
+        direction = Direction.valueOf(((VariableElement) value).getSimpleName().toString());
+      } else if ("value".equals(name)) {
+        v2Interfaces = classes(value);
+      } else if ("converters".equals(name)) {
+        converterClasses = classes(value);
+      }
+    }
+
+    Conversions conversions = new Conversions(processingEnv, converterClasses);
+    String packageName =
+        processingEnv.getElementUtils().getPackageOf(holder).getQualifiedName().toString();
+    for (TypeElement v2Interface : v2Interfaces) {
+      TypeElement v1Interface = conversions.getCounterpart(v2Interface);
+      if (v2Interface.getKind() != ElementKind.INTERFACE || v1Interface == null
+          || v1Interface.getKind() != ElementKind.INTERFACE) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+            v2Interface.getQualifiedName() + " is not a V2 interface with a V1 counterpart",
+            holder, mirror);
+        continue;
+      }
+      String adapterName = adapterName(v2Interface, direction);
+      String source = new AdapterWriter(processingEnv, conversions, direction,
+          direction.getTarget(v2Interface, v1Interface),
+          direction.getSource(v2Interface, v1Interface)).write(packageName, adapterName);
+      if (source != null) {
+        write(packageName + "." + adapterName, source, holder);
+      }
+    }
+  }
+
+  /**
+   * Writes the specified source file.
+   *
+   * @param name               the qualified name of the generated class
+   * @param source             the source
+   * @param originatingElement the element that caused the class to be generated
+   */
+  private void write(String name, String source, Element originatingElement) {
+    try {
+      JavaFileObject file = processingEnv.getFiler().createSourceFile(name, originatingElement);
+      Writer writer = file.openWriter();
+      try {
+        writer.write(source);
+      } finally {
+        writer.close();
+      }
+    } catch (IOException e) {
+      processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+          "Unable to write " + name + ": " + e.getMessage(), originatingElement);
+    }
+  }
+
+  /**
+   * Returns the name of the adapter for the specified V2 interface, made of the simple names of
+   * the interface and its enclosing types, followed by the suffix of the direction.
+   *
+   * @param v2Interface the V2 interface
+   * @param direction   the direction of the adapter
+   * @return the name of the adapter for the specified V2 interface
+   */
+  private static String adapterName(TypeElement v2Interface, Direction direction) {
+    StringBuilder name = new StringBuilder(v2Interface.getSimpleName());
+    for (Element enclosing = v2Interface.getEnclosingElement();
+        enclosing.getKind().isClass() || enclosing.getKind().isInterface();
+        enclosing = enclosing.getEnclosingElement()) {
+      name.insert(0, enclosing.getSimpleName());
+    }
+    return name.append(direction.getAdapterSuffix()).toString();
+  }
+
+  /**
+   * Returns the classes of the specified class array annotation value.
+   *
+   * @param value the annotation value
+   * @return the classes of the specified class array annotation value
+   */
+  private static List<TypeElement> classes(Object value) {
+    List<TypeElement> classes = new ArrayList<TypeElement>();
+    for (Object element : (List<?>) value) {
+      TypeMirror type = (TypeMirror) ((AnnotationValue) element).getValue();
+      classes.add((TypeElement) ((DeclaredType) type).asElement());
+    }
+    return classes;
+  }
+}
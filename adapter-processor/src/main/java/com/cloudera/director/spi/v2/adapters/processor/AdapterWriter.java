@@ -0,0 +1,431 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.adapters.processor;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+
+/**
+ * Writes the source of a single adapter. The adapter is a final class holding its delegate in a
+ * final field, and implementing every method of the target interface by calling the
+ * corresponding method of the delegate, converting arguments, results and exceptions with the
+ * converter methods selected by {@link Conversions}. Lists are converted by final nested
+ * classes that convert their elements on access.
+ */
+final class AdapterWriter {
+
+  /**
+   * The indentation unit of the generated source.
+   */
+  private static final String INDENT = "  ";
+
+  /**
+   * The type utilities.
+   */
+  private final Types types;
+
+  /**
+   * The element utilities.
+   */
+  private final Elements elements;
+
+  /**
+   * The messager used to report errors.
+   */
+  private final Messager messager;
+
+  /**
+   * The conversions.
+   */
+  private final Conversions conversions;
+
+  /**
+   * The direction of the adapter.
+   */
+  private final Direction direction;
+
+  /**
+   * The interface implemented by the adapter.
+   */
+  private final TypeElement target;
+
+  /**
+   * The interface of the delegate.
+   */
+  private final TypeElement source;
+
+  /**
+   * The source of the adapter methods.
+   */
+  private final StringBuilder methods = new StringBuilder();
+
+  /**
+   * The source of the nested list classes.
+   */
+  private final StringBuilder nestedClasses = new StringBuilder();
+
+  /**
+   * The names of the nested list classes.
+   */
+  private final Set<String> nestedClassNames = new HashSet<String>();
+
+  /**
+   * Whether an error has been reported.
+   */
+  private boolean failed;
+
+  /**
+   * Creates an adapter writer with the specified parameters.
+   *
+   * @param processingEnv the processing environment
+   * @param conversions   the conversions
+   * @param direction     the direction of the adapter
+   * @param target        the interface implemented by the adapter
+   * @param source        the interface of the delegate
+   */
+  AdapterWriter(ProcessingEnvironment processingEnv, Conversions conversions, Direction direction,
+      TypeElement target, TypeElement source) {
+    this.types = processingEnv.getTypeUtils();
+    this.elements = processingEnv.getElementUtils();
+    this.messager = processingEnv.getMessager();
+    this.conversions = conversions;
+    this.direction = direction;
+    this.target = target;
+    this.source = source;
+  }
+
+  /**
+   * Returns the source of the adapter, or {@code null} if the adapter cannot be generated, in
+   * which case the reasons have been reported as errors.
+   *
+   * @param packageName the package of the adapter
+   * @param adapterName the simple name of the adapter
+   * @return the source of the adapter, or {@code null} if the adapter cannot be generated
+   */
+  String write(String packageName, String adapterName) {
+    if (!target.getTypeParameters().isEmpty() || !source.getTypeParameters().isEmpty()) {
+      error(target, "Generic interfaces are not supported: " + target.getQualifiedName());
+      return null;
+    }
+    for (ExecutableElement method : interfaceMethods(target)) {
+      writeMethod(method);
+    }
+    if (failed) {
+      return null;
+    }
+
+    String targetName = target.getQualifiedName().toString();
+    String sourceName = source.getQualifiedName().toString();
+    StringBuilder out = new StringBuilder();
+    out.append("// Generated by ").append(AdapterProcessor.class.getName()).append(". Do not edit.\n\n");
+    out.append("package ").append(packageName).append(";\n\n");
+    out.append("/**\n");
+    out.append(" * Adapts a {@link ").append(sourceName).append("} to the\n");
+    out.append(" * {@link ").append(targetName).append("} interface.\n");
+    out.append(" */\n");
+    out.append("final class ").append(adapterName).append(" implements ").append(targetName)
+        .append(" {\n\n");
+    if (types.isAssignable(target.asType(),
+        elements.getTypeElement(Serializable.class.getCanonicalName()).asType())) {
+      out.append(INDENT).append("private static final long serialVersionUID = 1L;\n\n");
+    }
+    out.append(INDENT).append("/**\n");
+    out.append(INDENT).append(" * The delegate.\n");
+    out.append(INDENT).append(" */\n");
+    out.append(INDENT).append("private final ").append(sourceName).append(" delegate;\n\n");
+    out.append(INDENT).append("/**\n");
+    out.append(INDENT).append(" * Creates an adapter for the specified delegate.\n");
+    out.append(INDENT).append(" *\n");
+    out.append(INDENT).append(" * @param delegate the delegate\n");
+    out.append(INDENT).append(" */\n");
+    out.append(INDENT).append(adapterName).append("(").append(sourceName).append(" delegate) {\n");
+    out.append(INDENT).append(INDENT).append("this.delegate = delegate;\n");
+    out.append(INDENT).append("}\n\n");
+    out.append(INDENT).append("/**\n");
+    out.append(INDENT).append(" * Returns the delegate.\n");
+    out.append(INDENT).append(" *\n");
+    out.append(INDENT).append(" * @return the delegate\n");
+    out.append(INDENT).append(" */\n");
+    out.append(INDENT).append(sourceName).append(" getDelegate() {\n");
+    out.append(INDENT).append(INDENT).append("return delegate;\n");
+    out.append(INDENT).append("}\n");
+    out.append(methods);
+    out.append(nestedClasses);
+    out.append("}\n");
+    return out.toString();
+  }
+
+  /**
+   * Writes the implementation of the specified method of the target interface.
+   *
+   * @param targetMethod the method of the target interface
+   */
+  private void writeMethod(ExecutableElement targetMethod) {
+    ExecutableType targetType = memberType(target, targetMethod);
+    ExecutableElement sourceMethod = null;
+    ExecutableType sourceType = null;
+    for (ExecutableElement candidate : interfaceMethods(source)) {
+      ExecutableType candidateType = memberType(source, candidate);
+      if (candidate.getSimpleName().equals(targetMethod.getSimpleName())
+          && parametersCorrespond(targetType, candidateType)) {
+        sourceMethod = candidate;
+        sourceType = candidateType;
+        break;
+      }
+    }
+    if (sourceMethod == null) {
+      if (!targetMethod.isDefault()) {
+        error(targetMethod, target.getQualifiedName() + "." + targetMethod.getSimpleName()
+            + " has no counterpart in " + source.getQualifiedName());
+      }
+      return;
+    }
+
+    String name = targetMethod.getSimpleName().toString();
+    List<? extends TypeMirror> targetParameterTypes = targetType.getParameterTypes();
+    List<? extends TypeMirror> sourceParameterTypes = sourceType.getParameterTypes();
+    StringBuilder parameters = new StringBuilder();
+    StringBuilder arguments = new StringBuilder();
+    for (int i = 0; i < targetParameterTypes.size(); i++) {
+      String parameterName = targetMethod.getParameters().get(i).getSimpleName().toString();
+      if (i > 0) {
+        parameters.append(", ");
+        arguments.append(", ");
+      }
+      TypeMirror parameterType = targetParameterTypes.get(i);
+      if (targetMethod.isVarArgs() && i == targetParameterTypes.size() - 1) {
+        parameters.append(((ArrayType) parameterType).getComponentType()).append("...");
+      } else {
+        parameters.append(parameterType);
+      }
+      parameters.append(' ').append(parameterName);
+      arguments.append(convert(parameterName, parameterType, sourceParameterTypes.get(i),
+          direction.getArgumentConverterName(), name, targetMethod));
+    }
+
+    String call = "delegate." + name + "(" + arguments + ")";
+    TypeMirror returnType = targetType.getReturnType();
+    String statement;
+    if (returnType.getKind() == TypeKind.VOID) {
+      statement = call + ";";
+    } else {
+      statement = "return " + convert(call, sourceType.getReturnType(), returnType,
+          direction.getResultConverterName(), name, targetMethod) + ";";
+    }
+
+    methods.append('\n');
+    methods.append(INDENT).append("@Override\n");
+    methods.append(INDENT).append("public ").append(returnType).append(' ').append(name)
+        .append('(').append(parameters).append(')');
+    List<? extends TypeMirror> thrownTypes = targetType.getThrownTypes();
+    for (int i = 0; i < thrownTypes.size(); i++) {
+      methods.append(i == 0 ? " throws " : ", ").append(thrownTypes.get(i));
+    }
+    methods.append(" {\n");
+    List<ExecutableElement> exceptionConverters =
+        conversions.findExceptionConverters(direction.getResultConverterName());
+    if (exceptionConverters.isEmpty()) {
+      methods.append(INDENT).append(INDENT).append(statement).append('\n');
+    } else {
+      methods.append(INDENT).append(INDENT).append("try {\n");
+      methods.append(INDENT).append(INDENT).append(INDENT).append(statement).append('\n');
+      for (ExecutableElement exceptionConverter : exceptionConverters) {
+        methods.append(INDENT).append(INDENT).append("} catch (")
+            .append(exceptionConverter.getParameters().get(0).asType()).append(" e) {\n");
+        methods.append(INDENT).append(INDENT).append(INDENT).append("throw ")
+            .append(invocation(exceptionConverter, "e")).append(";\n");
+      }
+      methods.append(INDENT).append(INDENT).append("}\n");
+    }
+    methods.append(INDENT).append("}\n");
+  }
+
+  /**
+   * Returns an expression converting the specified expression to the required type, or reports
+   * an error if there is no conversion.
+   *
+   * @param expression    the expression
+   * @param from          the type of the expression
+   * @param to            the type required
+   * @param converterName the name of the converter methods
+   * @param methodName    the name of the method being implemented
+   * @param method        the method being implemented, for error reporting
+   * @return an expression converting the specified expression to the required type
+   */
+  private String convert(String expression, TypeMirror from, TypeMirror to, String converterName,
+      String methodName, ExecutableElement method) {
+    if (conversions.isIdentity(from, to)) {
+      return expression;
+    }
+    ExecutableElement converter = conversions.findConverter(converterName, from, to);
+    if (converter != null) {
+      return invocation(converter, expression);
+    }
+    if (conversions.isList(from) && conversions.isList(to)) {
+      String listClassName = writeListClass(from, to, converterName, methodName, method);
+      return "new " + listClassName + "(" + expression + ")";
+    }
+    error(method, "No " + converterName + " conversion from " + from + " to " + to);
+    return expression;
+  }
+
+  /**
+   * Writes a nested list class converting the elements of a list on access, and returns its
+   * name.
+   *
+   * @param from          the type of the list
+   * @param to            the type of the converted list
+   * @param converterName the name of the converter methods
+   * @param methodName    the name of the method returning or accepting the list
+   * @param method        the method being implemented, for error reporting
+   * @return the name of the nested list class
+   */
+  private String writeListClass(TypeMirror from, TypeMirror to, String converterName,
+      String methodName, ExecutableElement method) {
+    String baseName = methodName.startsWith("get") ? methodName.substring(3) : methodName;
+    baseName = Character.toUpperCase(baseName.charAt(0)) + baseName.substring(1) + "List";
+    String className = baseName;
+    for (int i = 2; !nestedClassNames.add(className); i++) {
+      className = baseName + i;
+    }
+
+    TypeMirror toElement = conversions.getElementType(to);
+    String element = convert("elements.get(index)", conversions.getElementType(from), toElement,
+        converterName, methodName, method);
+    String prefix = INDENT + INDENT;
+    nestedClasses.append('\n');
+    nestedClasses.append(INDENT).append("/**\n");
+    nestedClasses.append(INDENT).append(" * Converts the elements of a list on access.\n");
+    nestedClasses.append(INDENT).append(" */\n");
+    nestedClasses.append(INDENT).append("private static final class ").append(className)
+        .append(" extends java.util.AbstractList<").append(toElement).append("> {\n\n");
+    nestedClasses.append(prefix).append("/**\n");
+    nestedClasses.append(prefix).append(" * The list whose elements are converted.\n");
+    nestedClasses.append(prefix).append(" */\n");
+    nestedClasses.append(prefix).append("private final ").append(from).append(" elements;\n\n");
+    nestedClasses.append(prefix).append("/**\n");
+    nestedClasses.append(prefix).append(" * Creates a list converting the elements of the specified list.\n");
+    nestedClasses.append(prefix).append(" *\n");
+    nestedClasses.append(prefix).append(" * @param elements the list whose elements are converted\n");
+    nestedClasses.append(prefix).append(" */\n");
+    nestedClasses.append(prefix).append(className).append('(').append(from)
+        .append(" elements) {\n");
+    nestedClasses.append(prefix).append(INDENT).append("this.elements = elements;\n");
+    nestedClasses.append(prefix).append("}\n\n");
+    nestedClasses.append(prefix).append("@Override\n");
+    nestedClasses.append(prefix).append("public ").append(toElement).append(" get(int index) {\n");
+    nestedClasses.append(prefix).append(INDENT).append("return ").append(element).append(";\n");
+    nestedClasses.append(prefix).append("}\n\n");
+    nestedClasses.append(prefix).append("@Override\n");
+    nestedClasses.append(prefix).append("public int size() {\n");
+    nestedClasses.append(prefix).append(INDENT).append("return elements.size();\n");
+    nestedClasses.append(prefix).append("}\n");
+    nestedClasses.append(INDENT).append("}\n");
+    return className;
+  }
+
+  /**
+   * Returns whether the parameters of the specified methods correspond to each other.
+   *
+   * @param first  the first method
+   * @param second the second method
+   * @return whether the parameters of the specified methods correspond to each other
+   */
+  private boolean parametersCorrespond(ExecutableType first, ExecutableType second) {
+    List<? extends TypeMirror> firstTypes = first.getParameterTypes();
+    List<? extends TypeMirror> secondTypes = second.getParameterTypes();
+    if (firstTypes.size() != secondTypes.size()) {
+      return false;
+    }
+    for (int i = 0; i < firstTypes.size(); i++) {
+      if (!conversions.corresponds(firstTypes.get(i), secondTypes.get(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the instance methods of the specified interface, including inherited methods.
+   *
+   * @param type the interface
+   * @return the instance methods of the specified interface
+   */
+  private List<ExecutableElement> interfaceMethods(TypeElement type) {
+    List<ExecutableElement> methods = new ArrayList<ExecutableElement>();
+    for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(type))) {
+      if (method.getEnclosingElement().getKind() == ElementKind.INTERFACE
+          && !method.getModifiers().contains(Modifier.STATIC)) {
+        methods.add(method);
+      }
+    }
+    return methods;
+  }
+
+  /**
+   * Returns the type of the specified method as a member of the specified interface, with the
+   * type arguments of generic superinterfaces substituted.
+   *
+   * @param type   the interface
+   * @param method the method
+   * @return the type of the specified method as a member of the specified interface
+   */
+  private ExecutableType memberType(TypeElement type, ExecutableElement method) {
+    return (ExecutableType) types.asMemberOf((DeclaredType) type.asType(), method);
+  }
+
+  /**
+   * Returns an invocation of the specified static converter method.
+   *
+   * @param converter the converter method
+   * @param argument  the argument expression
+   * @return an invocation of the specified static converter method
+   */
+  private static String invocation(ExecutableElement converter, String argument) {
+    return ((TypeElement) converter.getEnclosingElement()).getQualifiedName() + "."
+        + converter.getSimpleName() + "(" + argument + ")";
+  }
+
+  /**
+   * Reports an error on the specified element.
+   *
+   * @param element the element
+   * @param message the error message
+   */
+  private void error(Element element, String message) {
+    failed = true;
+    messager.printMessage(Diagnostic.Kind.ERROR, message, element);
+  }
+}
@@ -0,0 +1,270 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.adapters.processor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+/**
+ * Resolves, at compile time, how values are converted between the V1 and V2 SPI types. Values
+ * are converted by the static converter methods of a fixed set of classes, such as
+ * {@code FromV1.fromV1} and {@code EnumAdapter.toV1}, so that a generated adapter calls exactly
+ * the converter that a hand-written adapter would.
+ */
+final class Conversions {
+
+  /**
+   * The package prefix of the V1 SPI.
+   */
+  private static final String V1_PACKAGE_PREFIX = "com.cloudera.director.spi.v1.";
+
+  /**
+   * The package prefix of the V2 SPI.
+   */
+  private static final String V2_PACKAGE_PREFIX = "com.cloudera.director.spi.v2.";
+
+  /**
+   * The type utilities.
+   */
+  private final Types types;
+
+  /**
+   * The element utilities.
+   */
+  private final Elements elements;
+
+  /**
+   * The static, non-private methods of the converter classes.
+   */
+  private final List<ExecutableElement> converters;
+
+  /**
+   * The erasure of {@code java.util.List}.
+   */
+  private final TypeMirror listType;
+
+  /**
+   * The type of {@code java.lang.Throwable}.
+   */
+  private final TypeMirror throwableType;
+
+  /**
+   * The type of {@code java.lang.RuntimeException}.
+   */
+  private final TypeMirror runtimeExceptionType;
+
+  /**
+   * Creates conversions using the static methods of the specified converter classes.
+   *
+   * @param processingEnv    the processing environment
+   * @param converterClasses the converter classes
+   */
+  Conversions(ProcessingEnvironment processingEnv, List<TypeElement> converterClasses) {
+    this.types = processingEnv.getTypeUtils();
+    this.elements = processingEnv.getElementUtils();
+    List<ExecutableElement> converters = new ArrayList<ExecutableElement>();
+    for (TypeElement converterClass : converterClasses) {
+      for (ExecutableElement method : ElementFilter.methodsIn(converterClass.getEnclosedElements())) {
+        if (method.getModifiers().contains(Modifier.STATIC)
+            && !method.getModifiers().contains(Modifier.PRIVATE)
+            && method.getTypeParameters().isEmpty()
+            && method.getParameters().size() == 1) {
+          converters.add(method);
+        }
+      }
+    }
+    this.converters = converters;
+    this.listType = types.erasure(elements.getTypeElement(List.class.getCanonicalName()).asType());
+    this.throwableType = elements.getTypeElement(Throwable.class.getCanonicalName()).asType();
+    this.runtimeExceptionType =
+        elements.getTypeElement(RuntimeException.class.getCanonicalName()).asType();
+  }
+
+  /**
+   * Returns the counterpart of the specified SPI type in the other SPI version, or {@code null}
+   * if it has none.
+   *
+   * @param type the SPI type
+   * @return the counterpart of the specified SPI type in the other SPI version, or {@code null}
+   * if it has none
+   */
+  TypeElement getCounterpart(TypeElement type) {
+    String name = type.getQualifiedName().toString();
+    if (name.startsWith(V1_PACKAGE_PREFIX)) {
+      return elements.getTypeElement(V2_PACKAGE_PREFIX + name.substring(V1_PACKAGE_PREFIX.length()));
+    }
+    if (name.startsWith(V2_PACKAGE_PREFIX)) {
+      return elements.getTypeElement(V1_PACKAGE_PREFIX + name.substring(V2_PACKAGE_PREFIX.length()));
+    }
+    return null;
+  }
+
+  /**
+   * Returns whether the specified types are the same type, or counterparts of each other in the
+   * two SPI versions. Type arguments are compared in the same way, ignoring wildcard bounds.
+   *
+   * @param first  the first type
+   * @param second the second type
+   * @return whether the specified types correspond to each other
+   */
+  boolean corresponds(TypeMirror first, TypeMirror second) {
+    TypeMirror firstType = upperBound(first);
+    TypeMirror secondType = upperBound(second);
+    if (types.isSameType(firstType, secondType)) {
+      return true;
+    }
+    if (firstType.getKind() != TypeKind.DECLARED || secondType.getKind() != TypeKind.DECLARED) {
+      return false;
+    }
+    DeclaredType firstDeclared = (DeclaredType) firstType;
+    DeclaredType secondDeclared = (DeclaredType) secondType;
+    TypeElement firstElement = (TypeElement) firstDeclared.asElement();
+    TypeElement secondElement = (TypeElement) secondDeclared.asElement();
+    if (!firstElement.equals(secondElement) && !secondElement.equals(getCounterpart(firstElement))) {
+      return false;
+    }
+    List<? extends TypeMirror> firstArguments = firstDeclared.getTypeArguments();
+    List<? extends TypeMirror> secondArguments = secondDeclared.getTypeArguments();
+    if (firstArguments.size() != secondArguments.size()) {
+      return false;
+    }
+    for (int i = 0; i < firstArguments.size(); i++) {
+      if (!corresponds(firstArguments.get(i), secondArguments.get(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns whether the specified type needs no conversion to be used as the other type.
+   *
+   * @param from the type of the value
+   * @param to   the type required
+   * @return whether the specified type needs no conversion to be used as the other type
+   */
+  boolean isIdentity(TypeMirror from, TypeMirror to) {
+    return types.isSameType(from, to) || (!isSpiType(to) && types.isAssignable(from, to));
+  }
+
+  /**
+   * Returns whether the specified type is a {@code java.util.List}.
+   *
+   * @param type the type
+   * @return whether the specified type is a {@code java.util.List}
+   */
+  boolean isList(TypeMirror type) {
+    return type.getKind() == TypeKind.DECLARED && types.isSameType(types.erasure(type), listType)
+        && ((DeclaredType) type).getTypeArguments().size() == 1;
+  }
+
+  /**
+   * Returns the element type of the specified list type, ignoring wildcard bounds.
+   *
+   * @param type the list type
+   * @return the element type of the specified list type
+   */
+  TypeMirror getElementType(TypeMirror type) {
+    return upperBound(((DeclaredType) type).getTypeArguments().get(0));
+  }
+
+  /**
+   * Returns the most specific converter method with the specified name that accepts a value of
+   * the first type and returns a value of the second type, or {@code null} if there is none.
+   *
+   * @param name the name of the converter method
+   * @param from the type of the value
+   * @param to   the type required
+   * @return the most specific converter method, or {@code null} if there is none
+   */
+  ExecutableElement findConverter(String name, TypeMirror from, TypeMirror to) {
+    ExecutableElement found = null;
+    for (ExecutableElement converter : converters) {
+      if (!converter.getSimpleName().contentEquals(name)) {
+        continue;
+      }
+      TypeMirror parameterType = converter.getParameters().get(0).asType();
+      if (types.isAssignable(from, parameterType)
+          && types.isAssignable(converter.getReturnType(), to)
+          && (found == null
+          || types.isSubtype(parameterType, found.getParameters().get(0).asType()))) {
+        found = converter;
+      }
+    }
+    return found;
+  }
+
+  /**
+   * Returns the converter methods with the specified name that translate an exception into an
+   * unchecked exception.
+   *
+   * @param name the name of the converter methods
+   * @return the converter methods with the specified name that translate exceptions
+   */
+  List<ExecutableElement> findExceptionConverters(String name) {
+    List<ExecutableElement> found = new ArrayList<ExecutableElement>();
+    for (ExecutableElement converter : converters) {
+      if (converter.getSimpleName().contentEquals(name)
+          && types.isAssignable(converter.getParameters().get(0).asType(), throwableType)
+          && types.isAssignable(converter.getReturnType(), runtimeExceptionType)) {
+        found.add(converter);
+      }
+    }
+    return found;
+  }
+
+  /**
+   * Returns whether the specified type is declared by either SPI version.
+   *
+   * @param type the type
+   * @return whether the specified type is declared by either SPI version
+   */
+  private boolean isSpiType(TypeMirror type) {
+    if (type.getKind() != TypeKind.DECLARED) {
+      return false;
+    }
+    String name = ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().toString();
+    return name.startsWith(V1_PACKAGE_PREFIX) || name.startsWith(V2_PACKAGE_PREFIX);
+  }
+
+  /**
+   * Returns the upper bound of the specified type, if it is a wildcard with an upper bound, or
+   * the type itself otherwise.
+   *
+   * @param type the type
+   * @return the upper bound of the specified type
+   */
+  private static TypeMirror upperBound(TypeMirror type) {
+    if (type.getKind() == TypeKind.WILDCARD) {
+      TypeMirror extendsBound = ((WildcardType) type).getExtendsBound();
+      if (extendsBound != null) {
+        return extendsBound;
+      }
+    }
+    return type;
+  }
+}
@@ -0,0 +1,127 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.adapters.processor;
+
+import javax.lang.model.element.TypeElement;
+
+/**
+ * The direction of the generated adapters, mirroring the constants of
+ * {@code GenerateAdapters.Direction}.
+ */
+enum Direction {
+
+  /**
+   * Adapters implementing V2 interfaces by delegating to their V1 counterparts.
+   */
+  FROM_V1("fromV1", "toV1", "FromV1") {
+    @Override
+    TypeElement getTarget(TypeElement v2Interface, TypeElement v1Interface) {
+      return v2Interface;
+    }
+
+    @Override
+    TypeElement getSource(TypeElement v2Interface, TypeElement v1Interface) {
+      return v1Interface;
+    }
+  },
+
+  /**
+   * Adapters implementing V1 interfaces by delegating to their V2 counterparts.
+   */
+  TO_V1("toV1", "fromV1", "ToV1") {
+    @Override
+    TypeElement getTarget(TypeElement v2Interface, TypeElement v1Interface) {
+      return v1Interface;
+    }
+
+    @Override
+    TypeElement getSource(TypeElement v2Interface, TypeElement v1Interface) {
+      return v2Interface;
+    }
+  };
+
+  /**
+   * The name of the converter methods applied to the results of the delegate.
+   */
+  private final String resultConverterName;
+
+  /**
+   * The name of the converter methods applied to the arguments passed to the delegate.
+   */
+  private final String argumentConverterName;
+
+  /**
+   * The suffix of the names of the generated adapters.
+   */
+  private final String adapterSuffix;
+
+  /**
+   * Creates a direction with the specified parameters.
+   *
+   * @param resultConverterName   the name of the converter methods applied to results
+   * @param argumentConverterName the name of the converter methods applied to arguments
+   * @param adapterSuffix         the suffix of the names of the generated adapters
+   */
+  Direction(String resultConverterName, String argumentConverterName, String adapterSuffix) {
+    this.resultConverterName = resultConverterName;
+    this.argumentConverterName = argumentConverterName;
+    this.adapterSuffix = adapterSuffix;
+  }
+
+  /**
+   * Returns the name of the converter methods applied to the results of the delegate.
+   *
+   * @return the name of the converter methods applied to the results of the delegate
+   */
+  String getResultConverterName() {
+    return resultConverterName;
+  }
+
+  /**
+   * Returns the name of the converter methods applied to the arguments passed to the delegate.
+   *
+   * @return the name of the converter methods applied to the arguments passed to the delegate
+   */
+  String getArgumentConverterName() {
+    return argumentConverterName;
+  }
+
+  /**
+   * Returns the suffix of the names of the generated adapters.
+   *
+   * @return the suffix of the names of the generated adapters
+   */
+  String getAdapterSuffix() {
+    return adapterSuffix;
+  }
+
+  /**
+   * Returns the interface implemented by the adapter.
+   *
+   * @param v2Interface the V2 interface
+   * @param v1Interface the V1 counterpart of the V2 interface
+   * @return the interface implemented by the adapter
+   */
+  abstract TypeElement getTarget(TypeElement v2Interface, TypeElement v1Interface);
+
+  /**
+   * Returns the interface of the delegate of the adapter.
+   *
+   * @param v2Interface the V2 interface
+   * @param v1Interface the V1 counterpart of the V2 interface
+   * @return the interface of the delegate of the adapter
+   */
+  abstract TypeElement getSource(TypeElement v2Interface, TypeElement v1Interface);
+}
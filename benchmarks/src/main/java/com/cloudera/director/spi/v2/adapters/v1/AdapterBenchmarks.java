@@ -0,0 +1,76 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.adapters.v1;
+
+import com.cloudera.director.spi.v2.adapters.v1.BenchmarkFixturesV1.BenchmarkCloudProvider;
+import com.cloudera.director.spi.v2.adapters.v1.BenchmarkFixturesV1.BenchmarkComputeProvider;
+import com.cloudera.director.spi.v2.compute.ComputeInstance;
+import com.cloudera.director.spi.v2.compute.ComputeInstanceTemplate;
+import com.cloudera.director.spi.v2.compute.ComputeProvider;
+import com.cloudera.director.spi.v2.model.Configured;
+import com.cloudera.director.spi.v2.model.util.SimpleConfiguration;
+
+import java.util.Collections;
+
+/**
+ * Creates the V2 views of the benchmark fixtures, going through the same adapter entry points
+ * that Director uses to load a V1 plugin.
+ */
+final class AdapterBenchmarks {
+
+  /**
+   * Private constructor to prevent instantiation.
+   */
+  private AdapterBenchmarks() {
+  }
+
+  /**
+   * Returns a V2 configuration with a value for every configuration property.
+   *
+   * @return a V2 configuration with a value for every configuration property
+   */
+  static Configured createConfiguration() {
+    return new SimpleConfiguration(BenchmarkFixturesV1.createConfigurationValues());
+  }
+
+  /**
+   * Returns an adapted compute provider backed by a V1 provider with the specified number of
+   * instances.
+   *
+   * @param instanceCount the number of instances
+   * @return an adapted compute provider
+   */
+  @SuppressWarnings("unchecked")
+  static ComputeProvider<ComputeInstance<ComputeInstanceTemplate>, ComputeInstanceTemplate>
+  createComputeProvider(int instanceCount) {
+    BenchmarkCloudProvider cloudProvider =
+        new BenchmarkCloudProvider(new BenchmarkComputeProvider(instanceCount));
+    return (ComputeProvider<ComputeInstance<ComputeInstanceTemplate>, ComputeInstanceTemplate>)
+        FromV1.fromV1(cloudProvider).createResourceProvider(
+            BenchmarkFixturesV1.COMPUTE_PROVIDER_METADATA.getId(), createConfiguration());
+  }
+
+  /**
+   * Returns a template created through the specified adapted compute provider.
+   *
+   * @param provider the adapted compute provider
+   * @return a template
+   */
+  static ComputeInstanceTemplate createTemplate(
+      ComputeProvider<ComputeInstance<ComputeInstanceTemplate>, ComputeInstanceTemplate> provider) {
+    return provider.createResourceTemplate("template", createConfiguration(),
+        Collections.<String, String>emptyMap());
+  }
+}
@@ -0,0 +1,320 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.adapters.v1;
+
+import com.cloudera.director.spi.v1.compute.ComputeInstanceTemplate;
+import com.cloudera.director.spi.v1.compute.util.AbstractComputeInstance;
+import com.cloudera.director.spi.v1.compute.util.AbstractComputeProvider;
+import com.cloudera.director.spi.v1.model.ConfigurationProperty;
+import com.cloudera.director.spi.v1.model.Configured;
+import com.cloudera.director.spi.v1.model.DisplayProperty;
+import com.cloudera.director.spi.v1.model.InstanceState;
+import com.cloudera.director.spi.v1.model.InstanceStatus;
+import com.cloudera.director.spi.v1.model.LocalizationContext;
+import com.cloudera.director.spi.v1.model.Resource;
+import com.cloudera.director.spi.v1.model.util.DefaultLocalizationContext;
+import com.cloudera.director.spi.v1.model.util.SimpleConfiguration;
+import com.cloudera.director.spi.v1.model.util.SimpleConfigurationPropertyBuilder;
+import com.cloudera.director.spi.v1.model.util.SimpleDisplayPropertyBuilder;
+import com.cloudera.director.spi.v1.model.util.SimpleInstanceState;
+import com.cloudera.director.spi.v1.provider.CloudProviderMetadata;
+import com.cloudera.director.spi.v1.provider.ResourceProvider;
+import com.cloudera.director.spi.v1.provider.ResourceProviderMetadata;
+import com.cloudera.director.spi.v1.provider.util.AbstractCloudProvider;
+import com.cloudera.director.spi.v1.provider.util.SimpleCloudProviderMetadataBuilder;
+import com.cloudera.director.spi.v1.provider.util.SimpleCredentialsProviderMetadata;
+import com.cloudera.director.spi.v1.provider.util.SimpleResourceProviderMetadata;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * V1 plugin objects used by the adapter benchmarks. The providers return precomputed results,
+ * so that the benchmarks measure the cost of the adapters rather than of the plugin.
+ */
+final class BenchmarkFixturesV1 {
+
+  /**
+   * The number of configuration and display properties in the metadata.
+   */
+  private static final int PROPERTY_COUNT = 20;
+
+  /**
+   * The root localization context.
+   */
+  static final LocalizationContext LOCALIZATION_CONTEXT =
+      DefaultLocalizationContext.FACTORY.createRootLocalizationContext(Locale.US);
+
+  /**
+   * The configuration properties of the provider and its templates.
+   */
+  static final List<ConfigurationProperty> CONFIGURATION_PROPERTIES;
+
+  /**
+   * The display properties of the resources.
+   */
+  static final List<DisplayProperty> DISPLAY_PROPERTIES;
+
+  static {
+    List<ConfigurationProperty> configurationProperties =
+        new ArrayList<ConfigurationProperty>(PROPERTY_COUNT);
+    List<DisplayProperty> displayProperties = new ArrayList<DisplayProperty>(PROPERTY_COUNT);
+    for (int i = 0; i < PROPERTY_COUNT; i++) {
+      configurationProperties.add(new SimpleConfigurationPropertyBuilder()
+          .configKey("configKey" + i)
+          .name("Configuration property " + i)
+          .defaultDescription("Description of configuration property " + i)
+          .defaultValue("value" + i)
+          .widget(ConfigurationProperty.Widget.LIST)
+          .addValidValues("value" + i, "otherValue" + i)
+          .build());
+      displayProperties.add(new SimpleDisplayPropertyBuilder()
+          .displayKey("displayKey" + i)
+          .name("Display property " + i)
+          .defaultDescription("Description of display property " + i)
+          .build());
+    }
+    CONFIGURATION_PROPERTIES = Collections.unmodifiableList(configurationProperties);
+    DISPLAY_PROPERTIES = Collections.unmodifiableList(displayProperties);
+  }
+
+  /**
+   * The compute provider metadata.
+   */
+  static final ResourceProviderMetadata COMPUTE_PROVIDER_METADATA =
+      SimpleResourceProviderMetadata.builder()
+          .id("compute")
+          .name("Benchmark compute provider")
+          .description("Compute provider returning precomputed results")
+          .providerClass(BenchmarkComputeProvider.class)
+          .providerConfigurationProperties(CONFIGURATION_PROPERTIES)
+          .resourceTemplateConfigurationProperties(CONFIGURATION_PROPERTIES)
+          .resourceDisplayProperties(DISPLAY_PROPERTIES)
+          .build();
+
+  /**
+   * The cloud provider metadata.
+   */
+  static final CloudProviderMetadata CLOUD_PROVIDER_METADATA =
+      new SimpleCloudProviderMetadataBuilder()
+          .id("benchmark")
+          .name("Benchmark cloud provider")
+          .description("Cloud provider returning precomputed results")
+          .configurationProperties(CONFIGURATION_PROPERTIES)
+          .credentialsProviderMetadata(new SimpleCredentialsProviderMetadata(
+              CONFIGURATION_PROPERTIES))
+          .resourceProviderMetadata(Collections.singletonList(COMPUTE_PROVIDER_METADATA))
+          .build();
+
+  /**
+   * Returns configuration values for every configuration property.
+   *
+   * @return configuration values for every configuration property
+   */
+  static Map<String, String> createConfigurationValues() {
+    Map<String, String> configuration = new HashMap<String, String>();
+    for (ConfigurationProperty property : CONFIGURATION_PROPERTIES) {
+      configuration.put(property.getConfigKey(), property.getDefaultValue());
+    }
+    return configuration;
+  }
+
+  /**
+   * Returns a configuration with a value for every configuration property.
+   *
+   * @return a configuration with a value for every configuration property
+   */
+  static Configured createConfiguration() {
+    return new SimpleConfiguration(createConfigurationValues());
+  }
+
+  /**
+   * Returns the identifiers of the specified number of instances.
+   *
+   * @param instanceCount the number of instances
+   * @return the identifiers of the specified number of instances
+   */
+  static List<String> createInstanceIds(int instanceCount) {
+    List<String> instanceIds = new ArrayList<String>(instanceCount);
+    for (int i = 0; i < instanceCount; i++) {
+      instanceIds.add("instance-" + i);
+    }
+    return instanceIds;
+  }
+
+  /**
+   * Private constructor to prevent instantiation.
+   */
+  private BenchmarkFixturesV1() {
+  }
+
+  /**
+   * A cloud provider whose only resource provider is a benchmark compute provider.
+   */
+  static final class BenchmarkCloudProvider extends AbstractCloudProvider {
+
+    /**
+     * The compute provider.
+     */
+    private final BenchmarkComputeProvider computeProvider;
+
+    /**
+     * Creates a benchmark cloud provider with the specified compute provider.
+     *
+     * @param computeProvider the compute provider
+     */
+    BenchmarkCloudProvider(BenchmarkComputeProvider computeProvider) {
+      super(CLOUD_PROVIDER_METADATA, LOCALIZATION_CONTEXT);
+      this.computeProvider = computeProvider;
+    }
+
+    @Override
+    public ResourceProvider createResourceProvider(String resourceProviderId,
+        Configured configuration) {
+      return computeProvider;
+    }
+  }
+
+  /**
+   * A compute instance with a handful of properties.
+   */
+  static final class BenchmarkComputeInstance
+      extends AbstractComputeInstance<ComputeInstanceTemplate, Void> {
+
+    /**
+     * The instance properties.
+     */
+    private static final Map<String, String> PROPERTIES;
+
+    static {
+      Map<String, String> properties = new HashMap<String, String>();
+      properties.put("zone", "benchmark-zone");
+      properties.put("type", "benchmark-type");
+      PROPERTIES = Collections.unmodifiableMap(properties);
+    }
+
+    /**
+     * Creates a benchmark compute instance with the specified parameters.
+     *
+     * @param template         the template
+     * @param instanceId       the instance identifier
+     * @param privateIpAddress the private IP address
+     */
+    BenchmarkComputeInstance(ComputeInstanceTemplate template, String instanceId,
+        InetAddress privateIpAddress) {
+      super(template, instanceId, privateIpAddress);
+    }
+
+    @Override
+    public Map<String, String> getProperties() {
+      return PROPERTIES;
+    }
+  }
+
+  /**
+   * A compute provider that returns the same precomputed instances and instance states from
+   * every call, regardless of the requested identifiers.
+   */
+  static final class BenchmarkComputeProvider
+      extends AbstractComputeProvider<BenchmarkComputeInstance, ComputeInstanceTemplate> {
+
+    /**
+     * The precomputed instances.
+     */
+    private final List<BenchmarkComputeInstance> instances;
+
+    /**
+     * The precomputed instance states.
+     */
+    private final Map<String, InstanceState> instanceStates;
+
+    /**
+     * Creates a benchmark compute provider with the specified number of instances.
+     *
+     * @param instanceCount the number of instances
+     */
+    BenchmarkComputeProvider(int instanceCount) {
+      super(createConfiguration(), COMPUTE_PROVIDER_METADATA, LOCALIZATION_CONTEXT);
+      ComputeInstanceTemplate template = createResourceTemplate("template",
+          createConfiguration(), Collections.<String, String>emptyMap());
+      InstanceStatus[] statuses = InstanceStatus.values();
+      List<BenchmarkComputeInstance> instances =
+          new ArrayList<BenchmarkComputeInstance>(instanceCount);
+      Map<String, InstanceState> instanceStates = new LinkedHashMap<String, InstanceState>();
+      for (String instanceId : createInstanceIds(instanceCount)) {
+        int index = instances.size();
+        instances.add(new BenchmarkComputeInstance(template, instanceId, address(index)));
+        instanceStates.put(instanceId, new SimpleInstanceState(statuses[index % statuses.length]));
+      }
+      this.instances = Collections.unmodifiableList(instances);
+      this.instanceStates = Collections.unmodifiableMap(instanceStates);
+    }
+
+    @Override
+    public Resource.Type getResourceType() {
+      return BenchmarkComputeInstance.TYPE;
+    }
+
+    @Override
+    public ComputeInstanceTemplate createResourceTemplate(String name, Configured configuration,
+        Map<String, String> tags) {
+      return new ComputeInstanceTemplate(name, configuration, tags, getLocalizationContext());
+    }
+
+    @Override
+    public void allocate(ComputeInstanceTemplate template, Collection<String> resourceIds,
+        int minCount) {
+    }
+
+    @Override
+    public Collection<BenchmarkComputeInstance> find(ComputeInstanceTemplate template,
+        Collection<String> resourceIds) {
+      return instances;
+    }
+
+    @Override
+    public void delete(ComputeInstanceTemplate template, Collection<String> resourceIds) {
+    }
+
+    @Override
+    public Map<String, InstanceState> getInstanceState(ComputeInstanceTemplate template,
+        Collection<String> instanceIds) {
+      return instanceStates;
+    }
+
+    /**
+     * Returns the private IP address of the instance with the specified index.
+     *
+     * @param index the index of the instance
+     * @return the private IP address of the instance with the specified index
+     */
+    private static InetAddress address(int index) {
+      try {
+        return InetAddress.getByAddress(
+            new byte[] {10, (byte) (index >>> 16), (byte) (index >>> 8), (byte) index});
+      } catch (UnknownHostException e) {
+        throw new IllegalStateException("Invalid address length", e);
+      }
+    }
+  }
+}
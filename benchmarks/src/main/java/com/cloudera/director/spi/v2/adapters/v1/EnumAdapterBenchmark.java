@@ -0,0 +1,103 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.adapters.v1;
+
+import com.cloudera.director.spi.v2.model.ConfigurationProperty;
+import com.cloudera.director.spi.v2.model.InstanceStatus;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the cost of converting enum constants between V1 and V2, one conversion per constant
+ * of each enum per invocation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EnumAdapterBenchmark {
+
+  private final com.cloudera.director.spi.v1.model.InstanceStatus[] instanceStatusesV1 =
+      com.cloudera.director.spi.v1.model.InstanceStatus.values();
+
+  private final InstanceStatus[] instanceStatuses = InstanceStatus.values();
+
+  private final com.cloudera.director.spi.v1.model.ConfigurationProperty.Widget[] widgetsV1 =
+      com.cloudera.director.spi.v1.model.ConfigurationProperty.Widget.values();
+
+  private final ConfigurationProperty.Widget[] widgets = ConfigurationProperty.Widget.values();
+
+  @Benchmark
+  public void instanceStatusFromV1(Blackhole blackhole) {
+    for (com.cloudera.director.spi.v1.model.InstanceStatus instanceStatus : instanceStatusesV1) {
+      blackhole.consume(EnumAdapter.fromV1(instanceStatus));
+    }
+  }
+
+  @Benchmark
+  public void instanceStatusToV1(Blackhole blackhole) {
+    for (InstanceStatus instanceStatus : instanceStatuses) {
+      blackhole.consume(EnumAdapter.toV1(instanceStatus));
+    }
+  }
+
+  @Benchmark
+  public void configurationPropertyWidgetFromV1(Blackhole blackhole) {
+    for (com.cloudera.director.spi.v1.model.ConfigurationProperty.Widget widget : widgetsV1) {
+      blackhole.consume(EnumAdapter.fromV1(widget));
+    }
+  }
+
+  @Benchmark
+  public void configurationPropertyWidgetToV1(Blackhole blackhole) {
+    for (ConfigurationProperty.Widget widget : widgets) {
+      blackhole.consume(EnumAdapter.toV1(widget));
+    }
+  }
+
+  /**
+   * Converts instance statuses by name, as a point of comparison for the precomputed tables.
+   */
+  @Benchmark
+  public void instanceStatusFromV1ByName(Blackhole blackhole) {
+    for (com.cloudera.director.spi.v1.model.InstanceStatus instanceStatus : instanceStatusesV1) {
+      blackhole.consume(InstanceStatus.valueOf(instanceStatus.name()));
+    }
+  }
+
+  /**
+   * Consumes the instance statuses without converting them, as a point of comparison for the
+   * cost of the loop itself.
+   */
+  @Benchmark
+  public void instanceStatusBaseline(Blackhole blackhole) {
+    for (com.cloudera.director.spi.v1.model.InstanceStatus instanceStatus : instanceStatusesV1) {
+      blackhole.consume(instanceStatus);
+    }
+  }
+}
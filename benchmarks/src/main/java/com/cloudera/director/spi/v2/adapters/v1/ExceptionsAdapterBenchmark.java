@@ -0,0 +1,79 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.adapters.v1;
+
+import com.cloudera.director.spi.v1.model.exception.PluginExceptionConditionAccumulator;
+import com.cloudera.director.spi.v1.model.exception.PluginExceptionDetails;
+import com.cloudera.director.spi.v1.model.exception.TransientProviderException;
+import com.cloudera.director.spi.v1.model.exception.UnrecoverableProviderException;
+import com.cloudera.director.spi.v2.model.exception.AbstractPluginException;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of translating V1 plugin exceptions to V2.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExceptionsAdapterBenchmark {
+
+  /**
+   * The number of keys with conditions in the exception details, each with two errors.
+   */
+  @Param({"0", "10", "100"})
+  public int conditionKeyCount;
+
+  private TransientProviderException transientException;
+
+  private UnrecoverableProviderException unrecoverableException;
+
+  @Setup
+  public void setUp() {
+    PluginExceptionConditionAccumulator accumulator = new PluginExceptionConditionAccumulator();
+    for (int i = 0; i < conditionKeyCount; i++) {
+      accumulator.addError("key" + i, "First error for key " + i);
+      accumulator.addError("key" + i, "Second error for key " + i);
+    }
+    PluginExceptionDetails details = new PluginExceptionDetails(accumulator.getConditionsByKey());
+    transientException = new TransientProviderException("transient", details);
+    unrecoverableException = new UnrecoverableProviderException("unrecoverable", details);
+  }
+
+  @Benchmark
+  public AbstractPluginException translateTransient() {
+    return ExceptionsAdapter.fromV1(transientException);
+  }
+
+  @Benchmark
+  public AbstractPluginException translateUnrecoverable() {
+    return ExceptionsAdapter.fromV1(unrecoverableException);
+  }
+}
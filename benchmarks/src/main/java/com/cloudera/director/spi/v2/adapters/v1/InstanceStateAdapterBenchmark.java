@@ -0,0 +1,97 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.adapters.v1;
+
+import com.cloudera.director.spi.v2.compute.ComputeInstance;
+import com.cloudera.director.spi.v2.compute.ComputeInstanceTemplate;
+import com.cloudera.director.spi.v2.compute.ComputeProvider;
+import com.cloudera.director.spi.v2.model.InstanceState;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the cost of converting the instance state maps returned by
+ * {@link ComputeProvider#getInstanceState} from V1 to V2.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InstanceStateAdapterBenchmark {
+
+  @Param({"1000", "10000", "100000"})
+  public int instanceCount;
+
+  private ComputeProvider<ComputeInstance<ComputeInstanceTemplate>, ComputeInstanceTemplate> provider;
+
+  private ComputeInstanceTemplate template;
+
+  private List<String> instanceIds;
+
+  @Setup
+  public void setUp() {
+    provider = AdapterBenchmarks.createComputeProvider(instanceCount);
+    template = AdapterBenchmarks.createTemplate(provider);
+    instanceIds = BenchmarkFixturesV1.createInstanceIds(instanceCount);
+  }
+
+  /**
+   * Retrieves the state of every instance without reading the results.
+   */
+  @Benchmark
+  public Map<String, InstanceState> getInstanceState() {
+    return provider.getInstanceState(template, instanceIds);
+  }
+
+  /**
+   * Retrieves the state of every instance and reads each status.
+   */
+  @Benchmark
+  public void getInstanceStateAndRead(Blackhole blackhole) {
+    for (Map.Entry<String, InstanceState> entry
+        : provider.getInstanceState(template, instanceIds).entrySet()) {
+      blackhole.consume(entry.getKey());
+      blackhole.consume(entry.getValue().getInstanceStatus());
+    }
+  }
+
+  /**
+   * Looks up the status of every requested instance, as pollers of instance state do.
+   */
+  @Benchmark
+  public void getInstanceStateAndLookUp(Blackhole blackhole) {
+    Map<String, InstanceState> instanceStates = provider.getInstanceState(template, instanceIds);
+    for (String instanceId : instanceIds) {
+      blackhole.consume(instanceStates.get(instanceId).getInstanceStatus());
+    }
+  }
+}
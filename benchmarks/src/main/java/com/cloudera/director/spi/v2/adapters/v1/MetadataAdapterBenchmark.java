@@ -0,0 +1,106 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.adapters.v1;
+
+import com.cloudera.director.spi.v2.model.ConfigurationProperty;
+import com.cloudera.director.spi.v2.model.DisplayProperty;
+import com.cloudera.director.spi.v2.model.LocalizationContext;
+import com.cloudera.director.spi.v2.provider.CloudProviderMetadata;
+import com.cloudera.director.spi.v2.provider.ResourceProviderMetadata;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the cost of wrapping V1 provider metadata as V2 metadata, and of reading it back.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MetadataAdapterBenchmark {
+
+  private LocalizationContext localizationContext;
+
+  private ResourceProviderMetadata resourceProviderMetadata;
+
+  @Setup
+  public void setUp() {
+    localizationContext = FromV1.fromV1(BenchmarkFixturesV1.LOCALIZATION_CONTEXT);
+    resourceProviderMetadata = FromV1.fromV1(BenchmarkFixturesV1.COMPUTE_PROVIDER_METADATA);
+  }
+
+  /**
+   * Wraps the cloud provider metadata without reading it.
+   */
+  @Benchmark
+  public CloudProviderMetadata wrapCloudProviderMetadata() {
+    return FromV1.fromV1(BenchmarkFixturesV1.CLOUD_PROVIDER_METADATA);
+  }
+
+  /**
+   * Wraps the cloud provider metadata and reads every property of every resource provider, as
+   * Director does when rendering provider choices.
+   */
+  @Benchmark
+  public void wrapAndReadCloudProviderMetadata(Blackhole blackhole) {
+    CloudProviderMetadata metadata = FromV1.fromV1(BenchmarkFixturesV1.CLOUD_PROVIDER_METADATA);
+    for (ResourceProviderMetadata resourceProviderMetadata
+        : metadata.getResourceProviderMetadata()) {
+      blackhole.consume(resourceProviderMetadata.getId());
+      for (ConfigurationProperty property
+          : resourceProviderMetadata.getProviderConfigurationProperties()) {
+        readConfigurationProperty(property, blackhole);
+      }
+      for (ConfigurationProperty property
+          : resourceProviderMetadata.getResourceTemplateConfigurationProperties()) {
+        readConfigurationProperty(property, blackhole);
+      }
+      for (DisplayProperty property : resourceProviderMetadata.getResourceDisplayProperties()) {
+        blackhole.consume(property.getDisplayKey());
+        blackhole.consume(property.getName(localizationContext));
+      }
+    }
+  }
+
+  /**
+   * Converts already wrapped resource provider metadata back to V1, as happens whenever it is
+   * passed back to the plugin.
+   */
+  @Benchmark
+  public com.cloudera.director.spi.v1.provider.ResourceProviderMetadata unwrapResourceProviderMetadata() {
+    return ToV1.toV1(resourceProviderMetadata);
+  }
+
+  private void readConfigurationProperty(ConfigurationProperty property, Blackhole blackhole) {
+    blackhole.consume(property.getConfigKey());
+    blackhole.consume(property.getName(localizationContext));
+    blackhole.consume(property.getWidget());
+    blackhole.consume(property.getValidValues(localizationContext));
+  }
+}
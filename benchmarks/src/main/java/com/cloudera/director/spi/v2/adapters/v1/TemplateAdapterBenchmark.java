@@ -0,0 +1,99 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.adapters.v1;
+
+import com.cloudera.director.spi.v2.compute.ComputeInstance;
+import com.cloudera.director.spi.v2.compute.ComputeInstanceTemplate;
+import com.cloudera.director.spi.v2.compute.ComputeProvider;
+import com.cloudera.director.spi.v2.model.ConfigurationProperty;
+import com.cloudera.director.spi.v2.model.Configured;
+import com.cloudera.director.spi.v2.model.LocalizationContext;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the cost of converting templates and their configuration between V1 and V2.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TemplateAdapterBenchmark {
+
+  private ComputeProvider<ComputeInstance<ComputeInstanceTemplate>, ComputeInstanceTemplate> provider;
+
+  private Configured configuration;
+
+  private ComputeInstanceTemplate template;
+
+  private List<ConfigurationProperty> templateProperties;
+
+  private LocalizationContext templateLocalizationContext;
+
+  @Setup
+  public void setUp() {
+    provider = AdapterBenchmarks.createComputeProvider(0);
+    configuration = AdapterBenchmarks.createConfiguration();
+    template = AdapterBenchmarks.createTemplate(provider);
+    templateProperties =
+        provider.getProviderMetadata().getResourceTemplateConfigurationProperties();
+    templateLocalizationContext = provider.getResourceTemplateLocalizationContext();
+  }
+
+  /**
+   * Creates a template through the adapter, converting its configuration to V1 and the
+   * resulting template back to V2.
+   */
+  @Benchmark
+  public ComputeInstanceTemplate createTemplate() {
+    return provider.createResourceTemplate("template", configuration,
+        Collections.<String, String>emptyMap());
+  }
+
+  /**
+   * Reads every configuration value of an adapted template.
+   */
+  @Benchmark
+  public void readTemplateConfiguration(Blackhole blackhole) {
+    for (ConfigurationProperty property : templateProperties) {
+      blackhole.consume(template.getConfigurationValue(property, templateLocalizationContext));
+    }
+  }
+
+  /**
+   * Converts a V2 configuration to V1 and reads it back, as happens on every validation call.
+   */
+  @Benchmark
+  public void convertAndReadConfiguration(Blackhole blackhole) {
+    blackhole.consume(ToV1.toV1(configuration).getConfiguration(
+        BenchmarkFixturesV1.LOCALIZATION_CONTEXT));
+  }
+}
@@ -0,0 +1,192 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.model.util;
+
+import com.cloudera.director.spi.v2.model.Configured;
+import com.cloudera.director.spi.v2.model.LocalizationContext;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the heap retained by the configurations and tags of many templates, created either
+ * by copying every map or through an {@link InterningConfigurationFactory}. The templates are
+ * drawn from a small number of distinct configurations, as in a deployment with many instance
+ * groups created from a few template definitions, and every key and value is a distinct string
+ * instance, as when they are read from a request. The retained heap is reported by the
+ * {@code retainedBytes} secondary result.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 1, time = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g", "-XX:+UseParallelGC"})
+@State(Scope.Benchmark)
+public class ConfigurationFootprintBenchmark {
+
+  /**
+   * The number of configuration properties of each template.
+   */
+  private static final int PROPERTY_COUNT = 24;
+
+  @Param({"10000", "100000"})
+  public int templateCount;
+
+  @Param({"16"})
+  public int distinctConfigurationCount;
+
+  private final LocalizationContext localizationContext =
+      new DefaultLocalizationContext(Locale.US, "");
+
+  /**
+   * Reports the mean heap retained by the templates created by an invocation, measured after a
+   * full collection before and after each invocation. JMH sums event counters over the measured
+   * iterations, so the benchmark is measured in a single, longer iteration. The parallel
+   * collector is used because it reports the used heap exactly, while G1 may not account for
+   * allocations smaller than a region.
+   */
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  @State(Scope.Thread)
+  public static class Footprint {
+
+    public long retainedBytes;
+
+    private long totalRetainedBytes;
+
+    private long invocationCount;
+
+    private long usedBeforeInvocation;
+
+    private Object retained;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      retainedBytes = 0;
+      totalRetainedBytes = 0;
+      invocationCount = 0;
+    }
+
+    @Setup(Level.Invocation)
+    public void before() {
+      retained = null;
+      usedBeforeInvocation = usedHeap();
+    }
+
+    @TearDown(Level.Invocation)
+    public void after() {
+      totalRetainedBytes += usedHeap() - usedBeforeInvocation;
+      invocationCount++;
+      retainedBytes = totalRetainedBytes / invocationCount;
+      retained = null;
+    }
+
+    /**
+     * Keeps the specified object reachable until the heap is measured.
+     *
+     * @param retained the object
+     */
+    void retain(Object retained) {
+      this.retained = retained;
+    }
+  }
+
+  @Benchmark
+  public void copied(Footprint footprint) {
+    List<Object> templates = new ArrayList<Object>(templateCount);
+    for (int i = 0; i < templateCount; i++) {
+      templates.add(new SimpleResourceTemplate("template" + i,
+          new SimpleConfiguration(createConfiguration(i)), createTags(i),
+          localizationContext));
+    }
+    footprint.retain(templates);
+  }
+
+  @Benchmark
+  public void interned(Footprint footprint) {
+    InterningConfigurationFactory factory = new InterningConfigurationFactory();
+    List<Object> templates = new ArrayList<Object>(templateCount + 1);
+    for (int i = 0; i < templateCount; i++) {
+      Configured configuration = factory.createConfiguration(createConfiguration(i));
+      templates.add(new SimpleResourceTemplate("template" + i, configuration,
+          factory.intern(createTags(i)),
+          localizationContext));
+    }
+    templates.add(factory);
+    footprint.retain(templates);
+  }
+
+  /**
+   * Returns the configuration of the specified template, made of distinct string instances.
+   *
+   * @param template the index of the template
+   * @return the configuration of the specified template
+   */
+  private Map<String, String> createConfiguration(int template) {
+    int variant = template % distinctConfigurationCount;
+    Map<String, String> configuration = new HashMap<String, String>();
+    for (int i = 0; i < PROPERTY_COUNT; i++) {
+      configuration.put(new String("property" + i),
+          new String("value" + ((i < 4) ? variant : i)));
+    }
+    return configuration;
+  }
+
+  /**
+   * Returns the tags of the specified template, made of distinct string instances.
+   *
+   * @param template the index of the template
+   * @return the tags of the specified template
+   */
+  private Map<String, String> createTags(int template) {
+    Map<String, String> tags = new HashMap<String, String>();
+    tags.put(new String("owner"), new String("director"));
+    tags.put(new String("group"), new String("group" + (template % distinctConfigurationCount)));
+    return tags;
+  }
+
+  /**
+   * Returns the heap used after a full collection.
+   *
+   * @return the heap used after a full collection
+   */
+  private static long usedHeap() {
+    MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    for (int i = 0; i < 2; i++) {
+      memory.gc();
+    }
+    return memory.getHeapMemoryUsage().getUsed();
+  }
+}
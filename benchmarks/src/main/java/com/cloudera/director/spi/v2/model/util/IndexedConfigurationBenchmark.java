@@ -0,0 +1,152 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.model.util;
+
+import com.cloudera.director.spi.v2.model.ConfigurationProperty;
+import com.cloudera.director.spi.v2.model.LocalizationContext;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the cost of looking up the value of every property of a template configuration, one
+ * lookup per property per invocation, from a {@link SimpleConfiguration}, from an array indexed
+ * by ordinals found in an identity map, and from an {@link IndexedConfiguration}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IndexedConfigurationBenchmark {
+
+  /**
+   * The number of configuration properties of the template.
+   */
+  private static final int PROPERTY_COUNT = 24;
+
+  private final LocalizationContext localizationContext =
+      new DefaultLocalizationContext(Locale.US, "");
+
+  private final List<ConfigurationProperty> properties = createProperties();
+
+  private final Map<String, String> values = createValues();
+
+  private final SimpleConfiguration simpleConfiguration = new SimpleConfiguration(values);
+
+  private final IndexedConfiguration indexedConfiguration =
+      new IndexedConfiguration(new IndexedConfiguration.Layout(properties), values);
+
+  private final Map<ConfigurationProperty, Integer> ordinalsByProperty = createOrdinals();
+
+  private final String[] valuesByOrdinal = createValuesByOrdinal();
+
+  @Benchmark
+  public void simpleConfiguration(Blackhole blackhole) {
+    for (ConfigurationProperty property : properties) {
+      blackhole.consume(simpleConfiguration.getConfigurationValue(property, localizationContext));
+    }
+  }
+
+  @Benchmark
+  public void identityMapOrdinals(Blackhole blackhole) {
+    for (ConfigurationProperty property : properties) {
+      blackhole.consume(valuesByOrdinal[ordinalsByProperty.get(property)]);
+    }
+  }
+
+  @Benchmark
+  public void indexedConfiguration(Blackhole blackhole) {
+    for (ConfigurationProperty property : properties) {
+      blackhole.consume(indexedConfiguration.getConfigurationValue(property, localizationContext));
+    }
+  }
+
+  /**
+   * Returns the configuration properties of the template.
+   *
+   * @return the configuration properties of the template
+   */
+  private static List<ConfigurationProperty> createProperties() {
+    List<ConfigurationProperty> properties = new ArrayList<ConfigurationProperty>(PROPERTY_COUNT);
+    for (int i = 0; i < PROPERTY_COUNT; i++) {
+      properties.add(new SimpleConfigurationPropertyBuilder()
+          .configKey("property" + i)
+          .name("property" + i)
+          .defaultDescription("property" + i)
+          .required(i % 2 == 0)
+          .defaultValue((i % 2 == 0) ? null : "default" + i)
+          .build());
+    }
+    return properties;
+  }
+
+  /**
+   * Returns the values of the template, for every property.
+   *
+   * @return the values of the template
+   */
+  private static Map<String, String> createValues() {
+    Map<String, String> values = new HashMap<String, String>();
+    for (int i = 0; i < PROPERTY_COUNT; i++) {
+      values.put("property" + i, "value" + i);
+    }
+    return values;
+  }
+
+  /**
+   * Returns the ordinals of the properties, by property identity.
+   *
+   * @return the ordinals of the properties, by property identity
+   */
+  private Map<ConfigurationProperty, Integer> createOrdinals() {
+    Map<ConfigurationProperty, Integer> ordinals =
+        new IdentityHashMap<ConfigurationProperty, Integer>();
+    for (int i = 0; i < properties.size(); i++) {
+      ordinals.put(properties.get(i), i);
+    }
+    return ordinals;
+  }
+
+  /**
+   * Returns the values of the properties, by ordinal.
+   *
+   * @return the values of the properties, by ordinal
+   */
+  private String[] createValuesByOrdinal() {
+    String[] valuesByOrdinal = new String[properties.size()];
+    for (int i = 0; i < properties.size(); i++) {
+      valuesByOrdinal[i] = values.get(properties.get(i).getConfigKey());
+    }
+    return valuesByOrdinal;
+  }
+}
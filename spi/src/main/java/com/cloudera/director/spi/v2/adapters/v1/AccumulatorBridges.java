@@ -0,0 +1,229 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.adapters.v1;
+
+import static com.cloudera.director.spi.v2.util.Preconditions.checkNotNull;
+
+import com.cloudera.director.spi.v2.model.exception.PluginExceptionCondition;
+import com.cloudera.director.spi.v2.model.exception.PluginExceptionConditionAccumulator;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Contains functions to bridge plugin exception condition accumulators between V1 and V2.
+ *
+ * <p>Unlike {@link ToV1#toV1(PluginExceptionConditionAccumulator)} and
+ * {@link FromV1#fromV1(com.cloudera.director.spi.v1.model.exception.PluginExceptionConditionAccumulator)},
+ * which copy an accumulator so that new conditions can later be merged back, a bridge forwards
+ * each condition to the accumulator it wraps as soon as it is added. Bridging an accumulator
+ * therefore costs nothing up front, and nothing needs to be merged back afterwards.
+ */
+final class AccumulatorBridges {
+
+  private AccumulatorBridges() {
+  }
+
+  /**
+   * Returns a V1 accumulator which adds its conditions to the specified V2 accumulator.
+   *
+   * @param accumulator the V2 accumulator
+   * @return a V1 accumulator which adds its conditions to the specified V2 accumulator
+   */
+  static com.cloudera.director.spi.v1.model.exception.PluginExceptionConditionAccumulator toV1(
+      PluginExceptionConditionAccumulator accumulator) {
+    return new V1Bridge(accumulator);
+  }
+
+  /**
+   * Returns a V2 accumulator which adds its conditions to the specified V1 accumulator.
+   *
+   * @param accumulator the V1 accumulator
+   * @return a V2 accumulator which adds its conditions to the specified V1 accumulator
+   */
+  static PluginExceptionConditionAccumulator fromV1(
+      com.cloudera.director.spi.v1.model.exception.PluginExceptionConditionAccumulator accumulator) {
+    return new V2Bridge(accumulator);
+  }
+
+  /**
+   * A V1 accumulator which adds its conditions to a V2 accumulator.
+   */
+  private static final class V1Bridge
+      extends com.cloudera.director.spi.v1.model.exception.PluginExceptionConditionAccumulator {
+
+    /**
+     * The V2 accumulator.
+     */
+    private final PluginExceptionConditionAccumulator delegate;
+
+    /**
+     * Creates a bridge to the specified V2 accumulator.
+     *
+     * @param delegate the V2 accumulator
+     */
+    private V1Bridge(PluginExceptionConditionAccumulator delegate) {
+      this.delegate = checkNotNull(delegate, "delegate is null");
+    }
+
+    /**
+     * Returns a snapshot of the conditions of the V2 accumulator, converted to V1.
+     *
+     * @return a snapshot of the conditions of the V2 accumulator, converted to V1
+     */
+    @Override
+    public Map<String, Collection<com.cloudera.director.spi.v1.model.exception.PluginExceptionCondition>>
+    getConditionsByKey() {
+      Map<String, Collection<com.cloudera.director.spi.v1.model.exception.PluginExceptionCondition>> converted =
+          new HashMap<String, Collection<com.cloudera.director.spi.v1.model.exception.PluginExceptionCondition>>();
+      for (Map.Entry<String, Collection<PluginExceptionCondition>> entry
+          : delegate.getConditionsByKey().entrySet()) {
+        Collection<com.cloudera.director.spi.v1.model.exception.PluginExceptionCondition> conditions =
+            new ArrayList<com.cloudera.director.spi.v1.model.exception.PluginExceptionCondition>(
+                entry.getValue().size());
+        for (PluginExceptionCondition condition : entry.getValue()) {
+          conditions.add(new com.cloudera.director.spi.v1.model.exception.PluginExceptionCondition(
+              EnumAdapter.toV1(condition.getType()), condition.getExceptionInfo()));
+        }
+        converted.put(entry.getKey(), conditions);
+      }
+      return converted;
+    }
+
+    @Override
+    public boolean hasError() {
+      return delegate.hasError();
+    }
+
+    @Override
+    public void addError(String key, String message) {
+      delegate.addError(key, message);
+    }
+
+    @Override
+    public void addError(String key, Map<String, String> exceptionInfo) {
+      delegate.addError(key, exceptionInfo);
+    }
+
+    @Override
+    public void addError(Map<String, String> exceptionInfo) {
+      delegate.addError(exceptionInfo);
+    }
+
+    @Override
+    public boolean hasWarning() {
+      return delegate.hasWarning();
+    }
+
+    @Override
+    public void addWarning(String key, String message) {
+      delegate.addWarning(key, message);
+    }
+
+    @Override
+    public void addWarning(String key, Map<String, String> exceptionInfo) {
+      delegate.addWarning(key, exceptionInfo);
+    }
+
+    @Override
+    public void addWarning(Map<String, String> exceptionInfo) {
+      delegate.addWarning(exceptionInfo);
+    }
+  }
+
+  /**
+   * A V2 accumulator which adds its conditions to a V1 accumulator.
+   */
+  private static final class V2Bridge extends PluginExceptionConditionAccumulator {
+
+    /**
+     * The V1 accumulator.
+     */
+    private final com.cloudera.director.spi.v1.model.exception.PluginExceptionConditionAccumulator delegate;
+
+    /**
+     * Creates a bridge to the specified V1 accumulator.
+     *
+     * @param delegate the V1 accumulator
+     */
+    private V2Bridge(com.cloudera.director.spi.v1.model.exception.PluginExceptionConditionAccumulator delegate) {
+      this.delegate = checkNotNull(delegate, "delegate is null");
+    }
+
+    /**
+     * Returns a snapshot of the conditions of the V1 accumulator, converted to V2.
+     *
+     * @return a snapshot of the conditions of the V1 accumulator, converted to V2
+     */
+    @Override
+    public Map<String, Collection<PluginExceptionCondition>> getConditionsByKey() {
+      Map<String, Collection<PluginExceptionCondition>> converted =
+          new HashMap<String, Collection<PluginExceptionCondition>>();
+      for (Map.Entry<String, Collection<com.cloudera.director.spi.v1.model.exception.PluginExceptionCondition>> entry
+          : delegate.getConditionsByKey().entrySet()) {
+        Collection<PluginExceptionCondition> conditions =
+            new ArrayList<PluginExceptionCondition>(entry.getValue().size());
+        for (com.cloudera.director.spi.v1.model.exception.PluginExceptionCondition condition : entry.getValue()) {
+          conditions.add(new PluginExceptionCondition(
+              EnumAdapter.fromV1(condition.getType()), condition.getExceptionInfo()));
+        }
+        converted.put(entry.getKey(), conditions);
+      }
+      return converted;
+    }
+
+    @Override
+    public boolean hasError() {
+      return delegate.hasError();
+    }
+
+    @Override
+    public void addError(String key, String message) {
+      delegate.addError(key, message);
+    }
+
+    @Override
+    public void addError(String key, Map<String, String> exceptionInfo) {
+      delegate.addError(key, exceptionInfo);
+    }
+
+    @Override
+    public void addError(Map<String, String> exceptionInfo) {
+      delegate.addError(exceptionInfo);
+    }
+
+    @Override
+    public boolean hasWarning() {
+      return delegate.hasWarning();
+    }
+
+    @Override
+    public void addWarning(String key, String message) {
+      delegate.addWarning(key, message);
+    }
+
+    @Override
+    public void addWarning(String key, Map<String, String> exceptionInfo) {
+      delegate.addWarning(key, exceptionInfo);
+    }
+
+    @Override
+    public void addWarning(Map<String, String> exceptionInfo) {
+      delegate.addWarning(exceptionInfo);
+    }
+  }
+}
@@ -26,11 +26,14 @@ import com.cloudera.director.spi.v2.model.LocalizationContext;
 import com.cloudera.director.spi.v2.model.Resource;
 import com.cloudera.director.spi.v2.model.ResourceTemplate;
 import com.cloudera.director.spi.v2.model.exception.PluginExceptionConditionAccumulator;
+import com.cloudera.director.spi.v2.provider.InstanceStateWatcher;
 import com.cloudera.director.spi.v2.provider.ResourceProviderMetadata;
+import com.cloudera.director.spi.v2.provider.util.PollingInstanceStateWatcher;
 
 import java.net.InetAddress;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -42,6 +45,13 @@ import java.util.Set;
  */
 public class ComputeProviderAdapter {
 
+  /**
+   * The wrappers of compute instance templates.
+   */
+  private static final WrapperCache<com.cloudera.director.spi.v1.compute.ComputeInstanceTemplate,
+      ComputeInstanceTemplateWrapper> TEMPLATES =
+      new WrapperCache<com.cloudera.director.spi.v1.compute.ComputeInstanceTemplate, ComputeInstanceTemplateWrapper>();
+
   private ComputeProviderAdapter() {
   }
 
@@ -53,18 +63,30 @@ public class ComputeProviderAdapter {
       V extends com.cloudera.director.spi.v1.compute.ComputeInstanceTemplate>
   ComputeProvider<R, T> fromV1(final com.cloudera.director.spi.v1.compute.ComputeProvider<U, V> computeProvider) {
     return new ComputeProvider<R, T>() {
+
+      private volatile InstanceStateWatcher<T> instanceStateWatcher;
+
+      @Override
+      public InstanceStateWatcher<T> getInstanceStateWatcher() {
+        InstanceStateWatcher<T> watcher = instanceStateWatcher;
+        if (watcher == null) {
+          synchronized (this) {
+            watcher = instanceStateWatcher;
+            if (watcher == null) {
+              watcher = new PollingInstanceStateWatcher<T>(this);
+              instanceStateWatcher = watcher;
+            }
+          }
+        }
+        return watcher;
+      }
+
       @Override
       public Map<String, InstanceState> getInstanceState(T template, Collection<String> instanceIds) {
         try {
-          // todo return abstractmap instead of hashmap
           Map<String, com.cloudera.director.spi.v1.model.InstanceState> instanceStates
               = computeProvider.getInstanceState((V) toV1(template), instanceIds);
-
-          Map<String, InstanceState> ret = new HashMap<String, InstanceState>();
-          for (Map.Entry<String, com.cloudera.director.spi.v1.model.InstanceState> entry : instanceStates.entrySet()) {
-            ret.put(entry.getKey(), FromV1.fromV1(entry.getValue()));
-          }
-          return ret;
+          return FromV1.fromV1(instanceStates);
         } catch (com.cloudera.director.spi.v1.model.exception.AbstractPluginException ex) {
           throw ExceptionsAdapter.fromV1(ex);
         }
@@ -94,10 +116,8 @@ public class ComputeProviderAdapter {
       public void validateResourceTemplateConfiguration(String name, Configured configuration,
                                                         PluginExceptionConditionAccumulator accumulator) {
         try {
-          com.cloudera.director.spi.v1.model.exception.PluginExceptionConditionAccumulator accumulatorV1
-              = ToV1.toV1(accumulator);
-          computeProvider.validateResourceTemplateConfiguration(name, ToV1.toV1(configuration), accumulatorV1);
-          FromV1.addNewConditions(accumulator, FromV1.fromV1(accumulatorV1));
+          computeProvider.validateResourceTemplateConfiguration(name, ToV1.toV1(configuration),
+              AccumulatorBridges.toV1(accumulator));
         } catch (com.cloudera.director.spi.v1.model.exception.AbstractPluginException ex) {
           throw ExceptionsAdapter.fromV1(ex);
         }
@@ -120,23 +140,36 @@ public class ComputeProviderAdapter {
         try {
           V v1Template = (V) toV1(template);
           computeProvider.allocate(v1Template, resourceIds, minCount);
-          return find(template, resourceIds);
+          return deferredFind(template, resourceIds);
         } catch (com.cloudera.director.spi.v1.model.exception.AbstractPluginException ex) {
           throw ExceptionsAdapter.fromV1(ex);
         }
       }
 
+      private Collection<R> deferredFind(final T template, Collection<String> resourceIds) {
+        if (resourceIds.isEmpty()) {
+          return Collections.emptyList();
+        }
+        final ComputeProvider<R, T> provider = this;
+        final List<String> allocatedIds = new ArrayList<String>(resourceIds);
+        return new DeferredFindResult<R>() {
+          @Override
+          protected Collection<? extends R> find() throws InterruptedException {
+            return provider.find(template, allocatedIds);
+          }
+        };
+      }
+
       @Override
       public Collection<? extends R> find(T template, Collection<String> resourceIds) throws InterruptedException {
         try {
-          // todo return Collection
           Collection<U> computeInstances = computeProvider.find((V) toV1(template), resourceIds);
-          List<U> computeInstancesList = new ArrayList<U>(computeInstances);
-          List<R> ret = new ArrayList<R>();
-          for (U computeInstance : computeInstancesList) {
-            ret.add((R) fromV1(computeInstance));
-          }
-          return ret;
+          return new Conversion<U, R>() {
+            @Override
+            protected R convert(U instance) {
+              return (R) fromV1(instance);
+            }
+          }.collection(computeInstances);
         } catch (com.cloudera.director.spi.v1.model.exception.AbstractPluginException ex) {
           throw ExceptionsAdapter.fromV1(ex);
         }
@@ -223,10 +256,15 @@ public class ComputeProviderAdapter {
 
   private static ComputeInstanceTemplateWrapper fromV1(
       final com.cloudera.director.spi.v1.compute.ComputeInstanceTemplate computeInstanceTemplate) {
+    ComputeInstanceTemplateWrapper cached = TEMPLATES.getV2(computeInstanceTemplate);
+    if (cached != null) {
+      return cached;
+    }
     Configured configured = FromV1.fromV1(computeInstanceTemplate);
-    return new ComputeInstanceTemplateWrapper(
+    ComputeInstanceTemplateWrapper wrapper = new ComputeInstanceTemplateWrapper(
         computeInstanceTemplate.getName(), configured, computeInstanceTemplate.getTags(),
         FromV1.fromV1(computeInstanceTemplate.getLocalizationContext()), computeInstanceTemplate);
+    return TEMPLATES.putV2(computeInstanceTemplate, wrapper);
   }
 
   // Functions to convert V2 -> V1
@@ -0,0 +1,279 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.adapters.v1;
+
+import static com.cloudera.director.spi.v2.util.Preconditions.checkNotNull;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Converts V1 objects to V2 objects, and presents V1 collections and maps as lazy V2 views.
+ * The views do not copy the V1 collection or map; each element is converted the first time it
+ * is read, and the converted element is kept, so that reading a view several times yields the
+ * same V2 objects without converting them again.
+ *
+ * <p>V1 plugin exceptions thrown while reading the V1 collection or map, or while converting an
+ * element, are translated with {@link ExceptionsAdapter}, as they would be by the adapter
+ * method that returned the view.
+ *
+ * <p>The views assume that the V1 collection or map is not modified once returned by the
+ * plugin. Concurrent readers may convert the same element twice, in which case either converted
+ * element may be returned.
+ *
+ * @param <S> the type of the V1 objects
+ * @param <R> the type of the V2 objects
+ */
+abstract class Conversion<S, R> {
+
+  /**
+   * Converts the specified V1 object.
+   *
+   * @param source the V1 object
+   * @return the V2 object
+   */
+  protected abstract R convert(S source);
+
+  /**
+   * Returns a lazy view of the specified V1 collection.
+   *
+   * @param sources the V1 collection
+   * @return a lazy view of the V1 collection
+   */
+  Collection<R> collection(Collection<? extends S> sources) {
+    return new ConvertedCollection(sources);
+  }
+
+  /**
+   * Returns a lazy view of the specified V1 map, converting its values.
+   *
+   * @param sources the V1 map
+   * @param <K>     the type of the keys
+   * @return a lazy view of the V1 map
+   */
+  <K> Map<K, R> values(Map<K, ? extends S> sources) {
+    return new ConvertedValueMap<K>(sources);
+  }
+
+  /**
+   * Converts the specified V1 object, translating V1 plugin exceptions.
+   *
+   * @param source the V1 object
+   * @return the V2 object
+   */
+  private R translatedConvert(S source) {
+    try {
+      return convert(source);
+    } catch (com.cloudera.director.spi.v1.model.exception.AbstractPluginException ex) {
+      throw ExceptionsAdapter.fromV1(ex);
+    }
+  }
+
+  /**
+   * A lazy view of a V1 collection.
+   */
+  private final class ConvertedCollection extends AbstractCollection<R> {
+
+    /**
+     * The V1 collection.
+     */
+    private final Collection<? extends S> sources;
+
+    /**
+     * The converted elements, by position, or {@code null} if they have not been converted yet.
+     */
+    private final Object[] converted;
+
+    /**
+     * Creates a lazy view of the specified V1 collection.
+     *
+     * @param sources the V1 collection
+     */
+    private ConvertedCollection(Collection<? extends S> sources) {
+      this.sources = checkNotNull(sources, "sources is null");
+      this.converted = new Object[sources.size()];
+    }
+
+    @Override
+    public Iterator<R> iterator() {
+      final Iterator<? extends S> iterator;
+      try {
+        iterator = sources.iterator();
+      } catch (com.cloudera.director.spi.v1.model.exception.AbstractPluginException ex) {
+        throw ExceptionsAdapter.fromV1(ex);
+      }
+      return new Iterator<R>() {
+
+        private int index;
+
+        @Override
+        public boolean hasNext() {
+          try {
+            return iterator.hasNext();
+          } catch (com.cloudera.director.spi.v1.model.exception.AbstractPluginException ex) {
+            throw ExceptionsAdapter.fromV1(ex);
+          }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public R next() {
+          S source;
+          try {
+            source = iterator.next();
+          } catch (com.cloudera.director.spi.v1.model.exception.AbstractPluginException ex) {
+            throw ExceptionsAdapter.fromV1(ex);
+          }
+          int i = index++;
+          if (i >= converted.length) {
+            return translatedConvert(source);
+          }
+          R result = (R) converted[i];
+          if (result == null) {
+            result = translatedConvert(source);
+            converted[i] = result;
+          }
+          return result;
+        }
+
+        @Override
+        public void remove() {
+          throw new UnsupportedOperationException();
+        }
+      };
+    }
+
+    @Override
+    public int size() {
+      return sources.size();
+    }
+  }
+
+  /**
+   * A lazy view of a V1 map, converting its values.
+   *
+   * @param <K> the type of the keys
+   */
+  private final class ConvertedValueMap<K> extends AbstractMap<K, R> {
+
+    /**
+     * The V1 map.
+     */
+    private final Map<K, ? extends S> sources;
+
+    /**
+     * The converted values, by key.
+     */
+    private final ConcurrentMap<Object, R> converted = new ConcurrentHashMap<Object, R>();
+
+    /**
+     * Creates a lazy view of the specified V1 map.
+     *
+     * @param sources the V1 map
+     */
+    private ConvertedValueMap(Map<K, ? extends S> sources) {
+      this.sources = checkNotNull(sources, "sources is null");
+    }
+
+    @Override
+    public R get(Object key) {
+      if (key == null) {
+        S source = sources.get(null);
+        return (source == null) ? null : translatedConvert(source);
+      }
+      R result = converted.get(key);
+      if (result == null) {
+        S source = sources.get(key);
+        if (source != null) {
+          result = convertValue(key, source);
+        }
+      }
+      return result;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      return sources.containsKey(key);
+    }
+
+    @Override
+    public int size() {
+      return sources.size();
+    }
+
+    @Override
+    public Set<Entry<K, R>> entrySet() {
+      return new AbstractSet<Entry<K, R>>() {
+        @Override
+        public Iterator<Entry<K, R>> iterator() {
+          final Iterator<? extends Entry<K, ? extends S>> iterator = sources.entrySet().iterator();
+          return new Iterator<Entry<K, R>>() {
+            @Override
+            public boolean hasNext() {
+              return iterator.hasNext();
+            }
+
+            @Override
+            public Entry<K, R> next() {
+              Entry<K, ? extends S> entry = iterator.next();
+              K key = entry.getKey();
+              S source = entry.getValue();
+              R value;
+              if (key == null || source == null) {
+                value = (source == null) ? null : translatedConvert(source);
+              } else {
+                value = converted.get(key);
+                if (value == null) {
+                  value = convertValue(key, source);
+                }
+              }
+              return new SimpleImmutableEntry<K, R>(key, value);
+            }
+
+            @Override
+            public void remove() {
+              throw new UnsupportedOperationException();
+            }
+          };
+        }
+
+        @Override
+        public int size() {
+          return sources.size();
+        }
+      };
+    }
+
+    /**
+     * Converts the value of the specified key, keeping the converted value.
+     *
+     * @param key    the key
+     * @param source the V1 value
+     * @return the converted value
+     */
+    private R convertValue(Object key, S source) {
+      R result = translatedConvert(source);
+      R existing = converted.putIfAbsent(key, result);
+      return (existing == null) ? result : existing;
+    }
+  }
+}
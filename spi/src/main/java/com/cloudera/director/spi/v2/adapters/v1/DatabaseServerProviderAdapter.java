@@ -28,16 +28,19 @@ import com.cloudera.director.spi.v2.model.LocalizationContext;
 import com.cloudera.director.spi.v2.model.Resource;
 import com.cloudera.director.spi.v2.model.ResourceTemplate;
 import com.cloudera.director.spi.v2.model.exception.PluginExceptionConditionAccumulator;
+import com.cloudera.director.spi.v2.provider.InstanceStateWatcher;
 import com.cloudera.director.spi.v2.provider.ResourceProvider;
 import com.cloudera.director.spi.v2.provider.ResourceProviderMetadata;
+import com.cloudera.director.spi.v2.provider.util.PollingInstanceStateWatcher;
+import com.cloudera.director.spi.v2.util.ConfigurationPropertyIndex;
 import com.cloudera.director.spi.v2.util.Preconditions;
 
 import java.net.InetAddress;
 import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -48,6 +51,13 @@ import java.util.Set;
  */
 public class DatabaseServerProviderAdapter {
 
+  /**
+   * The wrappers of database server instance templates.
+   */
+  private static final WrapperCache<com.cloudera.director.spi.v1.database.DatabaseServerInstanceTemplate,
+      DatabaseServerInstanceTemplateWrapper> TEMPLATES = new WrapperCache<
+      com.cloudera.director.spi.v1.database.DatabaseServerInstanceTemplate, DatabaseServerInstanceTemplateWrapper>();
+
   private DatabaseServerProviderAdapter() {
   }
 
@@ -58,18 +68,30 @@ public class DatabaseServerProviderAdapter {
   DatabaseServerProvider<R, T> fromV1(
       final com.cloudera.director.spi.v1.database.DatabaseServerProvider<U, V> databaseServerProvider) {
     return new DatabaseServerProvider<R, T>() {
+
+      private volatile InstanceStateWatcher<T> instanceStateWatcher;
+
+      @Override
+      public InstanceStateWatcher<T> getInstanceStateWatcher() {
+        InstanceStateWatcher<T> watcher = instanceStateWatcher;
+        if (watcher == null) {
+          synchronized (this) {
+            watcher = instanceStateWatcher;
+            if (watcher == null) {
+              watcher = new PollingInstanceStateWatcher<T>(this);
+              instanceStateWatcher = watcher;
+            }
+          }
+        }
+        return watcher;
+      }
+
       @Override
       public Map<String, InstanceState> getInstanceState(T template, Collection<String> instanceIds) {
         try {
-          // todo return abstractmap instead of hashmap
           Map<String, com.cloudera.director.spi.v1.model.InstanceState> instanceStates
               = databaseServerProvider.getInstanceState((V) toV1(template), instanceIds);
-
-          Map<String, InstanceState> ret = new HashMap<String, InstanceState>();
-          for (Map.Entry<String, com.cloudera.director.spi.v1.model.InstanceState> entry : instanceStates.entrySet()) {
-            ret.put(entry.getKey(), FromV1.fromV1(entry.getValue()));
-          }
-          return ret;
+          return FromV1.fromV1(instanceStates);
         } catch (com.cloudera.director.spi.v1.model.exception.AbstractPluginException ex) {
           throw ExceptionsAdapter.fromV1(ex);
         }
@@ -100,11 +122,8 @@ public class DatabaseServerProviderAdapter {
       public void validateResourceTemplateConfiguration(String name, Configured configuration,
                                                         PluginExceptionConditionAccumulator accumulator) {
         try {
-          com.cloudera.director.spi.v1.model.exception.PluginExceptionConditionAccumulator accumulatorV1
-              = ToV1.toV1(accumulator);
           databaseServerProvider.validateResourceTemplateConfiguration(name, ToV1.toV1(configuration),
-              accumulatorV1);
-          FromV1.addNewConditions(accumulator, FromV1.fromV1(accumulatorV1));
+              AccumulatorBridges.toV1(accumulator));
         } catch (com.cloudera.director.spi.v1.model.exception.AbstractPluginException ex) {
           throw ExceptionsAdapter.fromV1(ex);
         }
@@ -126,23 +145,36 @@ public class DatabaseServerProviderAdapter {
       public Collection<R> allocate(T template, Collection<String> resourceIds, int minCount) throws InterruptedException {
         try {
           databaseServerProvider.allocate((V) toV1(template), resourceIds, minCount);
-          return find(template, resourceIds);
+          return deferredFind(template, resourceIds);
         } catch (com.cloudera.director.spi.v1.model.exception.AbstractPluginException ex) {
           throw ExceptionsAdapter.fromV1(ex);
         }
       }
 
+      private Collection<R> deferredFind(final T template, Collection<String> resourceIds) {
+        if (resourceIds.isEmpty()) {
+          return Collections.emptyList();
+        }
+        final DatabaseServerProvider<R, T> provider = this;
+        final List<String> allocatedIds = new ArrayList<String>(resourceIds);
+        return new DeferredFindResult<R>() {
+          @Override
+          protected Collection<? extends R> find() throws InterruptedException {
+            return provider.find(template, allocatedIds);
+          }
+        };
+      }
+
       @Override
       public Collection<R> find(T template, Collection<String> resourceIds) throws InterruptedException {
         try {
-          // todo return Collection
           Collection<U> databaseServerInstances = databaseServerProvider.find((V) toV1(template), resourceIds);
-          List<U> databaseServerInstancesList = new ArrayList<U>(databaseServerInstances);
-          List<R> ret = new ArrayList<R>();
-          for (U databaseServerInstance : databaseServerInstancesList) {
-            ret.add((R) fromV1(databaseServerInstance));
-          }
-          return ret;
+          return new Conversion<U, R>() {
+            @Override
+            protected R convert(U instance) {
+              return (R) fromV1(instance);
+            }
+          }.collection(databaseServerInstances);
         } catch (com.cloudera.director.spi.v1.model.exception.AbstractPluginException ex) {
           throw ExceptionsAdapter.fromV1(ex);
         }
@@ -161,14 +193,18 @@ public class DatabaseServerProviderAdapter {
 
   public static DatabaseServerProviderMetadata fromV1(
       final com.cloudera.director.spi.v1.database.DatabaseServerProviderMetadata databaseServerProviderMetadata) {
-    return new DatabaseServerProviderMetadata() {
+    ResourceProviderMetadata cached = FromV1.RESOURCE_PROVIDER_METADATA.getV2(databaseServerProviderMetadata);
+    if (cached instanceof DatabaseServerProviderMetadata) {
+      return (DatabaseServerProviderMetadata) cached;
+    }
+    DatabaseServerProviderMetadata wrapper = new DatabaseServerProviderMetadata() {
       @Override
       public Set<DatabaseType> getSupportedDatabaseTypes() {
         // todo return abstract set
-        Set<DatabaseType> supportedDatabaseTypes = new HashSet<DatabaseType>();
+        Set<DatabaseType> supportedDatabaseTypes = EnumSet.noneOf(DatabaseType.class);
         for (com.cloudera.director.spi.v1.database.DatabaseType supportedDatabaseType
             : databaseServerProviderMetadata.getSupportedDatabaseTypes()) {
-          supportedDatabaseTypes.add(fromV1(supportedDatabaseType));
+          supportedDatabaseTypes.add(EnumAdapter.fromV1(supportedDatabaseType));
         }
         return supportedDatabaseTypes;
       }
@@ -196,6 +232,21 @@ public class DatabaseServerProviderAdapter {
         return FromV1.fromV1(databaseServerProviderMetadata.getProviderConfigurationProperties());
       }
 
+      /**
+       * The index of the resource template configuration properties, created on first use.
+       */
+      private volatile ConfigurationPropertyIndex resourceTemplateConfigurationPropertyIndex;
+
+      @Override
+      public ConfigurationPropertyIndex getResourceTemplateConfigurationPropertyIndex() {
+        ConfigurationPropertyIndex index = resourceTemplateConfigurationPropertyIndex;
+        if (index == null) {
+          index = new ConfigurationPropertyIndex(getResourceTemplateConfigurationProperties());
+          resourceTemplateConfigurationPropertyIndex = index;
+        }
+        return index;
+      }
+
       @Override
       public List<DisplayProperty> getResourceDisplayProperties() {
         final List<com.cloudera.director.spi.v1.model.DisplayProperty> resourceDisplayProperties
@@ -248,6 +299,10 @@ public class DatabaseServerProviderAdapter {
         return FromV1.fromV1(databaseServerProviderMetadata.getProviderConfigurationValidator());
       }
     };
+    ResourceProviderMetadata registered =
+        FromV1.RESOURCE_PROVIDER_METADATA.putV2(databaseServerProviderMetadata, wrapper);
+    return (registered instanceof DatabaseServerProviderMetadata)
+        ? (DatabaseServerProviderMetadata) registered : wrapper;
   }
 
   private static DatabaseServerInstance fromV1(
@@ -315,26 +370,16 @@ public class DatabaseServerProviderAdapter {
 
   public static DatabaseServerInstanceTemplateWrapper fromV1(
       final com.cloudera.director.spi.v1.database.DatabaseServerInstanceTemplate databaseServerInstanceTemplate) {
+    DatabaseServerInstanceTemplateWrapper cached = TEMPLATES.getV2(databaseServerInstanceTemplate);
+    if (cached != null) {
+      return cached;
+    }
     Configured configured = FromV1.fromV1(databaseServerInstanceTemplate);
     DatabaseServerInstanceTemplateWrapper wrapper =
         new DatabaseServerInstanceTemplateWrapper(databaseServerInstanceTemplate.getName(),
             configured, databaseServerInstanceTemplate.getTags(),
             FromV1.fromV1(databaseServerInstanceTemplate.getLocalizationContext()), databaseServerInstanceTemplate);
-    return wrapper;
-  }
-
-  private static DatabaseType fromV1(com.cloudera.director.spi.v1.database.DatabaseType supportedDatabaseType) {
-    Preconditions.checkNotNull(supportedDatabaseType, "supportedDatabaseType is null");
-    switch (supportedDatabaseType) {
-      case POSTGRESQL:
-        return DatabaseType.POSTGRESQL;
-      case MYSQL:
-        return DatabaseType.MYSQL;
-      case ORACLE:
-        return DatabaseType.ORACLE;
-      default:
-        throw new IllegalArgumentException("Unknown supportedDatabaseType: " + supportedDatabaseType);
-    }
+    return TEMPLATES.putV2(databaseServerInstanceTemplate, wrapper);
   }
 
   public static com.cloudera.director.spi.v1.database.DatabaseServerInstanceTemplate toV1(
@@ -0,0 +1,84 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.adapters.v1;
+
+import com.cloudera.director.spi.v2.model.exception.UnrecoverableProviderException;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * The result of an allocation through a V1 provider. V1 providers do not return the resources
+ * they allocate, so they have to be looked up with a separate {@code find} call. This collection
+ * defers that call until its contents are first read, and then keeps the result, so that callers
+ * which ignore the allocated resources do not pay for a second round trip to the cloud.
+ *
+ * <p>If the deferred {@code find} call fails, the exception is thrown from the method that
+ * read the collection, and the call is attempted again on the next read. If the reading thread
+ * is interrupted, an {@link UnrecoverableProviderException} is thrown and the thread's interrupt
+ * status is restored. This is the deferred-failure contract documented on
+ * {@link com.cloudera.director.spi.v2.provider.ResourceProvider#allocate}.
+ *
+ * @param <R> the type of the resources
+ */
+abstract class DeferredFindResult<R> extends AbstractCollection<R> {
+
+  /**
+   * The found resources, or {@code null} if they have not been found yet, guarded by this
+   * collection.
+   */
+  private List<R> resources;
+
+  /**
+   * Finds the allocated resources.
+   *
+   * @return the allocated resources
+   * @throws InterruptedException if the operation is interrupted
+   */
+  protected abstract Collection<? extends R> find() throws InterruptedException;
+
+  @Override
+  public Iterator<R> iterator() {
+    return getResources().iterator();
+  }
+
+  @Override
+  public int size() {
+    return getResources().size();
+  }
+
+  /**
+   * Returns the found resources, finding them on the first call.
+   *
+   * @return the found resources
+   * @throws UnrecoverableProviderException if the current thread is interrupted while finding
+   *                                        the resources
+   */
+  private synchronized List<R> getResources() {
+    if (resources == null) {
+      try {
+        resources = Collections.unmodifiableList(new ArrayList<R>(find()));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new UnrecoverableProviderException("Interrupted while finding allocated resources", e);
+      }
+    }
+    return resources;
+  }
+}
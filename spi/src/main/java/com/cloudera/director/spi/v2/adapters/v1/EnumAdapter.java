@@ -0,0 +1,246 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.adapters.v1;
+
+import com.cloudera.director.spi.v2.compute.VirtualizationType;
+import com.cloudera.director.spi.v2.database.DatabaseType;
+import com.cloudera.director.spi.v2.model.ConfigurationProperty;
+import com.cloudera.director.spi.v2.model.DisplayProperty;
+import com.cloudera.director.spi.v2.model.InstanceStatus;
+import com.cloudera.director.spi.v2.model.Property;
+import com.cloudera.director.spi.v2.model.exception.PluginExceptionCondition;
+import com.cloudera.director.spi.v2.util.Preconditions;
+
+import java.lang.reflect.Array;
+
+/**
+ * Contains functions to convert the SPI enum objects from V1 to V2 and vice versa.
+ *
+ * <p>Each V1 enum is mapped to the V2 enum with the same constant names, through tables indexed
+ * by ordinal that are built when this class is initialized. Initialization fails if any constant
+ * of either enum has no counterpart, so a mismatch between the V1 and V2 SPIs is detected once,
+ * up front, instead of on the first conversion of the unmapped constant.
+ */
+public class EnumAdapter {
+
+  private static final EnumTable<com.cloudera.director.spi.v1.model.InstanceStatus, InstanceStatus>
+      INSTANCE_STATUS = EnumTable.of(com.cloudera.director.spi.v1.model.InstanceStatus.class,
+      InstanceStatus.class);
+
+  private static final EnumTable<com.cloudera.director.spi.v1.model.DisplayProperty.Widget,
+      DisplayProperty.Widget> DISPLAY_PROPERTY_WIDGET =
+      EnumTable.of(com.cloudera.director.spi.v1.model.DisplayProperty.Widget.class,
+          DisplayProperty.Widget.class);
+
+  private static final EnumTable<com.cloudera.director.spi.v1.model.Property.Type, Property.Type>
+      PROPERTY_TYPE = EnumTable.of(com.cloudera.director.spi.v1.model.Property.Type.class,
+      Property.Type.class);
+
+  private static final EnumTable<com.cloudera.director.spi.v1.model.ConfigurationProperty.Widget,
+      ConfigurationProperty.Widget> CONFIGURATION_PROPERTY_WIDGET =
+      EnumTable.of(com.cloudera.director.spi.v1.model.ConfigurationProperty.Widget.class,
+          ConfigurationProperty.Widget.class);
+
+  private static final EnumTable<com.cloudera.director.spi.v1.compute.VirtualizationType, VirtualizationType>
+      VIRTUALIZATION_TYPE = EnumTable.of(com.cloudera.director.spi.v1.compute.VirtualizationType.class,
+      VirtualizationType.class);
+
+  private static final EnumTable<com.cloudera.director.spi.v1.database.DatabaseType, DatabaseType>
+      DATABASE_TYPE = EnumTable.of(com.cloudera.director.spi.v1.database.DatabaseType.class,
+      DatabaseType.class);
+
+  private static final EnumTable<com.cloudera.director.spi.v1.model.exception.PluginExceptionCondition.Type,
+      PluginExceptionCondition.Type> PLUGIN_EXCEPTION_CONDITION_TYPE =
+      EnumTable.of(com.cloudera.director.spi.v1.model.exception.PluginExceptionCondition.Type.class,
+          PluginExceptionCondition.Type.class);
+
+  private EnumAdapter() {
+  }
+
+  // Functions to convert V1 -> V2
+
+  public static InstanceStatus fromV1(com.cloudera.director.spi.v1.model.InstanceStatus instanceStatus) {
+    Preconditions.checkNotNull(instanceStatus, "instanceStatus is null");
+    return INSTANCE_STATUS.fromV1(instanceStatus);
+  }
+
+  public static DisplayProperty.Widget fromV1(
+      com.cloudera.director.spi.v1.model.DisplayProperty.Widget widget) {
+    Preconditions.checkNotNull(widget, "widget is null");
+    return DISPLAY_PROPERTY_WIDGET.fromV1(widget);
+  }
+
+  public static Property.Type fromV1(
+      com.cloudera.director.spi.v1.model.Property.Type type) {
+    Preconditions.checkNotNull(type, "type is null");
+    return PROPERTY_TYPE.fromV1(type);
+  }
+
+  public static ConfigurationProperty.Widget fromV1(
+      com.cloudera.director.spi.v1.model.ConfigurationProperty.Widget widget) {
+    Preconditions.checkNotNull(widget, "widget is null");
+    return CONFIGURATION_PROPERTY_WIDGET.fromV1(widget);
+  }
+
+  public static VirtualizationType fromV1(
+      com.cloudera.director.spi.v1.compute.VirtualizationType virtualizationType) {
+    if (virtualizationType == null) return null;
+    return VIRTUALIZATION_TYPE.fromV1(virtualizationType);
+  }
+
+  public static DatabaseType fromV1(com.cloudera.director.spi.v1.database.DatabaseType databaseType) {
+    Preconditions.checkNotNull(databaseType, "databaseType is null");
+    return DATABASE_TYPE.fromV1(databaseType);
+  }
+
+  public static PluginExceptionCondition.Type fromV1(
+      com.cloudera.director.spi.v1.model.exception.PluginExceptionCondition.Type pluginExceptionConditionType) {
+    Preconditions.checkNotNull(pluginExceptionConditionType, "pluginExceptionConditionType is null");
+    return PLUGIN_EXCEPTION_CONDITION_TYPE.fromV1(pluginExceptionConditionType);
+  }
+
+  // Functions to convert V2 -> V1
+
+  public static com.cloudera.director.spi.v1.model.InstanceStatus toV1(final InstanceStatus instanceStatus) {
+    Preconditions.checkNotNull(instanceStatus, "instanceStatus is null");
+    return INSTANCE_STATUS.toV1(instanceStatus);
+  }
+
+  public static com.cloudera.director.spi.v1.model.ConfigurationProperty.Widget toV1(
+      ConfigurationProperty.Widget widget) {
+    Preconditions.checkNotNull(widget, "widget is null");
+    return CONFIGURATION_PROPERTY_WIDGET.toV1(widget);
+  }
+
+  public static com.cloudera.director.spi.v1.model.DisplayProperty.Widget toV1(
+      DisplayProperty.Widget widget) {
+    Preconditions.checkNotNull(widget, "widget is null");
+    return DISPLAY_PROPERTY_WIDGET.toV1(widget);
+  }
+
+  public static com.cloudera.director.spi.v1.model.Property.Type toV1(Property.Type type) {
+    Preconditions.checkNotNull(type, "type is null");
+    return PROPERTY_TYPE.toV1(type);
+  }
+
+  public static com.cloudera.director.spi.v1.compute.VirtualizationType toV1(
+      VirtualizationType virtualizationType) {
+    if (virtualizationType == null) return null;
+    return VIRTUALIZATION_TYPE.toV1(virtualizationType);
+  }
+
+  public static com.cloudera.director.spi.v1.database.DatabaseType toV1(DatabaseType databaseType) {
+    Preconditions.checkNotNull(databaseType, "databaseType is null");
+    return DATABASE_TYPE.toV1(databaseType);
+  }
+
+  public static com.cloudera.director.spi.v1.model.exception.PluginExceptionCondition.Type toV1(
+      PluginExceptionCondition.Type pluginExceptionConditionType) {
+    Preconditions.checkNotNull(pluginExceptionConditionType, "pluginExceptionConditionType is null");
+    return PLUGIN_EXCEPTION_CONDITION_TYPE.toV1(pluginExceptionConditionType);
+  }
+
+  /**
+   * A bidirectional mapping between the constants of a V1 enum and those of a V2 enum with the
+   * same names, backed by arrays indexed by ordinal.
+   *
+   * @param <U> the V1 enum type
+   * @param <V> the V2 enum type
+   */
+  static final class EnumTable<U extends Enum<U>, V extends Enum<V>> {
+
+    /**
+     * The V2 constants, indexed by the ordinal of the corresponding V1 constants.
+     */
+    private final V[] v2ByOrdinal;
+
+    /**
+     * The V1 constants, indexed by the ordinal of the corresponding V2 constants.
+     */
+    private final U[] v1ByOrdinal;
+
+    /**
+     * Returns a mapping between the constants of the specified enums.
+     *
+     * @param v1Class the V1 enum type
+     * @param v2Class the V2 enum type
+     * @param <U>     the V1 enum type
+     * @param <V>     the V2 enum type
+     * @return a mapping between the constants of the specified enums
+     * @throws IllegalStateException if a constant of either enum has no counterpart in the other
+     */
+    static <U extends Enum<U>, V extends Enum<V>> EnumTable<U, V> of(Class<U> v1Class, Class<V> v2Class) {
+      return new EnumTable<U, V>(mapByName(v1Class, v2Class), mapByName(v2Class, v1Class));
+    }
+
+    /**
+     * Creates a mapping with the specified tables.
+     *
+     * @param v2ByOrdinal the V2 constants, indexed by the ordinal of the V1 constants
+     * @param v1ByOrdinal the V1 constants, indexed by the ordinal of the V2 constants
+     */
+    private EnumTable(V[] v2ByOrdinal, U[] v1ByOrdinal) {
+      this.v2ByOrdinal = v2ByOrdinal;
+      this.v1ByOrdinal = v1ByOrdinal;
+    }
+
+    /**
+     * Returns the V2 constant corresponding to the specified V1 constant.
+     *
+     * @param v1 the V1 constant
+     * @return the V2 constant corresponding to the specified V1 constant
+     */
+    V fromV1(U v1) {
+      return v2ByOrdinal[v1.ordinal()];
+    }
+
+    /**
+     * Returns the V1 constant corresponding to the specified V2 constant.
+     *
+     * @param v2 the V2 constant
+     * @return the V1 constant corresponding to the specified V2 constant
+     */
+    U toV1(V v2) {
+      return v1ByOrdinal[v2.ordinal()];
+    }
+
+    /**
+     * Returns the constants of the target enum with the same names as the constants of the
+     * source enum, indexed by the ordinal of the source constants.
+     *
+     * @param sourceClass the source enum type
+     * @param targetClass the target enum type
+     * @param <S>         the source enum type
+     * @param <T>         the target enum type
+     * @return the corresponding constants of the target enum, indexed by source ordinal
+     * @throws IllegalStateException if a constant of the source enum has no counterpart
+     */
+    private static <S extends Enum<S>, T extends Enum<T>> T[] mapByName(Class<S> sourceClass,
+        Class<T> targetClass) {
+      S[] sourceConstants = sourceClass.getEnumConstants();
+      @SuppressWarnings("unchecked")
+      T[] targetConstants = (T[]) Array.newInstance(targetClass, sourceConstants.length);
+      for (S sourceConstant : sourceConstants) {
+        try {
+          targetConstants[sourceConstant.ordinal()] = Enum.valueOf(targetClass, sourceConstant.name());
+        } catch (IllegalArgumentException e) {
+          throw new IllegalStateException(String.format("%s.%s has no counterpart in %s",
+              sourceClass.getName(), sourceConstant.name(), targetClass.getName()), e);
+        }
+      }
+      return targetConstants;
+    }
+  }
+}
@@ -0,0 +1,212 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.adapters.v1;
+
+import com.cloudera.director.spi.v2.model.exception.InvalidCredentialsException;
+import com.cloudera.director.spi.v2.model.exception.PluginExceptionCondition;
+import com.cloudera.director.spi.v2.model.exception.AbstractPluginException;
+import com.cloudera.director.spi.v2.model.exception.PluginExceptionDetails;
+import com.cloudera.director.spi.v2.model.exception.TransientProviderException;
+import com.cloudera.director.spi.v2.model.exception.UnrecoverableProviderException;
+import com.cloudera.director.spi.v2.model.exception.ValidationException;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Contains functions to convert V1 exception objects to V2 exception objects.
+ */
+public class ExceptionsAdapter {
+
+  public static class ConvertedAbstractPluginException extends AbstractPluginException {
+    public ConvertedAbstractPluginException(String message, Throwable cause, PluginExceptionDetails details) {
+      super(message, cause, details);
+    }
+  }
+
+  /**
+   * The converter for each V1 exception class, computed once per class.
+   */
+  private static final ClassValue<Converter> CONVERTERS = new ClassValue<Converter>() {
+    @Override
+    protected Converter computeValue(Class<?> type) {
+      if (com.cloudera.director.spi.v1.model.exception.TransientProviderException.class.isAssignableFrom(type)) {
+        return Converter.TRANSIENT;
+      }
+      if (com.cloudera.director.spi.v1.model.exception.ValidationException.class.isAssignableFrom(type)) {
+        return Converter.VALIDATION;
+      }
+      if (com.cloudera.director.spi.v1.model.exception.InvalidCredentialsException.class.isAssignableFrom(type)) {
+        return Converter.INVALID_CREDENTIALS;
+      }
+      if (com.cloudera.director.spi.v1.model.exception.UnrecoverableProviderException.class.isAssignableFrom(type)) {
+        return Converter.UNRECOVERABLE;
+      }
+      return Converter.OTHER;
+    }
+  };
+
+  public static AbstractPluginException fromV1(
+      final com.cloudera.director.spi.v1.model.exception.AbstractPluginException abstractPluginException) {
+    return CONVERTERS.get(abstractPluginException.getClass()).convert(
+        abstractPluginException.getMessage(),
+        abstractPluginException.getCause(),
+        fromV1(abstractPluginException.getDetails()));
+  }
+
+  private static PluginExceptionDetails fromV1(
+      com.cloudera.director.spi.v1.model.exception.PluginExceptionDetails details) {
+    if (details == null || details.getConditionsByKey().isEmpty()) {
+      return PluginExceptionDetails.DEFAULT_DETAILS;
+    }
+    return new ConvertedPluginExceptionDetails(details);
+  }
+
+  private static Map<String, SortedSet<PluginExceptionCondition>> fromV1(
+      Map<String, SortedSet<com.cloudera.director.spi.v1.model.exception.PluginExceptionCondition>> conditionsByKey) {
+    Map<String, SortedSet<PluginExceptionCondition>> converted =
+        new HashMap<String, SortedSet<PluginExceptionCondition>>();
+
+    for (Map.Entry<String, SortedSet<com.cloudera.director.spi.v1.model.exception.PluginExceptionCondition>> entry :
+        conditionsByKey.entrySet()) {
+      String key = entry.getKey();
+      SortedSet<com.cloudera.director.spi.v1.model.exception.PluginExceptionCondition> value = entry.getValue();
+      converted.put(key, Collections.unmodifiableSortedSet(fromV1(value)));
+    }
+    return Collections.unmodifiableMap(converted);
+  }
+
+  private static SortedSet<PluginExceptionCondition> fromV1(
+      SortedSet<com.cloudera.director.spi.v1.model.exception.PluginExceptionCondition> exceptionConditions) {
+    SortedSet<PluginExceptionCondition> converted = new TreeSet<PluginExceptionCondition>();
+    for (com.cloudera.director.spi.v1.model.exception.PluginExceptionCondition condition : exceptionConditions) {
+      converted.add(fromV1(condition));
+    }
+    return converted;
+  }
+
+  private static PluginExceptionCondition fromV1(
+      com.cloudera.director.spi.v1.model.exception.PluginExceptionCondition condition) {
+    return new PluginExceptionCondition(
+        EnumAdapter.fromV1(condition.getType()),
+        condition.getMessage()
+    );
+  }
+
+  /**
+   * Creates the V2 exception corresponding to a kind of V1 exception.
+   */
+  private enum Converter {
+
+    TRANSIENT {
+      @Override
+      AbstractPluginException convert(String message, Throwable cause, PluginExceptionDetails details) {
+        return new TransientProviderException(message, cause, details);
+      }
+    },
+
+    UNRECOVERABLE {
+      @Override
+      AbstractPluginException convert(String message, Throwable cause, PluginExceptionDetails details) {
+        return new UnrecoverableProviderException(message, cause, details);
+      }
+    },
+
+    VALIDATION {
+      @Override
+      AbstractPluginException convert(String message, Throwable cause, PluginExceptionDetails details) {
+        return new ValidationException(message, cause, details);
+      }
+    },
+
+    INVALID_CREDENTIALS {
+      @Override
+      AbstractPluginException convert(String message, Throwable cause, PluginExceptionDetails details) {
+        return new InvalidCredentialsException(message, cause, details);
+      }
+    },
+
+    OTHER {
+      @Override
+      AbstractPluginException convert(String message, Throwable cause, PluginExceptionDetails details) {
+        return new ConvertedAbstractPluginException(message, cause, details);
+      }
+    };
+
+    /**
+     * Creates the V2 exception.
+     *
+     * @param message the detail message
+     * @param cause   the cause
+     * @param details the converted exception details
+     * @return the V2 exception
+     */
+    abstract AbstractPluginException convert(String message, Throwable cause, PluginExceptionDetails details);
+  }
+
+  /**
+   * Exception details which convert the conditions of V1 exception details the first time they
+   * are read. Most translated exceptions are only logged or retried, and their conditions never
+   * inspected. The details are serialized as plain {@link PluginExceptionDetails}, so that
+   * deserializing them requires neither this class nor the V1 SPI.
+   */
+  private static final class ConvertedPluginExceptionDetails extends PluginExceptionDetails {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The V1 exception details.
+     */
+    private final transient com.cloudera.director.spi.v1.model.exception.PluginExceptionDetails details;
+
+    /**
+     * The converted conditions, or {@code null} if they have not been converted yet.
+     */
+    private transient volatile Map<String, SortedSet<PluginExceptionCondition>> conditionsByKey;
+
+    /**
+     * Creates exception details converting the specified V1 exception details.
+     *
+     * @param details the V1 exception details
+     */
+    private ConvertedPluginExceptionDetails(
+        com.cloudera.director.spi.v1.model.exception.PluginExceptionDetails details) {
+      super(DEFAULT_CONDITIONS_BY_KEY);
+      this.details = details;
+    }
+
+    @Override
+    public Map<String, SortedSet<PluginExceptionCondition>> getConditionsByKey() {
+      Map<String, SortedSet<PluginExceptionCondition>> result = conditionsByKey;
+      if (result == null) {
+        result = fromV1(details.getConditionsByKey());
+        conditionsByKey = result;
+      }
+      return result;
+    }
+
+    /**
+     * Replaces these details with plain exception details when serializing.
+     *
+     * @return plain exception details with the same conditions
+     */
+    private Object writeReplace() {
+      return new PluginExceptionDetails(getConditionsByKey());
+    }
+  }
+}
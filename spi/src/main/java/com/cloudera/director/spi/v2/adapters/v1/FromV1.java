@@ -26,7 +26,6 @@ import com.cloudera.director.spi.v2.model.ConfigurationValidator;
 import com.cloudera.director.spi.v2.model.Configured;
 import com.cloudera.director.spi.v2.model.DisplayProperty;
 import com.cloudera.director.spi.v2.model.InstanceState;
-import com.cloudera.director.spi.v2.model.InstanceStatus;
 import com.cloudera.director.spi.v2.model.LocalizationContext;
 import com.cloudera.director.spi.v2.model.Resource;
 import com.cloudera.director.spi.v2.model.exception.PluginExceptionCondition;
@@ -37,6 +36,7 @@ import com.cloudera.director.spi.v2.provider.CredentialsProviderMetadata;
 import com.cloudera.director.spi.v2.provider.Launcher;
 import com.cloudera.director.spi.v2.provider.ResourceProvider;
 import com.cloudera.director.spi.v2.provider.ResourceProviderMetadata;
+import com.cloudera.director.spi.v2.util.ConfigurationPropertyIndex;
 
 import java.io.File;
 import java.util.AbstractList;
@@ -44,12 +44,50 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Contains functions to convert V1 objects to V2 objects.
  */
+@GenerateAdapters(direction = GenerateAdapters.Direction.FROM_V1,
+    value = {
+        ConfigurationPropertyToken.class,
+        ConfigurationPropertyValue.class,
+        Configured.class,
+        CredentialsProviderMetadata.class,
+        DisplayProperty.class,
+        InstanceState.class,
+        LocalizationContext.class,
+        Resource.Type.class
+    },
+    converters = {FromV1.class, ToV1.class, EnumAdapter.class, ExceptionsAdapter.class})
 public class FromV1 {
 
+  /**
+   * The wrappers of cloud provider metadata.
+   */
+  private static final WrapperCache<com.cloudera.director.spi.v1.provider.CloudProviderMetadata,
+      CloudProviderMetadata> CLOUD_PROVIDER_METADATA =
+      new WrapperCache<com.cloudera.director.spi.v1.provider.CloudProviderMetadata, CloudProviderMetadata>();
+
+  /**
+   * The wrappers of resource provider metadata, in both directions.
+   */
+  static final WrapperCache<com.cloudera.director.spi.v1.provider.ResourceProviderMetadata,
+      ResourceProviderMetadata> RESOURCE_PROVIDER_METADATA =
+      new WrapperCache<com.cloudera.director.spi.v1.provider.ResourceProviderMetadata, ResourceProviderMetadata>();
+
+  /**
+   * The conversion of instance states.
+   */
+  private static final Conversion<com.cloudera.director.spi.v1.model.InstanceState, InstanceState> INSTANCE_STATES =
+      new Conversion<com.cloudera.director.spi.v1.model.InstanceState, InstanceState>() {
+        @Override
+        protected InstanceState convert(com.cloudera.director.spi.v1.model.InstanceState instanceState) {
+          return fromV1(instanceState);
+        }
+      };
+
   private FromV1() {
   }
 
@@ -93,7 +131,11 @@ public class FromV1 {
 
   public static CloudProviderMetadata fromV1(
       final com.cloudera.director.spi.v1.provider.CloudProviderMetadata cloudProviderMetadata) {
-    return new CloudProviderMetadata() {
+    CloudProviderMetadata cached = CLOUD_PROVIDER_METADATA.getV2(cloudProviderMetadata);
+    if (cached != null) {
+      return cached;
+    }
+    CloudProviderMetadata wrapper = new CloudProviderMetadata() {
       @Override
       public List<ResourceProviderMetadata> getResourceProviderMetadata() {
         final List<com.cloudera.director.spi.v1.provider.ResourceProviderMetadata>
@@ -101,17 +143,7 @@ public class FromV1 {
         return new AbstractList<ResourceProviderMetadata>() {
           @Override
           public ResourceProviderMetadata get(int index) {
-            com.cloudera.director.spi.v1.provider.ResourceProviderMetadata resourceProviderMetadata =
-                resourceProviderMetadatas.get(index);
-
-            if (com.cloudera.director.spi.v1.database.DatabaseServerProviderMetadata.class.isAssignableFrom(
-                resourceProviderMetadata.getClass())) {
-              return DatabaseServerProviderAdapter.fromV1(
-                  (com.cloudera.director.spi.v1.database.DatabaseServerProviderMetadata) resourceProviderMetadata
-              );
-            } else {
-              return fromV1(resourceProviderMetadatas.get(index));
-            }
+            return fromV1(resourceProviderMetadatas.get(index));
           }
 
           @Override
@@ -173,6 +205,7 @@ public class FromV1 {
         return fromV1(cloudProviderMetadata.getProviderConfigurationValidator());
       }
     };
+    return CLOUD_PROVIDER_METADATA.putV2(cloudProviderMetadata, wrapper);
   }
 
   public static ConfigurationValidator fromV1(
@@ -181,10 +214,8 @@ public class FromV1 {
       @Override
       public void validate(String name, Configured configuration,
           PluginExceptionConditionAccumulator accumulator, LocalizationContext localizationContext) {
-        com.cloudera.director.spi.v1.model.exception.PluginExceptionConditionAccumulator accumulatorV1 =
-            toV1(accumulator);
-        providerConfigurationValidator.validate(name, toV1(configuration), accumulatorV1, toV1(localizationContext));
-        addNewConditions(accumulator, fromV1(accumulatorV1));
+        providerConfigurationValidator.validate(name, toV1(configuration), AccumulatorBridges.toV1(accumulator),
+            toV1(localizationContext));
       }
     };
   }
@@ -222,17 +253,7 @@ public class FromV1 {
 
   private static CredentialsProviderMetadata fromV1(
       final com.cloudera.director.spi.v1.provider.CredentialsProviderMetadata credentialsProviderMetadata) {
-    return new CredentialsProviderMetadata() {
-      @Override
-      public LocalizationContext getLocalizationContext(LocalizationContext cloudLocalizationContext) {
-        return fromV1(credentialsProviderMetadata.getLocalizationContext(toV1(cloudLocalizationContext)));
-      }
-
-      @Override
-      public List<ConfigurationProperty> getCredentialsConfigurationProperties() {
-        return fromV1(credentialsProviderMetadata.getCredentialsConfigurationProperties());
-      }
-    };
+    return new CredentialsProviderMetadataFromV1(credentialsProviderMetadata);
   }
 
   public static List<ConfigurationProperty> fromV1(
@@ -266,11 +287,8 @@ public class FromV1 {
       @Override
       public void validateResourceProviderConfiguration(String name, ResourceProviderMetadata resourceProviderMetadata,
           Configured configuration, PluginExceptionConditionAccumulator accumulator) {
-        com.cloudera.director.spi.v1.model.exception.PluginExceptionConditionAccumulator accumulatorV1
-            = toV1(accumulator);
         cloudProvider.validateResourceProviderConfiguration(
-            name, toV1(resourceProviderMetadata), toV1(configuration), accumulatorV1);
-        addNewConditions(accumulator, fromV1(accumulatorV1));
+            name, toV1(resourceProviderMetadata), toV1(configuration), AccumulatorBridges.toV1(accumulator));
       }
 
       @Override
@@ -296,17 +314,20 @@ public class FromV1 {
   }
 
   public static Resource.Type fromV1(final com.cloudera.director.spi.v1.model.Resource.Type resourceType) {
-    return new Resource.Type() {
-      @Override
-      public String getDescription(LocalizationContext localizationContext) {
-        return resourceType.getDescription(toV1(localizationContext));
-      }
-    };
+    return new ResourceTypeFromV1(resourceType);
   }
 
   public static ResourceProviderMetadata fromV1(
       final com.cloudera.director.spi.v1.provider.ResourceProviderMetadata resourceProviderMetadata) {
-    return new ResourceProviderMetadata() {
+    ResourceProviderMetadata cached = RESOURCE_PROVIDER_METADATA.getV2(resourceProviderMetadata);
+    if (cached != null) {
+      return cached;
+    }
+    if (resourceProviderMetadata instanceof com.cloudera.director.spi.v1.database.DatabaseServerProviderMetadata) {
+      return DatabaseServerProviderAdapter.fromV1(
+          (com.cloudera.director.spi.v1.database.DatabaseServerProviderMetadata) resourceProviderMetadata);
+    }
+    ResourceProviderMetadata wrapper = new ResourceProviderMetadata() {
       @Override
       public Class<? extends ResourceProvider<?, ?>> getProviderClass() {
         Class<? extends com.cloudera.director.spi.v1.provider.ResourceProvider<?, ?>> providerClass
@@ -343,6 +364,21 @@ public class FromV1 {
         };
       }
 
+      /**
+       * The index of the resource template configuration properties, created on first use.
+       */
+      private volatile ConfigurationPropertyIndex resourceTemplateConfigurationPropertyIndex;
+
+      @Override
+      public ConfigurationPropertyIndex getResourceTemplateConfigurationPropertyIndex() {
+        ConfigurationPropertyIndex index = resourceTemplateConfigurationPropertyIndex;
+        if (index == null) {
+          index = new ConfigurationPropertyIndex(getResourceTemplateConfigurationProperties());
+          resourceTemplateConfigurationPropertyIndex = index;
+        }
+        return index;
+      }
+
       @Override
       public List<DisplayProperty> getResourceDisplayProperties() {
         final List<com.cloudera.director.spi.v1.model.DisplayProperty> displayProperties =
@@ -407,6 +443,7 @@ public class FromV1 {
         return fromV1(resourceProviderMetadata.getProviderConfigurationValidator());
       }
     };
+    return RESOURCE_PROVIDER_METADATA.putV2(resourceProviderMetadata, wrapper);
   }
 
   public static ConfigurationProperty fromV1(
@@ -490,126 +527,34 @@ public class FromV1 {
 
   public static ConfigurationPropertyToken fromV1(
       final com.cloudera.director.spi.v1.model.ConfigurationPropertyToken configurationPropertyToken) {
-    return new ConfigurationPropertyToken() {
-      @Override
-      public ConfigurationProperty unwrap() {
-        return fromV1(configurationPropertyToken.unwrap());
-      }
-    };
+    return new ConfigurationPropertyTokenFromV1(configurationPropertyToken);
   }
 
   public static ConfigurationPropertyValue fromV1(
       final com.cloudera.director.spi.v1.model.ConfigurationPropertyValue configurationPropertyValue) {
-    return new ConfigurationPropertyValue() {
-      @Override
-      public String getValue() {
-        return configurationPropertyValue.getValue();
-      }
-
-      @Override
-      public String getLabel() {
-        return configurationPropertyValue.getLabel();
-      }
-    };
+    return new ConfigurationPropertyValueFromV1(configurationPropertyValue);
   }
 
   public static DisplayProperty fromV1(
       final com.cloudera.director.spi.v1.model.DisplayProperty displayProperty) {
-    return new DisplayProperty() {
-      @Override
-      public String getDisplayKey() {
-        return displayProperty.getDisplayKey();
-      }
-
-      @Override
-      public Type getType() {
-        return EnumAdapter.fromV1(displayProperty.getType());
-      }
-
-      @Override
-      public Widget getWidget() {
-        return EnumAdapter.fromV1(displayProperty.getWidget());
-      }
-
-      @Override
-      public String getName(LocalizationContext localizationContext) {
-        return displayProperty.getName(toV1(localizationContext));
-      }
-
-      @Override
-      public String getDescription(LocalizationContext localizationContext) {
-        return displayProperty.getDescription(toV1(localizationContext));
-      }
-
-      @Override
-      public boolean isSensitive() {
-        return displayProperty.isSensitive();
-      }
-
-      @Override
-      public boolean isHidden() {
-        return displayProperty.isHidden();
-      }
-    };
+    return new DisplayPropertyFromV1(displayProperty);
   }
   public static LocalizationContext fromV1(
       final com.cloudera.director.spi.v1.model.LocalizationContext localizationContext) {
-    return new LocalizationContext() {
-      @Override
-      public Locale getLocale() {
-        return localizationContext.getLocale();
-      }
-
-      @Override
-      public String getKeyPrefix() {
-        return localizationContext.getKeyPrefix();
-      }
-
-      @Override
-      public String localize(String defaultValue, String... keyComponents) {
-        return localizationContext.localize(defaultValue, keyComponents);
-      }
-    };
+    return new LocalizationContextFromV1(localizationContext);
   }
 
   public static Configured fromV1(final com.cloudera.director.spi.v1.model.Configured configured) {
-    return new Configured() {
-      @Override
-      public Map<String, String> getConfiguration(LocalizationContext localizationContext) {
-        return configured.getConfiguration(toV1(localizationContext));
-      }
-
-      @Override
-      public String getConfigurationValue(ConfigurationPropertyToken token,
-          LocalizationContext localizationContext) {
-        return configured.getConfigurationValue(toV1(token), toV1(localizationContext));
-      }
-
-      @Override
-      public String getConfigurationValue(ConfigurationProperty property,
-          LocalizationContext localizationContext) {
-        return configured.getConfigurationValue(toV1(property), toV1(localizationContext));
-      }
-    };
+    return new ConfiguredFromV1(configured);
   }
 
   public static InstanceState fromV1(final com.cloudera.director.spi.v1.model.InstanceState instanceState) {
-    return new InstanceState() {
-      @Override
-      public InstanceStatus getInstanceStatus() {
-        return EnumAdapter.fromV1(instanceState.getInstanceStatus());
-      }
-
-      @Override
-      public String getInstanceStateDescription(LocalizationContext localizationContext) {
-        return instanceState.getInstanceStateDescription(toV1(localizationContext));
-      }
+    return new InstanceStateFromV1(instanceState);
+  }
 
-      @Override
-      public Object unwrap() {
-        return instanceState.unwrap();
-      }
-    };
+  public static Map<String, InstanceState> fromV1(
+      final Map<String, ? extends com.cloudera.director.spi.v1.model.InstanceState> instanceStates) {
+    return INSTANCE_STATES.values(instanceStates);
   }
 
   public static PluginExceptionConditionAccumulator fromV1(
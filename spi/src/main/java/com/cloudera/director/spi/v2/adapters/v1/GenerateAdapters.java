@@ -0,0 +1,75 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.adapters.v1;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Requests the generation of adapters between V2 interfaces and their V1 counterparts, by the
+ * annotation processor of the {@code director-spi-v2-adapter-processor} project. Each adapter
+ * is generated in the package of the annotated class, and is named after the V2 interface and
+ * its enclosing types, followed by {@code FromV1} or {@code ToV1}; for example the adapter
+ * implementing {@code Resource.Type} over a V1 resource type is {@code ResourceTypeFromV1}.
+ *
+ * <p>Every method of the implemented interface must have a counterpart with the same name and
+ * corresponding parameter types in the other interface. Values whose types differ between the
+ * two interfaces are converted by the static {@code fromV1} and {@code toV1} methods of the
+ * converter classes, and lists of such values by element-converting lists. Adapters generated
+ * from V1 also translate V1 plugin exceptions with the converter classes.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+@interface GenerateAdapters {
+
+  /**
+   * The direction of generated adapters.
+   */
+  enum Direction {
+
+    /**
+     * Adapters implementing V2 interfaces by delegating to their V1 counterparts.
+     */
+    FROM_V1,
+
+    /**
+     * Adapters implementing V1 interfaces by delegating to their V2 counterparts.
+     */
+    TO_V1
+  }
+
+  /**
+   * Returns the direction of the generated adapters.
+   *
+   * @return the direction of the generated adapters
+   */
+  Direction direction();
+
+  /**
+   * Returns the V2 interfaces for which adapters are generated.
+   *
+   * @return the V2 interfaces for which adapters are generated
+   */
+  Class<?>[] value();
+
+  /**
+   * Returns the classes whose static methods convert values between V1 and V2 types.
+   *
+   * @return the classes whose static methods convert values between V1 and V2 types
+   */
+  Class<?>[] converters();
+}
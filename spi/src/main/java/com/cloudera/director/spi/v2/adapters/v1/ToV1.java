@@ -38,12 +38,23 @@ import com.cloudera.director.spi.v2.provider.ResourceProviderMetadata;
 import java.util.AbstractList;
 import java.util.Collection;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
 
 /**
  * Contains functions to convert V2 objects to V1 objects.
  */
+@GenerateAdapters(direction = GenerateAdapters.Direction.TO_V1,
+    value = {
+        ConfigurationProperty.class,
+        ConfigurationPropertyToken.class,
+        ConfigurationPropertyValue.class,
+        Configured.class,
+        DisplayProperty.class,
+        InstanceState.class,
+        LocalizationContext.class,
+        Type.class
+    },
+    converters = {FromV1.class, ToV1.class, EnumAdapter.class})
 public class ToV1 {
 
   private ToV1() {
@@ -65,7 +76,13 @@ public class ToV1 {
   public static com.cloudera.director.spi.v1.provider.ResourceProviderMetadata toV1(
       final ResourceProviderMetadata resourceProviderMetadata) {
 
-    return new com.cloudera.director.spi.v1.provider.ResourceProviderMetadata() {
+    com.cloudera.director.spi.v1.provider.ResourceProviderMetadata cached =
+        FromV1.RESOURCE_PROVIDER_METADATA.getV1(resourceProviderMetadata);
+    if (cached != null) {
+      return cached;
+    }
+    com.cloudera.director.spi.v1.provider.ResourceProviderMetadata wrapper =
+        new com.cloudera.director.spi.v1.provider.ResourceProviderMetadata() {
       @Override
       public Class<? extends com.cloudera.director.spi.v1.provider.ResourceProvider<?, ?>>
       getProviderClass() {
@@ -161,6 +178,7 @@ public class ToV1 {
         return toV1(resourceProviderMetadata.getProviderConfigurationValidator());
       }
     };
+    return FromV1.RESOURCE_PROVIDER_METADATA.putV1(resourceProviderMetadata, wrapper);
   }
 
   public static List<com.cloudera.director.spi.v1.model.ConfigurationProperty> toV1(
@@ -179,26 +197,7 @@ public class ToV1 {
   }
 
   public static com.cloudera.director.spi.v1.model.Configured toV1(final Configured configuration) {
-    return new com.cloudera.director.spi.v1.model.Configured() {
-      @Override
-      public Map<String, String> getConfiguration(
-          com.cloudera.director.spi.v1.model.LocalizationContext localizationContext) {
-        return configuration.getConfiguration(fromV1(localizationContext));
-      }
-
-      @Override
-      public String getConfigurationValue(
-          com.cloudera.director.spi.v1.model.ConfigurationPropertyToken token,
-          com.cloudera.director.spi.v1.model.LocalizationContext localizationContext) {
-        return configuration.getConfigurationValue(fromV1(token), fromV1(localizationContext));
-      }
-
-      @Override
-      public String getConfigurationValue(com.cloudera.director.spi.v1.model.ConfigurationProperty property,
-                                          com.cloudera.director.spi.v1.model.LocalizationContext localizationContext) {
-        return configuration.getConfigurationValue(fromV1(property), fromV1(localizationContext));
-      }
-    };
+    return new ConfiguredToV1(configuration);
   }
 
   private static com.cloudera.director.spi.v1.model.ConfigurationValidator toV1(
@@ -209,176 +208,35 @@ public class ToV1 {
           com.cloudera.director.spi.v1.model.Configured configuration,
           PluginExceptionConditionAccumulator accumulator,
           com.cloudera.director.spi.v1.model.LocalizationContext localizationContext) {
-
-        com.cloudera.director.spi.v2.model.exception.PluginExceptionConditionAccumulator accumulatorV2 =
-            fromV1(accumulator);
-        configurationValidator.validate(name, fromV1(configuration), accumulatorV2, fromV1(localizationContext));
-        addNewConditions(accumulator, toV1(accumulatorV2));
+        configurationValidator.validate(name, fromV1(configuration), AccumulatorBridges.fromV1(accumulator),
+            fromV1(localizationContext));
       }
     };
   }
 
   public static com.cloudera.director.spi.v1.model.ConfigurationProperty toV1(
       final ConfigurationProperty configurationProperty) {
-    return new com.cloudera.director.spi.v1.model.ConfigurationProperty() {
-      @Override
-      public String getConfigKey() {
-        return configurationProperty.getConfigKey();
-      }
-
-      @Override
-      public boolean isRequired() {
-        return configurationProperty.isRequired();
-      }
-
-      @Override
-      public String getDefaultValue() {
-        return configurationProperty.getDefaultValue();
-      }
-
-      @Override
-      public String getMissingValueErrorMessage(
-          com.cloudera.director.spi.v1.model.LocalizationContext localizationContext) {
-        return configurationProperty.getMissingValueErrorMessage(fromV1(localizationContext));
-      }
-
-      @Override
-      public List<com.cloudera.director.spi.v1.model.ConfigurationPropertyValue> getValidValues(
-          com.cloudera.director.spi.v1.model.LocalizationContext localizationContext) {
-        final List<ConfigurationPropertyValue> validValues =
-            configurationProperty.getValidValues(fromV1(localizationContext));
-        return new AbstractList<com.cloudera.director.spi.v1.model.ConfigurationPropertyValue>() {
-          @Override
-          public com.cloudera.director.spi.v1.model.ConfigurationPropertyValue get(int index) {
-            return toV1(validValues.get(index));
-          }
-
-          @Override
-          public int size() {
-            return validValues.size();
-          }
-        };
-      }
-
-      @Override
-      public Type getType() {
-        return EnumAdapter.toV1(configurationProperty.getType());
-      }
-
-      @Override
-      public Widget getWidget() {
-        return EnumAdapter.toV1(configurationProperty.getWidget());
-      }
-
-      @Override
-      public String getName(
-          com.cloudera.director.spi.v1.model.LocalizationContext localizationContext) {
-        return configurationProperty.getName(fromV1(localizationContext));
-      }
-
-      @Override
-      public String getDescription(
-          com.cloudera.director.spi.v1.model.LocalizationContext localizationContext) {
-        return configurationProperty.getDescription(fromV1(localizationContext));
-      }
-
-      @Override
-      public boolean isSensitive() {
-        return configurationProperty.isSensitive();
-      }
-
-      @Override
-      public boolean isHidden() {
-        return configurationProperty.isHidden();
-      }
-    };
+    return new ConfigurationPropertyToV1(configurationProperty);
   }
 
   public static com.cloudera.director.spi.v1.model.ConfigurationPropertyValue toV1(
       final ConfigurationPropertyValue configurationPropertyValue) {
-    return new com.cloudera.director.spi.v1.model.ConfigurationPropertyValue() {
-      @Override
-      public String getValue() {
-        return configurationPropertyValue.getValue();
-      }
-
-      @Override
-      public String getLabel() {
-        return configurationPropertyValue.getLabel();
-      }
-    };
+    return new ConfigurationPropertyValueToV1(configurationPropertyValue);
   }
 
   public static com.cloudera.director.spi.v1.model.DisplayProperty toV1(
       final DisplayProperty displayProperty) {
-    return new com.cloudera.director.spi.v1.model.DisplayProperty() {
-      @Override
-      public String getDisplayKey() {
-        return displayProperty.getDisplayKey();
-      }
-
-      @Override
-      public Type getType() {
-        return EnumAdapter.toV1(displayProperty.getType());
-      }
-
-      @Override
-      public Widget getWidget() {
-        return EnumAdapter.toV1(displayProperty.getWidget());
-      }
-
-      @Override
-      public String getName(
-          com.cloudera.director.spi.v1.model.LocalizationContext localizationContext) {
-        return displayProperty.getName(fromV1(localizationContext));
-      }
-
-      @Override
-      public String getDescription(
-          com.cloudera.director.spi.v1.model.LocalizationContext localizationContext) {
-        return displayProperty.getDescription(fromV1(localizationContext));
-      }
-
-      @Override
-      public boolean isSensitive() {
-        return displayProperty.isSensitive();
-      }
-
-      @Override
-      public boolean isHidden() {
-        return displayProperty.isHidden();
-      }
-    };
+    return new DisplayPropertyToV1(displayProperty);
   }
 
   public static com.cloudera.director.spi.v1.model.LocalizationContext toV1(
       final LocalizationContext localizationContext) {
-    return new com.cloudera.director.spi.v1.model.LocalizationContext() {
-      @Override
-      public Locale getLocale() {
-        return localizationContext.getLocale();
-      }
-
-      @Override
-      public String getKeyPrefix() {
-        return localizationContext.getKeyPrefix();
-      }
-
-      @Override
-      public String localize(String defaultValue, String... keyComponents) {
-        return localizationContext.localize(defaultValue, keyComponents);
-      }
-    };
+    return new LocalizationContextToV1(localizationContext);
   }
 
   public static com.cloudera.director.spi.v1.model.ConfigurationPropertyToken toV1(
       final ConfigurationPropertyToken configurationPropertyToken) {
-    return new com.cloudera.director.spi.v1.model.ConfigurationPropertyToken() {
-      @Override
-      public com.cloudera.director.spi.v1.model.ConfigurationProperty unwrap() {
-        return toV1(configurationPropertyToken.unwrap());
-      }
-    };
+    return new ConfigurationPropertyTokenToV1(configurationPropertyToken);
   }
 
   public static PluginExceptionConditionAccumulator toV1(
@@ -408,6 +266,12 @@ public class ToV1 {
   }
 
   public static com.cloudera.director.spi.v1.model.ResourceTemplate toV1(final ResourceTemplate resourceTemplate) {
+    if (resourceTemplate instanceof ComputeProviderAdapter.ComputeInstanceTemplateWrapper) {
+      return ((ComputeProviderAdapter.ComputeInstanceTemplateWrapper) resourceTemplate).getDelegate();
+    }
+    if (resourceTemplate instanceof DatabaseServerProviderAdapter.DatabaseServerInstanceTemplateWrapper) {
+      return ((DatabaseServerProviderAdapter.DatabaseServerInstanceTemplateWrapper) resourceTemplate).getDelegate();
+    }
     return new com.cloudera.director.spi.v1.model.ResourceTemplate() {
       @Override
       public String getName() {
@@ -445,32 +309,11 @@ public class ToV1 {
   }
 
   public static Resource.Type toV1(final Type type) {
-    return new Resource.Type() {
-      @Override
-      public String getDescription(com.cloudera.director.spi.v1.model.LocalizationContext localizationContext) {
-        return type.getDescription(fromV1(localizationContext));
-      }
-    };
+    return new ResourceTypeToV1(type);
   }
 
   public static com.cloudera.director.spi.v1.model.InstanceState toV1(final InstanceState instanceState) {
-    return new com.cloudera.director.spi.v1.model.InstanceState() {
-      @Override
-      public com.cloudera.director.spi.v1.model.InstanceStatus getInstanceStatus() {
-        return EnumAdapter.toV1(instanceState.getInstanceStatus());
-      }
-
-      @Override
-      public String getInstanceStateDescription(
-          com.cloudera.director.spi.v1.model.LocalizationContext localizationContext) {
-        return instanceState.getInstanceStateDescription(fromV1(localizationContext));
-      }
-
-      @Override
-      public Object unwrap() {
-        return instanceState.unwrap();
-      }
-    };
+    return new InstanceStateToV1(instanceState);
   }
 
   public static void addNewConditions(PluginExceptionConditionAccumulator accumulator,
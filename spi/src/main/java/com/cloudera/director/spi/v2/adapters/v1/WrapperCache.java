@@ -0,0 +1,285 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.adapters.v1;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Associates V1 objects with the V2 objects that wrap them, or that they wrap, so that adapting
+ * the same object twice yields the same wrapper, and adapting a wrapper back yields the original
+ * object. Objects are compared by identity, and both sides of each association are held weakly,
+ * so the cache never keeps a plugin object or a wrapper alive.
+ *
+ * <p>Since a wrapper holds on to the object it wraps, an association lasts as long as someone
+ * holds on to the wrapper, which is as long as the identity of the wrapper can be observed.
+ *
+ * @param <U> the type of the V1 objects
+ * @param <V> the type of the V2 objects
+ */
+final class WrapperCache<U, V> {
+
+  /**
+   * The V2 objects associated with V1 objects.
+   */
+  private final WeakIdentityMap<U, V> v2ByV1 = new WeakIdentityMap<U, V>();
+
+  /**
+   * The V1 objects associated with V2 objects.
+   */
+  private final WeakIdentityMap<V, U> v1ByV2 = new WeakIdentityMap<V, U>();
+
+  /**
+   * Returns the V2 object associated with the specified V1 object, or {@code null} if there is
+   * none.
+   *
+   * @param v1 the V1 object
+   * @return the V2 object associated with the specified V1 object, or {@code null} if there is
+   * none
+   */
+  V getV2(U v1) {
+    return v2ByV1.get(v1);
+  }
+
+  /**
+   * Returns the V1 object associated with the specified V2 object, or {@code null} if there is
+   * none.
+   *
+   * @param v2 the V2 object
+   * @return the V1 object associated with the specified V2 object, or {@code null} if there is
+   * none
+   */
+  U getV1(V v2) {
+    return v1ByV2.get(v2);
+  }
+
+  /**
+   * Associates a V1 object with the V2 object that wraps it, unless the V1 object is already
+   * associated with a V2 object. A {@code null} V1 object is never associated.
+   *
+   * @param v1 the V1 object
+   * @param v2 the V2 object that wraps it
+   * @return the V2 object now associated with the V1 object
+   */
+  V putV2(U v1, V v2) {
+    if (v1 == null) {
+      return v2;
+    }
+    V existing = v2ByV1.putIfAbsent(v1, v2);
+    if (existing != null) {
+      return existing;
+    }
+    v1ByV2.putIfAbsent(v2, v1);
+    return v2;
+  }
+
+  /**
+   * Associates a V2 object with the V1 object that wraps it, unless the V2 object is already
+   * associated with a V1 object. A {@code null} V2 object is never associated.
+   *
+   * @param v2 the V2 object
+   * @param v1 the V1 object that wraps it
+   * @return the V1 object now associated with the V2 object
+   */
+  U putV1(V v2, U v1) {
+    if (v2 == null) {
+      return v1;
+    }
+    U existing = v1ByV2.putIfAbsent(v2, v1);
+    if (existing != null) {
+      return existing;
+    }
+    v2ByV1.putIfAbsent(v1, v2);
+    return v1;
+  }
+
+  /**
+   * A concurrent map which compares keys by identity, and holds both keys and values weakly.
+   * Entries whose key or value has been reclaimed are removed on subsequent writes.
+   *
+   * @param <K> the type of the keys
+   * @param <T> the type of the values
+   */
+  private static final class WeakIdentityMap<K, T> {
+
+    /**
+     * The entries.
+     */
+    private final ConcurrentMap<Object, ValueReference<T>> entries =
+        new ConcurrentHashMap<Object, ValueReference<T>>();
+
+    /**
+     * The queue on which reclaimed keys and values are enqueued.
+     */
+    private final ReferenceQueue<Object> queue = new ReferenceQueue<Object>();
+
+    /**
+     * Returns the value associated with the specified key, or {@code null} if there is none.
+     *
+     * @param key the key
+     * @return the value associated with the specified key, or {@code null} if there is none
+     */
+    T get(K key) {
+      ValueReference<T> value = entries.get(new LookupKey(key));
+      return (value == null) ? null : value.get();
+    }
+
+    /**
+     * Associates the specified value with the specified key, unless the key is already
+     * associated with a value.
+     *
+     * @param key   the key
+     * @param value the value
+     * @return the existing value, or {@code null} if the specified value was associated
+     */
+    T putIfAbsent(K key, T value) {
+      expungeStaleEntries();
+      KeyReference keyReference = new KeyReference(key, queue);
+      ValueReference<T> valueReference = new ValueReference<T>(value, keyReference, queue);
+      while (true) {
+        ValueReference<T> existing = entries.putIfAbsent(keyReference, valueReference);
+        if (existing == null) {
+          return null;
+        }
+        T existingValue = existing.get();
+        if (existingValue != null) {
+          return existingValue;
+        }
+        if (entries.replace(keyReference, existing, valueReference)) {
+          return null;
+        }
+      }
+    }
+
+    /**
+     * Removes the entries whose key or value has been reclaimed.
+     */
+    private void expungeStaleEntries() {
+      Reference<?> reference;
+      while ((reference = queue.poll()) != null) {
+        if (reference instanceof ValueReference) {
+          ValueReference<?> valueReference = (ValueReference<?>) reference;
+          entries.remove(valueReference.keyReference, valueReference);
+        } else {
+          entries.remove(reference);
+        }
+      }
+    }
+  }
+
+  /**
+   * A weak reference to a key, which is equal to any other key reference or lookup key for the
+   * same referent.
+   */
+  private static final class KeyReference extends WeakReference<Object> {
+
+    /**
+     * The identity hash code of the referent, kept since the referent may be reclaimed.
+     */
+    private final int hashCode;
+
+    /**
+     * Creates a key reference.
+     *
+     * @param referent the key
+     * @param queue    the queue on which the reference is enqueued once the key is reclaimed
+     */
+    KeyReference(Object referent, ReferenceQueue<Object> queue) {
+      super(referent, queue);
+      this.hashCode = System.identityHashCode(referent);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      Object referent = get();
+      if (referent == null) {
+        return false;
+      }
+      if (o instanceof KeyReference) {
+        return ((KeyReference) o).get() == referent;
+      }
+      return (o instanceof LookupKey) && ((LookupKey) o).referent == referent;
+    }
+  }
+
+  /**
+   * A strong reference to a key, used to look up entries without creating a weak reference.
+   */
+  private static final class LookupKey {
+
+    /**
+     * The key.
+     */
+    private final Object referent;
+
+    /**
+     * Creates a lookup key.
+     *
+     * @param referent the key
+     */
+    LookupKey(Object referent) {
+      this.referent = referent;
+    }
+
+    @Override
+    public int hashCode() {
+      return System.identityHashCode(referent);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return (o instanceof KeyReference) ? o.equals(this)
+          : (o instanceof LookupKey) && ((LookupKey) o).referent == referent;
+    }
+  }
+
+  /**
+   * A weak reference to a value, which remembers the reference to its key so that its entry can
+   * be removed once the value is reclaimed.
+   *
+   * @param <T> the type of the value
+   */
+  private static final class ValueReference<T> extends WeakReference<T> {
+
+    /**
+     * The reference to the key of the entry.
+     */
+    private final KeyReference keyReference;
+
+    /**
+     * Creates a value reference.
+     *
+     * @param referent     the value
+     * @param keyReference the reference to the key of the entry
+     * @param queue        the queue on which the reference is enqueued once the value is
+     *                     reclaimed
+     */
+    ValueReference(T referent, KeyReference keyReference, ReferenceQueue<Object> queue) {
+      super(referent, queue);
+      this.keyReference = keyReference;
+    }
+  }
+}
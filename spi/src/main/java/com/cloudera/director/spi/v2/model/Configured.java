@@ -0,0 +1,109 @@
+// (c) Copyright 2015 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.model;
+
+import java.util.Map;
+
+/**
+ * Represents a configured object that can report its configuration parameter values.
+ */
+public interface Configured {
+
+  /**
+   * Returns the unmodifiable map of configuration parameter values.
+   *
+   * @param localizationContext the localization context
+   * @return the unmodifiable map of configuration parameter values
+   */
+  Map<String, String> getConfiguration(LocalizationContext localizationContext);
+
+  /**
+   * Returns the value of the specified configuration property, or the default value if the value
+   * is not present and the configuration property is optional.
+   *
+   * @param token               the configuration property token
+   * @param localizationContext the localization context
+   * @return the value of the specified configuration property, or the default value if the value
+   * is not present and the configuration property is optional
+   * @throws IllegalArgumentException if the specified configuration property is not present and
+   *                                  required
+   */
+  String getConfigurationValue(ConfigurationPropertyToken token,
+      LocalizationContext localizationContext);
+
+  /**
+   * Returns the value of the specified configuration property, or the default value if the value
+   * is not present and the configuration property is optional.
+   *
+   * @param property            the configuration property
+   * @param localizationContext the localization context
+   * @return the value of the specified configuration property, or the default value if the value
+   * is not present and the configuration property is optional
+   * @throws IllegalArgumentException if the specified configuration property is not present and
+   *                                  required
+   */
+  String getConfigurationValue(ConfigurationProperty property,
+      LocalizationContext localizationContext);
+
+  /**
+   * Returns the value of the specified configuration property, the default value if the value
+   * is not present and the configuration property is optional, or {@code null} if the value is
+   * not present and the configuration property is required. Unlike
+   * {@link #getConfigurationValue(ConfigurationPropertyToken, LocalizationContext)}, a missing
+   * required value does not cause an exception to be thrown.
+   *
+   * @param token               the configuration property token
+   * @param localizationContext the localization context
+   * @return the value of the specified configuration property, the default value if the value
+   * is not present and the configuration property is optional, or {@code null} if the value is
+   * not present and the configuration property is required
+   */
+  default String findConfigurationValue(ConfigurationPropertyToken token,
+      LocalizationContext localizationContext) {
+    return findConfigurationValue(token.unwrap(), localizationContext);
+  }
+
+  /**
+   * Returns the value of the specified configuration property, the default value if the value
+   * is not present and the configuration property is optional, or {@code null} if the value is
+   * not present and the configuration property is required. Unlike
+   * {@link #getConfigurationValue(ConfigurationProperty, LocalizationContext)}, a missing
+   * required value does not cause an exception to be thrown.
+   *
+   * <p>The default implementation calls
+   * {@link #getConfigurationValue(ConfigurationProperty, LocalizationContext)}. For a required
+   * configuration property, it returns {@code null} if that call throws an
+   * {@code IllegalArgumentException}; for an optional configuration property, any exception is
+   * propagated, since it cannot be caused by a missing value. Implementations should override it
+   * to look up the value without relying on an exception.
+   *
+   * @param property            the configuration property
+   * @param localizationContext the localization context
+   * @return the value of the specified configuration property, the default value if the value
+   * is not present and the configuration property is optional, or {@code null} if the value is
+   * not present and the configuration property is required
+   */
+  default String findConfigurationValue(ConfigurationProperty property,
+      LocalizationContext localizationContext) {
+    if (!property.isRequired()) {
+      return getConfigurationValue(property, localizationContext);
+    }
+    try {
+      return getConfigurationValue(property, localizationContext);
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+}
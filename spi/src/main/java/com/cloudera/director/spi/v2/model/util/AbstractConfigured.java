@@ -58,4 +58,10 @@ public abstract class AbstractConfigured implements Configured {
       LocalizationContext localizationContext) {
     return configuration.getConfigurationValue(property, localizationContext);
   }
+
+  @Override
+  public String findConfigurationValue(ConfigurationProperty property,
+      LocalizationContext localizationContext) {
+    return configuration.findConfigurationValue(property, localizationContext);
+  }
 }
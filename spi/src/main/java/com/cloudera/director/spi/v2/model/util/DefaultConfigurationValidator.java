@@ -26,7 +26,9 @@ import java.util.List;
 
 /**
  * Default configuration property validator implementation that validates a configuration
- * by attempting to retrieve each of a list of configuration properties.
+ * by attempting to retrieve each of a list of configuration properties. Missing required values
+ * are detected through {@link Configured#findConfigurationValue(ConfigurationProperty,
+ * LocalizationContext)}, so that they do not cause exceptions to be thrown.
  */
 public class DefaultConfigurationValidator implements ConfigurationValidator {
 
@@ -50,7 +52,12 @@ public class DefaultConfigurationValidator implements ConfigurationValidator {
       LocalizationContext localizationContext) {
     for (ConfigurationProperty configurationProperty : configurationProperties) {
       try {
-        configuration.getConfigurationValue(configurationProperty, localizationContext);
+        String value =
+            configuration.findConfigurationValue(configurationProperty, localizationContext);
+        if (value == null && configurationProperty.isRequired()) {
+          accumulator.addError(configurationProperty.getConfigKey(),
+              configurationProperty.getMissingValueErrorMessage(localizationContext));
+        }
       } catch (Exception e) {
         accumulator.addError(configurationProperty.getConfigKey(), e.getMessage());
       }
@@ -0,0 +1,259 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.model.util;
+
+import static com.cloudera.director.spi.v2.util.Preconditions.checkNotNull;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Compact immutable map from strings to strings, preserving insertion order. The entries are
+ * stored in two parallel arrays, which are scanned for small maps and indexed by an
+ * open-addressing hash table of entry positions for larger maps. Being immutable, instances
+ * can be shared by any number of configurations and templates without copying.
+ */
+final class ImmutableStringMap extends AbstractMap<String, String> {
+
+  /**
+   * The empty map.
+   */
+  static final ImmutableStringMap EMPTY = new ImmutableStringMap(new String[0], new String[0]);
+
+  /**
+   * The largest map whose keys are scanned instead of being indexed.
+   */
+  private static final int MAX_SCANNED_SIZE = 8;
+
+  /**
+   * The keys, in insertion order.
+   */
+  private final String[] keys;
+
+  /**
+   * The values, in the same order as the keys.
+   */
+  private final String[] values;
+
+  /**
+   * The positions of the entries plus one, by key hash, or {@code null} if the keys are scanned.
+   */
+  private final int[] slots;
+
+  /**
+   * The hash code of this map, computed on construction since instances are used as keys of
+   * canonicalization caches.
+   */
+  private final int hashCode;
+
+  /**
+   * Returns an immutable copy of the specified map, or the map itself if it is already an
+   * immutable string map.
+   *
+   * @param map the map
+   * @return an immutable copy of the specified map
+   * @throws NullPointerException if the map contains a {@code null} key
+   */
+  static ImmutableStringMap copyOf(Map<String, String> map) {
+    if (map instanceof ImmutableStringMap) {
+      return (ImmutableStringMap) map;
+    }
+    int size = map.size();
+    if (size == 0) {
+      return EMPTY;
+    }
+    String[] keys = new String[size];
+    String[] values = new String[size];
+    int i = 0;
+    for (Map.Entry<String, String> entry : map.entrySet()) {
+      keys[i] = checkNotNull(entry.getKey(), "configuration key is null");
+      values[i] = entry.getValue();
+      i++;
+    }
+    return new ImmutableStringMap(keys, values);
+  }
+
+  /**
+   * Creates an immutable map with the specified entries. The arrays are not copied, and must not
+   * be modified afterwards.
+   *
+   * @param keys   the distinct keys, in insertion order
+   * @param values the values, in the same order as the keys
+   */
+  ImmutableStringMap(String[] keys, String[] values) {
+    this.keys = keys;
+    this.values = values;
+    int hashCode = 0;
+    for (int i = 0; i < keys.length; i++) {
+      hashCode += keys[i].hashCode() ^ ((values[i] == null) ? 0 : values[i].hashCode());
+    }
+    this.hashCode = hashCode;
+    if (keys.length <= MAX_SCANNED_SIZE) {
+      this.slots = null;
+    } else {
+      int[] slots = new int[Integer.highestOneBit(keys.length * 2 - 1) << 1];
+      int mask = slots.length - 1;
+      for (int i = 0; i < keys.length; i++) {
+        int slot = keys[i].hashCode() & mask;
+        while (slots[slot] != 0) {
+          slot = (slot + 1) & mask;
+        }
+        slots[slot] = i + 1;
+      }
+      this.slots = slots;
+    }
+  }
+
+  /**
+   * Returns the keys, in insertion order. The array must not be modified.
+   *
+   * @return the keys, in insertion order
+   */
+  String[] getKeyArray() {
+    return keys;
+  }
+
+  /**
+   * Returns the values, in the same order as the keys. The array must not be modified.
+   *
+   * @return the values, in the same order as the keys
+   */
+  String[] getValueArray() {
+    return values;
+  }
+
+  @Override
+  public int size() {
+    return keys.length;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return indexOf(key) >= 0;
+  }
+
+  @Override
+  public String get(Object key) {
+    int index = indexOf(key);
+    return (index < 0) ? null : values[index];
+  }
+
+  @Override
+  public Set<Entry<String, String>> entrySet() {
+    return new AbstractSet<Entry<String, String>>() {
+      @Override
+      public Iterator<Entry<String, String>> iterator() {
+        return new Iterator<Entry<String, String>>() {
+          private int index;
+
+          @Override
+          public boolean hasNext() {
+            return index < keys.length;
+          }
+
+          @Override
+          public Entry<String, String> next() {
+            if (index >= keys.length) {
+              throw new NoSuchElementException();
+            }
+            Entry<String, String> entry =
+                new SimpleImmutableEntry<String, String>(keys[index], values[index]);
+            index++;
+            return entry;
+          }
+
+          @Override
+          public void remove() {
+            throw new UnsupportedOperationException();
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return keys.length;
+      }
+    };
+  }
+
+  @Override
+  public int hashCode() {
+    return hashCode;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o == this) {
+      return true;
+    }
+    if (o instanceof ImmutableStringMap) {
+      ImmutableStringMap that = (ImmutableStringMap) o;
+      if (hashCode != that.hashCode || keys.length != that.keys.length) {
+        return false;
+      }
+      for (int i = 0; i < keys.length; i++) {
+        int index = that.indexOf(keys[i]);
+        if (index < 0 || !equal(values[i], that.values[index])) {
+          return false;
+        }
+      }
+      return true;
+    }
+    return super.equals(o);
+  }
+
+  /**
+   * Returns the position of the specified key, or -1 if it is absent.
+   *
+   * @param key the key
+   * @return the position of the specified key, or -1 if it is absent
+   */
+  private int indexOf(Object key) {
+    if (key == null) {
+      return -1;
+    }
+    if (slots == null) {
+      for (int i = 0; i < keys.length; i++) {
+        if (key.equals(keys[i])) {
+          return i;
+        }
+      }
+      return -1;
+    }
+    int mask = slots.length - 1;
+    for (int slot = key.hashCode() & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+      int index = slots[slot] - 1;
+      if (key.equals(keys[index])) {
+        return index;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Returns whether the specified values are equal, or both {@code null}.
+   *
+   * @param first  the first value
+   * @param second the second value
+   * @return whether the specified values are equal
+   */
+  private static boolean equal(String first, String second) {
+    return (first == null) ? (second == null) : first.equals(second);
+  }
+}
@@ -0,0 +1,246 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.model.util;
+
+import static com.cloudera.director.spi.v2.util.Preconditions.checkNotNull;
+
+import com.cloudera.director.spi.v2.model.ConfigurationProperty;
+import com.cloudera.director.spi.v2.model.ConfigurationPropertyToken;
+import com.cloudera.director.spi.v2.model.Configured;
+import com.cloudera.director.spi.v2.model.LocalizationContext;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Configurable object implementation that stores the values of a fixed list of configuration
+ * properties, such as the result of {@code ConfigurationPropertiesUtil.merge}, in an array
+ * indexed by property ordinal. The ordinals are assigned once by a {@link Layout}, which is
+ * shared by every configuration of the same properties, so that looking up a value by token or
+ * property reads the array instead of hashing the configuration key.
+ *
+ * <p>Values whose keys are not in the layout are retained, and are reported by
+ * {@link #getConfiguration(LocalizationContext)} and looked up by key like in
+ * {@link SimpleConfiguration}.
+ */
+public class IndexedConfiguration implements Configured {
+
+  /**
+   * The layout.
+   */
+  private final Layout layout;
+
+  /**
+   * The configuration values, by property ordinal.
+   */
+  private final String[] values;
+
+  /**
+   * Whether a value is present, by property ordinal.
+   */
+  private final boolean[] present;
+
+  /**
+   * The map of configuration values.
+   */
+  private final Map<String, String> configuration;
+
+  /**
+   * Creates an indexed configuration with the specified layout and configuration map.
+   *
+   * @param layout        the layout
+   * @param configuration the map of configuration values
+   */
+  public IndexedConfiguration(Layout layout, Map<String, String> configuration) {
+    this.layout = checkNotNull(layout, "layout is null");
+    this.configuration = Collections.unmodifiableMap(new HashMap<String, String>(
+        checkNotNull(configuration, "configuration is null")));
+    int size = layout.size();
+    this.values = new String[size];
+    this.present = new boolean[size];
+    for (Map.Entry<String, String> entry : this.configuration.entrySet()) {
+      int ordinal = layout.getOrdinal(entry.getKey());
+      if (ordinal >= 0) {
+        values[ordinal] = entry.getValue();
+        present[ordinal] = true;
+      }
+    }
+  }
+
+  /**
+   * Returns the layout.
+   *
+   * @return the layout
+   */
+  public Layout getLayout() {
+    return layout;
+  }
+
+  @Override
+  public Map<String, String> getConfiguration(LocalizationContext localizationContext) {
+    return configuration;
+  }
+
+  @Override
+  public String getConfigurationValue(ConfigurationPropertyToken token,
+      LocalizationContext localizationContext) {
+    return getConfigurationValue(token.unwrap(), localizationContext);
+  }
+
+  @Override
+  public String getConfigurationValue(ConfigurationProperty property,
+      LocalizationContext localizationContext) {
+    return lookup(property, localizationContext, true);
+  }
+
+  @Override
+  public String findConfigurationValue(ConfigurationProperty property,
+      LocalizationContext localizationContext) {
+    return lookup(property, localizationContext, false);
+  }
+
+  /**
+   * Returns the value of the specified configuration property, or its default value if it is
+   * optional and has no value.
+   *
+   * @param property            the configuration property
+   * @param localizationContext the localization context
+   * @param rejectMissing       whether a missing value of a required property is rejected,
+   *                            rather than returned as {@code null}
+   * @return the value of the configuration property
+   * @throws IllegalArgumentException if the property is required, has no value, and missing
+   *                                  values are rejected
+   */
+  private String lookup(ConfigurationProperty property, LocalizationContext localizationContext,
+      boolean rejectMissing) {
+    int ordinal = layout.getOrdinal(property);
+    if (ordinal >= 0) {
+      if (present[ordinal]) {
+        return values[ordinal];
+      }
+    } else {
+      String configKey = property.getConfigKey();
+      if (configuration.containsKey(configKey)) {
+        return configuration.get(configKey);
+      }
+    }
+    if (!property.isRequired()) {
+      return property.getDefaultValue();
+    }
+    if (rejectMissing) {
+      throw new IllegalArgumentException(property.getMissingValueErrorMessage(localizationContext));
+    }
+    return null;
+  }
+
+  /**
+   * Assigns dense ordinals to a list of configuration properties with distinct configuration
+   * keys. Layouts are immutable, and are meant to be created once per list of properties and
+   * shared by every indexed configuration of those properties.
+   */
+  public static final class Layout {
+
+    /**
+     * The configuration properties, by ordinal.
+     */
+    private final List<ConfigurationProperty> properties;
+
+    /**
+     * The ordinals, by configuration property identity.
+     */
+    private final Map<ConfigurationProperty, Integer> ordinalsByProperty;
+
+    /**
+     * The ordinals, by configuration key.
+     */
+    private final Map<String, Integer> ordinalsByKey;
+
+    /**
+     * Creates a layout assigning ordinals to the specified configuration properties, in order.
+     *
+     * @param properties the configuration properties
+     * @throws IllegalArgumentException if two configuration properties have the same key
+     */
+    public Layout(List<? extends ConfigurationProperty> properties) {
+      checkNotNull(properties, "properties is null");
+      int size = properties.size();
+      List<ConfigurationProperty> propertyList = new ArrayList<ConfigurationProperty>(size);
+      Map<ConfigurationProperty, Integer> ordinalsByProperty =
+          new IdentityHashMap<ConfigurationProperty, Integer>(size);
+      Map<String, Integer> ordinalsByKey = new HashMap<String, Integer>((int) (size / 0.75f) + 1);
+      for (ConfigurationProperty property : properties) {
+        Integer ordinal = propertyList.size();
+        String configKey = property.getConfigKey();
+        if (ordinalsByKey.put(configKey, ordinal) != null) {
+          throw new IllegalArgumentException("Duplicate configuration key: " + configKey);
+        }
+        ordinalsByProperty.put(property, ordinal);
+        propertyList.add(property);
+      }
+      this.properties = Collections.unmodifiableList(propertyList);
+      this.ordinalsByProperty = ordinalsByProperty;
+      this.ordinalsByKey = ordinalsByKey;
+    }
+
+    /**
+     * Returns the configuration properties, by ordinal.
+     *
+     * @return the configuration properties, by ordinal
+     */
+    public List<ConfigurationProperty> getProperties() {
+      return properties;
+    }
+
+    /**
+     * Returns the number of configuration properties.
+     *
+     * @return the number of configuration properties
+     */
+    public int size() {
+      return properties.size();
+    }
+
+    /**
+     * Returns the ordinal of the specified configuration property, or -1 if it is not in this
+     * layout. A property which is not itself in this layout, but has the same key as one that
+     * is, gets the ordinal of that property.
+     *
+     * @param property the configuration property
+     * @return the ordinal of the specified configuration property, or -1 if it is not in this
+     * layout
+     */
+    public int getOrdinal(ConfigurationProperty property) {
+      Integer ordinal = ordinalsByProperty.get(property);
+      return (ordinal == null) ? getOrdinal(property.getConfigKey()) : ordinal;
+    }
+
+    /**
+     * Returns the ordinal of the configuration property with the specified key, or -1 if it is
+     * not in this layout.
+     *
+     * @param configKey the configuration key
+     * @return the ordinal of the configuration property with the specified key, or -1 if it is
+     * not in this layout
+     */
+    public int getOrdinal(String configKey) {
+      Integer ordinal = ordinalsByKey.get(configKey);
+      return (ordinal == null) ? -1 : ordinal;
+    }
+  }
+}
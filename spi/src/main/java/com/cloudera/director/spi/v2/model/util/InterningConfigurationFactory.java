@@ -0,0 +1,324 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.model.util;
+
+import static com.cloudera.director.spi.v2.util.Preconditions.checkNotNull;
+
+import com.cloudera.director.spi.v2.model.Configured;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Creates configurations and tag maps that share memory with every equal configuration or tag
+ * map created by the same factory. Keys and values are deduplicated through a pool of strings,
+ * and equal maps are canonicalized to a single compact immutable map. Configurations are
+ * canonicalized regardless of the order of their entries, since their values are only looked
+ * up by key. Other maps, such as tags, are only shared with maps holding the same entries in
+ * the same order, so that interning never changes their iteration order. The pool and the
+ * canonical maps are weakly referenced, so they are reclaimed once no configuration or template
+ * uses them anymore.
+ *
+ * <p>The maps returned by a factory are recognized by {@link SimpleConfiguration} and
+ * {@link SimpleResourceTemplate}, which use them as they are instead of copying them.
+ *
+ * <p>Factories are thread-safe.
+ */
+public class InterningConfigurationFactory {
+
+  /**
+   * The canonical strings.
+   */
+  private final Map<String, WeakReference<String>> strings =
+      new WeakHashMap<String, WeakReference<String>>();
+
+  /**
+   * The canonical configuration maps, compared regardless of entry order.
+   */
+  private final Map<ImmutableStringMap, WeakReference<ImmutableStringMap>> configurations =
+      new WeakHashMap<ImmutableStringMap, WeakReference<ImmutableStringMap>>();
+
+  /**
+   * The canonical maps, compared in entry order.
+   */
+  private final OrderedMapCache maps = new OrderedMapCache();
+
+  /**
+   * Returns a configuration with the specified configuration values, sharing its map with every
+   * equal configuration created by this factory.
+   *
+   * @param configuration the map of configuration values
+   * @return a configuration with the specified configuration values
+   */
+  public Configured createConfiguration(Map<String, String> configuration) {
+    checkNotNull(configuration, "configuration is null");
+    if (configuration.isEmpty()) {
+      return new SimpleConfiguration(ImmutableStringMap.EMPTY);
+    }
+    ImmutableStringMap copy = ImmutableStringMap.copyOf(configuration);
+    synchronized (configurations) {
+      ImmutableStringMap canonical = get(configurations, copy);
+      if (canonical != null) {
+        return new SimpleConfiguration(canonical);
+      }
+    }
+    ImmutableStringMap interned = internEntries(copy);
+    synchronized (configurations) {
+      ImmutableStringMap canonical = get(configurations, interned);
+      if (canonical == null) {
+        configurations.put(interned, new WeakReference<ImmutableStringMap>(interned));
+        canonical = interned;
+      }
+      return new SimpleConfiguration(canonical);
+    }
+  }
+
+  /**
+   * Returns the canonical immutable map with the same entries as the specified map, in the same
+   * order, with canonical keys and values.
+   *
+   * @param map the map, such as the tags of a template
+   * @return the canonical immutable map equal to the specified map, with the same iteration
+   * order
+   * @throws NullPointerException if the map is {@code null} or contains a {@code null} key
+   */
+  public Map<String, String> intern(Map<String, String> map) {
+    checkNotNull(map, "map is null");
+    if (map.isEmpty()) {
+      return ImmutableStringMap.EMPTY;
+    }
+    ImmutableStringMap copy = ImmutableStringMap.copyOf(map);
+    synchronized (maps) {
+      ImmutableStringMap canonical = maps.get(copy);
+      if (canonical != null) {
+        return canonical;
+      }
+    }
+    ImmutableStringMap interned = internEntries(copy);
+    synchronized (maps) {
+      ImmutableStringMap canonical = maps.get(interned);
+      if (canonical != null) {
+        return canonical;
+      }
+      maps.put(interned);
+      return interned;
+    }
+  }
+
+  /**
+   * Returns a map with the same entries as the specified map, in the same order, with
+   * canonical keys and values.
+   *
+   * @param map the map
+   * @return a map with canonical keys and values
+   */
+  private ImmutableStringMap internEntries(ImmutableStringMap map) {
+    String[] keys = map.getKeyArray();
+    String[] values = map.getValueArray();
+    String[] internedKeys = new String[keys.length];
+    String[] internedValues = new String[values.length];
+    for (int i = 0; i < keys.length; i++) {
+      internedKeys[i] = intern(keys[i]);
+      internedValues[i] = intern(values[i]);
+    }
+    return new ImmutableStringMap(internedKeys, internedValues);
+  }
+
+  /**
+   * Returns the canonical string equal to the specified string.
+   *
+   * @param string the string, or {@code null}
+   * @return the canonical string equal to the specified string, or {@code null} if the string is
+   * {@code null}
+   */
+  public String intern(String string) {
+    if (string == null) {
+      return null;
+    }
+    synchronized (strings) {
+      String canonical = get(strings, string);
+      if (canonical != null) {
+        return canonical;
+      }
+      strings.put(string, new WeakReference<String>(string));
+      return string;
+    }
+  }
+
+  /**
+   * Returns the number of canonical maps that are still referenced.
+   *
+   * @return the number of canonical maps that are still referenced
+   */
+  public int getCanonicalMapCount() {
+    int count;
+    synchronized (configurations) {
+      count = configurations.size();
+    }
+    synchronized (maps) {
+      return count + maps.size();
+    }
+  }
+
+  /**
+   * Returns the canonical instance equal to the specified instance from the specified cache, or
+   * {@code null} if there is none.
+   *
+   * @param cache    the cache
+   * @param instance the instance
+   * @param <T>      the type of instances
+   * @return the canonical instance, or {@code null} if there is none
+   */
+  private static <T> T get(Map<T, WeakReference<T>> cache, T instance) {
+    WeakReference<T> reference = cache.get(instance);
+    return (reference == null) ? null : reference.get();
+  }
+
+  /**
+   * Weakly references canonical maps, comparing maps by their entries in order. Not
+   * thread-safe.
+   */
+  private static final class OrderedMapCache {
+
+    /**
+     * The references to the canonical maps, by ordered hash code.
+     */
+    private final Map<Integer, List<MapReference>> references =
+        new HashMap<Integer, List<MapReference>>();
+
+    /**
+     * The queue of references to reclaimed maps.
+     */
+    private final ReferenceQueue<ImmutableStringMap> queue =
+        new ReferenceQueue<ImmutableStringMap>();
+
+    /**
+     * The number of references.
+     */
+    private int size;
+
+    /**
+     * Returns the canonical map with the same entries as the specified map, in the same order,
+     * or {@code null} if there is none.
+     *
+     * @param map the map
+     * @return the canonical map, or {@code null} if there is none
+     */
+    ImmutableStringMap get(ImmutableStringMap map) {
+      expungeReclaimed();
+      List<MapReference> bucket = references.get(orderedHashCode(map));
+      if (bucket != null) {
+        for (MapReference reference : bucket) {
+          ImmutableStringMap canonical = reference.get();
+          if (canonical != null
+              && Arrays.equals(canonical.getKeyArray(), map.getKeyArray())
+              && Arrays.equals(canonical.getValueArray(), map.getValueArray())) {
+            return canonical;
+          }
+        }
+      }
+      return null;
+    }
+
+    /**
+     * Adds the specified map as a canonical map.
+     *
+     * @param map the map
+     */
+    void put(ImmutableStringMap map) {
+      int hash = orderedHashCode(map);
+      List<MapReference> bucket = references.get(hash);
+      if (bucket == null) {
+        bucket = new ArrayList<MapReference>(1);
+        references.put(hash, bucket);
+      }
+      bucket.add(new MapReference(map, hash, queue));
+      size++;
+    }
+
+    /**
+     * Returns the number of canonical maps that are still referenced.
+     *
+     * @return the number of canonical maps that are still referenced
+     */
+    int size() {
+      expungeReclaimed();
+      return size;
+    }
+
+    /**
+     * Removes the references to reclaimed maps.
+     */
+    private void expungeReclaimed() {
+      for (Object polled = queue.poll(); polled != null; polled = queue.poll()) {
+        MapReference reference = (MapReference) polled;
+        List<MapReference> bucket = references.get(reference.hash);
+        if (bucket != null) {
+          for (Iterator<MapReference> iterator = bucket.iterator(); iterator.hasNext(); ) {
+            if (iterator.next() == reference) {
+              iterator.remove();
+              size--;
+              break;
+            }
+          }
+          if (bucket.isEmpty()) {
+            references.remove(reference.hash);
+          }
+        }
+      }
+    }
+
+    /**
+     * Returns a hash code of the entries of the specified map which depends on their order.
+     *
+     * @param map the map
+     * @return the ordered hash code of the map
+     */
+    private static int orderedHashCode(ImmutableStringMap map) {
+      return 31 * Arrays.hashCode(map.getKeyArray()) + Arrays.hashCode(map.getValueArray());
+    }
+  }
+
+  /**
+   * A weak reference to a canonical map, which remembers the ordered hash code of the map.
+   */
+  private static final class MapReference extends WeakReference<ImmutableStringMap> {
+
+    /**
+     * The ordered hash code of the map.
+     */
+    private final int hash;
+
+    /**
+     * Creates a reference to the specified map.
+     *
+     * @param map   the map
+     * @param hash  the ordered hash code of the map
+     * @param queue the queue on which the reference is enqueued once the map is reclaimed
+     */
+    private MapReference(ImmutableStringMap map, int hash,
+        ReferenceQueue<ImmutableStringMap> queue) {
+      super(map, queue);
+      this.hash = hash;
+    }
+  }
+}
@@ -0,0 +1,229 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.model.util;
+
+import static com.cloudera.director.spi.v2.util.Preconditions.checkNotNull;
+
+import com.cloudera.director.spi.v2.model.ConfigurationProperty;
+import com.cloudera.director.spi.v2.model.ConfigurationPropertyToken;
+import com.cloudera.director.spi.v2.model.Configured;
+import com.cloudera.director.spi.v2.model.LocalizationContext;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Configuration made of a stack of configuration layers, such as defaults, provider
+ * configuration, template configuration and per-instance overrides. A configuration value is
+ * taken from the highest layer that contains its key, and the layers are referenced rather than
+ * copied, so an overlay is created in constant time regardless of the size of its layers.
+ *
+ * <p>The merged map returned by {@link #getConfiguration(LocalizationContext)} is only built
+ * when it is first requested, and is cached for the last localization context it was requested
+ * with. Like the configuration of any other {@code Configured}, the configurations of the
+ * layers are expected not to change.
+ */
+public class OverlayConfiguration implements Configured {
+
+  /**
+   * The layers, in order of increasing precedence.
+   */
+  private final Configured[] layers;
+
+  /**
+   * The merged configuration, or {@code null} if it has not been requested yet.
+   */
+  private volatile MergedConfiguration mergedConfiguration;
+
+  /**
+   * Creates an overlay of the specified layers, in order of increasing precedence, so that the
+   * last layer overrides all others.
+   *
+   * @param layers the layers, in order of increasing precedence
+   */
+  public OverlayConfiguration(Configured... layers) {
+    this(Arrays.asList(checkNotNull(layers, "layers are null")));
+  }
+
+  /**
+   * Creates an overlay of the specified layers, in order of increasing precedence, so that the
+   * last layer overrides all others.
+   *
+   * @param layers the layers, in order of increasing precedence
+   */
+  public OverlayConfiguration(List<? extends Configured> layers) {
+    checkNotNull(layers, "layers are null");
+    this.layers = layers.toArray(new Configured[layers.size()]);
+    for (Configured layer : this.layers) {
+      checkNotNull(layer, "layer is null");
+    }
+  }
+
+  /**
+   * Returns an overlay of the specified layer on top of the layers of this overlay.
+   *
+   * @param layer the layer overriding the layers of this overlay
+   * @return an overlay of the specified layer on top of the layers of this overlay
+   */
+  public OverlayConfiguration overlay(Configured layer) {
+    checkNotNull(layer, "layer is null");
+    Configured[] layers = Arrays.copyOf(this.layers, this.layers.length + 1);
+    layers[this.layers.length] = layer;
+    return new OverlayConfiguration(Arrays.asList(layers));
+  }
+
+  /**
+   * Returns the unmodifiable list of layers, in order of increasing precedence.
+   *
+   * @return the unmodifiable list of layers, in order of increasing precedence
+   */
+  public List<Configured> getLayers() {
+    return Collections.unmodifiableList(Arrays.asList(layers));
+  }
+
+  @Override
+  public Map<String, String> getConfiguration(LocalizationContext localizationContext) {
+    MergedConfiguration merged = mergedConfiguration;
+    if (merged == null || merged.localizationContext != localizationContext) {
+      merged = new MergedConfiguration(localizationContext, merge(localizationContext));
+      mergedConfiguration = merged;
+    }
+    return merged.configuration;
+  }
+
+  @Override
+  public String getConfigurationValue(ConfigurationPropertyToken token,
+      LocalizationContext localizationContext) {
+    return getConfigurationValue(token.unwrap(), localizationContext);
+  }
+
+  @Override
+  public String getConfigurationValue(ConfigurationProperty property,
+      LocalizationContext localizationContext) {
+    String configKey = property.getConfigKey();
+    Map<String, String> configuration = findConfiguration(configKey, localizationContext);
+    if (configuration != null) {
+      return configuration.get(configKey);
+    } else if (property.isRequired()) {
+      throw new IllegalArgumentException(property.getMissingValueErrorMessage(localizationContext));
+    }
+
+    return property.getDefaultValue();
+  }
+
+  @Override
+  public String findConfigurationValue(ConfigurationProperty property,
+      LocalizationContext localizationContext) {
+    String configKey = property.getConfigKey();
+    Map<String, String> configuration = findConfiguration(configKey, localizationContext);
+    if (configuration != null) {
+      return configuration.get(configKey);
+    }
+
+    return property.isRequired() ? null : property.getDefaultValue();
+  }
+
+  /**
+   * Returns the configuration of the highest layer that contains the specified key, or
+   * {@code null} if no layer contains it. Nested overlays are searched layer by layer rather than
+   * through their merged configuration.
+   *
+   * @param configKey           the configuration key
+   * @param localizationContext the localization context
+   * @return the configuration of the highest layer that contains the specified key, or
+   * {@code null} if no layer contains it
+   */
+  private Map<String, String> findConfiguration(String configKey,
+      LocalizationContext localizationContext) {
+    MergedConfiguration merged = mergedConfiguration;
+    if (merged != null && merged.localizationContext == localizationContext) {
+      return merged.configuration.containsKey(configKey) ? merged.configuration : null;
+    }
+    for (int i = layers.length - 1; i >= 0; i--) {
+      Map<String, String> configuration;
+      if (layers[i] instanceof OverlayConfiguration) {
+        configuration = ((OverlayConfiguration) layers[i])
+            .findConfiguration(configKey, localizationContext);
+      } else {
+        configuration = layers[i].getConfiguration(localizationContext);
+        if (!configuration.containsKey(configKey)) {
+          configuration = null;
+        }
+      }
+      if (configuration != null) {
+        return configuration;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns the unmodifiable merged configuration of the layers. The configuration of a single
+   * non-empty layer is returned as it is.
+   *
+   * @param localizationContext the localization context
+   * @return the unmodifiable merged configuration of the layers
+   */
+  private Map<String, String> merge(LocalizationContext localizationContext) {
+    Map<String, String> single = Collections.emptyMap();
+    Map<String, String> merged = null;
+    for (Configured layer : layers) {
+      Map<String, String> configuration = layer.getConfiguration(localizationContext);
+      if (configuration.isEmpty()) {
+        continue;
+      }
+      if (merged == null && single.isEmpty()) {
+        single = configuration;
+      } else {
+        if (merged == null) {
+          merged = new LinkedHashMap<String, String>(single);
+        }
+        merged.putAll(configuration);
+      }
+    }
+    return (merged == null) ? single : Collections.unmodifiableMap(merged);
+  }
+
+  /**
+   * The merged configuration of the layers, with the localization context it was built with.
+   */
+  private static final class MergedConfiguration {
+
+    /**
+     * The localization context.
+     */
+    private final LocalizationContext localizationContext;
+
+    /**
+     * The unmodifiable merged configuration.
+     */
+    private final Map<String, String> configuration;
+
+    /**
+     * Creates a merged configuration with the specified parameters.
+     *
+     * @param localizationContext the localization context
+     * @param configuration       the unmodifiable merged configuration
+     */
+    private MergedConfiguration(LocalizationContext localizationContext,
+        Map<String, String> configuration) {
+      this.localizationContext = localizationContext;
+      this.configuration = configuration;
+    }
+  }
+}
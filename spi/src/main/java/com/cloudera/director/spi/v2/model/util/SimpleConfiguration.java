@@ -43,13 +43,15 @@ public class SimpleConfiguration implements Configured {
   }
 
   /**
-   * Creates a simple configuration with the specified configuration map.
+   * Creates a simple configuration with the specified configuration map. Maps created by an
+   * {@link InterningConfigurationFactory} are immutable, and are used without being copied.
    *
    * @param configuration the map of configuration values
    */
   public SimpleConfiguration(Map<String, String> configuration) {
-    this.configuration = Collections.unmodifiableMap(new HashMap<String, String>(
-        checkNotNull(configuration, "configuration is null")));
+    checkNotNull(configuration, "configuration is null");
+    this.configuration = (configuration instanceof ImmutableStringMap) ? configuration
+        : Collections.unmodifiableMap(new HashMap<String, String>(configuration));
   }
 
   @Override
@@ -75,4 +77,15 @@ public class SimpleConfiguration implements Configured {
 
     return property.getDefaultValue();
   }
+
+  @Override
+  public String findConfigurationValue(ConfigurationProperty property,
+      LocalizationContext localizationContext) {
+    String configKey = property.getConfigKey();
+    if (configuration.containsKey(configKey)) {
+      return configuration.get(configKey);
+    }
+
+    return property.isRequired() ? null : property.getDefaultValue();
+  }
 }
@@ -131,7 +131,8 @@ public class SimpleResourceTemplate extends AbstractConfigured implements Resour
   private final String groupId;
 
   /**
-   * Creates a base resource template with the specified parameters.
+   * Creates a base resource template with the specified parameters. Tag maps created by an
+   * {@link InterningConfigurationFactory} are immutable, and are used without being copied.
    *
    * @param name                        the name of the template
    * @param configuration               the source of configuration
@@ -144,8 +145,13 @@ public class SimpleResourceTemplate extends AbstractConfigured implements Resour
     super(configuration);
 
     this.name = checkNotNull(name, "name is null");
-    this.tags = (tags == null) ? Collections.<String, String>emptyMap() :
-        Collections.unmodifiableMap(new LinkedHashMap<String, String>(tags));
+    if (tags == null) {
+      this.tags = Collections.emptyMap();
+    } else if (tags instanceof ImmutableStringMap) {
+      this.tags = tags;
+    } else {
+      this.tags = Collections.unmodifiableMap(new LinkedHashMap<String, String>(tags));
+    }
     this.localizationContext = getTemplateLocalizationContext(providerLocalizationContext);
     this.groupId = getConfigurationValue(
         SimpleResourceTemplateConfigurationPropertyToken.GROUP_ID, localizationContext);
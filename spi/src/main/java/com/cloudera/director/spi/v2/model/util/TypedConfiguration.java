@@ -0,0 +1,497 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.model.util;
+
+import static com.cloudera.director.spi.v2.util.Preconditions.checkArgument;
+import static com.cloudera.director.spi.v2.util.Preconditions.checkNotNull;
+
+import com.cloudera.director.spi.v2.model.ConfigurationProperty;
+import com.cloudera.director.spi.v2.model.ConfigurationPropertyToken;
+import com.cloudera.director.spi.v2.model.Configured;
+import com.cloudera.director.spi.v2.model.LocalizationContext;
+import com.cloudera.director.spi.v2.model.Property;
+import com.cloudera.director.spi.v2.model.exception.PluginExceptionConditionAccumulator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Typed view of a configured object. Each value is parsed once, according to the accessor used
+ * and the {@link Property.Type} of its configuration property, and the result is memoized by
+ * the view, so a view should be created once per configured object and reused.
+ *
+ * <p>Missing required values and values that cannot be parsed are reported as errors to the
+ * accumulator of the view, once per configuration property and conversion, and the accessors
+ * then return {@code null} instead of throwing. Accessors also return {@code null} for optional
+ * values that are missing and have no default value.
+ */
+public class TypedConfiguration {
+
+  /**
+   * The separator of list values.
+   */
+  private static final String LIST_SEPARATOR = ",";
+
+  /**
+   * The converter of each enum type, created once per type.
+   */
+  private static final ClassValue<EnumConverter<?>> ENUM_CONVERTERS =
+      new ClassValue<EnumConverter<?>>() {
+        @Override
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        protected EnumConverter<?> computeValue(Class<?> type) {
+          return new EnumConverter(type);
+        }
+      };
+
+  /**
+   * The configured object.
+   */
+  private final Configured configuration;
+
+  /**
+   * The localization context.
+   */
+  private final LocalizationContext localizationContext;
+
+  /**
+   * The accumulator of conversion errors.
+   */
+  private final PluginExceptionConditionAccumulator accumulator;
+
+  /**
+   * The memoized values, by configuration property and converter.
+   */
+  private final ConcurrentMap<ParsedValueKey, ParsedValue> parsedValues =
+      new ConcurrentHashMap<ParsedValueKey, ParsedValue>();
+
+  /**
+   * Creates a typed view of the specified configured object.
+   *
+   * @param configuration       the configured object
+   * @param localizationContext the localization context
+   * @param accumulator         the accumulator of conversion errors
+   */
+  public TypedConfiguration(Configured configuration, LocalizationContext localizationContext,
+      PluginExceptionConditionAccumulator accumulator) {
+    this.configuration = checkNotNull(configuration, "configuration is null");
+    this.localizationContext = checkNotNull(localizationContext, "localizationContext is null");
+    this.accumulator = checkNotNull(accumulator, "accumulator is null");
+  }
+
+  /**
+   * Returns the configured object.
+   *
+   * @return the configured object
+   */
+  public Configured getConfiguration() {
+    return configuration;
+  }
+
+  /**
+   * Returns the value of the specified configuration property, converted according to its
+   * type: a {@code Boolean}, {@code Integer}, {@code Double} or {@code String}.
+   *
+   * @param property the configuration property
+   * @return the converted value, or {@code null} if it is missing or invalid
+   */
+  public Object getValue(ConfigurationProperty property) {
+    switch (property.getType()) {
+      case BOOLEAN:
+        return getValue(property, Converter.BOOLEAN);
+      case INTEGER:
+        return getValue(property, Converter.INTEGER);
+      case DOUBLE:
+        return getValue(property, Converter.DOUBLE);
+      default:
+        return getValue(property, Converter.STRING);
+    }
+  }
+
+  /**
+   * Returns the value of the specified configuration property.
+   *
+   * @param token the configuration property token
+   * @return the value, or {@code null} if it is missing
+   */
+  public String getString(ConfigurationPropertyToken token) {
+    return (String) getValue(token.unwrap(), Converter.STRING);
+  }
+
+  /**
+   * Returns the value of the specified boolean or string configuration property, as a boolean.
+   * Only {@code true} and {@code false}, in any case, are valid.
+   *
+   * @param token the configuration property token
+   * @return the boolean value, or {@code null} if it is missing or invalid
+   */
+  public Boolean getBoolean(ConfigurationPropertyToken token) {
+    ConfigurationProperty property = token.unwrap();
+    checkType(property, Property.Type.BOOLEAN);
+    return (Boolean) getValue(property, Converter.BOOLEAN);
+  }
+
+  /**
+   * Returns the value of the specified integer or string configuration property, as an integer.
+   *
+   * @param token the configuration property token
+   * @return the integer value, or {@code null} if it is missing or invalid
+   */
+  public Integer getInt(ConfigurationPropertyToken token) {
+    ConfigurationProperty property = token.unwrap();
+    checkType(property, Property.Type.INTEGER);
+    return (Integer) getValue(property, Converter.INTEGER);
+  }
+
+  /**
+   * Returns the value of the specified double, integer or string configuration property, as a
+   * double.
+   *
+   * @param token the configuration property token
+   * @return the double value, or {@code null} if it is missing or invalid
+   */
+  public Double getDouble(ConfigurationPropertyToken token) {
+    ConfigurationProperty property = token.unwrap();
+    if (property.getType() != Property.Type.INTEGER) {
+      checkType(property, Property.Type.DOUBLE);
+    }
+    return (Double) getValue(property, Converter.DOUBLE);
+  }
+
+  /**
+   * Returns the value of the specified configuration property, as a constant of the specified
+   * enum type. The value must be the name of a constant.
+   *
+   * @param token    the configuration property token
+   * @param enumType the enum type
+   * @param <E>      the enum type
+   * @return the enum constant, or {@code null} if the value is missing or invalid
+   */
+  public <E extends Enum<E>> E getEnum(ConfigurationPropertyToken token, Class<E> enumType) {
+    checkNotNull(enumType, "enumType is null");
+    return enumType.cast(getValue(token.unwrap(), ENUM_CONVERTERS.get(enumType)));
+  }
+
+  /**
+   * Returns the value of the specified configuration property, as an unmodifiable list of the
+   * non-empty, trimmed, comma-separated elements of the value.
+   *
+   * @param token the configuration property token
+   * @return the list of elements, or {@code null} if the value is missing
+   */
+  @SuppressWarnings("unchecked")
+  public List<String> getList(ConfigurationPropertyToken token) {
+    return (List<String>) getValue(token.unwrap(), Converter.LIST);
+  }
+
+  /**
+   * Returns the value of the specified configuration property converted by the specified
+   * converter, parsing it on the first call and returning the memoized result afterwards. If
+   * concurrent first calls both parse the value, only the memoized result is reported.
+   *
+   * @param property  the configuration property
+   * @param converter the converter
+   * @return the converted value, or {@code null} if it is missing or invalid
+   */
+  private Object getValue(ConfigurationProperty property, Converter converter) {
+    ParsedValueKey key = new ParsedValueKey(property, converter);
+    ParsedValue parsedValue = parsedValues.get(key);
+    if (parsedValue == null) {
+      parsedValue = parse(property, converter);
+      ParsedValue existing = parsedValues.putIfAbsent(key, parsedValue);
+      if (existing == null) {
+        report(property, converter, parsedValue);
+      } else {
+        parsedValue = existing;
+      }
+    }
+    return parsedValue.value;
+  }
+
+  /**
+   * Parses the value of the specified configuration property.
+   *
+   * @param property  the configuration property
+   * @param converter the converter
+   * @return the parsed value
+   */
+  private ParsedValue parse(ConfigurationProperty property, Converter converter) {
+    String value = configuration.findConfigurationValue(property, localizationContext);
+    if (value == null) {
+      return new ParsedValue(null, null);
+    }
+    try {
+      return new ParsedValue(converter.convert(value), null);
+    } catch (IllegalArgumentException e) {
+      return new ParsedValue(null, value);
+    }
+  }
+
+  /**
+   * Reports the specified parsed value to the accumulator if it is a missing required value or
+   * an invalid value.
+   *
+   * @param property    the configuration property
+   * @param converter   the converter
+   * @param parsedValue the parsed value
+   */
+  private void report(ConfigurationProperty property, Converter converter,
+      ParsedValue parsedValue) {
+    if (parsedValue.invalidValue != null) {
+      Validations.addError(accumulator, property.getConfigKey(), localizationContext, null,
+          "Invalid value for %s: '%s' is not %s", property.getName(localizationContext),
+          parsedValue.invalidValue, converter.getDescription());
+    } else if (parsedValue.value == null && property.isRequired()) {
+      accumulator.addError(property.getConfigKey(),
+          property.getMissingValueErrorMessage(localizationContext));
+    }
+  }
+
+  /**
+   * Ensures that the specified configuration property has the specified type, or is a string
+   * configuration property.
+   *
+   * @param property the configuration property
+   * @param type     the expected type
+   * @throws IllegalArgumentException if the configuration property has another type
+   */
+  private static void checkType(ConfigurationProperty property, Property.Type type) {
+    Property.Type propertyType = property.getType();
+    checkArgument(propertyType == type || propertyType == Property.Type.STRING,
+        "Configuration property " + property.getConfigKey() + " has type " + propertyType
+            + ", not " + type);
+  }
+
+  /**
+   * The key of a memoized value.
+   */
+  private static final class ParsedValueKey {
+
+    /**
+     * The configuration property.
+     */
+    private final ConfigurationProperty property;
+
+    /**
+     * The converter.
+     */
+    private final Converter converter;
+
+    /**
+     * Creates a key with the specified parameters.
+     *
+     * @param property  the configuration property
+     * @param converter the converter
+     */
+    private ParsedValueKey(ConfigurationProperty property, Converter converter) {
+      this.property = property;
+      this.converter = converter;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      ParsedValueKey that = (ParsedValueKey) o;
+      return property.equals(that.property) && converter == that.converter;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * property.hashCode() + converter.hashCode();
+    }
+  }
+
+  /**
+   * A value parsed by a converter, or {@code null} if it is missing or invalid.
+   */
+  private static final class ParsedValue {
+
+    /**
+     * The parsed value.
+     */
+    private final Object value;
+
+    /**
+     * The value which could not be converted, or {@code null} if the value is missing or valid.
+     */
+    private final String invalidValue;
+
+    /**
+     * Creates a parsed value with the specified parameters.
+     *
+     * @param value        the parsed value
+     * @param invalidValue the value which could not be converted, or {@code null}
+     */
+    private ParsedValue(Object value, String invalidValue) {
+      this.value = value;
+      this.invalidValue = invalidValue;
+    }
+  }
+
+  /**
+   * Converts configuration values.
+   */
+  private abstract static class Converter {
+
+    /**
+     * Returns the value unchanged.
+     */
+    static final Converter STRING = new Converter("a string") {
+      @Override
+      Object convert(String value) {
+        return value;
+      }
+    };
+
+    /**
+     * Converts a value to a boolean.
+     */
+    static final Converter BOOLEAN = new Converter("a boolean") {
+      @Override
+      Object convert(String value) {
+        String trimmed = value.trim();
+        if ("true".equalsIgnoreCase(trimmed)) {
+          return Boolean.TRUE;
+        }
+        if ("false".equalsIgnoreCase(trimmed)) {
+          return Boolean.FALSE;
+        }
+        throw new IllegalArgumentException("Not a boolean: " + value);
+      }
+    };
+
+    /**
+     * Converts a value to an integer.
+     */
+    static final Converter INTEGER = new Converter("an integer") {
+      @Override
+      Object convert(String value) {
+        return Integer.valueOf(value.trim());
+      }
+    };
+
+    /**
+     * Converts a value to a double.
+     */
+    static final Converter DOUBLE = new Converter("a number") {
+      @Override
+      Object convert(String value) {
+        return Double.valueOf(value.trim());
+      }
+    };
+
+    /**
+     * Converts a value to a list of its comma-separated elements.
+     */
+    static final Converter LIST = new Converter("a list") {
+      @Override
+      Object convert(String value) {
+        List<String> elements = new ArrayList<String>();
+        for (String element : value.split(LIST_SEPARATOR)) {
+          String trimmed = element.trim();
+          if (!trimmed.isEmpty()) {
+            elements.add(trimmed);
+          }
+        }
+        return Collections.unmodifiableList(elements);
+      }
+    };
+
+    /**
+     * The description of the converted values, used in error messages.
+     */
+    private final String description;
+
+    /**
+     * Creates a converter with the specified description.
+     *
+     * @param description the description of the converted values
+     */
+    Converter(String description) {
+      this.description = description;
+    }
+
+    /**
+     * Returns the description of the converted values.
+     *
+     * @return the description of the converted values
+     */
+    String getDescription() {
+      return description;
+    }
+
+    /**
+     * Converts the specified value.
+     *
+     * @param value the value
+     * @return the converted value
+     * @throws IllegalArgumentException if the value cannot be converted
+     */
+    abstract Object convert(String value);
+  }
+
+  /**
+   * Converts values to constants of an enum type. A single converter is created per enum type,
+   * and its description is only built when an error is reported.
+   *
+   * @param <E> the enum type
+   */
+  private static final class EnumConverter<E extends Enum<E>> extends Converter {
+
+    /**
+     * The enum type.
+     */
+    private final Class<E> enumType;
+
+    /**
+     * The description of the converted values, built on first use.
+     */
+    private volatile String description;
+
+    /**
+     * Creates a converter to constants of the specified enum type.
+     *
+     * @param enumType the enum type
+     */
+    EnumConverter(Class<E> enumType) {
+      super(null);
+      this.enumType = enumType;
+    }
+
+    @Override
+    String getDescription() {
+      String result = description;
+      if (result == null) {
+        result = "one of " + Arrays.toString(enumType.getEnumConstants());
+        description = result;
+      }
+      return result;
+    }
+
+    @Override
+    Object convert(String value) {
+      return Enum.valueOf(enumType, value.trim());
+    }
+  }
+}
@@ -0,0 +1,46 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.provider;
+
+import com.cloudera.director.spi.v2.model.Resource;
+
+/**
+ * Receives per-resource progress notifications from
+ * {@link ResourceProvider#allocate(com.cloudera.director.spi.v2.model.ResourceTemplate,
+ * java.util.Collection, int, AllocationListener)}. Notifications may be delivered on any thread,
+ * including concurrently, so implementations must be thread-safe and should return quickly.
+ *
+ * @param <R> type of the resources being allocated
+ */
+public interface AllocationListener<R extends Resource<?>> {
+
+  /**
+   * Called when a resource has been allocated and is available. Until the allocate call returns
+   * successfully the resource is provisional: if the minimum count cannot be satisfied, the
+   * provider will release it and the allocate call will fail.
+   *
+   * @param resource the allocated resource
+   */
+  void onAllocated(R resource);
+
+  /**
+   * Called when the allocation of a resource has failed.
+   *
+   * @param resourceId the identifier of the resource, as passed to the allocate call
+   * @param cause      the cause of the failure, or {@code null} if the provider cannot report a
+   *                   specific cause
+   */
+  void onAllocationFailed(String resourceId, Exception cause);
+}
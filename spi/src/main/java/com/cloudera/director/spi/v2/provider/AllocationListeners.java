@@ -0,0 +1,142 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.provider;
+
+import static com.cloudera.director.spi.v2.util.Preconditions.checkNotNull;
+
+import com.cloudera.director.spi.v2.model.Resource;
+import com.cloudera.director.spi.v2.model.ResourceTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Provides methods for working with allocation listeners.
+ */
+public final class AllocationListeners {
+
+  /**
+   * Private constructor to prevent instantiation.
+   */
+  private AllocationListeners() {
+  }
+
+  /**
+   * Allocates resources with the blocking
+   * {@link ResourceProvider#allocate(ResourceTemplate, Collection, int)} operation, then notifies
+   * the listener of each allocated resource, and of each requested resource that was not
+   * allocated because only the minimum count could be satisfied. If the allocation fails, each
+   * requested resource is reported as failed with the same cause before the exception is
+   * rethrown. This is the behavior of providers which cannot report progress while an
+   * allocation is in flight.
+   *
+   * <p>Exceptions thrown by the listener do not interrupt the notifications, and do not prevent
+   * the allocated resources from being returned, since the caller would otherwise have no way
+   * to release them.</p>
+   *
+   * @param provider    the resource provider
+   * @param template    the resource template
+   * @param resourceIds the unique identifiers for the resources
+   * @param minCount    the minimum number of resources to allocate if not all resources can be
+   *                    allocated
+   * @param listener    the listener to notify
+   * @param <R>         type of the resources being allocated
+   * @param <T>         type of the resource template
+   * @return the successfully allocated resources
+   * @throws InterruptedException if the operation is interrupted
+   */
+  public static <R extends Resource<T>, T extends ResourceTemplate> Collection<? extends R> allocate(
+      ResourceProvider<R, T> provider, T template, Collection<String> resourceIds, int minCount,
+      AllocationListener<? super R> listener) throws InterruptedException {
+    checkNotNull(provider, "provider is null");
+    checkNotNull(listener, "listener is null");
+    Collection<? extends R> allocated;
+    try {
+      allocated = provider.allocate(template, resourceIds, minCount);
+    } catch (InterruptedException e) {
+      notifyFailed(listener, resourceIds, e);
+      throw e;
+    } catch (RuntimeException e) {
+      notifyFailed(listener, resourceIds, e);
+      throw e;
+    }
+    Set<String> allocatedIds = new HashSet<String>();
+    int allocatedCount = 0;
+    for (R resource : allocated) {
+      allocatedIds.add(resource.getId());
+      allocatedCount++;
+      try {
+        listener.onAllocated(resource);
+      } catch (RuntimeException e) {
+        // The resource is still returned to the caller
+      }
+    }
+    notifyFailed(listener, getUnallocatedIds(resourceIds, allocatedIds, allocatedCount), null);
+    return allocated;
+  }
+
+  /**
+   * Returns the requested resource identifiers that do not correspond to an allocated resource.
+   * The identifiers passed for an automatic template are placeholders that allocated resources
+   * do not carry. When more requested identifiers are unmatched than resources were not
+   * allocated, the identifiers are taken to be placeholders, and as many trailing placeholders
+   * as resources were not allocated are returned instead.
+   *
+   * @param resourceIds    the requested resource identifiers
+   * @param allocatedIds   the identifiers of the allocated resources
+   * @param allocatedCount the number of allocated resources
+   * @return the requested resource identifiers that do not correspond to an allocated resource
+   */
+  private static List<String> getUnallocatedIds(Collection<String> resourceIds,
+      Set<String> allocatedIds, int allocatedCount) {
+    List<String> unallocatedIds = new ArrayList<String>();
+    for (String resourceId : resourceIds) {
+      if (!allocatedIds.contains(resourceId)) {
+        unallocatedIds.add(resourceId);
+      }
+    }
+    int unallocatedCount = Math.max(resourceIds.size() - allocatedCount, 0);
+    if (unallocatedIds.size() > unallocatedCount) {
+      List<String> placeholders = new ArrayList<String>(resourceIds);
+      return placeholders.subList(placeholders.size() - unallocatedCount, placeholders.size());
+    }
+    return unallocatedIds;
+  }
+
+  /**
+   * Notifies the listener that the allocation of each of the specified resources has failed.
+   * Exceptions thrown by the listener are added as suppressed exceptions to the cause, if any,
+   * so that they do not replace it.
+   *
+   * @param listener    the listener to notify
+   * @param resourceIds the unique identifiers for the resources
+   * @param cause       the cause of the failure, or {@code null} if there is no specific cause
+   */
+  private static void notifyFailed(AllocationListener<?> listener, Collection<String> resourceIds,
+      Exception cause) {
+    for (String resourceId : resourceIds) {
+      try {
+        listener.onAllocationFailed(resourceId, cause);
+      } catch (RuntimeException e) {
+        if (cause != null && cause != e) {
+          cause.addSuppressed(e);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,46 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.provider;
+
+import com.cloudera.director.spi.v2.model.Instance;
+import com.cloudera.director.spi.v2.model.InstanceState;
+import com.cloudera.director.spi.v2.model.InstanceTemplate;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+
+/**
+ * Represents a provider of instances that can perform its cloud operations asynchronously.
+ *
+ * @param <I> type of the instance created by this provider
+ * @param <T> type of the template required by this provider to create an instance
+ */
+public interface AsyncInstanceProvider<I extends Instance<T>, T extends InstanceTemplate>
+    extends InstanceProvider<I, T>, AsyncResourceProvider<I, T> {
+
+  /**
+   * Asynchronously retrieves instance state, as described in
+   * {@link InstanceProvider#getInstanceState(InstanceTemplate, Collection)}.
+   *
+   * @param template    the resource template used for create the instances
+   * @param instanceIds the unique identifiers for the instances
+   * @param executor    the executor on which any blocking work is performed
+   * @return a completion stage for the map from instance identifiers to instance state
+   */
+  CompletionStage<Map<String, InstanceState>> getInstanceStateAsync(T template,
+      Collection<String> instanceIds, Executor executor);
+}
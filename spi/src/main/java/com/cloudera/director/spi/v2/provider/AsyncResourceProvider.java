@@ -0,0 +1,75 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.provider;
+
+import com.cloudera.director.spi.v2.model.Resource;
+import com.cloudera.director.spi.v2.model.ResourceTemplate;
+
+import java.util.Collection;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+
+/**
+ * <p>Represents a provider of cloud resources that can perform its cloud operations
+ * asynchronously.</p>
+ * <p>Each asynchronous method has the same preconditions, postconditions and idempotency rules
+ * as its blocking counterpart in {@link ResourceProvider}. Instead of blocking the calling
+ * thread for the duration of the cloud round trip, it returns a completion stage which is
+ * completed with the result, or completed exceptionally with the exception the blocking
+ * method would have thrown.</p>
+ *
+ * @param <R> type of the resource created by this provider
+ * @param <T> type of the template required by this provider to create a resource
+ */
+public interface AsyncResourceProvider<R extends Resource<T>, T extends ResourceTemplate>
+    extends ResourceProvider<R, T> {
+
+  /**
+   * Asynchronously allocates resources, as described in
+   * {@link ResourceProvider#allocate(ResourceTemplate, Collection, int)}.
+   *
+   * @param template    the resource template
+   * @param resourceIds the unique identifiers for the resources
+   * @param minCount    the minimum number of resources to allocate if not all resources can be
+   *                    allocated
+   * @param executor    the executor on which any blocking work is performed
+   * @return a completion stage for the successfully allocated resources
+   */
+  CompletionStage<Collection<? extends R>> allocateAsync(T template, Collection<String> resourceIds,
+      int minCount, Executor executor);
+
+  /**
+   * Asynchronously finds resources, as described in
+   * {@link ResourceProvider#find(ResourceTemplate, Collection)}.
+   *
+   * @param template    the template that was used to create those resources
+   * @param resourceIds the unique identifiers for the resources
+   * @param executor    the executor on which any blocking work is performed
+   * @return a completion stage for the resources which still exist
+   */
+  CompletionStage<Collection<? extends R>> findAsync(T template, Collection<String> resourceIds,
+      Executor executor);
+
+  /**
+   * Asynchronously deletes resources, as described in
+   * {@link ResourceProvider#delete(ResourceTemplate, Collection)}.
+   *
+   * @param template    the template used to create those resources
+   * @param resourceIds the unique identifiers for the resources
+   * @param executor    the executor on which any blocking work is performed
+   * @return a completion stage which is completed when the resources have been deleted
+   */
+  CompletionStage<Void> deleteAsync(T template, Collection<String> resourceIds, Executor executor);
+}
@@ -40,4 +40,24 @@ public interface InstanceProvider<I extends Instance<T>, T extends InstanceTempl
    */
   Map<String, InstanceState> getInstanceState(T template, Collection<String> instanceIds);
 
+  /**
+   * Returns the instance state watcher for this provider, through which callers are notified of
+   * instance status changes instead of polling {@link #getInstanceState}.
+   *
+   * The default implementation returns a watcher which does not support watching, and whose
+   * {@code watch} method throws {@link UnsupportedOperationException}, so that callers fall back
+   * to polling. Implementations should override it to return the same watcher from every call.
+   * {@code AbstractInstanceProvider} returns a single polling watcher shared by all callers.
+   *
+   * @return the instance state watcher for this provider
+   */
+  default InstanceStateWatcher<T> getInstanceStateWatcher() {
+    return new InstanceStateWatcher<T>() {
+      @Override
+      public Registration watch(T template, Collection<String> instanceIds, Listener listener) {
+        throw new UnsupportedOperationException("Instance state watching is not supported by "
+            + InstanceProvider.this.getClass().getName());
+      }
+    };
+  }
 }
@@ -0,0 +1,79 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.provider;
+
+import com.cloudera.director.spi.v2.model.InstanceState;
+import com.cloudera.director.spi.v2.model.InstanceTemplate;
+
+import java.util.Collection;
+
+/**
+ * Pushes instance state changes to registered listeners, so that callers following instance
+ * lifecycle transitions do not have to poll
+ * {@link InstanceProvider#getInstanceState(InstanceTemplate, Collection)} themselves.
+ *
+ * @param <T> type of the template used to create the instances
+ */
+public interface InstanceStateWatcher<T extends InstanceTemplate> {
+
+  /**
+   * Receives instance state change notifications. Notifications may be delivered on any thread,
+   * so implementations must be thread-safe and should return quickly.
+   */
+  interface Listener {
+
+    /**
+     * Called when the status of a watched instance is first observed and whenever it changes.
+     *
+     * @param instanceId the identifier of the instance
+     * @param state      the new instance state
+     */
+    void onInstanceStateChanged(String instanceId, InstanceState state);
+
+    /**
+     * Called when the watcher fails to observe the status of watched instances, for example
+     * because the underlying instance state lookup failed, or because this listener threw an
+     * exception while being notified. Watching continues after the failure is reported.
+     *
+     * @param instanceIds the identifiers of the instances whose status could not be observed
+     * @param error       the failure
+     */
+    void onError(Collection<String> instanceIds, RuntimeException error);
+  }
+
+  /**
+   * A handle on a set of watched instances.
+   */
+  interface Registration {
+
+    /**
+     * Stops watching the instances. No notifications are delivered to the listener after this
+     * method returns. Calling this method more than once has no further effect.
+     */
+    void cancel();
+  }
+
+  /**
+   * Starts watching the specified instances, notifying the listener of their current status
+   * and of every subsequent status change until the returned registration is cancelled.
+   *
+   * @param template    the resource template used to create the instances
+   * @param instanceIds the unique identifiers for the instances, as passed to
+   *                    {@link InstanceProvider#getInstanceState(InstanceTemplate, Collection)}
+   * @param listener    the listener to notify
+   * @return the registration, which must be cancelled when the instances no longer need watching
+   */
+  Registration watch(T template, Collection<String> instanceIds, Listener listener);
+}
@@ -0,0 +1,157 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.provider;
+
+import static com.cloudera.director.spi.v2.util.Preconditions.checkArgument;
+import static com.cloudera.director.spi.v2.util.Preconditions.checkNotNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A page of resources returned by
+ * {@link ResourceProvider#findPaged(com.cloudera.director.spi.v2.model.ResourceTemplate,
+ * Collection, int, String)}, along with the opaque continuation token needed to retrieve the
+ * following page.
+ *
+ * @param <R> type of the resources in the page
+ */
+public final class ResourcePage<R> {
+
+  /**
+   * Returns a page containing the specified resources, with no following page.
+   *
+   * @param resources the resources
+   * @param <R>       type of the resources in the page
+   * @return a page containing the specified resources, with no following page
+   */
+  public static <R> ResourcePage<R> lastPage(Collection<? extends R> resources) {
+    return new ResourcePage<R>(resources, null);
+  }
+
+  /**
+   * Returns the requested page of a fully materialized collection of resources. The
+   * continuation tokens produced by this method are the decimal offsets of the first resource
+   * of the following page.
+   *
+   * @param resources         the resources
+   * @param pageSize          the maximum number of resources in the page
+   * @param continuationToken the continuation token returned with the previous page, or
+   *                          {@code null} to request the first page
+   * @param <R>               type of the resources in the page
+   * @return the requested page
+   * @throws IllegalArgumentException if the page size is not positive or the continuation token
+   *                                  was not produced by this method
+   */
+  public static <R> ResourcePage<R> slice(Collection<? extends R> resources, int pageSize,
+      String continuationToken) {
+    checkNotNull(resources, "resources is null");
+    checkArgument(pageSize > 0, "pageSize must be positive: " + pageSize);
+    int offset = parseOffset(continuationToken);
+    int size = resources.size();
+    if (offset == 0 && size <= pageSize) {
+      return lastPage(resources);
+    }
+
+    int end = (int) Math.min((long) offset + pageSize, size);
+    List<R> page = new ArrayList<R>(Math.max(end - offset, 0));
+    int index = 0;
+    for (R resource : resources) {
+      if (index >= end) {
+        break;
+      }
+      if (index >= offset) {
+        page.add(resource);
+      }
+      index++;
+    }
+    return new ResourcePage<R>(page, (end < size) ? String.valueOf(end) : null);
+  }
+
+  /**
+   * Parses a continuation token produced by {@link #slice(Collection, int, String)}.
+   *
+   * @param continuationToken the continuation token, or {@code null}
+   * @return the offset represented by the continuation token
+   */
+  private static int parseOffset(String continuationToken) {
+    if (continuationToken == null) {
+      return 0;
+    }
+    try {
+      int offset = Integer.parseInt(continuationToken);
+      checkArgument(offset >= 0, "Invalid continuation token: " + continuationToken);
+      return offset;
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid continuation token: " + continuationToken, e);
+    }
+  }
+
+  /**
+   * The resources in the page.
+   */
+  private final List<R> resources;
+
+  /**
+   * The continuation token for the following page, or {@code null} if this is the last page.
+   */
+  private final String continuationToken;
+
+  /**
+   * Creates a resource page with the specified parameters.
+   *
+   * @param resources         the resources in the page
+   * @param continuationToken the continuation token for the following page, or {@code null}
+   *                          if this is the last page
+   */
+  public ResourcePage(Collection<? extends R> resources, String continuationToken) {
+    checkNotNull(resources, "resources is null");
+    this.resources = resources.isEmpty()
+        ? Collections.<R>emptyList()
+        : Collections.unmodifiableList(new ArrayList<R>(resources));
+    this.continuationToken = continuationToken;
+  }
+
+  /**
+   * Returns the resources in the page.
+   *
+   * @return the resources in the page
+   */
+  public List<R> getResources() {
+    return resources;
+  }
+
+  /**
+   * Returns the continuation token for the following page, or {@code null} if this is the
+   * last page.
+   *
+   * @return the continuation token for the following page, or {@code null} if this is the
+   * last page
+   */
+  public String getContinuationToken() {
+    return continuationToken;
+  }
+
+  /**
+   * Returns whether this is the last page.
+   *
+   * @return whether this is the last page
+   */
+  public boolean isLastPage() {
+    return continuationToken == null;
+  }
+}
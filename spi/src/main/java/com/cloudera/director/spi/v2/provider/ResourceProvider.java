@@ -86,6 +86,16 @@ public interface ResourceProvider<R extends Resource<T>, T extends ResourceTempl
    * allocated amount of resources will be returned.</p>
    * <p>If minCount resources cannot be allocated, the method should fail by throwing an appropriate
    * exception and should make a good-faith effort to not leak resources.</p>
+   * <p>The returned collection may be lazy: a provider which cannot obtain the allocated resources
+   * from the allocation itself, such as a V1 provider adapter, may look them up the first time the
+   * collection is read. A failure of that lookup does not fail the allocation; it is thrown as a
+   * runtime exception from the method reading the collection, outside of any interceptor wrapping
+   * this call, and the lookup is attempted again on the next read. If the reading thread is
+   * interrupted during the lookup, an
+   * {@link com.cloudera.director.spi.v2.model.exception.UnrecoverableProviderException} is thrown
+   * and the thread's interrupt status is restored. Callers which need the allocated resources
+   * under the same error handling as this call should read the collection before relying on
+   * it, or call {@link #find(ResourceTemplate, Collection)} themselves.</p>
    *
    * @param template    the resource template
    * @param resourceIds the unique identifiers for the resources
@@ -117,6 +127,33 @@ public interface ResourceProvider<R extends Resource<T>, T extends ResourceTempl
   Collection<? extends R> allocate(T template, Collection<String> resourceIds, int minCount)
       throws InterruptedException;
 
+  /**
+   * <p>Allocates resources as described in {@link #allocate(ResourceTemplate, Collection, int)},
+   * notifying the specified listener as each resource becomes available or fails, so that callers
+   * can start working with the first resources while the rest are still being allocated.</p>
+   * <p>The minCount atomicity and idempotency rules are unchanged. Resources reported as allocated
+   * remain provisional until this method returns: if minCount resources cannot be allocated, the
+   * method fails and the provider makes the same good-faith effort to release every resource it
+   * has already reported.</p>
+   * <p>The default implementation notifies the listener once the blocking
+   * {@link #allocate(ResourceTemplate, Collection, int)} operation returns, as described in
+   * {@link AllocationListeners#allocate}. Plugins that can report progress while an allocation
+   * is in flight should override it.</p>
+   *
+   * @param template    the resource template
+   * @param resourceIds the unique identifiers for the resources
+   * @param minCount    the minimum number of resources to allocate if not all resources can be
+   *                    allocated
+   * @param listener    the listener notified as each resource is allocated or fails
+   * @return the successfully allocated resources, as for
+   * {@link #allocate(ResourceTemplate, Collection, int)}
+   * @throws InterruptedException if the operation is interrupted
+   */
+  default Collection<? extends R> allocate(T template, Collection<String> resourceIds,
+      int minCount, AllocationListener<? super R> listener) throws InterruptedException {
+    return AllocationListeners.allocate(this, template, resourceIds, minCount, listener);
+  }
+
   /**
    * Returns current resource information for the specified resources, which are guaranteed to have
    * been created by this provider. This method takes resources, rather than resource identifiers,
@@ -144,6 +181,30 @@ public interface ResourceProvider<R extends Resource<T>, T extends ResourceTempl
    */
   Collection<? extends R> find(T template, Collection<String> resourceIds) throws InterruptedException;
 
+  /**
+   * Returns one page of current resource information for the specified resources, with the same
+   * preconditions and postconditions as {@link #find(ResourceTemplate, Collection)}. Callers
+   * retrieve all resources by requesting pages until the returned page is the last page, passing
+   * each returned continuation token to the following request. This allows large automatic
+   * instance groups to be listed without materializing the whole group at once.
+   *
+   * <p>The default implementation slices the result of
+   * {@link #find(ResourceTemplate, Collection)}. Plugins whose cloud APIs support paged listing
+   * should override it to fetch one cloud page per call.</p>
+   *
+   * @param template          the template that was used to create those resources
+   * @param resourceIds       the unique identifiers for the resources
+   * @param pageSize          the maximum number of resources to return in the page
+   * @param continuationToken the opaque continuation token returned with the previous page, or
+   *                          {@code null} to request the first page
+   * @return the requested page of resources
+   * @throws InterruptedException if the operation is interrupted
+   */
+  default ResourcePage<R> findPaged(T template, Collection<String> resourceIds, int pageSize,
+      String continuationToken) throws InterruptedException {
+    return ResourcePage.slice(find(template, resourceIds), pageSize, continuationToken);
+  }
+
   /**
    * Permanently removes the specified resources, which are guaranteed to have been created by
    * this provider.
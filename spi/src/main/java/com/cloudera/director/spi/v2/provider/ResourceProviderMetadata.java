@@ -17,6 +17,7 @@ package com.cloudera.director.spi.v2.provider;
 import com.cloudera.director.spi.v2.model.ConfigurationProperty;
 import com.cloudera.director.spi.v2.model.ConfigurationValidator;
 import com.cloudera.director.spi.v2.model.DisplayProperty;
+import com.cloudera.director.spi.v2.util.ConfigurationPropertyIndex;
 
 import java.util.List;
 
@@ -39,6 +40,17 @@ public interface ResourceProviderMetadata extends ProviderMetadata {
    */
   List<ConfigurationProperty> getResourceTemplateConfigurationProperties();
 
+  /**
+   * Returns an index of the properties needed to create a new resource template. The default
+   * implementation indexes the properties on every call, so implementations should return an
+   * index created once instead.
+   *
+   * @return an index of the properties needed to create a new resource template
+   */
+  default ConfigurationPropertyIndex getResourceTemplateConfigurationPropertyIndex() {
+    return new ConfigurationPropertyIndex(getResourceTemplateConfigurationProperties());
+  }
+
   /**
    * Returns the list of display properties exposed by a resource.
    *
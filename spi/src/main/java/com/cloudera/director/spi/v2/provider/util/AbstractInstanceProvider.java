@@ -0,0 +1,91 @@
+// (c) Copyright 2015 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.provider.util;
+
+import com.cloudera.director.spi.v2.model.Configured;
+import com.cloudera.director.spi.v2.model.Instance;
+import com.cloudera.director.spi.v2.model.InstanceState;
+import com.cloudera.director.spi.v2.model.InstanceTemplate;
+import com.cloudera.director.spi.v2.model.LocalizationContext;
+import com.cloudera.director.spi.v2.provider.AsyncInstanceProvider;
+import com.cloudera.director.spi.v2.provider.InstanceStateWatcher;
+import com.cloudera.director.spi.v2.provider.ResourceProviderMetadata;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+
+/**
+ * Abstract base class for instance provider implementations.
+ */
+public abstract class AbstractInstanceProvider<R extends Instance<T>, T extends InstanceTemplate>
+    extends AbstractResourceProvider<R, T> implements AsyncInstanceProvider<R, T> {
+
+  /**
+   * The instance state watcher, created on first use.
+   */
+  private volatile InstanceStateWatcher<T> instanceStateWatcher;
+
+  /**
+   * Creates an abstract instance provider with the specified parameters.
+   *
+   * @param configuration       the configuration
+   * @param providerMetadata    the resource provider metadata
+   * @param localizationContext the localization context
+   */
+  public AbstractInstanceProvider(Configured configuration,
+      ResourceProviderMetadata providerMetadata, LocalizationContext localizationContext) {
+    super(configuration, providerMetadata, localizationContext);
+  }
+
+  @Override
+  public InstanceStateWatcher<T> getInstanceStateWatcher() {
+    InstanceStateWatcher<T> watcher = instanceStateWatcher;
+    if (watcher == null) {
+      synchronized (this) {
+        watcher = instanceStateWatcher;
+        if (watcher == null) {
+          watcher = createInstanceStateWatcher();
+          instanceStateWatcher = watcher;
+        }
+      }
+    }
+    return watcher;
+  }
+
+  /**
+   * Creates the instance state watcher for this provider. This implementation returns a
+   * {@link PollingInstanceStateWatcher} over {@link #getInstanceState}. Plugins whose cloud
+   * delivers instance state change events should override it.
+   *
+   * @return the instance state watcher for this provider
+   */
+  protected InstanceStateWatcher<T> createInstanceStateWatcher() {
+    return new PollingInstanceStateWatcher<T>(this);
+  }
+
+  @Override
+  public CompletionStage<Map<String, InstanceState>> getInstanceStateAsync(final T template,
+      final Collection<String> instanceIds, Executor executor) {
+    return runAsync(new Callable<Map<String, InstanceState>>() {
+      @Override
+      public Map<String, InstanceState> call() {
+        return getInstanceState(template, instanceIds);
+      }
+    }, executor);
+  }
+}
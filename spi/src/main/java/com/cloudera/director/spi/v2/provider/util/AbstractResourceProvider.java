@@ -24,14 +24,22 @@ import com.cloudera.director.spi.v2.model.ResourceTemplate;
 import com.cloudera.director.spi.v2.model.exception.PluginExceptionConditionAccumulator;
 import com.cloudera.director.spi.v2.model.util.AbstractConfigured;
 import com.cloudera.director.spi.v2.model.util.SimpleResourceTemplate;
-import com.cloudera.director.spi.v2.provider.ResourceProvider;
+import com.cloudera.director.spi.v2.provider.AsyncResourceProvider;
 import com.cloudera.director.spi.v2.provider.ResourceProviderMetadata;
 
+import java.util.Collection;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+
 /**
- * Abstract base class for resource provider implementations.
+ * Abstract base class for resource provider implementations. The asynchronous operations are
+ * bridged to the blocking operations by running them on the caller-supplied executor; plugins
+ * that can issue non-blocking cloud requests may override them.
  */
 public abstract class AbstractResourceProvider<R extends Resource<T>, T extends ResourceTemplate>
-    extends AbstractConfigured implements ResourceProvider<R, T> {
+    extends AbstractConfigured implements AsyncResourceProvider<R, T> {
 
   /**
    * The resource provider metadata.
@@ -95,7 +103,9 @@ public abstract class AbstractResourceProvider<R extends Resource<T>, T extends
 
   /**
    * Returns template configuration which may contain additional derived configuration property
-   * values in addition to the specified configuration.
+   * values in addition to the specified configuration. Implementations can return an
+   * {@link com.cloudera.director.spi.v2.model.util.OverlayConfiguration} of the derived values
+   * on top of the specified configuration, instead of copying it.
    *
    * @param name                        the name of the template
    * @param configuration               the configuration to be enhanced
@@ -117,4 +127,69 @@ public abstract class AbstractResourceProvider<R extends Resource<T>, T extends
   protected ConfigurationValidator getResourceTemplateConfigurationValidator() {
     return getProviderMetadata().getResourceTemplateConfigurationValidator();
   }
+
+  @Override
+  public CompletionStage<Collection<? extends R>> allocateAsync(final T template,
+      final Collection<String> resourceIds, final int minCount, Executor executor) {
+    return runAsync(new Callable<Collection<? extends R>>() {
+      @Override
+      public Collection<? extends R> call() throws InterruptedException {
+        return allocate(template, resourceIds, minCount);
+      }
+    }, executor);
+  }
+
+  @Override
+  public CompletionStage<Collection<? extends R>> findAsync(final T template,
+      final Collection<String> resourceIds, Executor executor) {
+    return runAsync(new Callable<Collection<? extends R>>() {
+      @Override
+      public Collection<? extends R> call() throws InterruptedException {
+        return find(template, resourceIds);
+      }
+    }, executor);
+  }
+
+  @Override
+  public CompletionStage<Void> deleteAsync(final T template, final Collection<String> resourceIds,
+      Executor executor) {
+    return runAsync(new Callable<Void>() {
+      @Override
+      public Void call() throws InterruptedException {
+        delete(template, resourceIds);
+        return null;
+      }
+    }, executor);
+  }
+
+  /**
+   * Runs the specified blocking operation on the specified executor, returning a completion stage
+   * that is completed with its result or with the exception or error it throws, so that the
+   * completion stage is never left pending. If the operation is interrupted, the interrupt status
+   * of the executing thread is restored.
+   *
+   * @param operation the blocking operation
+   * @param executor  the executor on which to run the operation
+   * @param <V>       the type of the result of the operation
+   * @return a completion stage for the result of the operation
+   */
+  static <V> CompletionStage<V> runAsync(final Callable<V> operation, Executor executor) {
+    checkNotNull(operation, "operation is null");
+    checkNotNull(executor, "executor is null");
+    final CompletableFuture<V> future = new CompletableFuture<V>();
+    executor.execute(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          future.complete(operation.call());
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          future.completeExceptionally(e);
+        } catch (Throwable e) {
+          future.completeExceptionally(e);
+        }
+      }
+    });
+    return future;
+  }
 }
@@ -0,0 +1,495 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.provider.util;
+
+import static com.cloudera.director.spi.v2.util.Preconditions.checkArgument;
+import static com.cloudera.director.spi.v2.util.Preconditions.checkNotNull;
+
+import com.cloudera.director.spi.v2.model.InstanceState;
+import com.cloudera.director.spi.v2.model.Resource;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>Read-through cache for the results of {@link ResourceProviderOperation#FIND} and
+ * {@link ResourceProviderOperation#GET_INSTANCE_STATE}. Results are cached per template group
+ * and resource ID for a fixed time to live, in a cache of bounded size which evicts the least
+ * recently used entries first. A call is forwarded to the provider only for the IDs which are
+ * not cached, and the cached and fetched results are combined.</p>
+ * <p>IDs which the provider does not return, from either operation, are cached as absent, so
+ * that repeated calls for unknown IDs are not forwarded again until the entry expires. Find calls
+ * with an empty ID collection, which list a whole automatic group, are not cached. Allocate and
+ * delete calls made through the same interceptor invalidate the cached entries of their template
+ * group. A result fetched while an invalidation of its template group took place is returned but
+ * not cached, since it may predate the allocate or delete call. Other operations proceed
+ * unchanged.</p>
+ */
+public class CachingInterceptor implements ResourceProviderInterceptor {
+
+  /**
+   * The marker cached for resources which were not found.
+   */
+  private static final Object ABSENT = new Object();
+
+  /**
+   * The time to live of cache entries, in nanoseconds.
+   */
+  private final long ttlNanos;
+
+  /**
+   * The maximum number of cache entries.
+   */
+  private final int maxSize;
+
+  /**
+   * The cache entries, in least recently used order, guarded by itself.
+   */
+  private final LinkedHashMap<CacheKey, CacheEntry> entries;
+
+  /**
+   * The fetches in progress, by template group, guarded by the cache entries. A template group
+   * is only present while at least one of its fetches is in progress.
+   */
+  private final Map<TemplateKey, PendingFetches> pendingFetches =
+      new HashMap<TemplateKey, PendingFetches>();
+
+  /**
+   * The number of IDs answered from the cache.
+   */
+  private final AtomicLong hitCount = new AtomicLong();
+
+  /**
+   * The number of IDs forwarded to the provider.
+   */
+  private final AtomicLong missCount = new AtomicLong();
+
+  /**
+   * The number of entries evicted to respect the size bound.
+   */
+  private final AtomicLong evictionCount = new AtomicLong();
+
+  /**
+   * Creates a caching interceptor with the specified parameters.
+   *
+   * @param ttl     the time to live of cache entries
+   * @param unit    the time unit of the time to live
+   * @param maxSize the maximum number of cache entries
+   */
+  public CachingInterceptor(long ttl, TimeUnit unit, final int maxSize) {
+    checkNotNull(unit, "unit is null");
+    checkArgument(ttl > 0, "ttl must be positive: " + ttl);
+    checkArgument(maxSize > 0, "maxSize must be positive: " + maxSize);
+    this.ttlNanos = unit.toNanos(ttl);
+    this.maxSize = maxSize;
+    this.entries = new LinkedHashMap<CacheKey, CacheEntry>(16, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<CacheKey, CacheEntry> eldest) {
+        if (size() > maxSize) {
+          evictionCount.incrementAndGet();
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  /**
+   * Returns the maximum number of cache entries.
+   *
+   * @return the maximum number of cache entries
+   */
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  /**
+   * Returns the number of IDs answered from the cache.
+   *
+   * @return the number of IDs answered from the cache
+   */
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  /**
+   * Returns the number of IDs forwarded to the provider because they were not cached.
+   *
+   * @return the number of IDs forwarded to the provider because they were not cached
+   */
+  public long getMissCount() {
+    return missCount.get();
+  }
+
+  /**
+   * Returns the number of entries evicted to respect the size bound.
+   *
+   * @return the number of entries evicted to respect the size bound
+   */
+  public long getEvictionCount() {
+    return evictionCount.get();
+  }
+
+  /**
+   * Returns the current number of cache entries, including expired entries not yet removed.
+   *
+   * @return the current number of cache entries
+   */
+  public int size() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  /**
+   * Removes all cache entries.
+   */
+  public void invalidateAll() {
+    synchronized (entries) {
+      entries.clear();
+      for (PendingFetches pending : pendingFetches.values()) {
+        pending.generation++;
+      }
+    }
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <V> V intercept(ResourceProviderInvocation<V> invocation) throws InterruptedException {
+    switch (invocation.getOperation()) {
+      case FIND:
+        if (invocation.getResourceIds().isEmpty()) {
+          return invocation.proceed();
+        }
+        return (V) find((ResourceProviderInvocation<Collection<? extends Resource<?>>>) invocation);
+      case GET_INSTANCE_STATE:
+        return (V) getInstanceState(
+            (ResourceProviderInvocation<Map<String, InstanceState>>) invocation);
+      case ALLOCATE:
+      case DELETE:
+        try {
+          return invocation.proceed();
+        } finally {
+          invalidate(invocation);
+        }
+      default:
+        return invocation.proceed();
+    }
+  }
+
+  /**
+   * Answers a find call from the cache, forwarding it for the IDs which are not cached.
+   *
+   * @param invocation the call
+   * @return the resources which still exist
+   * @throws InterruptedException if the operation is interrupted
+   */
+  private Collection<? extends Resource<?>> find(
+      ResourceProviderInvocation<Collection<? extends Resource<?>>> invocation)
+      throws InterruptedException {
+    TemplateKey templateKey = new TemplateKey(invocation);
+    List<Resource<?>> result = new ArrayList<Resource<?>>();
+    List<String> missingIds = new ArrayList<String>();
+    long generation = lookup(templateKey, ResourceProviderOperation.FIND,
+        invocation.getResourceIds(), result, missingIds, null);
+    if (!missingIds.isEmpty()) {
+      Map<String, Object> fetched = null;
+      try {
+        Collection<? extends Resource<?>> found = invocation.proceed(missingIds);
+        fetched = absent(missingIds);
+        for (Resource<?> resource : found) {
+          result.add(resource);
+          fetched.put(resource.getId(), resource);
+        }
+      } finally {
+        complete(templateKey, ResourceProviderOperation.FIND, fetched, generation);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Answers a get instance state call from the cache, forwarding it for the IDs which are not
+   * cached.
+   *
+   * @param invocation the call
+   * @return the map from instance identifiers to instance state
+   * @throws InterruptedException if the operation is interrupted
+   */
+  private Map<String, InstanceState> getInstanceState(
+      ResourceProviderInvocation<Map<String, InstanceState>> invocation)
+      throws InterruptedException {
+    TemplateKey templateKey = new TemplateKey(invocation);
+    List<InstanceState> cached = new ArrayList<InstanceState>();
+    List<String> missingIds = new ArrayList<String>();
+    List<String> cachedIds = new ArrayList<String>();
+    long generation = lookup(templateKey, ResourceProviderOperation.GET_INSTANCE_STATE,
+        invocation.getResourceIds(), cached, missingIds, cachedIds);
+
+    Map<String, InstanceState> result = new HashMap<String, InstanceState>();
+    for (int i = 0; i < cachedIds.size(); i++) {
+      result.put(cachedIds.get(i), cached.get(i));
+    }
+    if (!missingIds.isEmpty()) {
+      Map<String, Object> fetched = null;
+      try {
+        Map<String, InstanceState> states = invocation.proceed(missingIds);
+        result.putAll(states);
+        fetched = absent(missingIds);
+        fetched.putAll(states);
+      } finally {
+        complete(templateKey, ResourceProviderOperation.GET_INSTANCE_STATE, fetched, generation);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns a map from each of the specified IDs to the marker for absent resources.
+   *
+   * @param resourceIds the IDs
+   * @return a map from each of the IDs to the marker for absent resources
+   */
+  private static Map<String, Object> absent(Collection<String> resourceIds) {
+    Map<String, Object> values = new HashMap<String, Object>();
+    for (String resourceId : resourceIds) {
+      values.put(resourceId, ABSENT);
+    }
+    return values;
+  }
+
+  /**
+   * Looks up the specified IDs in the cache, removing expired entries. If any ID is not cached,
+   * registers a fetch of the template group, which must be completed with {@link #complete}, and
+   * returns the current generation of the template group.
+   *
+   * @param templateKey the template group
+   * @param operation   the operation
+   * @param resourceIds the IDs to look up
+   * @param values      the list to which cached values are added, skipping absent resources
+   * @param missingIds  the list to which IDs which are not cached are added
+   * @param valueIds    the list to which the IDs of the values added are added, in the same
+   *                    order, or {@code null}
+   * @param <E>         type of the cached values
+   * @return the current generation of the template group, if any ID is not cached
+   */
+  @SuppressWarnings("unchecked")
+  private <E> long lookup(TemplateKey templateKey, ResourceProviderOperation operation,
+      Collection<String> resourceIds, List<E> values, List<String> missingIds,
+      List<String> valueIds) {
+    long generation = 0L;
+    long now = System.nanoTime();
+    synchronized (entries) {
+      for (String resourceId : resourceIds) {
+        CacheKey key = new CacheKey(templateKey, operation, resourceId);
+        CacheEntry entry = entries.get(key);
+        if (entry != null && now - entry.expiresAt >= 0) {
+          entries.remove(key);
+          entry = null;
+        }
+        if (entry == null) {
+          missingIds.add(resourceId);
+        } else if (entry.value != ABSENT) {
+          values.add((E) entry.value);
+          if (valueIds != null) {
+            valueIds.add(resourceId);
+          }
+        }
+      }
+      if (!missingIds.isEmpty()) {
+        PendingFetches pending = pendingFetches.get(templateKey);
+        if (pending == null) {
+          pending = new PendingFetches();
+          pendingFetches.put(templateKey, pending);
+        }
+        pending.count++;
+        generation = pending.generation;
+      }
+    }
+    hitCount.addAndGet(resourceIds.size() - missingIds.size());
+    missCount.addAndGet(missingIds.size());
+    return generation;
+  }
+
+  /**
+   * Completes a fetch registered by {@link #lookup}, storing the fetched values in the cache
+   * unless entries of the template group have been invalidated since the values were looked up.
+   *
+   * @param templateKey the template group
+   * @param operation   the operation
+   * @param values      the values, by ID, or {@code null} if the fetch failed
+   * @param generation  the generation of the template group when the values were looked up
+   */
+  private void complete(TemplateKey templateKey, ResourceProviderOperation operation,
+      Map<String, Object> values, long generation) {
+    long expiresAt = System.nanoTime() + ttlNanos;
+    synchronized (entries) {
+      PendingFetches pending = pendingFetches.get(templateKey);
+      if (--pending.count == 0) {
+        pendingFetches.remove(templateKey);
+      }
+      if (values == null || pending.generation != generation) {
+        return;
+      }
+      for (Map.Entry<String, Object> value : values.entrySet()) {
+        entries.put(new CacheKey(templateKey, operation, value.getKey()),
+            new CacheEntry(value.getValue(), expiresAt));
+      }
+    }
+  }
+
+  /**
+   * Removes the cache entries affected by the specified allocate or delete call. A delete call
+   * for specific IDs invalidates those IDs; any other call invalidates its whole template group.
+   *
+   * @param invocation the call
+   */
+  private void invalidate(ResourceProviderInvocation<?> invocation) {
+    TemplateKey templateKey = new TemplateKey(invocation);
+    Collection<String> resourceIds = invocation.getResourceIds();
+    boolean wholeGroup = invocation.getOperation() == ResourceProviderOperation.ALLOCATE
+        || resourceIds.isEmpty();
+    synchronized (entries) {
+      PendingFetches pending = pendingFetches.get(templateKey);
+      if (pending != null) {
+        pending.generation++;
+      }
+      if (wholeGroup) {
+        Iterator<CacheKey> iterator = entries.keySet().iterator();
+        while (iterator.hasNext()) {
+          if (iterator.next().templateKey.equals(templateKey)) {
+            iterator.remove();
+          }
+        }
+      } else {
+        for (String resourceId : resourceIds) {
+          entries.remove(new CacheKey(templateKey, ResourceProviderOperation.FIND, resourceId));
+          entries.remove(
+              new CacheKey(templateKey, ResourceProviderOperation.GET_INSTANCE_STATE, resourceId));
+        }
+      }
+    }
+  }
+
+  /**
+   * The key of a cache entry.
+   */
+  private static final class CacheKey {
+
+    /**
+     * The template group.
+     */
+    private final TemplateKey templateKey;
+
+    /**
+     * The operation.
+     */
+    private final ResourceProviderOperation operation;
+
+    /**
+     * The resource ID.
+     */
+    private final String resourceId;
+
+    /**
+     * Creates a cache key with the specified parameters.
+     *
+     * @param templateKey the template group
+     * @param operation   the operation
+     * @param resourceId  the resource ID
+     */
+    private CacheKey(TemplateKey templateKey, ResourceProviderOperation operation,
+        String resourceId) {
+      this.templateKey = templateKey;
+      this.operation = operation;
+      this.resourceId = resourceId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      CacheKey that = (CacheKey) o;
+      return templateKey.equals(that.templateKey)
+          && operation == that.operation
+          && resourceId.equals(that.resourceId);
+    }
+
+    @Override
+    public int hashCode() {
+      int result = templateKey.hashCode();
+      result = 31 * result + operation.hashCode();
+      result = 31 * result + resourceId.hashCode();
+      return result;
+    }
+  }
+
+  /**
+   * A cached value and its expiry time.
+   */
+  private static final class CacheEntry {
+
+    /**
+     * The cached value, or {@link #ABSENT} if the resource was not found.
+     */
+    private final Object value;
+
+    /**
+     * The {@link System#nanoTime()} at which the entry expires.
+     */
+    private final long expiresAt;
+
+    /**
+     * Creates a cache entry with the specified parameters.
+     *
+     * @param value     the cached value
+     * @param expiresAt the time at which the entry expires
+     */
+    private CacheEntry(Object value, long expiresAt) {
+      this.value = value;
+      this.expiresAt = expiresAt;
+    }
+  }
+
+  /**
+   * The fetches in progress for a template group.
+   */
+  private static final class PendingFetches {
+
+    /**
+     * The number of fetches in progress.
+     */
+    private int count;
+
+    /**
+     * The generation of the template group, incremented whenever entries of the group are
+     * invalidated while fetches are in progress.
+     */
+    private long generation;
+  }
+}
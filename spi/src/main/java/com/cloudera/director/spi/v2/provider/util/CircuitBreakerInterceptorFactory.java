@@ -0,0 +1,549 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.provider.util;
+
+import static com.cloudera.director.spi.v2.util.Preconditions.checkArgument;
+import static com.cloudera.director.spi.v2.util.Preconditions.checkNotNull;
+
+import com.cloudera.director.spi.v2.model.exception.PluginExceptionCondition;
+import com.cloudera.director.spi.v2.model.exception.PluginExceptionConditionAccumulator;
+import com.cloudera.director.spi.v2.model.exception.PluginExceptionDetails;
+import com.cloudera.director.spi.v2.model.exception.TransientProviderException;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Interceptor factory which protects callers from a degraded cloud with one circuit breaker
+ * per cloud provider ID and resource provider ID. Each breaker records the outcome of the last
+ * calls in a sliding window, counting calls which fail with a {@link TransientProviderException}
+ * or take longer than the slow call threshold as failures. Calls which fail with any other
+ * exception or are interrupted are not recorded.</p>
+ * <p>When the failure rate in the window reaches the threshold, the breaker opens and calls fail
+ * fast with a {@code TransientProviderException} whose details describe the open breaker. After
+ * the open duration, the breaker is half-open and lets a limited number of trial calls through:
+ * if they all succeed the breaker closes, and if any fails it opens again. Only the outcomes of
+ * the trial calls decide the state of a half-open breaker; calls which started before it became
+ * half-open are ignored.</p>
+ */
+public class CircuitBreakerInterceptorFactory implements ResourceProviderInterceptorFactory {
+
+  /**
+   * The permit of a call which is not a trial call.
+   */
+  private static final long NOT_A_TRIAL = -1L;
+
+  /**
+   * The exception info key for the cloud provider ID.
+   */
+  public static final String KEY_CLOUD_PROVIDER_ID = "cloudProviderId";
+
+  /**
+   * The exception info key for the resource provider ID.
+   */
+  public static final String KEY_RESOURCE_PROVIDER_ID = "resourceProviderId";
+
+  /**
+   * The exception info key for the circuit breaker state.
+   */
+  public static final String KEY_STATE = "circuitBreakerState";
+
+  /**
+   * The exception info key for the time until trial calls are allowed, in milliseconds.
+   */
+  public static final String KEY_RETRY_AFTER_MILLIS = "retryAfterMillis";
+
+  /**
+   * The states of a circuit breaker.
+   */
+  public enum State {
+
+    /**
+     * Calls proceed and their outcomes are recorded.
+     */
+    CLOSED,
+
+    /**
+     * Calls fail fast.
+     */
+    OPEN,
+
+    /**
+     * A limited number of trial calls proceed to probe whether the cloud has recovered.
+     */
+    HALF_OPEN
+  }
+
+  /**
+   * Returns a builder for circuit breaker interceptor factories.
+   *
+   * @return a builder for circuit breaker interceptor factories
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * The failure rate at which a breaker opens.
+   */
+  private final double failureRateThreshold;
+
+  /**
+   * The number of calls in the sliding window.
+   */
+  private final int slidingWindowSize;
+
+  /**
+   * The minimum number of recorded calls before the failure rate is evaluated.
+   */
+  private final int minimumCalls;
+
+  /**
+   * The duration above which a call counts as a failure, in nanoseconds.
+   */
+  private final long slowCallThresholdNanos;
+
+  /**
+   * How long a breaker stays open before allowing trial calls, in nanoseconds.
+   */
+  private final long openDurationNanos;
+
+  /**
+   * The number of trial calls allowed while half-open.
+   */
+  private final int halfOpenTrialCalls;
+
+  /**
+   * The circuit breakers, by cloud provider ID and resource provider ID.
+   */
+  private final ConcurrentMap<List<String>, CircuitBreaker> breakers =
+      new ConcurrentHashMap<List<String>, CircuitBreaker>();
+
+  /**
+   * Creates a circuit breaker interceptor factory from the specified builder.
+   *
+   * @param builder the builder
+   */
+  private CircuitBreakerInterceptorFactory(Builder builder) {
+    this.failureRateThreshold = builder.failureRateThreshold;
+    this.slidingWindowSize = builder.slidingWindowSize;
+    this.minimumCalls = Math.min(builder.minimumCalls, builder.slidingWindowSize);
+    this.slowCallThresholdNanos = builder.slowCallThresholdNanos;
+    this.openDurationNanos = builder.openDurationNanos;
+    this.halfOpenTrialCalls = builder.halfOpenTrialCalls;
+  }
+
+  @Override
+  public ResourceProviderInterceptor createInterceptor(String cloudProviderId,
+      String resourceProviderId) {
+    final CircuitBreaker breaker = getBreaker(
+        checkNotNull(cloudProviderId, "cloudProviderId is null"),
+        checkNotNull(resourceProviderId, "resourceProviderId is null"));
+    return new ResourceProviderInterceptor() {
+      @Override
+      public <V> V intercept(ResourceProviderInvocation<V> invocation)
+          throws InterruptedException {
+        long permit = breaker.acquirePermission();
+        long start = System.nanoTime();
+        boolean recorded = false;
+        try {
+          V result = invocation.proceed();
+          recorded = true;
+          breaker.record(permit, System.nanoTime() - start > slowCallThresholdNanos);
+          return result;
+        } catch (TransientProviderException e) {
+          recorded = true;
+          breaker.record(permit, true);
+          throw e;
+        } finally {
+          if (!recorded) {
+            breaker.releasePermission(permit);
+          }
+        }
+      }
+    };
+  }
+
+  /**
+   * Returns the state of the circuit breaker for the specified resource provider.
+   *
+   * @param cloudProviderId    the cloud provider ID
+   * @param resourceProviderId the resource provider ID
+   * @return the state of the circuit breaker
+   */
+  public State getState(String cloudProviderId, String resourceProviderId) {
+    return getBreaker(cloudProviderId, resourceProviderId).getState();
+  }
+
+  /**
+   * Returns the circuit breaker for the specified resource provider, creating it if necessary.
+   *
+   * @param cloudProviderId    the cloud provider ID
+   * @param resourceProviderId the resource provider ID
+   * @return the circuit breaker
+   */
+  private CircuitBreaker getBreaker(String cloudProviderId, String resourceProviderId) {
+    List<String> key = Arrays.asList(cloudProviderId, resourceProviderId);
+    CircuitBreaker breaker = breakers.get(key);
+    if (breaker == null) {
+      breaker = new CircuitBreaker(cloudProviderId, resourceProviderId);
+      CircuitBreaker existing = breakers.putIfAbsent(key, breaker);
+      if (existing != null) {
+        breaker = existing;
+      }
+    }
+    return breaker;
+  }
+
+  /**
+   * The circuit breaker of one resource provider. All state is guarded by the breaker.
+   */
+  private final class CircuitBreaker {
+
+    /**
+     * The cloud provider ID.
+     */
+    private final String cloudProviderId;
+
+    /**
+     * The resource provider ID.
+     */
+    private final String resourceProviderId;
+
+    /**
+     * The outcomes of the recorded calls, as a ring buffer; {@code true} marks a failure.
+     */
+    private final boolean[] outcomes = new boolean[slidingWindowSize];
+
+    /**
+     * The position of the next outcome in the ring buffer.
+     */
+    private int nextOutcome;
+
+    /**
+     * The number of recorded outcomes.
+     */
+    private int recordedCalls;
+
+    /**
+     * The number of recorded failures.
+     */
+    private int recordedFailures;
+
+    /**
+     * The state.
+     */
+    private State state = State.CLOSED;
+
+    /**
+     * The {@link System#nanoTime()} at which the breaker last opened.
+     */
+    private long openedAt;
+
+    /**
+     * The number of trial calls which may still start while half-open.
+     */
+    private int trialPermits;
+
+    /**
+     * The number of successful trial calls while half-open.
+     */
+    private int trialSuccesses;
+
+    /**
+     * The number of times the breaker has become half-open, identifying the trial permits of the
+     * current half-open period.
+     */
+    private long trialPeriod;
+
+    /**
+     * Creates a closed circuit breaker with the specified parameters.
+     *
+     * @param cloudProviderId    the cloud provider ID
+     * @param resourceProviderId the resource provider ID
+     */
+    private CircuitBreaker(String cloudProviderId, String resourceProviderId) {
+      this.cloudProviderId = cloudProviderId;
+      this.resourceProviderId = resourceProviderId;
+    }
+
+    /**
+     * Returns the state, moving from open to half-open if the open duration has elapsed.
+     *
+     * @return the state
+     */
+    private synchronized State getState() {
+      if (state == State.OPEN && System.nanoTime() - openedAt >= openDurationNanos) {
+        state = State.HALF_OPEN;
+        trialPermits = halfOpenTrialCalls;
+        trialSuccesses = 0;
+        trialPeriod++;
+      }
+      return state;
+    }
+
+    /**
+     * Lets a call proceed, or fails it fast if the breaker is open or no trial calls remain.
+     *
+     * @return the permit of the call, which is the half-open period of a trial call, or
+     * {@link #NOT_A_TRIAL}
+     * @throws TransientProviderException if the call is not allowed
+     */
+    private synchronized long acquirePermission() {
+      State currentState = getState();
+      if (currentState == State.CLOSED) {
+        return NOT_A_TRIAL;
+      }
+      if (currentState == State.HALF_OPEN && trialPermits > 0) {
+        trialPermits--;
+        return trialPeriod;
+      }
+      long retryAfterNanos = Math.max(openDurationNanos - (System.nanoTime() - openedAt), 0L);
+      throw openException(currentState, TimeUnit.NANOSECONDS.toMillis(retryAfterNanos));
+    }
+
+    /**
+     * Returns the trial permit of a call whose outcome is not recorded, if it was acquired in the
+     * current half-open period.
+     *
+     * @param permit the permit of the call
+     */
+    private synchronized void releasePermission(long permit) {
+      if (isCurrentTrial(permit)) {
+        trialPermits++;
+      }
+    }
+
+    /**
+     * Records the outcome of a call. The outcome of a trial call is only recorded in the
+     * half-open period in which it started, and that of any other call only while closed.
+     *
+     * @param permit  the permit of the call
+     * @param failure whether the call failed
+     */
+    private synchronized void record(long permit, boolean failure) {
+      if (permit != NOT_A_TRIAL) {
+        if (isCurrentTrial(permit)) {
+          if (failure) {
+            open();
+          } else if (++trialSuccesses >= halfOpenTrialCalls) {
+            close();
+          }
+        }
+      } else if (state == State.CLOSED) {
+        if (recordedCalls == outcomes.length) {
+          if (outcomes[nextOutcome]) {
+            recordedFailures--;
+          }
+        } else {
+          recordedCalls++;
+        }
+        outcomes[nextOutcome] = failure;
+        nextOutcome = (nextOutcome + 1) % outcomes.length;
+        if (failure) {
+          recordedFailures++;
+        }
+        if (recordedCalls >= minimumCalls
+            && recordedFailures >= failureRateThreshold * recordedCalls) {
+          open();
+        }
+      }
+    }
+
+    /**
+     * Returns whether the specified permit is a trial permit of the current half-open period.
+     *
+     * @param permit the permit of a call
+     * @return whether the permit is a trial permit of the current half-open period
+     */
+    private boolean isCurrentTrial(long permit) {
+      return state == State.HALF_OPEN && permit == trialPeriod;
+    }
+
+    /**
+     * Opens the breaker.
+     */
+    private void open() {
+      state = State.OPEN;
+      openedAt = System.nanoTime();
+    }
+
+    /**
+     * Closes the breaker and clears the sliding window.
+     */
+    private void close() {
+      state = State.CLOSED;
+      nextOutcome = 0;
+      recordedCalls = 0;
+      recordedFailures = 0;
+    }
+
+    /**
+     * Returns the exception thrown by calls which are not allowed.
+     *
+     * @param currentState     the current state
+     * @param retryAfterMillis the time until trial calls are allowed, in milliseconds
+     * @return the exception thrown by calls which are not allowed
+     */
+    private TransientProviderException openException(State currentState, long retryAfterMillis) {
+      String message = String.format(
+          "Circuit breaker for resource provider %s of cloud provider %s is %s",
+          resourceProviderId, cloudProviderId, currentState);
+      Map<String, String> exceptionInfo = new HashMap<String, String>();
+      exceptionInfo.put(PluginExceptionCondition.KEY_MESSAGE, message);
+      exceptionInfo.put(KEY_CLOUD_PROVIDER_ID, cloudProviderId);
+      exceptionInfo.put(KEY_RESOURCE_PROVIDER_ID, resourceProviderId);
+      exceptionInfo.put(KEY_STATE, currentState.name());
+      exceptionInfo.put(KEY_RETRY_AFTER_MILLIS, String.valueOf(retryAfterMillis));
+      PluginExceptionConditionAccumulator accumulator = new PluginExceptionConditionAccumulator();
+      accumulator.addError(exceptionInfo);
+      return new TransientProviderException(message,
+          new PluginExceptionDetails(accumulator.getConditionsByKey()));
+    }
+  }
+
+  /**
+   * Builder for circuit breaker interceptor factories.
+   */
+  public static final class Builder {
+
+    /**
+     * The failure rate at which a breaker opens.
+     */
+    private double failureRateThreshold = 0.5;
+
+    /**
+     * The number of calls in the sliding window.
+     */
+    private int slidingWindowSize = 20;
+
+    /**
+     * The minimum number of recorded calls before the failure rate is evaluated.
+     */
+    private int minimumCalls = 10;
+
+    /**
+     * The duration above which a call counts as a failure, in nanoseconds.
+     */
+    private long slowCallThresholdNanos = TimeUnit.MINUTES.toNanos(2L);
+
+    /**
+     * How long a breaker stays open before allowing trial calls, in nanoseconds.
+     */
+    private long openDurationNanos = TimeUnit.SECONDS.toNanos(30L);
+
+    /**
+     * The number of trial calls allowed while half-open.
+     */
+    private int halfOpenTrialCalls = 3;
+
+    /**
+     * Creates a builder with the default settings.
+     */
+    private Builder() {
+    }
+
+    /**
+     * Sets the failure rate at which a breaker opens, between 0 exclusive and 1 inclusive. The
+     * default is 0.5.
+     *
+     * @param failureRateThreshold the failure rate at which a breaker opens
+     * @return this builder
+     */
+    public Builder failureRateThreshold(double failureRateThreshold) {
+      checkArgument(failureRateThreshold > 0.0 && failureRateThreshold <= 1.0,
+          "failureRateThreshold must be in (0, 1]: " + failureRateThreshold);
+      this.failureRateThreshold = failureRateThreshold;
+      return this;
+    }
+
+    /**
+     * Sets the number of calls in the sliding window. The default is 20.
+     *
+     * @param slidingWindowSize the number of calls in the sliding window
+     * @return this builder
+     */
+    public Builder slidingWindowSize(int slidingWindowSize) {
+      checkArgument(slidingWindowSize > 0, "slidingWindowSize must be positive: " + slidingWindowSize);
+      this.slidingWindowSize = slidingWindowSize;
+      return this;
+    }
+
+    /**
+     * Sets the minimum number of recorded calls before the failure rate is evaluated. The
+     * default is 10.
+     *
+     * @param minimumCalls the minimum number of recorded calls
+     * @return this builder
+     */
+    public Builder minimumCalls(int minimumCalls) {
+      checkArgument(minimumCalls > 0, "minimumCalls must be positive: " + minimumCalls);
+      this.minimumCalls = minimumCalls;
+      return this;
+    }
+
+    /**
+     * Sets the duration above which a call counts as a failure. The default is 2 minutes.
+     *
+     * @param slowCallThreshold the duration above which a call counts as a failure
+     * @param unit              the time unit of the duration
+     * @return this builder
+     */
+    public Builder slowCallThreshold(long slowCallThreshold, TimeUnit unit) {
+      checkArgument(slowCallThreshold > 0, "slowCallThreshold must be positive: " + slowCallThreshold);
+      this.slowCallThresholdNanos = checkNotNull(unit, "unit is null").toNanos(slowCallThreshold);
+      return this;
+    }
+
+    /**
+     * Sets how long a breaker stays open before allowing trial calls. The default is 30 seconds.
+     *
+     * @param openDuration how long a breaker stays open
+     * @param unit         the time unit of the duration
+     * @return this builder
+     */
+    public Builder openDuration(long openDuration, TimeUnit unit) {
+      checkArgument(openDuration > 0, "openDuration must be positive: " + openDuration);
+      this.openDurationNanos = checkNotNull(unit, "unit is null").toNanos(openDuration);
+      return this;
+    }
+
+    /**
+     * Sets the number of trial calls allowed while half-open. The default is 3.
+     *
+     * @param halfOpenTrialCalls the number of trial calls allowed while half-open
+     * @return this builder
+     */
+    public Builder halfOpenTrialCalls(int halfOpenTrialCalls) {
+      checkArgument(halfOpenTrialCalls > 0, "halfOpenTrialCalls must be positive: " + halfOpenTrialCalls);
+      this.halfOpenTrialCalls = halfOpenTrialCalls;
+      return this;
+    }
+
+    /**
+     * Builds a circuit breaker interceptor factory with the settings of this builder.
+     *
+     * @return a circuit breaker interceptor factory
+     */
+    public CircuitBreakerInterceptorFactory build() {
+      return new CircuitBreakerInterceptorFactory(this);
+    }
+  }
+}
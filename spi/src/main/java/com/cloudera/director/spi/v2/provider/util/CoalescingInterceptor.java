@@ -0,0 +1,371 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.provider.util;
+
+import static com.cloudera.director.spi.v2.util.Preconditions.checkArgument;
+import static com.cloudera.director.spi.v2.util.Preconditions.checkNotNull;
+
+import com.cloudera.director.spi.v2.model.InstanceState;
+import com.cloudera.director.spi.v2.model.exception.UnrecoverableProviderException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Interceptor which coalesces concurrent {@link ResourceProviderOperation#GET_INSTANCE_STATE}
+ * calls. A call for a template group for which no bulk call is in progress is made immediately,
+ * so that uncontended calls incur no delay. A call arriving while a bulk call for its template
+ * group is in progress opens a batch instead, and waits for the coalescing window to elapse or
+ * for the batch to reach its size limit; calls for the same template group arriving in the
+ * meantime add their instance IDs to the batch. A call whose IDs would take the batch over its
+ * size limit closes the batch and opens a new one, and a call with more IDs than the size limit
+ * is made on its own. A single bulk call is then made for all of the IDs of the batch, and each
+ * caller receives the subset of the result for the IDs it asked for. If the caller which opened
+ * the batch is interrupted during the bulk call, the other callers make their own calls instead.
+ * Other operations proceed unchanged.
+ */
+public class CoalescingInterceptor implements ResourceProviderInterceptor {
+
+  /**
+   * The default coalescing window, in milliseconds.
+   */
+  public static final long DEFAULT_WINDOW_MILLIS = 10L;
+
+  /**
+   * The default maximum number of instance IDs in a batch.
+   */
+  public static final int DEFAULT_MAX_BATCH_SIZE = 500;
+
+  /**
+   * The coalescing window, in nanoseconds.
+   */
+  private final long windowNanos;
+
+  /**
+   * The maximum number of instance IDs in a batch.
+   */
+  private final int maxBatchSize;
+
+  /**
+   * The coalescing state of each template group with a bulk call in progress or an open batch.
+   */
+  private final ConcurrentMap<TemplateKey, TemplateBatches> templateBatches =
+      new ConcurrentHashMap<TemplateKey, TemplateBatches>();
+
+  /**
+   * Creates a coalescing interceptor with the default window and batch size.
+   */
+  public CoalescingInterceptor() {
+    this(DEFAULT_WINDOW_MILLIS, TimeUnit.MILLISECONDS, DEFAULT_MAX_BATCH_SIZE);
+  }
+
+  /**
+   * Creates a coalescing interceptor with the specified parameters.
+   *
+   * @param window       the coalescing window
+   * @param unit         the time unit of the coalescing window
+   * @param maxBatchSize the maximum number of instance IDs in a batch
+   */
+  public CoalescingInterceptor(long window, TimeUnit unit, int maxBatchSize) {
+    checkNotNull(unit, "unit is null");
+    checkArgument(window >= 0, "window must not be negative: " + window);
+    checkArgument(maxBatchSize > 0, "maxBatchSize must be positive: " + maxBatchSize);
+    this.windowNanos = unit.toNanos(window);
+    this.maxBatchSize = maxBatchSize;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <V> V intercept(ResourceProviderInvocation<V> invocation) throws InterruptedException {
+    if (invocation.getOperation() != ResourceProviderOperation.GET_INSTANCE_STATE) {
+      return invocation.proceed();
+    }
+    return (V) coalesce((ResourceProviderInvocation<Map<String, InstanceState>>) invocation);
+  }
+
+  /**
+   * Makes the specified call immediately if no bulk call for its template group is in progress,
+   * and otherwise joins or opens the batch for its template group, and returns the subset of the
+   * batch result for the instance IDs of the call.
+   *
+   * @param invocation the call
+   * @return the instance states of the instances of the call
+   * @throws InterruptedException if the operation is interrupted
+   */
+  private Map<String, InstanceState> coalesce(
+      ResourceProviderInvocation<Map<String, InstanceState>> invocation)
+      throws InterruptedException {
+    Set<String> instanceIds = new LinkedHashSet<String>(invocation.getResourceIds());
+    if (instanceIds.size() > maxBatchSize) {
+      return invocation.proceed();
+    }
+    TemplateKey key = new TemplateKey(invocation);
+    TemplateBatches batches;
+    Batch batch;
+    boolean leader = false;
+    while (true) {
+      batches = templateBatches.get(key);
+      if (batches == null) {
+        batches = new TemplateBatches();
+        TemplateBatches existing = templateBatches.putIfAbsent(key, batches);
+        if (existing != null) {
+          batches = existing;
+        }
+      }
+      synchronized (batches) {
+        if (batches.removed) {
+          continue;
+        }
+        batch = batches.open;
+        if (batch != null && batch.fits(instanceIds, maxBatchSize)) {
+          batch.instanceIds.addAll(instanceIds);
+          if (batch.instanceIds.size() >= maxBatchSize) {
+            batches.close(batch);
+          }
+        } else {
+          if (batch != null) {
+            batches.close(batch);
+          }
+          if (batches.inProgress == 0 || windowNanos == 0) {
+            batches.inProgress++;
+            batch = null;
+          } else {
+            batch = new Batch();
+            batch.instanceIds.addAll(instanceIds);
+            batches.open = batch;
+            leader = true;
+            if (batch.instanceIds.size() >= maxBatchSize) {
+              batches.close(batch);
+            }
+          }
+        }
+      }
+      break;
+    }
+
+    if (batch == null) {
+      try {
+        return invocation.proceed();
+      } finally {
+        complete(key, batches);
+      }
+    }
+    if (leader) {
+      runBatch(key, batches, batch, invocation);
+    }
+    Map<String, InstanceState> states = awaitResult(batch);
+    if (states == null) {
+      return invocation.proceed();
+    }
+    return select(states, invocation.getResourceIds());
+  }
+
+  /**
+   * Waits for the coalescing window to elapse or the batch to fill up, then makes the bulk call
+   * for the batch and publishes its result or failure.
+   *
+   * @param key        the template group of the batch
+   * @param batches    the coalescing state of the template group
+   * @param batch      the batch
+   * @param invocation the call which opened the batch
+   * @throws InterruptedException if the bulk call is interrupted
+   */
+  private void runBatch(TemplateKey key, TemplateBatches batches, Batch batch,
+      ResourceProviderInvocation<Map<String, InstanceState>> invocation)
+      throws InterruptedException {
+    boolean interrupted = false;
+    Collection<String> instanceIds;
+    synchronized (batches) {
+      long deadline = System.nanoTime() + windowNanos;
+      long remaining = windowNanos;
+      while (!batch.closed && remaining > 0) {
+        try {
+          TimeUnit.NANOSECONDS.timedWait(batches, remaining);
+        } catch (InterruptedException e) {
+          interrupted = true;
+          break;
+        }
+        remaining = deadline - System.nanoTime();
+      }
+      if (!batch.closed) {
+        batches.close(batch);
+      }
+      instanceIds = new ArrayList<String>(batch.instanceIds);
+    }
+
+    try {
+      batch.result.complete(invocation.proceed(instanceIds));
+    } catch (InterruptedException e) {
+      batch.result.completeExceptionally(e);
+      throw e;
+    } catch (Throwable e) {
+      batch.result.completeExceptionally(e);
+    } finally {
+      complete(key, batches);
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Records the completion of a bulk call for the specified template group, discarding the
+   * coalescing state of the template group once it has no bulk call in progress and no open
+   * batch.
+   *
+   * @param key     the template group
+   * @param batches the coalescing state of the template group
+   */
+  private void complete(TemplateKey key, TemplateBatches batches) {
+    synchronized (batches) {
+      batches.inProgress--;
+      if (batches.inProgress == 0 && batches.open == null) {
+        batches.removed = true;
+        templateBatches.remove(key, batches);
+      }
+    }
+  }
+  /**
+   * Waits for the result of the specified batch.
+   *
+   * @param batch the batch
+   * @return the result of the bulk call, or {@code null} if the bulk call was interrupted
+   * @throws InterruptedException if the operation is interrupted
+   */
+  private static Map<String, InstanceState> awaitResult(Batch batch) throws InterruptedException {
+    try {
+      return batch.result.get();
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof InterruptedException) {
+        return null;
+      }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new UnrecoverableProviderException("Coalesced instance state call failed", cause);
+    }
+  }
+
+  /**
+   * Returns the subset of the specified instance states for the specified instance IDs.
+   *
+   * @param states      the instance states
+   * @param instanceIds the instance IDs
+   * @return the subset of the instance states for the instance IDs
+   */
+  private static Map<String, InstanceState> select(Map<String, InstanceState> states,
+      Collection<String> instanceIds) {
+    Map<String, InstanceState> selected = new HashMap<String, InstanceState>();
+    for (String instanceId : instanceIds) {
+      InstanceState state = states.get(instanceId);
+      if (state != null) {
+        selected.put(instanceId, state);
+      }
+    }
+    return selected;
+  }
+
+  /**
+   * The coalescing state of one template group. Each template group has its own monitor, so
+   * that batches of different template groups do not contend with each other.
+   */
+  private static final class TemplateBatches {
+
+    /**
+     * The number of bulk calls in progress or about to start, guarded by this object.
+     */
+    private int inProgress;
+
+    /**
+     * The open batch, or {@code null} if there is none, guarded by this object.
+     */
+    private Batch open;
+
+    /**
+     * Whether this state has been discarded, in which case callers must look up the state of
+     * the template group again, guarded by this object.
+     */
+    private boolean removed;
+
+    /**
+     * Closes the specified batch, so that no more calls join it, counts its bulk call as in
+     * progress, and wakes up the caller which opened it. Must be called with this object's
+     * monitor held.
+     *
+     * @param batch the batch
+     */
+    private void close(Batch batch) {
+      batch.closed = true;
+      if (open == batch) {
+        open = null;
+      }
+      inProgress++;
+      notifyAll();
+    }
+  }
+
+  /**
+   * A batch of coalesced calls for one template group.
+   */
+  private static final class Batch {
+
+    /**
+     * The instance IDs of all of the calls in the batch, guarded by the template group state.
+     */
+    private final Set<String> instanceIds = new LinkedHashSet<String>();
+
+    /**
+     * The result of the bulk call.
+     */
+    private final CompletableFuture<Map<String, InstanceState>> result =
+        new CompletableFuture<Map<String, InstanceState>>();
+
+    /**
+     * Whether the batch has been closed to further calls, guarded by the template group state.
+     */
+    private boolean closed;
+
+    /**
+     * Returns whether the specified instance IDs can be added to this batch without taking it
+     * over the specified size limit.
+     *
+     * @param ids          the instance IDs
+     * @param maxBatchSize the maximum number of instance IDs in a batch
+     * @return whether the instance IDs can be added to this batch
+     */
+    private boolean fits(Collection<String> ids, int maxBatchSize) {
+      int size = instanceIds.size();
+      for (String id : ids) {
+        if (!instanceIds.contains(id) && ++size > maxBatchSize) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+}
@@ -0,0 +1,88 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.provider.util;
+
+import static com.cloudera.director.spi.v2.util.Preconditions.checkNotNull;
+
+import com.cloudera.director.spi.v2.model.Configured;
+import com.cloudera.director.spi.v2.model.exception.PluginExceptionConditionAccumulator;
+import com.cloudera.director.spi.v2.provider.CloudProvider;
+import com.cloudera.director.spi.v2.provider.ResourceProvider;
+import com.cloudera.director.spi.v2.provider.ResourceProviderMetadata;
+
+/**
+ * Cloud provider which records its calls in a metrics sink, under its cloud provider ID, and
+ * instruments the resource providers it creates with an {@link InstrumentingInterceptor}.
+ */
+public class InstrumentedCloudProvider extends InterceptingCloudProvider {
+
+  /**
+   * The metrics sink.
+   */
+  private final MetricsSink metricsSink;
+
+  /**
+   * The ID of the cloud provider.
+   */
+  private final String cloudProviderId;
+
+  /**
+   * Creates an instrumented cloud provider with the specified parameters.
+   *
+   * @param delegate        the delegate cloud provider
+   * @param cloudProviderId the ID of the cloud provider
+   * @param metricsSink     the metrics sink
+   */
+  public InstrumentedCloudProvider(CloudProvider delegate, String cloudProviderId,
+      MetricsSink metricsSink) {
+    super(delegate, cloudProviderId, InstrumentingInterceptor.factory(metricsSink));
+    this.metricsSink = checkNotNull(metricsSink, "metricsSink is null");
+    this.cloudProviderId = cloudProviderId;
+  }
+
+  @Override
+  public void validateResourceProviderConfiguration(String name,
+      ResourceProviderMetadata resourceProviderMetadata, Configured configuration,
+      PluginExceptionConditionAccumulator accumulator) {
+    Throwable failure = null;
+    long start = System.nanoTime();
+    try {
+      super.validateResourceProviderConfiguration(name, resourceProviderMetadata, configuration,
+          accumulator);
+    } catch (RuntimeException e) {
+      failure = e;
+      throw e;
+    } finally {
+      metricsSink.recordCall(cloudProviderId, "validateResourceProviderConfiguration",
+          System.nanoTime() - start, MetricsSink.NO_BATCH, failure);
+    }
+  }
+
+  @Override
+  public ResourceProvider createResourceProvider(String resourceProviderId,
+      Configured configuration) {
+    Throwable failure = null;
+    long start = System.nanoTime();
+    try {
+      return super.createResourceProvider(resourceProviderId, configuration);
+    } catch (RuntimeException e) {
+      failure = e;
+      throw e;
+    } finally {
+      metricsSink.recordCall(cloudProviderId, "createResourceProvider",
+          System.nanoTime() - start, MetricsSink.NO_BATCH, failure);
+    }
+  }
+}
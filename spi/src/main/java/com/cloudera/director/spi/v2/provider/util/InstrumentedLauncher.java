@@ -0,0 +1,90 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.provider.util;
+
+import static com.cloudera.director.spi.v2.util.Preconditions.checkNotNull;
+
+import com.cloudera.director.spi.v2.common.http.HttpProxyParameters;
+import com.cloudera.director.spi.v2.model.Configured;
+import com.cloudera.director.spi.v2.provider.CloudProvider;
+import com.cloudera.director.spi.v2.provider.Launcher;
+
+import java.io.File;
+import java.util.Locale;
+
+/**
+ * Launcher which records its calls in a metrics sink, under the source {@value #SOURCE}, and
+ * instruments the cloud providers it creates with an {@link InstrumentedCloudProvider}.
+ */
+public class InstrumentedLauncher extends InterceptingLauncher {
+
+  /**
+   * The source under which launcher calls are recorded.
+   */
+  public static final String SOURCE = "launcher";
+
+  /**
+   * The metrics sink.
+   */
+  private final MetricsSink metricsSink;
+
+  /**
+   * Creates an instrumented launcher with the specified parameters.
+   *
+   * @param delegate    the delegate launcher
+   * @param metricsSink the metrics sink
+   */
+  public InstrumentedLauncher(Launcher delegate, MetricsSink metricsSink) {
+    super(delegate, InstrumentingInterceptor.factory(metricsSink));
+    this.metricsSink = checkNotNull(metricsSink, "metricsSink is null");
+  }
+
+  @Override
+  public void initialize(File configurationDirectory, HttpProxyParameters httpProxyParameters) {
+    Throwable failure = null;
+    long start = System.nanoTime();
+    try {
+      super.initialize(configurationDirectory, httpProxyParameters);
+    } catch (RuntimeException e) {
+      failure = e;
+      throw e;
+    } finally {
+      metricsSink.recordCall(SOURCE, "initialize", System.nanoTime() - start,
+          MetricsSink.NO_BATCH, failure);
+    }
+  }
+
+  @Override
+  public CloudProvider createCloudProvider(String cloudProviderId, Configured configuration,
+      Locale locale) {
+    Throwable failure = null;
+    long start = System.nanoTime();
+    try {
+      return super.createCloudProvider(cloudProviderId, configuration, locale);
+    } catch (RuntimeException e) {
+      failure = e;
+      throw e;
+    } finally {
+      metricsSink.recordCall(SOURCE, "createCloudProvider", System.nanoTime() - start,
+          MetricsSink.NO_BATCH, failure);
+    }
+  }
+
+  @Override
+  protected InterceptingCloudProvider createInterceptingCloudProvider(CloudProvider cloudProvider,
+      String cloudProviderId) {
+    return new InstrumentedCloudProvider(cloudProvider, cloudProviderId, metricsSink);
+  }
+}
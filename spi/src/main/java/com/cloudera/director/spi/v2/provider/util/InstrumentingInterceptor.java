@@ -0,0 +1,84 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.provider.util;
+
+import static com.cloudera.director.spi.v2.util.Preconditions.checkNotNull;
+
+/**
+ * Interceptor which records every cloud operation of a resource provider in a metrics sink,
+ * with its latency, its batch size and the exception it threw, if any.
+ */
+public class InstrumentingInterceptor implements ResourceProviderInterceptor {
+
+  /**
+   * Returns an interceptor factory which creates instrumenting interceptors recording to the
+   * specified metrics sink.
+   *
+   * @param metricsSink the metrics sink
+   * @return an interceptor factory which creates instrumenting interceptors
+   */
+  public static ResourceProviderInterceptorFactory factory(final MetricsSink metricsSink) {
+    checkNotNull(metricsSink, "metricsSink is null");
+    return new ResourceProviderInterceptorFactory() {
+      @Override
+      public ResourceProviderInterceptor createInterceptor(String cloudProviderId,
+          String resourceProviderId) {
+        return new InstrumentingInterceptor(metricsSink, cloudProviderId + "/" + resourceProviderId);
+      }
+    };
+  }
+
+  /**
+   * The metrics sink.
+   */
+  private final MetricsSink metricsSink;
+
+  /**
+   * The source reported to the metrics sink.
+   */
+  private final String source;
+
+  /**
+   * Creates an instrumenting interceptor with the specified parameters.
+   *
+   * @param metricsSink the metrics sink
+   * @param source      the source reported to the metrics sink
+   */
+  public InstrumentingInterceptor(MetricsSink metricsSink, String source) {
+    this.metricsSink = checkNotNull(metricsSink, "metricsSink is null");
+    this.source = checkNotNull(source, "source is null");
+  }
+
+  @Override
+  public <V> V intercept(ResourceProviderInvocation<V> invocation) throws InterruptedException {
+    Throwable failure = null;
+    long start = System.nanoTime();
+    try {
+      return invocation.proceed();
+    } catch (InterruptedException e) {
+      failure = e;
+      throw e;
+    } catch (RuntimeException e) {
+      failure = e;
+      throw e;
+    } catch (Error e) {
+      failure = e;
+      throw e;
+    } finally {
+      metricsSink.recordCall(source, invocation.getOperation().getMethodName(),
+          System.nanoTime() - start, invocation.getResourceIds().size(), failure);
+    }
+  }
+}
@@ -0,0 +1,97 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.provider.util;
+
+import static com.cloudera.director.spi.v2.util.Preconditions.checkNotNull;
+
+import com.cloudera.director.spi.v2.model.Configured;
+import com.cloudera.director.spi.v2.model.LocalizationContext;
+import com.cloudera.director.spi.v2.model.exception.PluginExceptionConditionAccumulator;
+import com.cloudera.director.spi.v2.provider.CloudProvider;
+import com.cloudera.director.spi.v2.provider.CloudProviderMetadata;
+import com.cloudera.director.spi.v2.provider.ResourceProvider;
+import com.cloudera.director.spi.v2.provider.ResourceProviderMetadata;
+
+/**
+ * Cloud provider which forwards all calls to a delegate, wrapping each resource provider it
+ * creates with an interceptor obtained from an interceptor factory.
+ */
+public class InterceptingCloudProvider implements CloudProvider {
+
+  /**
+   * The delegate cloud provider.
+   */
+  private final CloudProvider delegate;
+
+  /**
+   * The ID of the cloud provider.
+   */
+  private final String cloudProviderId;
+
+  /**
+   * The interceptor factory.
+   */
+  private final ResourceProviderInterceptorFactory interceptorFactory;
+
+  /**
+   * Creates an intercepting cloud provider with the specified parameters.
+   *
+   * @param delegate           the delegate cloud provider
+   * @param cloudProviderId    the ID of the cloud provider
+   * @param interceptorFactory the interceptor factory
+   */
+  public InterceptingCloudProvider(CloudProvider delegate, String cloudProviderId,
+      ResourceProviderInterceptorFactory interceptorFactory) {
+    this.delegate = checkNotNull(delegate, "delegate is null");
+    this.cloudProviderId = checkNotNull(cloudProviderId, "cloudProviderId is null");
+    this.interceptorFactory = checkNotNull(interceptorFactory, "interceptorFactory is null");
+  }
+
+  /**
+   * Returns the delegate cloud provider.
+   *
+   * @return the delegate cloud provider
+   */
+  public CloudProvider getDelegate() {
+    return delegate;
+  }
+
+  @Override
+  public CloudProviderMetadata getProviderMetadata() {
+    return delegate.getProviderMetadata();
+  }
+
+  @Override
+  public LocalizationContext getLocalizationContext() {
+    return delegate.getLocalizationContext();
+  }
+
+  @Override
+  public void validateResourceProviderConfiguration(String name,
+      ResourceProviderMetadata resourceProviderMetadata, Configured configuration,
+      PluginExceptionConditionAccumulator accumulator) {
+    delegate.validateResourceProviderConfiguration(name, resourceProviderMetadata, configuration,
+        accumulator);
+  }
+
+  @Override
+  public ResourceProvider<?, ?> createResourceProvider(String resourceProviderId,
+      Configured configuration) {
+    ResourceProvider<?, ?> resourceProvider =
+        delegate.createResourceProvider(resourceProviderId, configuration);
+    return ResourceProviderInterceptors.intercept(resourceProvider,
+        interceptorFactory.createInterceptor(cloudProviderId, resourceProviderId));
+  }
+}
@@ -0,0 +1,71 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.provider.util;
+
+import static com.cloudera.director.spi.v2.util.Preconditions.checkNotNull;
+
+import com.cloudera.director.spi.v2.compute.ComputeInstance;
+import com.cloudera.director.spi.v2.compute.ComputeInstanceTemplate;
+import com.cloudera.director.spi.v2.compute.ComputeProvider;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compute provider which forwards all calls to a delegate, routing the cloud operations through
+ * an interceptor.
+ *
+ * @param <R> type of the compute instance created by this provider
+ * @param <T> type of the template required by this provider to create a compute instance
+ */
+public class InterceptingComputeProvider<R extends ComputeInstance<T>, T extends ComputeInstanceTemplate>
+    extends InterceptingInstanceProvider<R, T> implements ComputeProvider<R, T> {
+
+  /**
+   * The delegate compute provider.
+   */
+  private final ComputeProvider<R, T> delegate;
+
+  /**
+   * Creates an intercepting compute provider with the specified parameters.
+   *
+   * @param delegate    the delegate compute provider
+   * @param interceptor the interceptor
+   */
+  public InterceptingComputeProvider(ComputeProvider<R, T> delegate,
+      ResourceProviderInterceptor interceptor) {
+    super(delegate, interceptor);
+    this.delegate = checkNotNull(delegate, "delegate is null");
+  }
+
+  @Override
+  public ComputeProvider<R, T> getDelegate() {
+    return delegate;
+  }
+
+  @Override
+  public Map<String, Set<String>> getHostKeyFingerprints(final T template,
+      Collection<String> instanceIds) throws InterruptedException {
+    return getInterceptor().intercept(new ResourceProviderInvocation<Map<String, Set<String>>>(
+        delegate, ResourceProviderOperation.GET_HOST_KEY_FINGERPRINTS, template, instanceIds) {
+      @Override
+      public Map<String, Set<String>> proceed(Collection<String> instanceIds)
+          throws InterruptedException {
+        return delegate.getHostKeyFingerprints(template, instanceIds);
+      }
+    });
+  }
+}
@@ -0,0 +1,48 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.provider.util;
+
+import com.cloudera.director.spi.v2.database.DatabaseServerInstance;
+import com.cloudera.director.spi.v2.database.DatabaseServerInstanceTemplate;
+import com.cloudera.director.spi.v2.database.DatabaseServerProvider;
+
+/**
+ * Database server provider which forwards all calls to a delegate, routing the cloud operations
+ * through an interceptor.
+ *
+ * @param <R> type of the database server instance created by this provider
+ * @param <T> type of the template required by this provider to create a database server instance
+ */
+public class InterceptingDatabaseServerProvider
+    <R extends DatabaseServerInstance<T>, T extends DatabaseServerInstanceTemplate>
+    extends InterceptingInstanceProvider<R, T> implements DatabaseServerProvider<R, T> {
+
+  /**
+   * Creates an intercepting database server provider with the specified parameters.
+   *
+   * @param delegate    the delegate database server provider
+   * @param interceptor the interceptor
+   */
+  public InterceptingDatabaseServerProvider(DatabaseServerProvider<R, T> delegate,
+      ResourceProviderInterceptor interceptor) {
+    super(delegate, interceptor);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public DatabaseServerProvider<R, T> getDelegate() {
+    return (DatabaseServerProvider<R, T>) super.getDelegate();
+  }
+}
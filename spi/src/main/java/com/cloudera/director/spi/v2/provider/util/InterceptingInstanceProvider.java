@@ -0,0 +1,108 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.provider.util;
+
+import static com.cloudera.director.spi.v2.util.Preconditions.checkNotNull;
+
+import com.cloudera.director.spi.v2.model.Instance;
+import com.cloudera.director.spi.v2.model.InstanceState;
+import com.cloudera.director.spi.v2.model.InstanceTemplate;
+import com.cloudera.director.spi.v2.provider.InstanceProvider;
+import com.cloudera.director.spi.v2.provider.InstanceStateWatcher;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Instance provider which forwards all calls to a delegate, routing the cloud operations through
+ * an interceptor. If the delegate's instance state watcher polls the delegate, it is replaced by
+ * an equivalent watcher polling this provider, so that the polls are intercepted as well.
+ *
+ * @param <R> type of the instance created by this provider
+ * @param <T> type of the template required by this provider to create an instance
+ */
+public class InterceptingInstanceProvider<R extends Instance<T>, T extends InstanceTemplate>
+    extends InterceptingResourceProvider<R, T> implements InstanceProvider<R, T> {
+
+  /**
+   * The delegate instance provider.
+   */
+  private final InstanceProvider<R, T> delegate;
+
+  /**
+   * The instance state watcher, created on first use.
+   */
+  private volatile InstanceStateWatcher<T> instanceStateWatcher;
+
+  /**
+   * Creates an intercepting instance provider with the specified parameters.
+   *
+   * @param delegate    the delegate instance provider
+   * @param interceptor the interceptor
+   */
+  public InterceptingInstanceProvider(InstanceProvider<R, T> delegate,
+      ResourceProviderInterceptor interceptor) {
+    super(delegate, interceptor);
+    this.delegate = checkNotNull(delegate, "delegate is null");
+  }
+
+  @Override
+  public InstanceProvider<R, T> getDelegate() {
+    return delegate;
+  }
+
+  @Override
+  public Map<String, InstanceState> getInstanceState(final T template,
+      Collection<String> instanceIds) {
+    return interceptUninterruptibly(new ResourceProviderInvocation<Map<String, InstanceState>>(
+        delegate, ResourceProviderOperation.GET_INSTANCE_STATE, template, instanceIds) {
+      @Override
+      public Map<String, InstanceState> proceed(Collection<String> instanceIds) {
+        return delegate.getInstanceState(template, instanceIds);
+      }
+    });
+  }
+
+  @Override
+  public InstanceStateWatcher<T> getInstanceStateWatcher() {
+    InstanceStateWatcher<T> watcher = instanceStateWatcher;
+    if (watcher == null) {
+      synchronized (this) {
+        watcher = instanceStateWatcher;
+        if (watcher == null) {
+          watcher = createInstanceStateWatcher();
+          instanceStateWatcher = watcher;
+        }
+      }
+    }
+    return watcher;
+  }
+
+  /**
+   * Creates the instance state watcher for this provider. If the delegate's watcher is a
+   * {@link PollingInstanceStateWatcher}, returns a watcher with the same poll intervals polling
+   * this provider; otherwise returns the delegate's watcher, whose notifications do not go
+   * through the provider operations.
+   *
+   * @return the instance state watcher for this provider
+   */
+  protected InstanceStateWatcher<T> createInstanceStateWatcher() {
+    InstanceStateWatcher<T> delegateWatcher = delegate.getInstanceStateWatcher();
+    if (delegateWatcher instanceof PollingInstanceStateWatcher) {
+      return ((PollingInstanceStateWatcher<T>) delegateWatcher).withProvider(this);
+    }
+    return delegateWatcher;
+  }
+}
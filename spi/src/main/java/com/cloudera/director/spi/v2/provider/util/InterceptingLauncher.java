@@ -0,0 +1,111 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.provider.util;
+
+import static com.cloudera.director.spi.v2.util.Preconditions.checkNotNull;
+
+import com.cloudera.director.spi.v2.common.http.HttpProxyParameters;
+import com.cloudera.director.spi.v2.model.Configured;
+import com.cloudera.director.spi.v2.model.LocalizationContext;
+import com.cloudera.director.spi.v2.provider.CloudProvider;
+import com.cloudera.director.spi.v2.provider.CloudProviderMetadata;
+import com.cloudera.director.spi.v2.provider.Launcher;
+
+import java.io.File;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Launcher which forwards all calls to a delegate, wrapping each cloud provider it creates with
+ * an {@link InterceptingCloudProvider}. All resource providers created through the launcher
+ * obtain their interceptors from the same interceptor factory, which can therefore share state
+ * such as rate limits between them.
+ */
+public class InterceptingLauncher implements Launcher {
+
+  /**
+   * The delegate launcher.
+   */
+  private final Launcher delegate;
+
+  /**
+   * The interceptor factory.
+   */
+  private final ResourceProviderInterceptorFactory interceptorFactory;
+
+  /**
+   * Creates an intercepting launcher with the specified parameters.
+   *
+   * @param delegate           the delegate launcher
+   * @param interceptorFactory the interceptor factory
+   */
+  public InterceptingLauncher(Launcher delegate,
+      ResourceProviderInterceptorFactory interceptorFactory) {
+    this.delegate = checkNotNull(delegate, "delegate is null");
+    this.interceptorFactory = checkNotNull(interceptorFactory, "interceptorFactory is null");
+  }
+
+  /**
+   * Returns the delegate launcher.
+   *
+   * @return the delegate launcher
+   */
+  public Launcher getDelegate() {
+    return delegate;
+  }
+
+  /**
+   * Returns the interceptor factory.
+   *
+   * @return the interceptor factory
+   */
+  public ResourceProviderInterceptorFactory getInterceptorFactory() {
+    return interceptorFactory;
+  }
+
+  @Override
+  public void initialize(File configurationDirectory, HttpProxyParameters httpProxyParameters) {
+    delegate.initialize(configurationDirectory, httpProxyParameters);
+  }
+
+  @Override
+  public List<CloudProviderMetadata> getCloudProviderMetadata() {
+    return delegate.getCloudProviderMetadata();
+  }
+
+  @Override
+  public CloudProvider createCloudProvider(String cloudProviderId, Configured configuration,
+      Locale locale) {
+    return createInterceptingCloudProvider(
+        delegate.createCloudProvider(cloudProviderId, configuration, locale), cloudProviderId);
+  }
+
+  /**
+   * Wraps a cloud provider created by the delegate launcher.
+   *
+   * @param cloudProvider   the cloud provider created by the delegate launcher
+   * @param cloudProviderId the ID of the cloud provider
+   * @return the intercepting cloud provider
+   */
+  protected InterceptingCloudProvider createInterceptingCloudProvider(CloudProvider cloudProvider,
+      String cloudProviderId) {
+    return new InterceptingCloudProvider(cloudProvider, cloudProviderId, interceptorFactory);
+  }
+
+  @Override
+  public LocalizationContext getLocalizationContext(Locale locale) {
+    return delegate.getLocalizationContext(locale);
+  }
+}
@@ -0,0 +1,198 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.provider.util;
+
+import static com.cloudera.director.spi.v2.util.Preconditions.checkNotNull;
+
+import com.cloudera.director.spi.v2.model.Configured;
+import com.cloudera.director.spi.v2.model.LocalizationContext;
+import com.cloudera.director.spi.v2.model.Resource;
+import com.cloudera.director.spi.v2.model.ResourceTemplate;
+import com.cloudera.director.spi.v2.model.exception.PluginExceptionConditionAccumulator;
+import com.cloudera.director.spi.v2.model.exception.UnrecoverableProviderException;
+import com.cloudera.director.spi.v2.provider.AllocationListener;
+import com.cloudera.director.spi.v2.provider.ResourcePage;
+import com.cloudera.director.spi.v2.provider.ResourceProvider;
+import com.cloudera.director.spi.v2.provider.ResourceProviderMetadata;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Resource provider which forwards all calls to a delegate, routing the cloud operations through
+ * an interceptor. Use {@link ResourceProviderInterceptors#intercept} to wrap a provider so that
+ * the wrapper implements the same provider interfaces as the delegate.
+ *
+ * @param <R> type of the resource created by this provider
+ * @param <T> type of the template required by this provider to create a resource
+ */
+public class InterceptingResourceProvider<R extends Resource<T>, T extends ResourceTemplate>
+    implements ResourceProvider<R, T> {
+
+  /**
+   * The delegate resource provider.
+   */
+  private final ResourceProvider<R, T> delegate;
+
+  /**
+   * The interceptor.
+   */
+  private final ResourceProviderInterceptor interceptor;
+
+  /**
+   * Creates an intercepting resource provider with the specified parameters.
+   *
+   * @param delegate    the delegate resource provider
+   * @param interceptor the interceptor
+   */
+  public InterceptingResourceProvider(ResourceProvider<R, T> delegate,
+      ResourceProviderInterceptor interceptor) {
+    this.delegate = checkNotNull(delegate, "delegate is null");
+    this.interceptor = checkNotNull(interceptor, "interceptor is null");
+  }
+
+  /**
+   * Returns the delegate resource provider.
+   *
+   * @return the delegate resource provider
+   */
+  public ResourceProvider<R, T> getDelegate() {
+    return delegate;
+  }
+
+  /**
+   * Returns the interceptor.
+   *
+   * @return the interceptor
+   */
+  public ResourceProviderInterceptor getInterceptor() {
+    return interceptor;
+  }
+
+  @Override
+  public ResourceProviderMetadata getProviderMetadata() {
+    return delegate.getProviderMetadata();
+  }
+
+  @Override
+  public Resource.Type getResourceType() {
+    return delegate.getResourceType();
+  }
+
+  @Override
+  public LocalizationContext getLocalizationContext() {
+    return delegate.getLocalizationContext();
+  }
+
+  @Override
+  public LocalizationContext getResourceTemplateLocalizationContext() {
+    return delegate.getResourceTemplateLocalizationContext();
+  }
+
+  @Override
+  public void validateResourceTemplateConfiguration(String name, Configured configuration,
+      PluginExceptionConditionAccumulator accumulator) {
+    delegate.validateResourceTemplateConfiguration(name, configuration, accumulator);
+  }
+
+  @Override
+  public T createResourceTemplate(String name, Configured configuration,
+      Map<String, String> tags) {
+    return delegate.createResourceTemplate(name, configuration, tags);
+  }
+
+  @Override
+  public Collection<? extends R> allocate(final T template, Collection<String> resourceIds,
+      final int minCount) throws InterruptedException {
+    return interceptor.intercept(new ResourceProviderInvocation<Collection<? extends R>>(
+        delegate, ResourceProviderOperation.ALLOCATE, template, resourceIds) {
+      @Override
+      public Collection<? extends R> proceed(Collection<String> resourceIds)
+          throws InterruptedException {
+        return delegate.allocate(template, resourceIds, minCount);
+      }
+    });
+  }
+
+  @Override
+  public Collection<? extends R> allocate(final T template, Collection<String> resourceIds,
+      final int minCount, final AllocationListener<? super R> listener) throws InterruptedException {
+    return interceptor.intercept(new ResourceProviderInvocation<Collection<? extends R>>(
+        delegate, ResourceProviderOperation.ALLOCATE, template, resourceIds) {
+      @Override
+      public Collection<? extends R> proceed(Collection<String> resourceIds)
+          throws InterruptedException {
+        return delegate.allocate(template, resourceIds, minCount, listener);
+      }
+    });
+  }
+
+  @Override
+  public Collection<? extends R> find(final T template, Collection<String> resourceIds)
+      throws InterruptedException {
+    return interceptor.intercept(new ResourceProviderInvocation<Collection<? extends R>>(
+        delegate, ResourceProviderOperation.FIND, template, resourceIds) {
+      @Override
+      public Collection<? extends R> proceed(Collection<String> resourceIds)
+          throws InterruptedException {
+        return delegate.find(template, resourceIds);
+      }
+    });
+  }
+
+  @Override
+  public ResourcePage<R> findPaged(final T template, Collection<String> resourceIds,
+      final int pageSize, final String continuationToken) throws InterruptedException {
+    return interceptor.intercept(new ResourceProviderInvocation<ResourcePage<R>>(
+        delegate, ResourceProviderOperation.FIND_PAGED, template, resourceIds) {
+      @Override
+      public ResourcePage<R> proceed(Collection<String> resourceIds) throws InterruptedException {
+        return delegate.findPaged(template, resourceIds, pageSize, continuationToken);
+      }
+    });
+  }
+
+  @Override
+  public void delete(final T template, Collection<String> resourceIds)
+      throws InterruptedException {
+    interceptor.intercept(new ResourceProviderInvocation<Void>(
+        delegate, ResourceProviderOperation.DELETE, template, resourceIds) {
+      @Override
+      public Void proceed(Collection<String> resourceIds) throws InterruptedException {
+        delegate.delete(template, resourceIds);
+        return null;
+      }
+    });
+  }
+
+  /**
+   * Intercepts a call to an operation which cannot throw {@code InterruptedException}. If the
+   * interceptor is interrupted, the interrupt status is restored and an unrecoverable provider
+   * exception is thrown.
+   *
+   * @param invocation the call
+   * @param <V>        type of the result of the operation
+   * @return the result of the operation
+   */
+  <V> V interceptUninterruptibly(ResourceProviderInvocation<V> invocation) {
+    try {
+      return interceptor.intercept(invocation);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new UnrecoverableProviderException(
+          "Interrupted during " + invocation.getOperation(), e);
+    }
+  }
+}
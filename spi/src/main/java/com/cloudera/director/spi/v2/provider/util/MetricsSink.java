@@ -0,0 +1,43 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.provider.util;
+
+/**
+ * Receives a record of every call made through the instrumented launchers, cloud providers and
+ * resource providers. Implementations export the records to a monitoring system, or aggregate
+ * them like {@link SimpleMetricsSink}. Implementations must be thread-safe and should return
+ * quickly, since they are called on the calling thread.
+ */
+public interface MetricsSink {
+
+  /**
+   * Indicates that a call did not operate on a batch of resources.
+   */
+  int NO_BATCH = -1;
+
+  /**
+   * Records a completed call.
+   *
+   * @param source       the called component: {@code launcher} for the launcher, the cloud
+   *                     provider ID for a cloud provider, or the cloud provider ID and the
+   *                     resource provider ID separated by a slash for a resource provider
+   * @param method       the name of the called method
+   * @param latencyNanos the duration of the call, in nanoseconds
+   * @param batchSize    the number of resource IDs passed to the call, or {@link #NO_BATCH}
+   * @param failure      the exception thrown by the call, or {@code null} if it succeeded
+   */
+  void recordCall(String source, String method, long latencyNanos, int batchSize,
+      Throwable failure);
+}
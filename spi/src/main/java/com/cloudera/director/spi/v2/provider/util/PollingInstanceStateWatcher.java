@@ -0,0 +1,390 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.provider.util;
+
+import static com.cloudera.director.spi.v2.util.Preconditions.checkArgument;
+import static com.cloudera.director.spi.v2.util.Preconditions.checkNotNull;
+
+import com.cloudera.director.spi.v2.model.InstanceState;
+import com.cloudera.director.spi.v2.model.InstanceStatus;
+import com.cloudera.director.spi.v2.model.InstanceTemplate;
+import com.cloudera.director.spi.v2.provider.InstanceProvider;
+import com.cloudera.director.spi.v2.provider.InstanceStateWatcher;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Instance state watcher which runs a single adaptive poller over
+ * {@link InstanceProvider#getInstanceState(InstanceTemplate, Collection)} on behalf of all of its
+ * registrations. On each round the identifiers of all registrations sharing a template are
+ * combined into one bulk call. The poll interval starts at the minimum interval, doubles after
+ * each round in which no status changed, up to the maximum interval, and drops back to the
+ * minimum as soon as a change is observed or a new registration is added. A failed bulk call is
+ * reported to the listeners of the affected registrations and retried on the following round;
+ * an exception thrown by a listener is reported back to that listener.
+ *
+ * @param <T> type of the template used to create the instances
+ */
+public class PollingInstanceStateWatcher<T extends InstanceTemplate>
+    implements InstanceStateWatcher<T> {
+
+  /**
+   * The default minimum poll interval, in milliseconds.
+   */
+  public static final long DEFAULT_MIN_POLL_INTERVAL_MILLIS = 1000L;
+
+  /**
+   * The default maximum poll interval, in milliseconds.
+   */
+  public static final long DEFAULT_MAX_POLL_INTERVAL_MILLIS = 30000L;
+
+  /**
+   * The thread factory for poller threads, which are daemon threads so that an idle watcher never
+   * prevents the JVM from exiting.
+   */
+  private static final ThreadFactory THREAD_FACTORY = new ThreadFactory() {
+    @Override
+    public Thread newThread(Runnable runnable) {
+      Thread thread = new Thread(runnable, "instance-state-watcher");
+      thread.setDaemon(true);
+      return thread;
+    }
+  };
+
+  /**
+   * The instance provider.
+   */
+  private final InstanceProvider<?, T> provider;
+
+  /**
+   * The minimum poll interval, in milliseconds.
+   */
+  private final long minPollIntervalMillis;
+
+  /**
+   * The maximum poll interval, in milliseconds.
+   */
+  private final long maxPollIntervalMillis;
+
+  /**
+   * The scheduler running the poller, created on the first registration, guarded by the lock.
+   */
+  private ScheduledThreadPoolExecutor scheduler;
+
+  /**
+   * The active registrations.
+   */
+  private final List<WatchRegistration> registrations = new CopyOnWriteArrayList<WatchRegistration>();
+
+  /**
+   * The poll task.
+   */
+  private final Runnable pollTask = new Runnable() {
+    @Override
+    public void run() {
+      poll();
+    }
+  };
+
+  /**
+   * Guards the scheduling state.
+   */
+  private final Object lock = new Object();
+
+  /**
+   * The next scheduled poll, or {@code null} if no poll is scheduled or a poll is running.
+   */
+  private ScheduledFuture<?> pendingPoll;
+
+  /**
+   * Whether a poll is currently running.
+   */
+  private boolean polling;
+
+  /**
+   * Whether a poll has been requested while a poll was running.
+   */
+  private boolean pollRequested;
+
+  /**
+   * The current poll interval, in milliseconds.
+   */
+  private long pollIntervalMillis;
+
+  /**
+   * Creates a polling instance state watcher with the default poll intervals.
+   *
+   * @param provider the instance provider
+   */
+  public PollingInstanceStateWatcher(InstanceProvider<?, T> provider) {
+    this(provider, DEFAULT_MIN_POLL_INTERVAL_MILLIS, DEFAULT_MAX_POLL_INTERVAL_MILLIS,
+        TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Creates a polling instance state watcher with the specified parameters.
+   *
+   * @param provider        the instance provider
+   * @param minPollInterval the minimum poll interval
+   * @param maxPollInterval the maximum poll interval
+   * @param unit            the time unit of the poll intervals
+   */
+  public PollingInstanceStateWatcher(InstanceProvider<?, T> provider, long minPollInterval,
+      long maxPollInterval, TimeUnit unit) {
+    this.provider = checkNotNull(provider, "provider is null");
+    checkNotNull(unit, "unit is null");
+    checkArgument(minPollInterval > 0, "minPollInterval must be positive: " + minPollInterval);
+    checkArgument(maxPollInterval >= minPollInterval,
+        "maxPollInterval must not be less than minPollInterval: " + maxPollInterval);
+    this.minPollIntervalMillis = unit.toMillis(minPollInterval);
+    this.maxPollIntervalMillis = unit.toMillis(maxPollInterval);
+    this.pollIntervalMillis = minPollIntervalMillis;
+  }
+
+  /**
+   * Returns a polling instance state watcher with the same poll intervals as this one, over the
+   * specified instance provider.
+   *
+   * @param provider the instance provider
+   * @return a polling instance state watcher with the same poll intervals over the provider
+   */
+  PollingInstanceStateWatcher<T> withProvider(InstanceProvider<?, T> provider) {
+    return new PollingInstanceStateWatcher<T>(provider, minPollIntervalMillis,
+        maxPollIntervalMillis, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public Registration watch(T template, Collection<String> instanceIds, Listener listener) {
+    WatchRegistration registration = new WatchRegistration(
+        checkNotNull(template, "template is null"),
+        checkNotNull(instanceIds, "instanceIds is null"),
+        checkNotNull(listener, "listener is null"));
+    registrations.add(registration);
+    requestPoll();
+    return registration;
+  }
+
+  /**
+   * Resets the poll interval and arranges for a poll to run as soon as possible.
+   */
+  private void requestPoll() {
+    synchronized (lock) {
+      pollIntervalMillis = minPollIntervalMillis;
+      if (polling) {
+        pollRequested = true;
+      } else if (pendingPoll == null || pendingPoll.cancel(false)) {
+        pendingPoll = getScheduler().schedule(pollTask, 0L, TimeUnit.MILLISECONDS);
+      }
+    }
+  }
+
+  /**
+   * Returns the scheduler running the poller, creating it if necessary. Must be called with the
+   * lock held.
+   *
+   * @return the scheduler running the poller
+   */
+  private ScheduledThreadPoolExecutor getScheduler() {
+    if (scheduler == null) {
+      scheduler = new ScheduledThreadPoolExecutor(1, THREAD_FACTORY);
+      scheduler.setKeepAliveTime(maxPollIntervalMillis + 1000L, TimeUnit.MILLISECONDS);
+      scheduler.allowCoreThreadTimeOut(true);
+      scheduler.setRemoveOnCancelPolicy(true);
+    }
+    return scheduler;
+  }
+
+  /**
+   * Runs one polling round, then schedules the next one if any registrations remain.
+   */
+  private void poll() {
+    synchronized (lock) {
+      polling = true;
+      pendingPoll = null;
+    }
+    boolean changed = false;
+    try {
+      changed = pollOnce();
+    } finally {
+      synchronized (lock) {
+        polling = false;
+        long delayMillis;
+        if (pollRequested || changed) {
+          pollIntervalMillis = minPollIntervalMillis;
+          delayMillis = pollRequested ? 0L : pollIntervalMillis;
+        } else {
+          pollIntervalMillis = Math.min(pollIntervalMillis * 2, maxPollIntervalMillis);
+          delayMillis = pollIntervalMillis;
+        }
+        pollRequested = false;
+        if (!registrations.isEmpty()) {
+          pendingPoll = scheduler.schedule(pollTask, delayMillis, TimeUnit.MILLISECONDS);
+        }
+      }
+    }
+  }
+
+  /**
+   * Issues one bulk instance state call per template and notifies the affected registrations.
+   *
+   * @return whether any instance status changed
+   */
+  private boolean pollOnce() {
+    Map<T, List<WatchRegistration>> registrationsByTemplate =
+        new IdentityHashMap<T, List<WatchRegistration>>();
+    Map<T, Set<String>> idsByTemplate = new IdentityHashMap<T, Set<String>>();
+    for (WatchRegistration registration : registrations) {
+      List<WatchRegistration> templateRegistrations =
+          registrationsByTemplate.get(registration.template);
+      if (templateRegistrations == null) {
+        templateRegistrations = new ArrayList<WatchRegistration>();
+        registrationsByTemplate.put(registration.template, templateRegistrations);
+        idsByTemplate.put(registration.template, new LinkedHashSet<String>());
+      }
+      templateRegistrations.add(registration);
+      idsByTemplate.get(registration.template).addAll(registration.instanceIds);
+    }
+
+    boolean changed = false;
+    for (Map.Entry<T, Set<String>> entry : idsByTemplate.entrySet()) {
+      Map<String, InstanceState> states;
+      try {
+        states = provider.getInstanceState(entry.getKey(), entry.getValue());
+      } catch (RuntimeException e) {
+        for (WatchRegistration registration : registrationsByTemplate.get(entry.getKey())) {
+          registration.fail(registration.instanceIds, e);
+        }
+        continue;
+      }
+      for (WatchRegistration registration : registrationsByTemplate.get(entry.getKey())) {
+        changed |= registration.update(states);
+      }
+    }
+    return changed;
+  }
+
+  /**
+   * A registration of a listener for a set of instances.
+   */
+  private final class WatchRegistration implements Registration {
+
+    /**
+     * The template used to create the instances.
+     */
+    private final T template;
+
+    /**
+     * The identifiers of the watched instances.
+     */
+    private final Set<String> instanceIds;
+
+    /**
+     * The listener.
+     */
+    private final Listener listener;
+
+    /**
+     * The last observed status of each instance, guarded by this registration.
+     */
+    private final Map<String, InstanceStatus> lastStatuses = new HashMap<String, InstanceStatus>();
+
+    /**
+     * Whether the registration has been cancelled, guarded by this registration.
+     */
+    private boolean cancelled;
+
+    /**
+     * Creates a registration with the specified parameters.
+     *
+     * @param template    the template used to create the instances
+     * @param instanceIds the identifiers of the watched instances
+     * @param listener    the listener
+     */
+    private WatchRegistration(T template, Collection<String> instanceIds, Listener listener) {
+      this.template = template;
+      this.instanceIds = new LinkedHashSet<String>(instanceIds);
+      this.listener = listener;
+    }
+
+    /**
+     * Notifies the listener of every watched instance whose status differs from its last
+     * observed status.
+     *
+     * @param states the current instance states
+     * @return whether any instance status changed
+     */
+    private synchronized boolean update(Map<String, InstanceState> states) {
+      boolean changed = false;
+      for (String instanceId : instanceIds) {
+        if (cancelled) {
+          break;
+        }
+        InstanceState state = states.get(instanceId);
+        if (state == null) {
+          continue;
+        }
+        InstanceStatus status = state.getInstanceStatus();
+        if (lastStatuses.containsKey(instanceId) && lastStatuses.get(instanceId) == status) {
+          continue;
+        }
+        lastStatuses.put(instanceId, status);
+        changed = true;
+        try {
+          listener.onInstanceStateChanged(instanceId, state);
+        } catch (RuntimeException e) {
+          fail(Collections.singleton(instanceId), e);
+        }
+      }
+      return changed;
+    }
+
+    /**
+     * Reports a failure to observe the status of the specified instances to the listener, unless
+     * the registration has been cancelled.
+     *
+     * @param failedInstanceIds the identifiers of the instances whose status could not be observed
+     * @param error             the failure
+     */
+    private synchronized void fail(Collection<String> failedInstanceIds, RuntimeException error) {
+      if (cancelled) {
+        return;
+      }
+      try {
+        listener.onError(Collections.unmodifiableCollection(failedInstanceIds), error);
+      } catch (RuntimeException e) {
+        // A misbehaving listener must not stop notifications to the other registrations.
+      }
+    }
+
+    @Override
+    public synchronized void cancel() {
+      cancelled = true;
+      registrations.remove(this);
+    }
+  }
+}
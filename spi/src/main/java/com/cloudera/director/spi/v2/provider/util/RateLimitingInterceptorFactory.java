@@ -0,0 +1,353 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.provider.util;
+
+import static com.cloudera.director.spi.v2.util.Preconditions.checkArgument;
+import static com.cloudera.director.spi.v2.util.Preconditions.checkNotNull;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <p>Interceptor factory which limits the rate of cloud operations with client-side token
+ * buckets, one per cloud provider ID and operation. Every resource provider created for the same
+ * cloud provider ID draws from the same buckets, so when this factory is given to an
+ * {@link InterceptingLauncher} the limits apply across all of the resource providers created by
+ * that launcher. Calls wait for a token before proceeding; find and paged find calls share one
+ * bucket. Operations without a configured rate are not limited.</p>
+ * <p>The time spent waiting for tokens is exposed through {@link #getWaitStatistics}.</p>
+ */
+public class RateLimitingInterceptorFactory implements ResourceProviderInterceptorFactory {
+
+  /**
+   * Returns a builder for rate limiting interceptor factories.
+   *
+   * @return a builder for rate limiting interceptor factories
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * The rates applied to cloud providers without specific rates.
+   */
+  private final Map<ResourceProviderOperation, Rate> defaultRates;
+
+  /**
+   * The rates applied to specific cloud providers, by cloud provider ID.
+   */
+  private final Map<String, Map<ResourceProviderOperation, Rate>> cloudProviderRates;
+
+  /**
+   * The token buckets, by cloud provider ID and operation.
+   */
+  private final ConcurrentMap<String, Map<ResourceProviderOperation, TokenBucket>> buckets =
+      new ConcurrentHashMap<String, Map<ResourceProviderOperation, TokenBucket>>();
+
+  /**
+   * Creates a rate limiting interceptor factory from the specified builder.
+   *
+   * @param builder the builder
+   */
+  private RateLimitingInterceptorFactory(Builder builder) {
+    this.defaultRates = new EnumMap<ResourceProviderOperation, Rate>(builder.defaultRates);
+    this.cloudProviderRates = new HashMap<String, Map<ResourceProviderOperation, Rate>>();
+    for (Map.Entry<String, Map<ResourceProviderOperation, Rate>> entry
+        : builder.cloudProviderRates.entrySet()) {
+      cloudProviderRates.put(entry.getKey(),
+          new EnumMap<ResourceProviderOperation, Rate>(entry.getValue()));
+    }
+  }
+
+  @Override
+  public ResourceProviderInterceptor createInterceptor(String cloudProviderId,
+      String resourceProviderId) {
+    final Map<ResourceProviderOperation, TokenBucket> cloudProviderBuckets =
+        getBuckets(checkNotNull(cloudProviderId, "cloudProviderId is null"));
+    return new ResourceProviderInterceptor() {
+      @Override
+      public <V> V intercept(ResourceProviderInvocation<V> invocation)
+          throws InterruptedException {
+        TokenBucket bucket = cloudProviderBuckets.get(bucketOperation(invocation.getOperation()));
+        if (bucket != null) {
+          bucket.acquire();
+        }
+        return invocation.proceed();
+      }
+    };
+  }
+
+  /**
+   * Returns statistics about the time calls have spent waiting for the specified bucket.
+   *
+   * @param cloudProviderId the cloud provider ID
+   * @param operation       the operation
+   * @return the wait statistics, or {@code null} if the operation is not limited for the cloud
+   * provider
+   */
+  public WaitStatistics getWaitStatistics(String cloudProviderId,
+      ResourceProviderOperation operation) {
+    ResourceProviderOperation limitedOperation = bucketOperation(operation);
+    Map<ResourceProviderOperation, TokenBucket> cloudProviderBuckets =
+        buckets.get(cloudProviderId);
+    if (cloudProviderBuckets == null) {
+      return getRates(cloudProviderId).containsKey(limitedOperation)
+          ? new WaitStatistics(0L, 0L, 0L, 0L)
+          : null;
+    }
+    TokenBucket bucket = cloudProviderBuckets.get(limitedOperation);
+    return (bucket == null) ? null : new WaitStatistics(bucket.getReservationCount(),
+        bucket.getWaitCount(), bucket.getTotalWaitNanos(), bucket.getMaxWaitNanos());
+  }
+
+  /**
+   * Returns the rates of the specified cloud provider.
+   *
+   * @param cloudProviderId the cloud provider ID
+   * @return the rates of the cloud provider, by operation
+   */
+  private Map<ResourceProviderOperation, Rate> getRates(String cloudProviderId) {
+    Map<ResourceProviderOperation, Rate> rates = cloudProviderRates.get(cloudProviderId);
+    return (rates == null) ? defaultRates : rates;
+  }
+
+  /**
+   * Returns the token buckets of the specified cloud provider, creating them if necessary.
+   *
+   * @param cloudProviderId the cloud provider ID
+   * @return the token buckets of the cloud provider, by operation
+   */
+  private Map<ResourceProviderOperation, TokenBucket> getBuckets(String cloudProviderId) {
+    Map<ResourceProviderOperation, TokenBucket> cloudProviderBuckets = buckets.get(cloudProviderId);
+    if (cloudProviderBuckets == null) {
+      cloudProviderBuckets =
+          new EnumMap<ResourceProviderOperation, TokenBucket>(ResourceProviderOperation.class);
+      for (Map.Entry<ResourceProviderOperation, Rate> entry
+          : getRates(cloudProviderId).entrySet()) {
+        cloudProviderBuckets.put(entry.getKey(),
+            new TokenBucket(entry.getValue().permitsPerSecond, entry.getValue().burst));
+      }
+      Map<ResourceProviderOperation, TokenBucket> existing =
+          buckets.putIfAbsent(cloudProviderId, cloudProviderBuckets);
+      if (existing != null) {
+        cloudProviderBuckets = existing;
+      }
+    }
+    return cloudProviderBuckets;
+  }
+
+  /**
+   * Returns the operation whose bucket limits the specified operation.
+   *
+   * @param operation the operation
+   * @return the operation whose bucket limits the operation
+   */
+  private static ResourceProviderOperation bucketOperation(ResourceProviderOperation operation) {
+    return (operation == ResourceProviderOperation.FIND_PAGED)
+        ? ResourceProviderOperation.FIND
+        : operation;
+  }
+
+  /**
+   * Statistics about the time calls have spent waiting for a token bucket.
+   */
+  public static final class WaitStatistics {
+
+    /**
+     * The number of calls which acquired a token.
+     */
+    private final long acquireCount;
+
+    /**
+     * The number of calls which had to wait for a token.
+     */
+    private final long waitCount;
+
+    /**
+     * The total time spent waiting, in nanoseconds.
+     */
+    private final long totalWaitNanos;
+
+    /**
+     * The longest time spent waiting by a single call, in nanoseconds.
+     */
+    private final long maxWaitNanos;
+
+    /**
+     * Creates wait statistics with the specified parameters.
+     *
+     * @param acquireCount   the number of calls which acquired a token
+     * @param waitCount      the number of calls which had to wait for a token
+     * @param totalWaitNanos the total time spent waiting, in nanoseconds
+     * @param maxWaitNanos   the longest time spent waiting by a single call, in nanoseconds
+     */
+    private WaitStatistics(long acquireCount, long waitCount, long totalWaitNanos,
+        long maxWaitNanos) {
+      this.acquireCount = acquireCount;
+      this.waitCount = waitCount;
+      this.totalWaitNanos = totalWaitNanos;
+      this.maxWaitNanos = maxWaitNanos;
+    }
+
+    /**
+     * Returns the number of calls which acquired a token.
+     *
+     * @return the number of calls which acquired a token
+     */
+    public long getAcquireCount() {
+      return acquireCount;
+    }
+
+    /**
+     * Returns the number of calls which had to wait for a token.
+     *
+     * @return the number of calls which had to wait for a token
+     */
+    public long getWaitCount() {
+      return waitCount;
+    }
+
+    /**
+     * Returns the total time spent waiting, in nanoseconds.
+     *
+     * @return the total time spent waiting, in nanoseconds
+     */
+    public long getTotalWaitNanos() {
+      return totalWaitNanos;
+    }
+
+    /**
+     * Returns the longest time spent waiting by a single call, in nanoseconds.
+     *
+     * @return the longest time spent waiting by a single call, in nanoseconds
+     */
+    public long getMaxWaitNanos() {
+      return maxWaitNanos;
+    }
+  }
+
+  /**
+   * A token bucket rate.
+   */
+  private static final class Rate {
+
+    /**
+     * The sustained rate, in permits per second.
+     */
+    private final double permitsPerSecond;
+
+    /**
+     * The maximum number of permits which can be used in a burst.
+     */
+    private final int burst;
+
+    /**
+     * Creates a rate with the specified parameters.
+     *
+     * @param permitsPerSecond the sustained rate, in permits per second
+     * @param burst            the maximum number of permits which can be used in a burst
+     */
+    private Rate(double permitsPerSecond, int burst) {
+      checkArgument(permitsPerSecond > 0, "permitsPerSecond must be positive: " + permitsPerSecond);
+      checkArgument(burst > 0, "burst must be positive: " + burst);
+      this.permitsPerSecond = permitsPerSecond;
+      this.burst = burst;
+    }
+  }
+
+  /**
+   * Builder for rate limiting interceptor factories.
+   */
+  public static final class Builder {
+
+    /**
+     * The rates applied to cloud providers without specific rates.
+     */
+    private final Map<ResourceProviderOperation, Rate> defaultRates =
+        new EnumMap<ResourceProviderOperation, Rate>(ResourceProviderOperation.class);
+
+    /**
+     * The rates applied to specific cloud providers, by cloud provider ID.
+     */
+    private final Map<String, Map<ResourceProviderOperation, Rate>> cloudProviderRates =
+        new HashMap<String, Map<ResourceProviderOperation, Rate>>();
+
+    /**
+     * Creates a builder with no rates.
+     */
+    private Builder() {
+    }
+
+    /**
+     * Sets the rate of the specified operation for cloud providers without specific rates.
+     *
+     * @param operation        the operation
+     * @param permitsPerSecond the sustained rate, in calls per second
+     * @param burst            the maximum number of calls which can be made in a burst
+     * @return this builder
+     */
+    public Builder rate(ResourceProviderOperation operation, double permitsPerSecond, int burst) {
+      defaultRates.put(checkOperation(operation), new Rate(permitsPerSecond, burst));
+      return this;
+    }
+
+    /**
+     * Sets the rate of the specified operation for the specified cloud provider. A cloud
+     * provider with specific rates does not use any of the default rates.
+     *
+     * @param cloudProviderId  the cloud provider ID
+     * @param operation        the operation
+     * @param permitsPerSecond the sustained rate, in calls per second
+     * @param burst            the maximum number of calls which can be made in a burst
+     * @return this builder
+     */
+    public Builder rate(String cloudProviderId, ResourceProviderOperation operation,
+        double permitsPerSecond, int burst) {
+      checkNotNull(cloudProviderId, "cloudProviderId is null");
+      Map<ResourceProviderOperation, Rate> rates = cloudProviderRates.get(cloudProviderId);
+      if (rates == null) {
+        rates = new EnumMap<ResourceProviderOperation, Rate>(ResourceProviderOperation.class);
+        cloudProviderRates.put(cloudProviderId, rates);
+      }
+      rates.put(checkOperation(operation), new Rate(permitsPerSecond, burst));
+      return this;
+    }
+
+    /**
+     * Checks that the specified operation has its own bucket.
+     *
+     * @param operation the operation
+     * @return the operation
+     */
+    private static ResourceProviderOperation checkOperation(ResourceProviderOperation operation) {
+      checkNotNull(operation, "operation is null");
+      checkArgument(operation != ResourceProviderOperation.FIND_PAGED,
+          "Paged find calls are limited by the FIND rate");
+      return operation;
+    }
+
+    /**
+     * Builds a rate limiting interceptor factory with the rates of this builder.
+     *
+     * @return a rate limiting interceptor factory
+     */
+    public RateLimitingInterceptorFactory build() {
+      return new RateLimitingInterceptorFactory(this);
+    }
+  }
+}
@@ -0,0 +1,34 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.provider.util;
+
+/**
+ * Intercepts the cloud operations of a resource provider wrapped with
+ * {@link ResourceProviderInterceptors#intercept}. Implementations must be thread-safe.
+ */
+public interface ResourceProviderInterceptor {
+
+  /**
+   * Intercepts a call to a resource provider operation. Implementations normally call
+   * {@link ResourceProviderInvocation#proceed()} one or more times, but may also return a result
+   * or throw an exception without proceeding.
+   *
+   * @param invocation the intercepted call
+   * @param <V>        type of the result of the operation
+   * @return the result of the operation
+   * @throws InterruptedException if the operation is interrupted
+   */
+  <V> V intercept(ResourceProviderInvocation<V> invocation) throws InterruptedException;
+}
@@ -0,0 +1,33 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.provider.util;
+
+/**
+ * Creates the interceptors applied to the resource providers created through an
+ * {@link InterceptingLauncher} or an {@link InterceptingCloudProvider}. A factory may return a
+ * new interceptor for each resource provider, or share interceptors and their state, such as
+ * rate limits, between resource providers.
+ */
+public interface ResourceProviderInterceptorFactory {
+
+  /**
+   * Returns the interceptor for the specified resource provider.
+   *
+   * @param cloudProviderId    the ID of the cloud provider which created the resource provider
+   * @param resourceProviderId the ID of the resource provider
+   * @return the interceptor for the resource provider
+   */
+  ResourceProviderInterceptor createInterceptor(String cloudProviderId, String resourceProviderId);
+}
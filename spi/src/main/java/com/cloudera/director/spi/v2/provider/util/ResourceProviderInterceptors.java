@@ -0,0 +1,120 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.provider.util;
+
+import com.cloudera.director.spi.v2.compute.ComputeInstance;
+import com.cloudera.director.spi.v2.compute.ComputeInstanceTemplate;
+import com.cloudera.director.spi.v2.compute.ComputeProvider;
+import com.cloudera.director.spi.v2.database.DatabaseServerInstance;
+import com.cloudera.director.spi.v2.database.DatabaseServerInstanceTemplate;
+import com.cloudera.director.spi.v2.database.DatabaseServerProvider;
+import com.cloudera.director.spi.v2.model.Instance;
+import com.cloudera.director.spi.v2.model.InstanceTemplate;
+import com.cloudera.director.spi.v2.model.Resource;
+import com.cloudera.director.spi.v2.model.ResourceTemplate;
+import com.cloudera.director.spi.v2.provider.InstanceProvider;
+import com.cloudera.director.spi.v2.provider.ResourceProvider;
+
+/**
+ * Provides methods to wrap resource providers with interceptors. The wrappers implement the same
+ * provider interfaces as the providers they wrap, so a wrapped compute provider is still a
+ * {@link ComputeProvider} and a wrapped database server provider is still a
+ * {@link DatabaseServerProvider}.
+ */
+public final class ResourceProviderInterceptors {
+
+  /**
+   * Private constructor to prevent instantiation.
+   */
+  private ResourceProviderInterceptors() {
+  }
+
+  /**
+   * Wraps the specified compute provider with the specified interceptor.
+   *
+   * @param provider    the compute provider
+   * @param interceptor the interceptor
+   * @param <R>         type of the compute instance created by the provider
+   * @param <T>         type of the template required by the provider
+   * @return the intercepting compute provider
+   */
+  public static <R extends ComputeInstance<T>, T extends ComputeInstanceTemplate>
+  ComputeProvider<R, T> intercept(ComputeProvider<R, T> provider,
+      ResourceProviderInterceptor interceptor) {
+    return new InterceptingComputeProvider<R, T>(provider, interceptor);
+  }
+
+  /**
+   * Wraps the specified database server provider with the specified interceptor.
+   *
+   * @param provider    the database server provider
+   * @param interceptor the interceptor
+   * @param <R>         type of the database server instance created by the provider
+   * @param <T>         type of the template required by the provider
+   * @return the intercepting database server provider
+   */
+  public static <R extends DatabaseServerInstance<T>, T extends DatabaseServerInstanceTemplate>
+  DatabaseServerProvider<R, T> intercept(DatabaseServerProvider<R, T> provider,
+      ResourceProviderInterceptor interceptor) {
+    return new InterceptingDatabaseServerProvider<R, T>(provider, interceptor);
+  }
+
+  /**
+   * Wraps the specified instance provider with the specified interceptor. The wrapper is a
+   * compute provider or a database server provider if the specified provider is one.
+   *
+   * @param provider    the instance provider
+   * @param interceptor the interceptor
+   * @param <R>         type of the instance created by the provider
+   * @param <T>         type of the template required by the provider
+   * @return the intercepting instance provider
+   */
+  @SuppressWarnings("unchecked")
+  public static <R extends Instance<T>, T extends InstanceTemplate>
+  InstanceProvider<R, T> intercept(InstanceProvider<R, T> provider,
+      ResourceProviderInterceptor interceptor) {
+    if (provider instanceof ComputeProvider) {
+      return (InstanceProvider<R, T>) (InstanceProvider<?, ?>) intercept(
+          (ComputeProvider<?, ?>) provider, interceptor);
+    }
+    if (provider instanceof DatabaseServerProvider) {
+      return (InstanceProvider<R, T>) (InstanceProvider<?, ?>) intercept(
+          (DatabaseServerProvider<?, ?>) provider, interceptor);
+    }
+    return new InterceptingInstanceProvider<R, T>(provider, interceptor);
+  }
+
+  /**
+   * Wraps the specified resource provider with the specified interceptor. The wrapper is an
+   * instance provider, a compute provider or a database server provider if the specified
+   * provider is one.
+   *
+   * @param provider    the resource provider
+   * @param interceptor the interceptor
+   * @param <R>         type of the resource created by the provider
+   * @param <T>         type of the template required by the provider
+   * @return the intercepting resource provider
+   */
+  @SuppressWarnings("unchecked")
+  public static <R extends Resource<T>, T extends ResourceTemplate>
+  ResourceProvider<R, T> intercept(ResourceProvider<R, T> provider,
+      ResourceProviderInterceptor interceptor) {
+    if (provider instanceof InstanceProvider) {
+      return (ResourceProvider<R, T>) (ResourceProvider<?, ?>) intercept(
+          (InstanceProvider<?, ?>) provider, interceptor);
+    }
+    return new InterceptingResourceProvider<R, T>(provider, interceptor);
+  }
+}
@@ -0,0 +1,125 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.provider.util;
+
+import static com.cloudera.director.spi.v2.util.Preconditions.checkNotNull;
+
+import com.cloudera.director.spi.v2.model.ResourceTemplate;
+import com.cloudera.director.spi.v2.provider.ResourceProvider;
+
+import java.util.Collection;
+
+/**
+ * A single intercepted call to a resource provider operation. Interceptors inspect the call and
+ * decide whether, when and how often to proceed with it.
+ *
+ * @param <V> type of the result of the operation
+ */
+public abstract class ResourceProviderInvocation<V> {
+
+  /**
+   * The resource provider the call is forwarded to.
+   */
+  private final ResourceProvider<?, ?> provider;
+
+  /**
+   * The operation.
+   */
+  private final ResourceProviderOperation operation;
+
+  /**
+   * The resource template.
+   */
+  private final ResourceTemplate template;
+
+  /**
+   * The unique identifiers for the resources.
+   */
+  private final Collection<String> resourceIds;
+
+  /**
+   * Creates an invocation with the specified parameters.
+   *
+   * @param provider    the resource provider the call is forwarded to
+   * @param operation   the operation
+   * @param template    the resource template
+   * @param resourceIds the unique identifiers for the resources
+   */
+  ResourceProviderInvocation(ResourceProvider<?, ?> provider, ResourceProviderOperation operation,
+      ResourceTemplate template, Collection<String> resourceIds) {
+    this.provider = checkNotNull(provider, "provider is null");
+    this.operation = checkNotNull(operation, "operation is null");
+    this.template = template;
+    this.resourceIds = checkNotNull(resourceIds, "resourceIds is null");
+  }
+
+  /**
+   * Returns the resource provider the call is forwarded to.
+   *
+   * @return the resource provider the call is forwarded to
+   */
+  public ResourceProvider<?, ?> getProvider() {
+    return provider;
+  }
+
+  /**
+   * Returns the operation.
+   *
+   * @return the operation
+   */
+  public ResourceProviderOperation getOperation() {
+    return operation;
+  }
+
+  /**
+   * Returns the resource template.
+   *
+   * @return the resource template
+   */
+  public ResourceTemplate getTemplate() {
+    return template;
+  }
+
+  /**
+   * Returns the unique identifiers for the resources.
+   *
+   * @return the unique identifiers for the resources
+   */
+  public Collection<String> getResourceIds() {
+    return resourceIds;
+  }
+
+  /**
+   * Forwards the call to the resource provider with its original arguments. This method may be
+   * called more than once, for example to retry a failed call.
+   *
+   * @return the result of the operation
+   * @throws InterruptedException if the operation is interrupted
+   */
+  public V proceed() throws InterruptedException {
+    return proceed(resourceIds);
+  }
+
+  /**
+   * Forwards the call to the resource provider, substituting the specified resource identifiers
+   * for the original ones, for example to combine several calls into one bulk call or to fetch
+   * only the resources missing from a cache.
+   *
+   * @param resourceIds the unique identifiers for the resources
+   * @return the result of the operation
+   * @throws InterruptedException if the operation is interrupted
+   */
+  public abstract V proceed(Collection<String> resourceIds) throws InterruptedException;
+}
@@ -0,0 +1,75 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.provider.util;
+
+/**
+ * The resource provider operations which perform cloud round trips, and which can therefore be
+ * intercepted by a {@link ResourceProviderInterceptor}.
+ */
+public enum ResourceProviderOperation {
+
+  /**
+   * Allocates resources, with or without an allocation listener.
+   */
+  ALLOCATE("allocate"),
+
+  /**
+   * Finds resources.
+   */
+  FIND("find"),
+
+  /**
+   * Finds one page of resources.
+   */
+  FIND_PAGED("findPaged"),
+
+  /**
+   * Deletes resources.
+   */
+  DELETE("delete"),
+
+  /**
+   * Gets instance state.
+   */
+  GET_INSTANCE_STATE("getInstanceState"),
+
+  /**
+   * Gets host key fingerprints.
+   */
+  GET_HOST_KEY_FINGERPRINTS("getHostKeyFingerprints");
+
+  /**
+   * The name of the provider method which performs the operation.
+   */
+  private final String methodName;
+
+  /**
+   * Creates a resource provider operation with the specified parameters.
+   *
+   * @param methodName the name of the provider method which performs the operation
+   */
+  ResourceProviderOperation(String methodName) {
+    this.methodName = methodName;
+  }
+
+  /**
+   * Returns the name of the provider method which performs the operation.
+   *
+   * @return the name of the provider method which performs the operation
+   */
+  public String getMethodName() {
+    return methodName;
+  }
+}
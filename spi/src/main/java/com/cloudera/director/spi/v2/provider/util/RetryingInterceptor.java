@@ -0,0 +1,398 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.provider.util;
+
+import static com.cloudera.director.spi.v2.util.Preconditions.checkArgument;
+import static com.cloudera.director.spi.v2.util.Preconditions.checkNotNull;
+
+import com.cloudera.director.spi.v2.model.exception.TransientProviderException;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Interceptor which retries operations that fail with a {@link TransientProviderException},
+ * waiting between attempts with exponential backoff and random jitter. Each operation has a
+ * maximum number of retries of a single call, and every call has an overall deadline after which
+ * the last failure is rethrown instead of being retried. Any other exception, including
+ * {@code UnrecoverableProviderException} and {@code InterruptedException}, is rethrown
+ * immediately.</p>
+ * <p>Optionally, all of the calls made through the interceptor share a retry budget: each retry
+ * spends a token, each successful call earns back a fraction of a token, and failures are rethrown
+ * without retrying while the budget is exhausted. This bounds the extra load retries put on a
+ * cloud provider which is throttling or failing most calls.</p>
+ * <p>Allocate calls are not retried unless a maximum number of retries is set for
+ * {@link ResourceProviderOperation#ALLOCATE} explicitly, since a failed allocation may already
+ * have been reported to an allocation listener. Retrying allocate and delete calls relies on the
+ * idempotency guarantees documented in
+ * {@link com.cloudera.director.spi.v2.provider.ResourceProvider}.</p>
+ */
+public class RetryingInterceptor implements ResourceProviderInterceptor {
+
+  /**
+   * Returns a builder for retrying interceptors.
+   *
+   * @return a builder for retrying interceptors
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * The backoff before the first retry, in nanoseconds.
+   */
+  private final long initialBackoffNanos;
+
+  /**
+   * The maximum backoff between attempts, in nanoseconds.
+   */
+  private final long maxBackoffNanos;
+
+  /**
+   * The factor by which the backoff grows after each retry.
+   */
+  private final double multiplier;
+
+  /**
+   * The fraction of each backoff which is randomized.
+   */
+  private final double jitter;
+
+  /**
+   * The overall deadline of a call, including retries, in nanoseconds.
+   */
+  private final long deadlineNanos;
+
+  /**
+   * The maximum number of retries of a single call, by operation.
+   */
+  private final Map<ResourceProviderOperation, Integer> maxRetries;
+
+  /**
+   * The retry budget shared by all calls, or {@code null} if retries are not budgeted.
+   */
+  private final RetryBudget retryBudget;
+
+  /**
+   * Creates a retrying interceptor from the specified builder.
+   *
+   * @param builder the builder
+   */
+  private RetryingInterceptor(Builder builder) {
+    this.initialBackoffNanos = builder.initialBackoffNanos;
+    this.maxBackoffNanos = builder.maxBackoffNanos;
+    this.multiplier = builder.multiplier;
+    this.jitter = builder.jitter;
+    this.deadlineNanos = builder.deadlineNanos;
+    this.maxRetries = new EnumMap<ResourceProviderOperation, Integer>(builder.maxRetries);
+    this.retryBudget = (builder.retryBudgetTokens > 0)
+        ? new RetryBudget(builder.retryBudgetTokens, builder.retryBudgetTokensPerSuccess)
+        : null;
+  }
+
+  /**
+   * Returns the maximum number of retries of a single call to the specified operation.
+   *
+   * @param operation the operation
+   * @return the maximum number of retries of a single call to the operation
+   */
+  public int getMaxRetries(ResourceProviderOperation operation) {
+    return maxRetries.get(operation);
+  }
+
+  @Override
+  public <V> V intercept(ResourceProviderInvocation<V> invocation) throws InterruptedException {
+    int retriesLeft = getMaxRetries(invocation.getOperation());
+    long deadline = System.nanoTime() + deadlineNanos;
+    long backoffNanos = initialBackoffNanos;
+    while (true) {
+      try {
+        V result = invocation.proceed();
+        if (retryBudget != null) {
+          retryBudget.earn();
+        }
+        return result;
+      } catch (TransientProviderException e) {
+        long delayNanos = jitter(backoffNanos);
+        if (retriesLeft <= 0 || System.nanoTime() + delayNanos - deadline > 0
+            || (retryBudget != null && !retryBudget.trySpend())) {
+          throw e;
+        }
+        retriesLeft--;
+        TimeUnit.NANOSECONDS.sleep(delayNanos);
+        backoffNanos = (long) Math.min(backoffNanos * multiplier, maxBackoffNanos);
+      }
+    }
+  }
+
+  /**
+   * Returns the specified backoff with its jittered fraction randomized.
+   *
+   * @param backoffNanos the backoff, in nanoseconds
+   * @return the delay before the next attempt, in nanoseconds
+   */
+  private long jitter(long backoffNanos) {
+    long fixedNanos = (long) (backoffNanos * (1.0 - jitter));
+    long randomNanos = backoffNanos - fixedNanos;
+    return fixedNanos
+        + ((randomNanos > 0) ? ThreadLocalRandom.current().nextLong(randomNanos + 1) : 0L);
+  }
+
+  /**
+   * A budget of retries shared by all calls.
+   */
+  private static final class RetryBudget {
+
+    /**
+     * The maximum number of tokens.
+     */
+    private final double maxTokens;
+
+    /**
+     * The number of tokens earned by each successful call.
+     */
+    private final double tokensPerSuccess;
+
+    /**
+     * The number of tokens left, guarded by this budget.
+     */
+    private double tokens;
+
+    /**
+     * Creates a full retry budget with the specified parameters.
+     *
+     * @param maxTokens        the maximum number of tokens
+     * @param tokensPerSuccess the number of tokens earned by each successful call
+     */
+    private RetryBudget(int maxTokens, double tokensPerSuccess) {
+      this.maxTokens = maxTokens;
+      this.tokensPerSuccess = tokensPerSuccess;
+      this.tokens = maxTokens;
+    }
+
+    /**
+     * Spends a token for a retry, if one is left.
+     *
+     * @return whether a token was spent
+     */
+    private synchronized boolean trySpend() {
+      if (tokens < 1.0) {
+        return false;
+      }
+      tokens -= 1.0;
+      return true;
+    }
+
+    /**
+     * Earns tokens for a successful call, up to the maximum number of tokens.
+     */
+    private synchronized void earn() {
+      tokens = Math.min(maxTokens, tokens + tokensPerSuccess);
+    }
+  }
+
+  /**
+   * Builder for retrying interceptors.
+   */
+  public static final class Builder {
+
+    /**
+     * The default maximum number of retries of a single call to any operation other than
+     * {@link ResourceProviderOperation#ALLOCATE}, which is not retried by default.
+     */
+    public static final int DEFAULT_MAX_RETRIES = 5;
+
+    /**
+     * The backoff before the first retry, in nanoseconds.
+     */
+    private long initialBackoffNanos = TimeUnit.MILLISECONDS.toNanos(500L);
+
+    /**
+     * The maximum backoff between attempts, in nanoseconds.
+     */
+    private long maxBackoffNanos = TimeUnit.SECONDS.toNanos(30L);
+
+    /**
+     * The factor by which the backoff grows after each retry.
+     */
+    private double multiplier = 2.0;
+
+    /**
+     * The fraction of each backoff which is randomized.
+     */
+    private double jitter = 1.0;
+
+    /**
+     * The overall deadline of a call, including retries, in nanoseconds.
+     */
+    private long deadlineNanos = TimeUnit.MINUTES.toNanos(5L);
+
+    /**
+     * The maximum number of retries of a single call, by operation.
+     */
+    private final Map<ResourceProviderOperation, Integer> maxRetries =
+        new EnumMap<ResourceProviderOperation, Integer>(ResourceProviderOperation.class);
+
+    /**
+     * The maximum number of tokens of the shared retry budget, or zero if retries are not
+     * budgeted.
+     */
+    private int retryBudgetTokens;
+
+    /**
+     * The number of tokens of the shared retry budget earned by each successful call.
+     */
+    private double retryBudgetTokensPerSuccess;
+
+    /**
+     * Creates a builder with the default settings.
+     */
+    private Builder() {
+      maxRetries(DEFAULT_MAX_RETRIES);
+      maxRetries(ResourceProviderOperation.ALLOCATE, 0);
+    }
+
+    /**
+     * Sets the backoff before the first retry. The default is 500 milliseconds.
+     *
+     * @param initialBackoff the backoff before the first retry
+     * @param unit           the time unit of the backoff
+     * @return this builder
+     */
+    public Builder initialBackoff(long initialBackoff, TimeUnit unit) {
+      checkArgument(initialBackoff > 0, "initialBackoff must be positive: " + initialBackoff);
+      this.initialBackoffNanos = checkNotNull(unit, "unit is null").toNanos(initialBackoff);
+      return this;
+    }
+
+    /**
+     * Sets the maximum backoff between attempts. The default is 30 seconds.
+     *
+     * @param maxBackoff the maximum backoff between attempts
+     * @param unit       the time unit of the backoff
+     * @return this builder
+     */
+    public Builder maxBackoff(long maxBackoff, TimeUnit unit) {
+      checkArgument(maxBackoff > 0, "maxBackoff must be positive: " + maxBackoff);
+      this.maxBackoffNanos = checkNotNull(unit, "unit is null").toNanos(maxBackoff);
+      return this;
+    }
+
+    /**
+     * Sets the factor by which the backoff grows after each retry. The default is 2.
+     *
+     * @param multiplier the factor by which the backoff grows after each retry
+     * @return this builder
+     */
+    public Builder multiplier(double multiplier) {
+      checkArgument(multiplier >= 1.0, "multiplier must be at least 1: " + multiplier);
+      this.multiplier = multiplier;
+      return this;
+    }
+
+    /**
+     * Sets the fraction of each backoff which is randomized, between 0 (no jitter) and 1 (the
+     * delay is uniformly distributed between zero and the backoff). The default is 1.
+     *
+     * @param jitter the fraction of each backoff which is randomized
+     * @return this builder
+     */
+    public Builder jitter(double jitter) {
+      checkArgument(jitter >= 0.0 && jitter <= 1.0, "jitter must be between 0 and 1: " + jitter);
+      this.jitter = jitter;
+      return this;
+    }
+
+    /**
+     * Sets the overall deadline of a call, including retries. The default is 5 minutes.
+     *
+     * @param deadline the overall deadline of a call
+     * @param unit     the time unit of the deadline
+     * @return this builder
+     */
+    public Builder deadline(long deadline, TimeUnit unit) {
+      checkArgument(deadline > 0, "deadline must be positive: " + deadline);
+      this.deadlineNanos = checkNotNull(unit, "unit is null").toNanos(deadline);
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of retries of a single call to any operation other than
+     * {@link ResourceProviderOperation#ALLOCATE}, whose maximum can only be set with
+     * {@link #maxRetries(ResourceProviderOperation, int)}.
+     *
+     * @param maxRetries the maximum number of retries of a single call
+     * @return this builder
+     */
+    public Builder maxRetries(int maxRetries) {
+      for (ResourceProviderOperation operation : ResourceProviderOperation.values()) {
+        if (operation != ResourceProviderOperation.ALLOCATE) {
+          maxRetries(operation, maxRetries);
+        }
+      }
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of retries of a single call to the specified operation. Retrying
+     * {@link ResourceProviderOperation#ALLOCATE} calls made with an allocation listener notifies
+     * the listener of the outcomes of every attempt, so a resource may be reported as failed by
+     * one attempt and allocated by the next.
+     *
+     * @param operation  the operation
+     * @param maxRetries the maximum number of retries of a single call
+     * @return this builder
+     */
+    public Builder maxRetries(ResourceProviderOperation operation, int maxRetries) {
+      checkNotNull(operation, "operation is null");
+      checkArgument(maxRetries >= 0, "maxRetries must not be negative: " + maxRetries);
+      this.maxRetries.put(operation, maxRetries);
+      return this;
+    }
+
+    /**
+     * Sets the retry budget shared by all calls made through the interceptor. The budget starts
+     * with the specified number of tokens; each retry spends one token, and each successful call
+     * earns the specified fraction of a token back, up to the initial number of tokens. While
+     * fewer than one token is left, failures are rethrown without retrying. By default, retries
+     * are not budgeted.
+     *
+     * @param maxTokens        the maximum number of tokens
+     * @param tokensPerSuccess the number of tokens earned by each successful call
+     * @return this builder
+     */
+    public Builder retryBudget(int maxTokens, double tokensPerSuccess) {
+      checkArgument(maxTokens > 0, "maxTokens must be positive: " + maxTokens);
+      checkArgument(tokensPerSuccess >= 0.0,
+          "tokensPerSuccess must not be negative: " + tokensPerSuccess);
+      this.retryBudgetTokens = maxTokens;
+      this.retryBudgetTokensPerSuccess = tokensPerSuccess;
+      return this;
+    }
+
+    /**
+     * Builds a retrying interceptor with the settings of this builder.
+     *
+     * @return a retrying interceptor
+     */
+    public RetryingInterceptor build() {
+      checkArgument(maxBackoffNanos >= initialBackoffNanos,
+          "maxBackoff must not be less than initialBackoff");
+      return new RetryingInterceptor(this);
+    }
+  }
+}
@@ -0,0 +1,366 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.provider.util;
+
+import com.cloudera.director.spi.v2.model.exception.InvalidCredentialsException;
+import com.cloudera.director.spi.v2.model.exception.TransientProviderException;
+import com.cloudera.director.spi.v2.model.exception.UnrecoverableProviderException;
+import com.cloudera.director.spi.v2.model.exception.ValidationException;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Metrics sink which aggregates call records in memory, per source and method: call counts,
+ * error counts by exception class, and histograms of latencies and batch sizes. Errors are
+ * counted under the SPI exception class they belong to, if any, so that plugin-specific
+ * subclasses of {@link TransientProviderException}, {@link UnrecoverableProviderException},
+ * {@link ValidationException} and {@link InvalidCredentialsException} are grouped together.
+ */
+public class SimpleMetricsSink implements MetricsSink {
+
+  /**
+   * The SPI exception classes under which errors are counted, most specific first.
+   */
+  private static final List<Class<? extends Throwable>> ERROR_CLASSES =
+      Collections.<Class<? extends Throwable>>unmodifiableList(
+          Arrays.<Class<? extends Throwable>>asList(
+              InvalidCredentialsException.class,
+              ValidationException.class,
+              TransientProviderException.class,
+              UnrecoverableProviderException.class));
+
+  /**
+   * The upper bounds of the latency histogram buckets, in milliseconds.
+   */
+  private static final long[] LATENCY_BOUNDS_MILLIS =
+      {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000, 30000, 60000, 300000};
+
+  /**
+   * The upper bounds of the batch size histogram buckets.
+   */
+  private static final long[] BATCH_SIZE_BOUNDS =
+      {0, 1, 2, 5, 10, 20, 50, 100, 200, 500, 1000};
+
+  /**
+   * The call statistics, by source and method.
+   */
+  private final ConcurrentMap<String, ConcurrentMap<String, CallStatistics>> statistics =
+      new ConcurrentHashMap<String, ConcurrentMap<String, CallStatistics>>();
+
+  @Override
+  public void recordCall(String source, String method, long latencyNanos, int batchSize,
+      Throwable failure) {
+    getOrCreate(source, method).record(latencyNanos, batchSize, failure);
+  }
+
+  /**
+   * Returns the call statistics of the specified method of the specified source.
+   *
+   * @param source the source
+   * @param method the method
+   * @return the call statistics, or {@code null} if no call has been recorded
+   */
+  public CallStatistics getStatistics(String source, String method) {
+    Map<String, CallStatistics> sourceStatistics = statistics.get(source);
+    return (sourceStatistics == null) ? null : sourceStatistics.get(method);
+  }
+
+  /**
+   * Returns all call statistics, by source and method, in alphabetical order.
+   *
+   * @return all call statistics, by source and method
+   */
+  public Map<String, Map<String, CallStatistics>> getStatistics() {
+    Map<String, Map<String, CallStatistics>> result =
+        new TreeMap<String, Map<String, CallStatistics>>();
+    for (Map.Entry<String, ConcurrentMap<String, CallStatistics>> entry : statistics.entrySet()) {
+      result.put(entry.getKey(), new TreeMap<String, CallStatistics>(entry.getValue()));
+    }
+    return result;
+  }
+
+  /**
+   * Returns the call statistics of the specified method of the specified source, creating them
+   * if necessary.
+   *
+   * @param source the source
+   * @param method the method
+   * @return the call statistics
+   */
+  private CallStatistics getOrCreate(String source, String method) {
+    ConcurrentMap<String, CallStatistics> sourceStatistics = statistics.get(source);
+    if (sourceStatistics == null) {
+      sourceStatistics = new ConcurrentHashMap<String, CallStatistics>();
+      ConcurrentMap<String, CallStatistics> existing =
+          statistics.putIfAbsent(source, sourceStatistics);
+      if (existing != null) {
+        sourceStatistics = existing;
+      }
+    }
+    CallStatistics methodStatistics = sourceStatistics.get(method);
+    if (methodStatistics == null) {
+      methodStatistics = new CallStatistics();
+      CallStatistics existing = sourceStatistics.putIfAbsent(method, methodStatistics);
+      if (existing != null) {
+        methodStatistics = existing;
+      }
+    }
+    return methodStatistics;
+  }
+
+  /**
+   * Returns the class under which the specified error is counted.
+   *
+   * @param failure the error
+   * @return the class under which the error is counted
+   */
+  private static Class<?> errorClass(Throwable failure) {
+    for (Class<? extends Throwable> errorClass : ERROR_CLASSES) {
+      if (errorClass.isInstance(failure)) {
+        return errorClass;
+      }
+    }
+    return failure.getClass();
+  }
+
+  /**
+   * Aggregated statistics of the calls to one method of one source.
+   */
+  public static final class CallStatistics {
+
+    /**
+     * The number of calls.
+     */
+    private final AtomicLong callCount = new AtomicLong();
+
+    /**
+     * The number of failed calls, by exception class name.
+     */
+    private final ConcurrentMap<String, AtomicLong> errorCounts =
+        new ConcurrentHashMap<String, AtomicLong>();
+
+    /**
+     * The latency histogram, in milliseconds.
+     */
+    private final Histogram latencyMillis = new Histogram(LATENCY_BOUNDS_MILLIS);
+
+    /**
+     * The batch size histogram.
+     */
+    private final Histogram batchSizes = new Histogram(BATCH_SIZE_BOUNDS);
+
+    /**
+     * Creates empty call statistics.
+     */
+    private CallStatistics() {
+    }
+
+    /**
+     * Records a call.
+     *
+     * @param latencyNanos the duration of the call, in nanoseconds
+     * @param batchSize    the batch size, or {@link MetricsSink#NO_BATCH}
+     * @param failure      the exception thrown by the call, or {@code null}
+     */
+    private void record(long latencyNanos, int batchSize, Throwable failure) {
+      callCount.incrementAndGet();
+      latencyMillis.record(TimeUnit.NANOSECONDS.toMillis(latencyNanos));
+      if (batchSize != NO_BATCH) {
+        batchSizes.record(batchSize);
+      }
+      if (failure != null) {
+        String errorClass = errorClass(failure).getName();
+        AtomicLong errorCount = errorCounts.get(errorClass);
+        if (errorCount == null) {
+          errorCount = new AtomicLong();
+          AtomicLong existing = errorCounts.putIfAbsent(errorClass, errorCount);
+          if (existing != null) {
+            errorCount = existing;
+          }
+        }
+        errorCount.incrementAndGet();
+      }
+    }
+
+    /**
+     * Returns the number of calls.
+     *
+     * @return the number of calls
+     */
+    public long getCallCount() {
+      return callCount.get();
+    }
+
+    /**
+     * Returns the number of failed calls.
+     *
+     * @return the number of failed calls
+     */
+    public long getErrorCount() {
+      long errorCount = 0L;
+      for (AtomicLong count : errorCounts.values()) {
+        errorCount += count.get();
+      }
+      return errorCount;
+    }
+
+    /**
+     * Returns the number of failed calls, by exception class name.
+     *
+     * @return the number of failed calls, by exception class name
+     */
+    public Map<String, Long> getErrorCounts() {
+      Map<String, Long> result = new TreeMap<String, Long>();
+      for (Map.Entry<String, AtomicLong> entry : errorCounts.entrySet()) {
+        result.put(entry.getKey(), entry.getValue().get());
+      }
+      return result;
+    }
+
+    /**
+     * Returns the latency histogram, in milliseconds.
+     *
+     * @return the latency histogram, in milliseconds
+     */
+    public Histogram getLatencyMillis() {
+      return latencyMillis;
+    }
+
+    /**
+     * Returns the batch size histogram.
+     *
+     * @return the batch size histogram
+     */
+    public Histogram getBatchSizes() {
+      return batchSizes;
+    }
+  }
+
+  /**
+   * Histogram with fixed bucket bounds. Bucket {@code i} counts the values greater than the
+   * upper bound of bucket {@code i - 1} and less than or equal to its own upper bound; the last
+   * bucket counts the values greater than all upper bounds.
+   */
+  public static final class Histogram {
+
+    /**
+     * The upper bounds of the buckets, except the last.
+     */
+    private final long[] upperBounds;
+
+    /**
+     * The bucket counts.
+     */
+    private final AtomicLongArray counts;
+
+    /**
+     * The sum of the recorded values.
+     */
+    private final AtomicLong sum = new AtomicLong();
+
+    /**
+     * The largest recorded value.
+     */
+    private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * Creates an empty histogram with the specified bucket bounds.
+     *
+     * @param upperBounds the upper bounds of the buckets, except the last, in increasing order
+     */
+    private Histogram(long[] upperBounds) {
+      this.upperBounds = upperBounds;
+      this.counts = new AtomicLongArray(upperBounds.length + 1);
+    }
+
+    /**
+     * Records a value.
+     *
+     * @param value the value
+     */
+    private void record(long value) {
+      int bucket = Arrays.binarySearch(upperBounds, value);
+      counts.incrementAndGet((bucket >= 0) ? bucket : -bucket - 1);
+      sum.addAndGet(value);
+      long currentMax = max.get();
+      while (value > currentMax && !max.compareAndSet(currentMax, value)) {
+        currentMax = max.get();
+      }
+    }
+
+    /**
+     * Returns the upper bounds of the buckets, except the last.
+     *
+     * @return the upper bounds of the buckets, except the last
+     */
+    public long[] getUpperBounds() {
+      return upperBounds.clone();
+    }
+
+    /**
+     * Returns the bucket counts.
+     *
+     * @return the bucket counts
+     */
+    public long[] getCounts() {
+      long[] result = new long[counts.length()];
+      for (int i = 0; i < result.length; i++) {
+        result[i] = counts.get(i);
+      }
+      return result;
+    }
+
+    /**
+     * Returns the number of recorded values.
+     *
+     * @return the number of recorded values
+     */
+    public long getCount() {
+      long count = 0L;
+      for (int i = 0; i < counts.length(); i++) {
+        count += counts.get(i);
+      }
+      return count;
+    }
+
+    /**
+     * Returns the sum of the recorded values.
+     *
+     * @return the sum of the recorded values
+     */
+    public long getSum() {
+      return sum.get();
+    }
+
+    /**
+     * Returns the largest recorded value, or zero if no value has been recorded.
+     *
+     * @return the largest recorded value, or zero if no value has been recorded
+     */
+    public long getMax() {
+      long currentMax = max.get();
+      return (currentMax == Long.MIN_VALUE) ? 0L : currentMax;
+    }
+  }
+}
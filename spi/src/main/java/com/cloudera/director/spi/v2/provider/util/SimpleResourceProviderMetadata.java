@@ -22,6 +22,7 @@ import com.cloudera.director.spi.v2.model.DisplayProperty;
 import com.cloudera.director.spi.v2.model.util.DefaultConfigurationValidator;
 import com.cloudera.director.spi.v2.provider.ResourceProvider;
 import com.cloudera.director.spi.v2.provider.ResourceProviderMetadata;
+import com.cloudera.director.spi.v2.util.ConfigurationPropertyIndex;
 
 import java.util.Collections;
 import java.util.List;
@@ -36,6 +37,8 @@ public class SimpleResourceProviderMetadata
 
   private final List<ConfigurationProperty> resourceTemplateConfigurationProperties;
 
+  private final ConfigurationPropertyIndex resourceTemplateConfigurationPropertyIndex;
+
   private final List<DisplayProperty> resourceDisplayProperties;
 
   public static SimpleResourceProviderMetadataBuilder builder() {
@@ -72,6 +75,8 @@ public class SimpleResourceProviderMetadata
     this.resourceTemplateConfigurationProperties = Collections.unmodifiableList(
         checkNotNull(resourceTemplateConfigurationProperties,
             "resourceTemplateConfigurationProperties is null"));
+    this.resourceTemplateConfigurationPropertyIndex =
+        new ConfigurationPropertyIndex(this.resourceTemplateConfigurationProperties);
     this.resourceDisplayProperties = Collections.unmodifiableList(
         checkNotNull(resourceDisplayProperties,
             "resourceDisplayProperties is null"));
@@ -87,6 +92,11 @@ public class SimpleResourceProviderMetadata
     return resourceTemplateConfigurationProperties;
   }
 
+  @Override
+  public ConfigurationPropertyIndex getResourceTemplateConfigurationPropertyIndex() {
+    return resourceTemplateConfigurationPropertyIndex;
+  }
+
   @Override
   public List<DisplayProperty> getResourceDisplayProperties() {
     return resourceDisplayProperties;
@@ -0,0 +1,92 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.provider.util;
+
+import com.cloudera.director.spi.v2.model.ResourceTemplate;
+import com.cloudera.director.spi.v2.provider.ResourceProvider;
+
+/**
+ * Identifies the resources of one template group of one resource provider, so that calls made
+ * with different but equivalent template objects can share coalesced requests and cached
+ * results. Two templates are equivalent if they have the same class, name and group ID.
+ */
+final class TemplateKey {
+
+  /**
+   * The resource provider.
+   */
+  private final ResourceProvider<?, ?> provider;
+
+  /**
+   * The template class.
+   */
+  private final Class<?> templateClass;
+
+  /**
+   * The template name.
+   */
+  private final String name;
+
+  /**
+   * The template group ID.
+   */
+  private final String groupId;
+
+  /**
+   * Creates a template key for the specified invocation.
+   *
+   * @param invocation the invocation
+   */
+  TemplateKey(ResourceProviderInvocation<?> invocation) {
+    this(invocation.getProvider(), invocation.getTemplate());
+  }
+
+  /**
+   * Creates a template key with the specified parameters.
+   *
+   * @param provider the resource provider
+   * @param template the resource template
+   */
+  TemplateKey(ResourceProvider<?, ?> provider, ResourceTemplate template) {
+    this.provider = provider;
+    this.templateClass = (template == null) ? null : template.getClass();
+    this.name = (template == null) ? null : template.getName();
+    this.groupId = (template == null) ? null : template.getGroupId();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    TemplateKey that = (TemplateKey) o;
+    return provider == that.provider
+        && templateClass == that.templateClass
+        && (name == null ? that.name == null : name.equals(that.name))
+        && (groupId == null ? that.groupId == null : groupId.equals(that.groupId));
+  }
+
+  @Override
+  public int hashCode() {
+    int result = System.identityHashCode(provider);
+    result = 31 * result + (templateClass == null ? 0 : templateClass.hashCode());
+    result = 31 * result + (name == null ? 0 : name.hashCode());
+    result = 31 * result + (groupId == null ? 0 : groupId.hashCode());
+    return result;
+  }
+}
@@ -0,0 +1,171 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.provider.util;
+
+import static com.cloudera.director.spi.v2.util.Preconditions.checkArgument;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket which refills at a fixed rate up to a burst capacity. Callers reserve a token and
+ * then wait for the returned delay; reservations made while the bucket is empty are queued behind
+ * each other by letting the token count go negative. Also records the waits it imposes.
+ */
+final class TokenBucket {
+
+  /**
+   * The refill rate, in tokens per nanosecond.
+   */
+  private final double tokensPerNano;
+
+  /**
+   * The maximum number of stored tokens.
+   */
+  private final double capacity;
+
+  /**
+   * The number of stored tokens, negative when reservations are queued, guarded by this bucket.
+   */
+  private double tokens;
+
+  /**
+   * The {@link System#nanoTime()} of the last refill, guarded by this bucket.
+   */
+  private long lastRefill;
+
+  /**
+   * The number of reservations.
+   */
+  private final AtomicLong reservationCount = new AtomicLong();
+
+  /**
+   * The number of reservations which had to wait.
+   */
+  private final AtomicLong waitCount = new AtomicLong();
+
+  /**
+   * The total wait imposed, in nanoseconds.
+   */
+  private final AtomicLong totalWaitNanos = new AtomicLong();
+
+  /**
+   * The longest wait imposed, in nanoseconds.
+   */
+  private final AtomicLong maxWaitNanos = new AtomicLong();
+
+  /**
+   * Creates a full token bucket with the specified parameters.
+   *
+   * @param tokensPerSecond the refill rate, in tokens per second
+   * @param burst           the maximum number of stored tokens
+   */
+  TokenBucket(double tokensPerSecond, int burst) {
+    checkArgument(tokensPerSecond > 0, "tokensPerSecond must be positive: " + tokensPerSecond);
+    checkArgument(burst > 0, "burst must be positive: " + burst);
+    this.tokensPerNano = tokensPerSecond / TimeUnit.SECONDS.toNanos(1L);
+    this.capacity = burst;
+    this.tokens = burst;
+    this.lastRefill = System.nanoTime();
+  }
+
+  /**
+   * Reserves a token, returning how long the caller must wait before using it.
+   *
+   * @return the wait, in nanoseconds
+   */
+  long reserve() {
+    long waitNanos;
+    synchronized (this) {
+      long now = System.nanoTime();
+      tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+      lastRefill = now;
+      tokens -= 1.0;
+      waitNanos = (tokens >= 0.0) ? 0L : (long) Math.ceil(-tokens / tokensPerNano);
+    }
+    reservationCount.incrementAndGet();
+    if (waitNanos > 0) {
+      waitCount.incrementAndGet();
+      totalWaitNanos.addAndGet(waitNanos);
+      long max = maxWaitNanos.get();
+      while (waitNanos > max && !maxWaitNanos.compareAndSet(max, waitNanos)) {
+        max = maxWaitNanos.get();
+      }
+    }
+    return waitNanos;
+  }
+
+  /**
+   * Gives back a reserved token which will not be used, so that it is available to the
+   * reservations queued behind it.
+   */
+  synchronized void release() {
+    tokens = Math.min(capacity, tokens + 1.0);
+  }
+
+  /**
+   * Reserves a token and waits until it can be used. If the wait is interrupted, the token is
+   * given back before the exception is thrown.
+   *
+   * @throws InterruptedException if the wait is interrupted
+   */
+  void acquire() throws InterruptedException {
+    long waitNanos = reserve();
+    if (waitNanos > 0) {
+      try {
+        TimeUnit.NANOSECONDS.sleep(waitNanos);
+      } catch (InterruptedException e) {
+        release();
+        throw e;
+      }
+    }
+  }
+
+  /**
+   * Returns the number of reservations.
+   *
+   * @return the number of reservations
+   */
+  long getReservationCount() {
+    return reservationCount.get();
+  }
+
+  /**
+   * Returns the number of reservations which had to wait.
+   *
+   * @return the number of reservations which had to wait
+   */
+  long getWaitCount() {
+    return waitCount.get();
+  }
+
+  /**
+   * Returns the total wait imposed, in nanoseconds.
+   *
+   * @return the total wait imposed, in nanoseconds
+   */
+  long getTotalWaitNanos() {
+    return totalWaitNanos.get();
+  }
+
+  /**
+   * Returns the longest wait imposed, in nanoseconds.
+   *
+   * @return the longest wait imposed, in nanoseconds
+   */
+  long getMaxWaitNanos() {
+    return maxWaitNanos.get();
+  }
+}
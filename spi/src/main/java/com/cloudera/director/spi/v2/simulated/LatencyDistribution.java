@@ -0,0 +1,96 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.simulated;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Represents a distribution from which simulated cloud call latencies are sampled. Every
+ * distribution is parameterized by a mean and a spread, both in milliseconds; the meaning of
+ * the spread depends on the distribution.
+ */
+public enum LatencyDistribution {
+
+  /**
+   * Every call takes exactly the mean. The spread is ignored.
+   */
+  FIXED {
+    @Override
+    double sampleMillis(Random random, double meanMillis, double spreadMillis) {
+      return meanMillis;
+    }
+  },
+
+  /**
+   * Calls are uniformly distributed within the spread on either side of the mean.
+   */
+  UNIFORM {
+    @Override
+    double sampleMillis(Random random, double meanMillis, double spreadMillis) {
+      return meanMillis + (2.0 * random.nextDouble() - 1.0) * spreadMillis;
+    }
+  },
+
+  /**
+   * Calls are exponentially distributed with the specified mean. The spread is ignored.
+   */
+  EXPONENTIAL {
+    @Override
+    double sampleMillis(Random random, double meanMillis, double spreadMillis) {
+      return -meanMillis * Math.log(1.0 - random.nextDouble());
+    }
+  },
+
+  /**
+   * Calls are log-normally distributed with the specified mean, using the spread as the
+   * standard deviation. This produces the long right tail typical of real cloud APIs.
+   */
+  LOG_NORMAL {
+    @Override
+    double sampleMillis(Random random, double meanMillis, double spreadMillis) {
+      if (meanMillis <= 0) {
+        return 0;
+      }
+      double cv = spreadMillis / meanMillis;
+      double variance = Math.log(1.0 + cv * cv);
+      double mu = Math.log(meanMillis) - variance / 2.0;
+      return Math.exp(mu + Math.sqrt(variance) * random.nextGaussian());
+    }
+  };
+
+  /**
+   * Samples a latency from this distribution.
+   *
+   * @param random       the source of randomness
+   * @param meanMillis   the mean latency, in milliseconds
+   * @param spreadMillis the spread of the latency, in milliseconds
+   * @return the sampled latency, in nanoseconds, which is never negative
+   */
+  public long sampleNanos(Random random, double meanMillis, double spreadMillis) {
+    double millis = sampleMillis(random, meanMillis, spreadMillis);
+    return (millis <= 0) ? 0L : (long) (millis * TimeUnit.MILLISECONDS.toNanos(1));
+  }
+
+  /**
+   * Samples a latency from this distribution.
+   *
+   * @param random       the source of randomness
+   * @param meanMillis   the mean latency, in milliseconds
+   * @param spreadMillis the spread of the latency, in milliseconds
+   * @return the sampled latency, in milliseconds, which may be negative
+   */
+  abstract double sampleMillis(Random random, double meanMillis, double spreadMillis);
+}
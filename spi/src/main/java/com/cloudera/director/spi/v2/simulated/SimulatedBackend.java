@@ -0,0 +1,263 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.simulated;
+
+import static com.cloudera.director.spi.v2.util.Preconditions.checkNotNull;
+
+import com.cloudera.director.spi.v2.compute.ComputeInstanceTemplate;
+import com.cloudera.director.spi.v2.model.InstanceState;
+import com.cloudera.director.spi.v2.model.InstanceStatus;
+import com.cloudera.director.spi.v2.model.InstanceTemplate;
+import com.cloudera.director.spi.v2.model.exception.TransientProviderException;
+import com.cloudera.director.spi.v2.model.exception.UnrecoverableProviderException;
+import com.cloudera.director.spi.v2.model.util.SimpleInstanceState;
+import com.cloudera.director.spi.v2.simulated.SimulatedInstanceStore.Entry;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The cloud operations shared by the simulated resource providers. Each operation first waits
+ * for a sampled latency and may then fail with an injected exception, before acting on the
+ * instance store.
+ */
+final class SimulatedBackend {
+
+  /**
+   * The shared instance states, by status.
+   */
+  private static final Map<InstanceStatus, InstanceState> INSTANCE_STATES;
+
+  static {
+    Map<InstanceStatus, InstanceState> instanceStates =
+        new EnumMap<InstanceStatus, InstanceState>(InstanceStatus.class);
+    for (InstanceStatus instanceStatus : InstanceStatus.values()) {
+      instanceStates.put(instanceStatus, new SimpleInstanceState(instanceStatus));
+    }
+    INSTANCE_STATES = Collections.unmodifiableMap(instanceStates);
+  }
+
+  /**
+   * The instance store.
+   */
+  private final SimulatedInstanceStore store;
+
+  /**
+   * The simulation parameters.
+   */
+  private final SimulationParameters parameters;
+
+  /**
+   * The source of randomness, seeded from the simulation parameters.
+   */
+  private final Random random;
+
+  /**
+   * Creates a simulated backend with the specified parameters.
+   *
+   * @param store      the instance store
+   * @param parameters the simulation parameters
+   */
+  SimulatedBackend(SimulatedInstanceStore store, SimulationParameters parameters) {
+    this.store = checkNotNull(store, "store is null");
+    this.parameters = checkNotNull(parameters, "parameters is null");
+    this.random = new Random(parameters.getSeed());
+  }
+
+  /**
+   * Returns the simulation parameters.
+   *
+   * @return the simulation parameters
+   */
+  SimulationParameters getParameters() {
+    return parameters;
+  }
+
+  /**
+   * Allocates the specified instances in the group of the specified template. For automatic
+   * templates, the identifiers only determine the number of instances, and the instances are
+   * given identifiers by the simulated cloud.
+   *
+   * @param template    the template
+   * @param instanceIds the instance identifiers
+   * @param minCount    the minimum number of instances that must be allocated
+   * @return the allocated instances
+   * @throws InterruptedException if the operation is interrupted
+   */
+  List<Entry> allocate(InstanceTemplate template, Collection<String> instanceIds, int minCount)
+      throws InterruptedException {
+    simulateCall("allocate");
+    long provisioningNanos = TimeUnit.MILLISECONDS.toNanos(parameters.getProvisioningMillis());
+    if (isAutomatic(template)) {
+      return store.allocateAutomatic(template.getGroupId(), instanceIds.size(), minCount,
+          parameters.getCapacity(), provisioningNanos);
+    }
+    return store.allocate(template.getGroupId(), instanceIds, minCount, parameters.getCapacity(),
+        provisioningNanos);
+  }
+
+  /**
+   * Finds the specified instances of the group of the specified template that are pending or
+   * running. If no identifiers are specified, every such instance of the group is returned.
+   *
+   * @param template    the template
+   * @param instanceIds the instance identifiers
+   * @return the instances that are pending or running
+   * @throws InterruptedException if the operation is interrupted
+   */
+  List<Entry> find(InstanceTemplate template, Collection<String> instanceIds)
+      throws InterruptedException {
+    simulateCall("find");
+    String groupId = template.getGroupId();
+    if (instanceIds.isEmpty()) {
+      return store.getGroupEntries(groupId);
+    }
+    List<Entry> found = new ArrayList<Entry>(instanceIds.size());
+    for (String instanceId : instanceIds) {
+      Entry entry = store.get(groupId, instanceId);
+      if (entry != null && !entry.isDeleted()) {
+        found.add(entry);
+      }
+    }
+    return found;
+  }
+
+  /**
+   * Deletes the specified instances of the group of the specified template. If no identifiers
+   * are specified for an automatic template, every instance of the group is deleted.
+   *
+   * @param template    the template
+   * @param instanceIds the instance identifiers
+   * @throws InterruptedException if the operation is interrupted
+   */
+  void delete(InstanceTemplate template, Collection<String> instanceIds)
+      throws InterruptedException {
+    simulateCall("delete");
+    String groupId = template.getGroupId();
+    if (instanceIds.isEmpty() && isAutomatic(template)) {
+      List<Entry> groupEntries = store.getGroupEntries(groupId);
+      instanceIds = new ArrayList<String>(groupEntries.size());
+      for (Entry entry : groupEntries) {
+        instanceIds.add(entry.getInstanceId());
+      }
+    }
+    store.delete(groupId, instanceIds,
+        TimeUnit.MILLISECONDS.toNanos(parameters.getTerminationMillis()));
+  }
+
+  /**
+   * Returns the state of the specified instances. Unknown instances are reported with the
+   * {@link InstanceStatus#UNKNOWN} status. Deleted instances are reported with the
+   * {@link InstanceStatus#DELETED} status once their termination completes, and are then
+   * forgotten.
+   *
+   * @param instanceIds the instance identifiers
+   * @return the map from instance identifiers to instance state
+   */
+  Map<String, InstanceState> getInstanceState(Collection<String> instanceIds) {
+    simulateCallUninterruptibly("getInstanceState");
+    long now = System.nanoTime();
+    Map<String, InstanceState> instanceStates =
+        new HashMap<String, InstanceState>((int) (instanceIds.size() / 0.75f) + 1);
+    for (String instanceId : instanceIds) {
+      Entry entry = store.get(instanceId);
+      InstanceStatus status = (entry == null) ? InstanceStatus.UNKNOWN : entry.getStatus(now);
+      if (status == InstanceStatus.DELETED) {
+        store.remove(entry);
+      }
+      instanceStates.put(instanceId, INSTANCE_STATES.get(status));
+    }
+    return instanceStates;
+  }
+
+  /**
+   * Returns the host key fingerprints of the specified instances. Simulated instances have no
+   * host keys, so every running instance is reported with an empty set of fingerprints.
+   *
+   * @param instanceIds the instance identifiers
+   * @return the map from instance identifiers to host key fingerprints
+   * @throws InterruptedException if the operation is interrupted
+   */
+  Map<String, Set<String>> getHostKeyFingerprints(Collection<String> instanceIds)
+      throws InterruptedException {
+    simulateCall("getHostKeyFingerprints");
+    long now = System.nanoTime();
+    Map<String, Set<String>> fingerprints = new HashMap<String, Set<String>>();
+    for (String instanceId : instanceIds) {
+      Entry entry = store.get(instanceId);
+      if (entry != null && entry.getStatus(now) == InstanceStatus.RUNNING) {
+        fingerprints.put(instanceId, Collections.<String>emptySet());
+      }
+    }
+    return fingerprints;
+  }
+
+  /**
+   * Returns whether instances created from the specified template are part of an automatic
+   * instance group.
+   *
+   * @param template the template
+   * @return whether instances created from the template are part of an automatic instance group
+   */
+  private static boolean isAutomatic(InstanceTemplate template) {
+    return template instanceof ComputeInstanceTemplate
+        && ((ComputeInstanceTemplate) template).isAutomatic();
+  }
+
+  /**
+   * Simulates a cloud call that cannot be interrupted, restoring the interrupt flag and failing
+   * with an unrecoverable provider exception if the caller is interrupted.
+   *
+   * @param operation the name of the operation
+   */
+  private void simulateCallUninterruptibly(String operation) {
+    try {
+      simulateCall(operation);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new UnrecoverableProviderException("Interrupted during simulated " + operation, e);
+    }
+  }
+
+  /**
+   * Simulates a cloud call by waiting for a sampled latency, and then possibly failing.
+   *
+   * @param operation the name of the operation
+   * @throws InterruptedException if the operation is interrupted
+   */
+  private void simulateCall(String operation) throws InterruptedException {
+    long latencyNanos = parameters.getLatencyDistribution().sampleNanos(random,
+        parameters.getLatencyMeanMillis(), parameters.getLatencySpreadMillis());
+    double failure = random.nextDouble();
+    if (latencyNanos > 0) {
+      TimeUnit.NANOSECONDS.sleep(latencyNanos);
+    }
+    double transientFailureRate = parameters.getTransientFailureRate();
+    if (failure < transientFailureRate) {
+      throw new TransientProviderException("Simulated transient failure of " + operation);
+    }
+    if (failure < transientFailureRate + parameters.getUnrecoverableFailureRate()) {
+      throw new UnrecoverableProviderException("Simulated unrecoverable failure of " + operation);
+    }
+  }
+}
@@ -0,0 +1,130 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.simulated;
+
+import static com.cloudera.director.spi.v2.util.Preconditions.checkArgument;
+import static com.cloudera.director.spi.v2.util.Preconditions.checkNotNull;
+
+import com.cloudera.director.spi.v2.model.ConfigurationProperty;
+import com.cloudera.director.spi.v2.model.Configured;
+import com.cloudera.director.spi.v2.model.LocalizationContext;
+import com.cloudera.director.spi.v2.provider.CloudProviderMetadata;
+import com.cloudera.director.spi.v2.provider.ResourceProvider;
+import com.cloudera.director.spi.v2.provider.ResourceProviderMetadata;
+import com.cloudera.director.spi.v2.provider.util.AbstractCloudProvider;
+import com.cloudera.director.spi.v2.provider.util.SimpleCloudProviderMetadataBuilder;
+import com.cloudera.director.spi.v2.provider.util.SimpleCredentialsProviderMetadata;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * A cloud provider for an in-memory simulated cloud, used to load test and benchmark callers
+ * of the SPI without provisioning real resources. It supports a
+ * {@link SimulatedComputeProvider compute provider} and a
+ * {@link SimulatedDatabaseServerProvider database server provider}, each of which is configured
+ * with {@link SimulationParameters}.
+ */
+public class SimulatedCloudProvider extends AbstractCloudProvider {
+
+  /**
+   * The cloud provider ID.
+   */
+  public static final String ID = "simulated";
+
+  /**
+   * The cloud provider metadata.
+   */
+  public static final CloudProviderMetadata METADATA = new SimpleCloudProviderMetadataBuilder()
+      .id(ID)
+      .name("Simulated")
+      .description("In-memory simulated cloud for load testing and benchmarks")
+      .configurationProperties(Collections.<ConfigurationProperty>emptyList())
+      .credentialsProviderMetadata(new SimpleCredentialsProviderMetadata(
+          Collections.<ConfigurationProperty>emptyList()))
+      .resourceProviderMetadata(Arrays.asList(
+          SimulatedComputeProvider.METADATA, SimulatedDatabaseServerProvider.METADATA))
+      .build();
+
+  /**
+   * The compute instances of the simulated cloud.
+   */
+  private final SimulatedInstanceStore computeInstances;
+
+  /**
+   * The database server instances of the simulated cloud.
+   */
+  private final SimulatedInstanceStore databaseServerInstances;
+
+  /**
+   * Creates a simulated cloud provider for a new, empty simulated cloud.
+   *
+   * @param rootLocalizationContext the root localization context
+   */
+  public SimulatedCloudProvider(LocalizationContext rootLocalizationContext) {
+    this(rootLocalizationContext, new SimulatedInstanceStore(), new SimulatedInstanceStore());
+  }
+
+  /**
+   * Creates a simulated cloud provider for the simulated cloud with the specified instances.
+   *
+   * @param rootLocalizationContext the root localization context
+   * @param computeInstances        the compute instances of the simulated cloud
+   * @param databaseServerInstances the database server instances of the simulated cloud
+   */
+  public SimulatedCloudProvider(LocalizationContext rootLocalizationContext,
+      SimulatedInstanceStore computeInstances, SimulatedInstanceStore databaseServerInstances) {
+    super(METADATA, rootLocalizationContext);
+    this.computeInstances = checkNotNull(computeInstances, "computeInstances is null");
+    this.databaseServerInstances =
+        checkNotNull(databaseServerInstances, "databaseServerInstances is null");
+    checkArgument(computeInstances != databaseServerInstances,
+        "compute and database server instances must be held by separate stores");
+  }
+
+  /**
+   * Returns the compute instances of the simulated cloud.
+   *
+   * @return the compute instances of the simulated cloud
+   */
+  public SimulatedInstanceStore getComputeInstances() {
+    return computeInstances;
+  }
+
+  /**
+   * Returns the database server instances of the simulated cloud.
+   *
+   * @return the database server instances of the simulated cloud
+   */
+  public SimulatedInstanceStore getDatabaseServerInstances() {
+    return databaseServerInstances;
+  }
+
+  @Override
+  public ResourceProvider createResourceProvider(String resourceProviderId,
+      Configured configuration) {
+    ResourceProviderMetadata resourceProviderMetadata =
+        getProviderMetadata().getResourceProviderMetadata(resourceProviderId);
+    if (SimulatedComputeProvider.ID.equals(resourceProviderMetadata.getId())) {
+      return new SimulatedComputeProvider(configuration, computeInstances,
+          getLocalizationContext());
+    }
+    if (SimulatedDatabaseServerProvider.ID.equals(resourceProviderMetadata.getId())) {
+      return new SimulatedDatabaseServerProvider(configuration, databaseServerInstances,
+          getLocalizationContext());
+    }
+    throw new IllegalStateException("Unsupported resource provider: " + resourceProviderId);
+  }
+}
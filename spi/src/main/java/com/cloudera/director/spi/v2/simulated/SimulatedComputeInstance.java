@@ -0,0 +1,46 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.simulated;
+
+import com.cloudera.director.spi.v2.compute.ComputeInstanceTemplate;
+import com.cloudera.director.spi.v2.compute.util.AbstractComputeInstance;
+
+import java.net.InetAddress;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * A compute instance in a simulated cloud.
+ */
+public class SimulatedComputeInstance
+    extends AbstractComputeInstance<ComputeInstanceTemplate, Void> {
+
+  /**
+   * Creates a simulated compute instance with the specified parameters.
+   *
+   * @param template         the template from which the instance was created
+   * @param instanceId       the instance identifier
+   * @param privateIpAddress the private IP address
+   */
+  public SimulatedComputeInstance(ComputeInstanceTemplate template, String instanceId,
+      InetAddress privateIpAddress) {
+    super(template, instanceId, privateIpAddress);
+  }
+
+  @Override
+  public Map<String, String> getProperties() {
+    return Collections.emptyMap();
+  }
+}
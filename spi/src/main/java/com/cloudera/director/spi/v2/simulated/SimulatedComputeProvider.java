@@ -0,0 +1,150 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.simulated;
+
+import com.cloudera.director.spi.v2.compute.ComputeInstanceTemplate;
+import com.cloudera.director.spi.v2.compute.util.AbstractComputeInstance;
+import com.cloudera.director.spi.v2.compute.util.AbstractComputeProvider;
+import com.cloudera.director.spi.v2.model.Configured;
+import com.cloudera.director.spi.v2.model.DisplayProperty;
+import com.cloudera.director.spi.v2.model.InstanceState;
+import com.cloudera.director.spi.v2.model.LocalizationContext;
+import com.cloudera.director.spi.v2.model.Resource;
+import com.cloudera.director.spi.v2.provider.ResourceProviderMetadata;
+import com.cloudera.director.spi.v2.provider.util.SimpleResourceProviderMetadata;
+import com.cloudera.director.spi.v2.simulated.SimulatedInstanceStore.Entry;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A compute provider backed by an in-memory simulated cloud. Its latencies, failures, capacity
+ * and instance lifecycle timings are controlled by the
+ * {@link SimulationParameters.SimulationConfigurationPropertyToken simulation configuration
+ * properties}.
+ */
+public class SimulatedComputeProvider
+    extends AbstractComputeProvider<SimulatedComputeInstance, ComputeInstanceTemplate> {
+
+  /**
+   * The resource provider ID.
+   */
+  public static final String ID = "compute";
+
+  /**
+   * The resource provider metadata.
+   */
+  public static final ResourceProviderMetadata METADATA = SimpleResourceProviderMetadata.builder()
+      .id(ID)
+      .name("Simulated compute")
+      .description("In-memory simulated compute provider")
+      .providerClass(SimulatedComputeProvider.class)
+      .providerConfigurationProperties(SimulationParameters.getConfigurationProperties())
+      .resourceTemplateConfigurationProperties(ComputeInstanceTemplate.getConfigurationProperties())
+      .resourceDisplayProperties(Collections.<DisplayProperty>emptyList())
+      .build();
+
+  /**
+   * The simulated backend.
+   */
+  private final SimulatedBackend backend;
+
+  /**
+   * Creates a simulated compute provider with the specified parameters.
+   *
+   * @param configuration            the configuration
+   * @param store                    the instance store of the simulated cloud
+   * @param cloudLocalizationContext the parent cloud localization context
+   * @throws IllegalArgumentException if the simulation configuration is invalid
+   */
+  public SimulatedComputeProvider(Configured configuration, SimulatedInstanceStore store,
+      LocalizationContext cloudLocalizationContext) {
+    super(configuration, METADATA, cloudLocalizationContext);
+    this.backend = new SimulatedBackend(store,
+        SimulationParameters.fromConfiguration(configuration, getLocalizationContext()));
+  }
+
+  /**
+   * Returns the simulation parameters.
+   *
+   * @return the simulation parameters
+   */
+  public SimulationParameters getSimulationParameters() {
+    return backend.getParameters();
+  }
+
+  @Override
+  public Resource.Type getResourceType() {
+    return AbstractComputeInstance.TYPE;
+  }
+
+  @Override
+  public ComputeInstanceTemplate createResourceTemplate(String name, Configured configuration,
+      Map<String, String> tags) {
+    return new ComputeInstanceTemplate(name, configuration, tags, getLocalizationContext());
+  }
+
+  @Override
+  public Collection<SimulatedComputeInstance> allocate(ComputeInstanceTemplate template,
+      Collection<String> resourceIds, int minCount) throws InterruptedException {
+    return toInstances(template, backend.allocate(template, resourceIds, minCount));
+  }
+
+  @Override
+  public Collection<SimulatedComputeInstance> find(ComputeInstanceTemplate template,
+      Collection<String> resourceIds) throws InterruptedException {
+    return toInstances(template, backend.find(template, resourceIds));
+  }
+
+  @Override
+  public void delete(ComputeInstanceTemplate template, Collection<String> resourceIds)
+      throws InterruptedException {
+    backend.delete(template, resourceIds);
+  }
+
+  @Override
+  public Map<String, InstanceState> getInstanceState(ComputeInstanceTemplate template,
+      Collection<String> instanceIds) {
+    return backend.getInstanceState(instanceIds);
+  }
+
+  @Override
+  public Map<String, Set<String>> getHostKeyFingerprints(ComputeInstanceTemplate template,
+      Collection<String> instanceIds) throws InterruptedException {
+    return backend.getHostKeyFingerprints(instanceIds);
+  }
+
+  /**
+   * Returns compute instances for the specified simulated instances.
+   *
+   * @param template the template
+   * @param entries  the simulated instances
+   * @return the compute instances
+   */
+  private static List<SimulatedComputeInstance> toInstances(ComputeInstanceTemplate template,
+      List<Entry> entries) {
+    List<SimulatedComputeInstance> instances =
+        new ArrayList<SimulatedComputeInstance>(entries.size());
+    for (Entry entry : entries) {
+      instances.add(new SimulatedComputeInstance(template, entry.getInstanceId(),
+          entry.getPrivateIpAddress()));
+    }
+    return instances;
+  }
+}
@@ -0,0 +1,67 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.simulated;
+
+import com.cloudera.director.spi.v2.database.DatabaseServerInstanceTemplate;
+import com.cloudera.director.spi.v2.database.DatabaseType;
+import com.cloudera.director.spi.v2.database.util.AbstractDatabaseServerInstance;
+
+import java.net.InetAddress;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * A database server instance in a simulated cloud.
+ */
+public class SimulatedDatabaseServerInstance
+    extends AbstractDatabaseServerInstance<DatabaseServerInstanceTemplate, Void> {
+
+  /**
+   * Returns the default port of the specified database type.
+   *
+   * @param databaseType the database type
+   * @return the default port of the specified database type
+   */
+  static int getDefaultPort(DatabaseType databaseType) {
+    switch (databaseType) {
+      case MYSQL:
+        return 3306;
+      case POSTGRESQL:
+        return 5432;
+      case ORACLE:
+        return 1521;
+      default:
+        throw new IllegalArgumentException("Unknown database type: " + databaseType);
+    }
+  }
+
+  /**
+   * Creates a simulated database server instance with the specified parameters. The instance
+   * listens on the default port of the database type of its template.
+   *
+   * @param template         the template from which the instance was created
+   * @param instanceId       the instance identifier
+   * @param privateIpAddress the private IP address
+   */
+  public SimulatedDatabaseServerInstance(DatabaseServerInstanceTemplate template,
+      String instanceId, InetAddress privateIpAddress) {
+    super(template, instanceId, privateIpAddress, getDefaultPort(template.getDatabaseType()));
+  }
+
+  @Override
+  public Map<String, String> getProperties() {
+    return Collections.emptyMap();
+  }
+}
@@ -0,0 +1,149 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.simulated;
+
+import com.cloudera.director.spi.v2.database.DatabaseServerInstanceTemplate;
+import com.cloudera.director.spi.v2.database.DatabaseType;
+import com.cloudera.director.spi.v2.database.util.AbstractDatabaseServerInstance;
+import com.cloudera.director.spi.v2.database.util.AbstractDatabaseServerProvider;
+import com.cloudera.director.spi.v2.database.util.SimpleDatabaseServerProviderMetadata;
+import com.cloudera.director.spi.v2.model.Configured;
+import com.cloudera.director.spi.v2.model.DisplayProperty;
+import com.cloudera.director.spi.v2.model.InstanceState;
+import com.cloudera.director.spi.v2.model.LocalizationContext;
+import com.cloudera.director.spi.v2.model.Resource;
+import com.cloudera.director.spi.v2.provider.ResourceProviderMetadata;
+import com.cloudera.director.spi.v2.simulated.SimulatedInstanceStore.Entry;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A database server provider backed by an in-memory simulated cloud. Its latencies, failures,
+ * capacity and instance lifecycle timings are controlled by the
+ * {@link SimulationParameters.SimulationConfigurationPropertyToken simulation configuration
+ * properties}.
+ */
+public class SimulatedDatabaseServerProvider extends
+    AbstractDatabaseServerProvider<SimulatedDatabaseServerInstance, DatabaseServerInstanceTemplate> {
+
+  /**
+   * The resource provider ID.
+   */
+  public static final String ID = "database";
+
+  /**
+   * The resource provider metadata.
+   */
+  public static final ResourceProviderMetadata METADATA =
+      SimpleDatabaseServerProviderMetadata.databaseServerProviderMetadataBuilder()
+          .id(ID)
+          .name("Simulated database server")
+          .description("In-memory simulated database server provider")
+          .providerClass(SimulatedDatabaseServerProvider.class)
+          .providerConfigurationProperties(SimulationParameters.getConfigurationProperties())
+          .resourceTemplateConfigurationProperties(
+              DatabaseServerInstanceTemplate.getConfigurationProperties())
+          .resourceDisplayProperties(Collections.<DisplayProperty>emptyList())
+          .supportedDatabaseTypes(EnumSet.allOf(DatabaseType.class))
+          .build();
+
+  /**
+   * The simulated backend.
+   */
+  private final SimulatedBackend backend;
+
+  /**
+   * Creates a simulated database server provider with the specified parameters.
+   *
+   * @param configuration            the configuration
+   * @param store                    the instance store of the simulated cloud
+   * @param cloudLocalizationContext the parent cloud localization context
+   * @throws IllegalArgumentException if the simulation configuration is invalid
+   */
+  public SimulatedDatabaseServerProvider(Configured configuration, SimulatedInstanceStore store,
+      LocalizationContext cloudLocalizationContext) {
+    super(configuration, METADATA, cloudLocalizationContext);
+    this.backend = new SimulatedBackend(store,
+        SimulationParameters.fromConfiguration(configuration, getLocalizationContext()));
+  }
+
+  /**
+   * Returns the simulation parameters.
+   *
+   * @return the simulation parameters
+   */
+  public SimulationParameters getSimulationParameters() {
+    return backend.getParameters();
+  }
+
+  @Override
+  public Resource.Type getResourceType() {
+    return AbstractDatabaseServerInstance.TYPE;
+  }
+
+  @Override
+  public DatabaseServerInstanceTemplate createResourceTemplate(String name,
+      Configured configuration, Map<String, String> tags) {
+    return new DatabaseServerInstanceTemplate(name, configuration, tags, getLocalizationContext());
+  }
+
+  @Override
+  public Collection<SimulatedDatabaseServerInstance> allocate(
+      DatabaseServerInstanceTemplate template, Collection<String> resourceIds, int minCount)
+      throws InterruptedException {
+    return toInstances(template, backend.allocate(template, resourceIds, minCount));
+  }
+
+  @Override
+  public Collection<SimulatedDatabaseServerInstance> find(DatabaseServerInstanceTemplate template,
+      Collection<String> resourceIds) throws InterruptedException {
+    return toInstances(template, backend.find(template, resourceIds));
+  }
+
+  @Override
+  public void delete(DatabaseServerInstanceTemplate template, Collection<String> resourceIds)
+      throws InterruptedException {
+    backend.delete(template, resourceIds);
+  }
+
+  @Override
+  public Map<String, InstanceState> getInstanceState(DatabaseServerInstanceTemplate template,
+      Collection<String> instanceIds) {
+    return backend.getInstanceState(instanceIds);
+  }
+
+  /**
+   * Returns database server instances for the specified simulated instances.
+   *
+   * @param template the template
+   * @param entries  the simulated instances
+   * @return the database server instances
+   */
+  private static List<SimulatedDatabaseServerInstance> toInstances(
+      DatabaseServerInstanceTemplate template, List<Entry> entries) {
+    List<SimulatedDatabaseServerInstance> instances =
+        new ArrayList<SimulatedDatabaseServerInstance>(entries.size());
+    for (Entry entry : entries) {
+      instances.add(new SimulatedDatabaseServerInstance(template, entry.getInstanceId(),
+          entry.getPrivateIpAddress()));
+    }
+    return instances;
+  }
+}
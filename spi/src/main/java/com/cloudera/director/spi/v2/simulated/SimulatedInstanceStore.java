@@ -0,0 +1,478 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.simulated;
+
+import static com.cloudera.director.spi.v2.util.Preconditions.checkNotNull;
+
+import com.cloudera.director.spi.v2.model.InstanceStatus;
+import com.cloudera.director.spi.v2.model.exception.UnrecoverableProviderException;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The simulated cloud-side state of a set of instances. Stores are shared by every resource
+ * provider of the same type created for the same simulated cloud, so instances survive the
+ * providers that allocated them, as they would in a real cloud. Each instance belongs to the
+ * group of the template it was allocated from, and instances of automatic groups are given
+ * identifiers by the store.
+ *
+ * <p>Instance lifecycles are not driven by background threads. Each instance records when it
+ * becomes running and, once deleted, when it disappears; its status is computed from those
+ * timestamps whenever it is observed. This keeps the cost of a simulated instance to a small map
+ * entry and a group membership, so a store can hold hundreds of thousands of them.
+ */
+public final class SimulatedInstanceStore {
+
+  /**
+   * The instances, by identifier.
+   */
+  private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<String, Entry>();
+
+  /**
+   * The identifiers of the instances of each group, by group ID.
+   */
+  private final ConcurrentMap<String, Set<String>> groups =
+      new ConcurrentHashMap<String, Set<String>>();
+
+  /**
+   * The number of instances that have not been deleted.
+   */
+  private final AtomicInteger liveCount = new AtomicInteger();
+
+  /**
+   * The sequence from which private IP addresses are assigned.
+   */
+  private final AtomicInteger addressSequence = new AtomicInteger();
+
+  /**
+   * The sequence from which the identifiers of instances of automatic groups are assigned.
+   */
+  private final AtomicLong idSequence = new AtomicLong();
+
+  /**
+   * Returns the number of instances that have not been deleted.
+   *
+   * @return the number of instances that have not been deleted
+   */
+  public int getLiveCount() {
+    return liveCount.get();
+  }
+
+  /**
+   * Returns the number of instances held by this store, including deleted instances whose
+   * termination has not yet been observed.
+   *
+   * @return the number of instances held by this store
+   */
+  public int size() {
+    return entries.size();
+  }
+
+  /**
+   * Removes every deleted instance whose termination has completed.
+   */
+  public void purgeDeleted() {
+    long now = System.nanoTime();
+    for (Entry entry : entries.values()) {
+      if (entry.getStatus(now) == InstanceStatus.DELETED) {
+        remove(entry);
+      }
+    }
+  }
+
+  /**
+   * Allocates the specified instances in the specified group. Instances which already exist and
+   * have not been deleted are returned as they are, without consuming capacity.
+   *
+   * @param groupId           the group ID, or {@code null}
+   * @param instanceIds       the instance identifiers
+   * @param minCount          the minimum number of instances that must be returned
+   * @param capacity          the maximum number of live instances in this store
+   * @param provisioningNanos how long new instances stay pending, in nanoseconds
+   * @return the allocated instances
+   * @throws UnrecoverableProviderException if fewer than the minimum number of instances can be
+   *                                        allocated
+   */
+  List<Entry> allocate(String groupId, Collection<String> instanceIds, int minCount,
+      int capacity, long provisioningNanos) {
+    List<Entry> allocated = new ArrayList<Entry>(instanceIds.size());
+    List<String> newIds = new ArrayList<String>();
+    for (String instanceId : instanceIds) {
+      Entry existing = entries.get(instanceId);
+      if (existing != null && !existing.isDeleted()) {
+        allocated.add(existing);
+      } else {
+        newIds.add(instanceId);
+      }
+    }
+
+    int granted = reserve(newIds.size(), minCount - allocated.size(), capacity);
+    long readyAt = System.nanoTime() + provisioningNanos;
+    for (String instanceId : newIds.subList(0, granted)) {
+      allocated.add(create(groupKey(groupId), instanceId, readyAt));
+    }
+    return allocated;
+  }
+
+  /**
+   * Allocates instances in the specified automatic group until it holds the specified number of
+   * instances, assigning their identifiers. The live instances of the group count towards the
+   * requested number, so that repeating the call does not create duplicate instances.
+   *
+   * @param groupId           the group ID, or {@code null}
+   * @param count             the number of instances requested
+   * @param minCount          the minimum number of instances that must be returned
+   * @param capacity          the maximum number of live instances in this store
+   * @param provisioningNanos how long new instances stay pending, in nanoseconds
+   * @return the instances of the group, up to the requested number
+   * @throws UnrecoverableProviderException if fewer than the minimum number of instances can be
+   *                                        allocated
+   */
+  List<Entry> allocateAutomatic(String groupId, int count, int minCount, int capacity,
+      long provisioningNanos) {
+    String groupKey = groupKey(groupId);
+    synchronized (getGroup(groupKey)) {
+      List<Entry> allocated = getGroupEntries(groupId);
+      if (allocated.size() > count) {
+        allocated = new ArrayList<Entry>(allocated.subList(0, count));
+      }
+      int granted = reserve(count - allocated.size(), minCount - allocated.size(), capacity);
+      long readyAt = System.nanoTime() + provisioningNanos;
+      for (int i = 0; i < granted; i++) {
+        allocated.add(create(groupKey, nextInstanceId(), readyAt));
+      }
+      return allocated;
+    }
+  }
+
+  /**
+   * Returns the instances of the specified group which have not been deleted.
+   *
+   * @param groupId the group ID, or {@code null}
+   * @return the instances of the group which have not been deleted
+   */
+  List<Entry> getGroupEntries(String groupId) {
+    String groupKey = groupKey(groupId);
+    Set<String> group = groups.get(groupKey);
+    if (group == null) {
+      return new ArrayList<Entry>();
+    }
+    List<Entry> groupEntries = new ArrayList<Entry>(group.size());
+    for (String instanceId : group) {
+      Entry entry = entries.get(instanceId);
+      if (entry != null && !entry.isDeleted() && entry.groupKey.equals(groupKey)) {
+        groupEntries.add(entry);
+      }
+    }
+    return groupEntries;
+  }
+
+  /**
+   * Returns the specified instance, or {@code null} if it does not exist.
+   *
+   * @param instanceId the instance identifier
+   * @return the specified instance, or {@code null} if it does not exist
+   */
+  Entry get(String instanceId) {
+    return entries.get(instanceId);
+  }
+
+  /**
+   * Returns the specified instance if it belongs to the specified group, or {@code null} if it
+   * does not exist or belongs to another group.
+   *
+   * @param groupId    the group ID, or {@code null}
+   * @param instanceId the instance identifier
+   * @return the specified instance, or {@code null} if it is not in the group
+   */
+  Entry get(String groupId, String instanceId) {
+    Entry entry = entries.get(instanceId);
+    return (entry != null && entry.groupKey.equals(groupKey(groupId))) ? entry : null;
+  }
+
+  /**
+   * Forgets the specified instance, once its deletion has been reported to a caller.
+   *
+   * @param entry the deleted instance
+   */
+  void remove(Entry entry) {
+    if (entries.remove(entry.getInstanceId(), entry)) {
+      leaveGroup(entry);
+    }
+  }
+
+  /**
+   * Deletes the specified instances of the specified group, releasing their capacity
+   * immediately. Unknown instances, instances of other groups and already deleted instances are
+   * ignored.
+   *
+   * @param groupId          the group ID, or {@code null}
+   * @param instanceIds      the instance identifiers
+   * @param terminationNanos how long the instances stay deleting, in nanoseconds
+   */
+  void delete(String groupId, Collection<String> instanceIds, long terminationNanos) {
+    long goneAt = System.nanoTime() + terminationNanos;
+    for (String instanceId : instanceIds) {
+      Entry entry = get(groupId, instanceId);
+      if (entry != null && entry.markDeleted(goneAt)) {
+        liveCount.decrementAndGet();
+      }
+    }
+  }
+
+  /**
+   * Reserves capacity for up to the requested number of instances.
+   *
+   * @param requested the number of instances requested
+   * @param required  the number of instances that must be granted
+   * @param capacity  the maximum number of live instances
+   * @return the number of instances granted
+   * @throws UnrecoverableProviderException if fewer than the required number of instances can be
+   *                                        granted
+   */
+  private int reserve(int requested, int required, int capacity) {
+    while (true) {
+      int live = liveCount.get();
+      int granted = Math.min(requested, Math.max(capacity - live, 0));
+      if (granted < required) {
+        throw new UnrecoverableProviderException(String.format(
+            "Insufficient simulated capacity: %d instances requested, at least %d required,"
+                + " %d available", requested, required, Math.max(capacity - live, 0)));
+      }
+      if (liveCount.compareAndSet(live, live + granted)) {
+        return granted;
+      }
+    }
+  }
+
+  /**
+   * Creates the specified instance, for which capacity has already been reserved. If the
+   * instance is concurrently created by another caller, the reservation is released and the
+   * concurrently created instance is returned.
+   *
+   * @param groupKey   the key of the group of the instance
+   * @param instanceId the instance identifier
+   * @param readyAt    the {@link System#nanoTime()} at which the instance becomes running
+   * @return the instance
+   */
+  private Entry create(String groupKey, String instanceId, long readyAt) {
+    Entry created = new Entry(groupKey, instanceId, nextAddress(), readyAt);
+    while (true) {
+      Entry current = entries.get(instanceId);
+      if (current == null) {
+        if (entries.putIfAbsent(instanceId, created) == null) {
+          getGroup(groupKey).add(instanceId);
+          return created;
+        }
+      } else if (current.isDeleted()) {
+        if (entries.replace(instanceId, current, created)) {
+          leaveGroup(current);
+          getGroup(groupKey).add(instanceId);
+          return created;
+        }
+      } else {
+        liveCount.decrementAndGet();
+        return current;
+      }
+    }
+  }
+
+  /**
+   * Returns the identifiers of the instances of the specified group, creating the group if
+   * necessary.
+   *
+   * @param groupKey the key of the group
+   * @return the identifiers of the instances of the group
+   */
+  private Set<String> getGroup(String groupKey) {
+    Set<String> group = groups.get(groupKey);
+    if (group == null) {
+      group = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+      Set<String> existing = groups.putIfAbsent(groupKey, group);
+      if (existing != null) {
+        group = existing;
+      }
+    }
+    return group;
+  }
+
+  /**
+   * Removes the specified instance from its group, unless the group already holds a newer
+   * instance with the same identifier.
+   *
+   * @param entry the instance
+   */
+  private void leaveGroup(Entry entry) {
+    Set<String> group = groups.get(entry.groupKey);
+    if (group != null) {
+      Entry current = entries.get(entry.getInstanceId());
+      if (current == null || !current.groupKey.equals(entry.groupKey)) {
+        group.remove(entry.getInstanceId());
+      }
+    }
+  }
+
+  /**
+   * Returns the key of the specified group in the group map.
+   *
+   * @param groupId the group ID, or {@code null}
+   * @return the key of the group
+   */
+  private static String groupKey(String groupId) {
+    return (groupId == null) ? "" : groupId;
+  }
+
+  /**
+   * Returns the next identifier of an instance of an automatic group.
+   *
+   * @return the next identifier of an instance of an automatic group
+   */
+  private String nextInstanceId() {
+    return String.format("sim-%012x", idSequence.incrementAndGet());
+  }
+
+  /**
+   * Returns the next private IP address, in the 10.0.0.0/8 range.
+   *
+   * @return the next private IP address
+   */
+  private InetAddress nextAddress() {
+    int n = addressSequence.incrementAndGet();
+    byte[] address = new byte[] {10, (byte) (n >>> 16), (byte) (n >>> 8), (byte) n};
+    try {
+      return InetAddress.getByAddress(address);
+    } catch (UnknownHostException e) {
+      throw new IllegalStateException("Invalid address length", e);
+    }
+  }
+
+  /**
+   * A simulated instance.
+   */
+  static final class Entry {
+
+    /**
+     * The key of the group of the instance.
+     */
+    private final String groupKey;
+
+    /**
+     * The instance identifier.
+     */
+    private final String instanceId;
+
+    /**
+     * The private IP address.
+     */
+    private final InetAddress privateIpAddress;
+
+    /**
+     * The {@link System#nanoTime()} at which the instance becomes running.
+     */
+    private final long readyAt;
+
+    /**
+     * Whether the instance has been deleted, guarded by this entry.
+     */
+    private boolean deleted;
+
+    /**
+     * The {@link System#nanoTime()} at which the termination of a deleted instance completes,
+     * guarded by this entry.
+     */
+    private long goneAt;
+
+    /**
+     * Creates an instance with the specified parameters.
+     *
+     * @param groupKey         the key of the group of the instance
+     * @param instanceId       the instance identifier
+     * @param privateIpAddress the private IP address
+     * @param readyAt          the {@link System#nanoTime()} at which the instance becomes running
+     */
+    private Entry(String groupKey, String instanceId, InetAddress privateIpAddress,
+        long readyAt) {
+      this.groupKey = groupKey;
+      this.instanceId = checkNotNull(instanceId, "instanceId is null");
+      this.privateIpAddress = privateIpAddress;
+      this.readyAt = readyAt;
+    }
+
+    /**
+     * Returns the instance identifier.
+     *
+     * @return the instance identifier
+     */
+    String getInstanceId() {
+      return instanceId;
+    }
+
+    /**
+     * Returns the private IP address.
+     *
+     * @return the private IP address
+     */
+    InetAddress getPrivateIpAddress() {
+      return privateIpAddress;
+    }
+
+    /**
+     * Returns whether the instance has been deleted.
+     *
+     * @return whether the instance has been deleted
+     */
+    synchronized boolean isDeleted() {
+      return deleted;
+    }
+
+    /**
+     * Returns the status of the instance at the specified time.
+     *
+     * @param now the current {@link System#nanoTime()}
+     * @return the status of the instance at the specified time
+     */
+    synchronized InstanceStatus getStatus(long now) {
+      if (deleted) {
+        return (now - goneAt < 0) ? InstanceStatus.DELETING : InstanceStatus.DELETED;
+      }
+      return (now - readyAt < 0) ? InstanceStatus.PENDING : InstanceStatus.RUNNING;
+    }
+
+    /**
+     * Marks the instance as deleted, unless it already was.
+     *
+     * @param goneAt the {@link System#nanoTime()} at which the termination completes
+     * @return whether the instance was marked as deleted by this call
+     */
+    private synchronized boolean markDeleted(long goneAt) {
+      if (deleted) {
+        return false;
+      }
+      this.deleted = true;
+      this.goneAt = goneAt;
+      return true;
+    }
+  }
+}
@@ -0,0 +1,57 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.simulated;
+
+import com.cloudera.director.spi.v2.model.Configured;
+import com.cloudera.director.spi.v2.provider.CloudProvider;
+import com.cloudera.director.spi.v2.provider.CloudProviderMetadata;
+import com.cloudera.director.spi.v2.provider.util.AbstractLauncher;
+
+import java.util.Collections;
+import java.util.Locale;
+
+/**
+ * A launcher for the in-memory simulated cloud. Every cloud provider created by a launcher
+ * shares the same simulated cloud, so instances allocated through one cloud provider can be
+ * found and deleted through another.
+ */
+public class SimulatedLauncher extends AbstractLauncher {
+
+  /**
+   * The compute instances of the simulated cloud.
+   */
+  private final SimulatedInstanceStore computeInstances = new SimulatedInstanceStore();
+
+  /**
+   * The database server instances of the simulated cloud.
+   */
+  private final SimulatedInstanceStore databaseServerInstances = new SimulatedInstanceStore();
+
+  /**
+   * Creates a simulated launcher with an empty simulated cloud.
+   */
+  public SimulatedLauncher() {
+    super(Collections.<CloudProviderMetadata>singletonList(SimulatedCloudProvider.METADATA),
+        null);
+  }
+
+  @Override
+  public CloudProvider createCloudProvider(String cloudProviderId, Configured configuration,
+      Locale locale) {
+    getCloudProviderMetadata(cloudProviderId);
+    return new SimulatedCloudProvider(getLocalizationContext(locale),
+        computeInstances, databaseServerInstances);
+  }
+}
@@ -0,0 +1,588 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.simulated;
+
+import static com.cloudera.director.spi.v2.util.Preconditions.checkArgument;
+import static com.cloudera.director.spi.v2.util.Preconditions.checkNotNull;
+
+import com.cloudera.director.spi.v2.model.ConfigurationProperty;
+import com.cloudera.director.spi.v2.model.Configured;
+import com.cloudera.director.spi.v2.model.LocalizationContext;
+import com.cloudera.director.spi.v2.model.util.SimpleConfigurationPropertyBuilder;
+import com.cloudera.director.spi.v2.util.ConfigurationPropertiesUtil;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The behavior of a simulated resource provider: how long its cloud calls take, how often they
+ * fail, how many instances it can hold, and how long its instances take to start and stop.
+ */
+public final class SimulationParameters {
+
+  /**
+   * The list of configuration properties used to configure a simulated resource provider.
+   */
+  private static final List<ConfigurationProperty> CONFIGURATION_PROPERTIES =
+      ConfigurationPropertiesUtil.asConfigurationPropertyList(
+          SimulationConfigurationPropertyToken.values());
+
+  /**
+   * Returns the list of configuration properties used to configure a simulated resource
+   * provider.
+   *
+   * @return the list of configuration properties used to configure a simulated resource provider
+   */
+  public static List<ConfigurationProperty> getConfigurationProperties() {
+    return CONFIGURATION_PROPERTIES;
+  }
+
+  /**
+   * Simulated resource provider configuration properties.
+   */
+  // Fully qualifying class name due to compiler bug
+  public static enum SimulationConfigurationPropertyToken
+      implements com.cloudera.director.spi.v2.model.ConfigurationPropertyToken {
+
+    /**
+     * The seed of the random number generator, which makes latencies and failures reproducible.
+     */
+    SEED(new SimpleConfigurationPropertyBuilder()
+        .configKey("simulationSeed")
+        .name("Simulation seed")
+        .required(false)
+        .widget(ConfigurationProperty.Widget.NUMBER)
+        .defaultValue("0")
+        .defaultDescription("The seed of the random number generator used by the simulation.")
+        .build()),
+
+    /**
+     * The distribution from which call latencies are sampled.
+     */
+    LATENCY_DISTRIBUTION(new SimpleConfigurationPropertyBuilder()
+        .configKey("latencyDistribution")
+        .name("Latency distribution")
+        .required(false)
+        .widget(ConfigurationProperty.Widget.LIST)
+        .defaultValue(LatencyDistribution.FIXED.name())
+        .addValidValues(LatencyDistribution.FIXED.name(), LatencyDistribution.UNIFORM.name(),
+            LatencyDistribution.EXPONENTIAL.name(), LatencyDistribution.LOG_NORMAL.name())
+        .defaultDescription("The distribution from which call latencies are sampled.")
+        .build()),
+
+    /**
+     * The mean call latency, in milliseconds.
+     */
+    LATENCY_MEAN_MILLIS(new SimpleConfigurationPropertyBuilder()
+        .configKey("latencyMeanMillis")
+        .name("Mean latency (ms)")
+        .required(false)
+        .widget(ConfigurationProperty.Widget.NUMBER)
+        .defaultValue("0")
+        .defaultDescription("The mean call latency, in milliseconds.")
+        .build()),
+
+    /**
+     * The spread of call latencies, in milliseconds.
+     */
+    LATENCY_SPREAD_MILLIS(new SimpleConfigurationPropertyBuilder()
+        .configKey("latencySpreadMillis")
+        .name("Latency spread (ms)")
+        .required(false)
+        .widget(ConfigurationProperty.Widget.NUMBER)
+        .defaultValue("0")
+        .defaultDescription("The spread of call latencies, in milliseconds. This is the half-width"
+            + " of a uniform distribution, or the standard deviation of a log-normal distribution.")
+        .build()),
+
+    /**
+     * The fraction of calls that fail with a transient provider exception.
+     */
+    TRANSIENT_FAILURE_RATE(new SimpleConfigurationPropertyBuilder()
+        .configKey("transientFailureRate")
+        .name("Transient failure rate")
+        .required(false)
+        .widget(ConfigurationProperty.Widget.NUMBER)
+        .defaultValue("0")
+        .defaultDescription("The fraction of calls, between 0 and 1, that fail with a transient"
+            + " provider exception.")
+        .build()),
+
+    /**
+     * The fraction of calls that fail with an unrecoverable provider exception.
+     */
+    UNRECOVERABLE_FAILURE_RATE(new SimpleConfigurationPropertyBuilder()
+        .configKey("unrecoverableFailureRate")
+        .name("Unrecoverable failure rate")
+        .required(false)
+        .widget(ConfigurationProperty.Widget.NUMBER)
+        .defaultValue("0")
+        .defaultDescription("The fraction of calls, between 0 and 1, that fail with an"
+            + " unrecoverable provider exception.")
+        .build()),
+
+    /**
+     * The maximum number of live instances.
+     */
+    CAPACITY(new SimpleConfigurationPropertyBuilder()
+        .configKey("capacity")
+        .name("Capacity")
+        .required(false)
+        .widget(ConfigurationProperty.Widget.NUMBER)
+        .defaultValue("100000")
+        .defaultDescription("The maximum number of live instances.")
+        .build()),
+
+    /**
+     * How long allocated instances stay pending before they are running, in milliseconds.
+     */
+    PROVISIONING_MILLIS(new SimpleConfigurationPropertyBuilder()
+        .configKey("provisioningMillis")
+        .name("Provisioning time (ms)")
+        .required(false)
+        .widget(ConfigurationProperty.Widget.NUMBER)
+        .defaultValue("0")
+        .defaultDescription("How long allocated instances stay pending before they are running,"
+            + " in milliseconds.")
+        .build()),
+
+    /**
+     * How long deleted instances stay deleting before they are deleted, in milliseconds.
+     */
+    TERMINATION_MILLIS(new SimpleConfigurationPropertyBuilder()
+        .configKey("terminationMillis")
+        .name("Termination time (ms)")
+        .required(false)
+        .widget(ConfigurationProperty.Widget.NUMBER)
+        .defaultValue("0")
+        .defaultDescription("How long deleted instances stay deleting before they are deleted,"
+            + " in milliseconds.")
+        .build());
+
+    /**
+     * The configuration property.
+     */
+    private final ConfigurationProperty configurationProperty;
+
+    /**
+     * Creates a configuration property token with the specified parameters.
+     *
+     * @param configurationProperty the configuration property
+     */
+    private SimulationConfigurationPropertyToken(ConfigurationProperty configurationProperty) {
+      this.configurationProperty = configurationProperty;
+    }
+
+    @Override
+    public ConfigurationProperty unwrap() {
+      return configurationProperty;
+    }
+  }
+
+  /**
+   * Returns simulation parameters read from the specified configuration, using defaults for any
+   * missing values.
+   *
+   * @param configuration       the configuration
+   * @param localizationContext the localization context
+   * @return the simulation parameters
+   * @throws IllegalArgumentException if a configuration value is invalid
+   */
+  public static SimulationParameters fromConfiguration(Configured configuration,
+      LocalizationContext localizationContext) {
+    checkNotNull(configuration, "configuration is null");
+    Reader reader = new Reader(configuration, localizationContext);
+    return builder()
+        .seed(reader.getLong(SimulationConfigurationPropertyToken.SEED))
+        .latency(
+            reader.getLatencyDistribution(SimulationConfigurationPropertyToken.LATENCY_DISTRIBUTION),
+            reader.getDouble(SimulationConfigurationPropertyToken.LATENCY_MEAN_MILLIS),
+            reader.getDouble(SimulationConfigurationPropertyToken.LATENCY_SPREAD_MILLIS))
+        .transientFailureRate(
+            reader.getDouble(SimulationConfigurationPropertyToken.TRANSIENT_FAILURE_RATE))
+        .unrecoverableFailureRate(
+            reader.getDouble(SimulationConfigurationPropertyToken.UNRECOVERABLE_FAILURE_RATE))
+        .capacity((int) reader.getLong(SimulationConfigurationPropertyToken.CAPACITY))
+        .provisioningMillis(reader.getLong(SimulationConfigurationPropertyToken.PROVISIONING_MILLIS))
+        .terminationMillis(reader.getLong(SimulationConfigurationPropertyToken.TERMINATION_MILLIS))
+        .build();
+  }
+
+  /**
+   * Returns a new builder for simulation parameters, initialized with the defaults.
+   *
+   * @return a new builder for simulation parameters
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * The seed of the random number generator.
+   */
+  private final long seed;
+
+  /**
+   * The distribution from which call latencies are sampled.
+   */
+  private final LatencyDistribution latencyDistribution;
+
+  /**
+   * The mean call latency, in milliseconds.
+   */
+  private final double latencyMeanMillis;
+
+  /**
+   * The spread of call latencies, in milliseconds.
+   */
+  private final double latencySpreadMillis;
+
+  /**
+   * The fraction of calls that fail with a transient provider exception.
+   */
+  private final double transientFailureRate;
+
+  /**
+   * The fraction of calls that fail with an unrecoverable provider exception.
+   */
+  private final double unrecoverableFailureRate;
+
+  /**
+   * The maximum number of live instances.
+   */
+  private final int capacity;
+
+  /**
+   * How long allocated instances stay pending, in milliseconds.
+   */
+  private final long provisioningMillis;
+
+  /**
+   * How long deleted instances stay deleting, in milliseconds.
+   */
+  private final long terminationMillis;
+
+  /**
+   * Creates simulation parameters from the specified builder.
+   *
+   * @param builder the builder
+   */
+  private SimulationParameters(Builder builder) {
+    checkArgument(builder.latencyMeanMillis >= 0,
+        "latencyMeanMillis must not be negative: " + builder.latencyMeanMillis);
+    checkArgument(builder.latencySpreadMillis >= 0,
+        "latencySpreadMillis must not be negative: " + builder.latencySpreadMillis);
+    checkArgument(builder.transientFailureRate >= 0 && builder.unrecoverableFailureRate >= 0
+            && builder.transientFailureRate + builder.unrecoverableFailureRate <= 1.0,
+        "Failure rates must not be negative and must not add up to more than 1");
+    checkArgument(builder.capacity >= 0, "capacity must not be negative: " + builder.capacity);
+    checkArgument(builder.provisioningMillis >= 0,
+        "provisioningMillis must not be negative: " + builder.provisioningMillis);
+    checkArgument(builder.terminationMillis >= 0,
+        "terminationMillis must not be negative: " + builder.terminationMillis);
+    this.seed = builder.seed;
+    this.latencyDistribution = builder.latencyDistribution;
+    this.latencyMeanMillis = builder.latencyMeanMillis;
+    this.latencySpreadMillis = builder.latencySpreadMillis;
+    this.transientFailureRate = builder.transientFailureRate;
+    this.unrecoverableFailureRate = builder.unrecoverableFailureRate;
+    this.capacity = builder.capacity;
+    this.provisioningMillis = builder.provisioningMillis;
+    this.terminationMillis = builder.terminationMillis;
+  }
+
+  /**
+   * Returns the seed of the random number generator.
+   *
+   * @return the seed of the random number generator
+   */
+  public long getSeed() {
+    return seed;
+  }
+
+  /**
+   * Returns the distribution from which call latencies are sampled.
+   *
+   * @return the distribution from which call latencies are sampled
+   */
+  public LatencyDistribution getLatencyDistribution() {
+    return latencyDistribution;
+  }
+
+  /**
+   * Returns the mean call latency, in milliseconds.
+   *
+   * @return the mean call latency, in milliseconds
+   */
+  public double getLatencyMeanMillis() {
+    return latencyMeanMillis;
+  }
+
+  /**
+   * Returns the spread of call latencies, in milliseconds.
+   *
+   * @return the spread of call latencies, in milliseconds
+   */
+  public double getLatencySpreadMillis() {
+    return latencySpreadMillis;
+  }
+
+  /**
+   * Returns the fraction of calls that fail with a transient provider exception.
+   *
+   * @return the fraction of calls that fail with a transient provider exception
+   */
+  public double getTransientFailureRate() {
+    return transientFailureRate;
+  }
+
+  /**
+   * Returns the fraction of calls that fail with an unrecoverable provider exception.
+   *
+   * @return the fraction of calls that fail with an unrecoverable provider exception
+   */
+  public double getUnrecoverableFailureRate() {
+    return unrecoverableFailureRate;
+  }
+
+  /**
+   * Returns the maximum number of live instances.
+   *
+   * @return the maximum number of live instances
+   */
+  public int getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * Returns how long allocated instances stay pending, in milliseconds.
+   *
+   * @return how long allocated instances stay pending, in milliseconds
+   */
+  public long getProvisioningMillis() {
+    return provisioningMillis;
+  }
+
+  /**
+   * Returns how long deleted instances stay deleting, in milliseconds.
+   *
+   * @return how long deleted instances stay deleting, in milliseconds
+   */
+  public long getTerminationMillis() {
+    return terminationMillis;
+  }
+
+  /**
+   * Reads typed configuration values, reporting the offending property on failure.
+   */
+  private static final class Reader {
+
+    /**
+     * The configuration.
+     */
+    private final Configured configuration;
+
+    /**
+     * The localization context.
+     */
+    private final LocalizationContext localizationContext;
+
+    /**
+     * Creates a reader with the specified parameters.
+     *
+     * @param configuration       the configuration
+     * @param localizationContext the localization context
+     */
+    private Reader(Configured configuration, LocalizationContext localizationContext) {
+      this.configuration = configuration;
+      this.localizationContext = localizationContext;
+    }
+
+    /**
+     * Returns the value of the specified property as a long.
+     *
+     * @param token the configuration property token
+     * @return the value of the specified property as a long
+     */
+    private long getLong(SimulationConfigurationPropertyToken token) {
+      String value = configuration.getConfigurationValue(token, localizationContext);
+      try {
+        return Long.parseLong(value.trim());
+      } catch (NumberFormatException e) {
+        throw invalidValue(token, value, e);
+      }
+    }
+
+    /**
+     * Returns the value of the specified property as a double.
+     *
+     * @param token the configuration property token
+     * @return the value of the specified property as a double
+     */
+    private double getDouble(SimulationConfigurationPropertyToken token) {
+      String value = configuration.getConfigurationValue(token, localizationContext);
+      try {
+        return Double.parseDouble(value.trim());
+      } catch (NumberFormatException e) {
+        throw invalidValue(token, value, e);
+      }
+    }
+
+    /**
+     * Returns the value of the specified property as a latency distribution.
+     *
+     * @param token the configuration property token
+     * @return the value of the specified property as a latency distribution
+     */
+    private LatencyDistribution getLatencyDistribution(SimulationConfigurationPropertyToken token) {
+      String value = configuration.getConfigurationValue(token, localizationContext);
+      try {
+        return LatencyDistribution.valueOf(value.trim().toUpperCase(Locale.ENGLISH));
+      } catch (IllegalArgumentException e) {
+        throw invalidValue(token, value, e);
+      }
+    }
+
+    /**
+     * Returns an exception reporting an invalid configuration value.
+     *
+     * @param token the configuration property token
+     * @param value the invalid value
+     * @param cause the cause
+     * @return an exception reporting an invalid configuration value
+     */
+    private static IllegalArgumentException invalidValue(SimulationConfigurationPropertyToken token,
+        String value, Exception cause) {
+      return new IllegalArgumentException(String.format("Invalid value for %s: %s",
+          token.unwrap().getConfigKey(), value), cause);
+    }
+  }
+
+  /**
+   * Builder for simulation parameters.
+   */
+  public static final class Builder {
+
+    private long seed;
+    private LatencyDistribution latencyDistribution = LatencyDistribution.FIXED;
+    private double latencyMeanMillis;
+    private double latencySpreadMillis;
+    private double transientFailureRate;
+    private double unrecoverableFailureRate;
+    private int capacity = 100000;
+    private long provisioningMillis;
+    private long terminationMillis;
+
+    /**
+     * Creates a builder initialized with the defaults.
+     */
+    private Builder() {
+    }
+
+    /**
+     * Sets the seed of the random number generator.
+     *
+     * @param seed the seed of the random number generator
+     * @return the builder
+     */
+    public Builder seed(long seed) {
+      this.seed = seed;
+      return this;
+    }
+
+    /**
+     * Sets the distribution of call latencies.
+     *
+     * @param latencyDistribution the distribution from which call latencies are sampled
+     * @param meanMillis          the mean call latency, in milliseconds
+     * @param spreadMillis        the spread of call latencies, in milliseconds
+     * @return the builder
+     */
+    public Builder latency(LatencyDistribution latencyDistribution, double meanMillis,
+        double spreadMillis) {
+      this.latencyDistribution = checkNotNull(latencyDistribution, "latencyDistribution is null");
+      this.latencyMeanMillis = meanMillis;
+      this.latencySpreadMillis = spreadMillis;
+      return this;
+    }
+
+    /**
+     * Sets the fraction of calls that fail with a transient provider exception.
+     *
+     * @param transientFailureRate the fraction of calls that fail with a transient provider
+     *                             exception
+     * @return the builder
+     */
+    public Builder transientFailureRate(double transientFailureRate) {
+      this.transientFailureRate = transientFailureRate;
+      return this;
+    }
+
+    /**
+     * Sets the fraction of calls that fail with an unrecoverable provider exception.
+     *
+     * @param unrecoverableFailureRate the fraction of calls that fail with an unrecoverable
+     *                                 provider exception
+     * @return the builder
+     */
+    public Builder unrecoverableFailureRate(double unrecoverableFailureRate) {
+      this.unrecoverableFailureRate = unrecoverableFailureRate;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of live instances.
+     *
+     * @param capacity the maximum number of live instances
+     * @return the builder
+     */
+    public Builder capacity(int capacity) {
+      this.capacity = capacity;
+      return this;
+    }
+
+    /**
+     * Sets how long allocated instances stay pending, in milliseconds.
+     *
+     * @param provisioningMillis how long allocated instances stay pending, in milliseconds
+     * @return the builder
+     */
+    public Builder provisioningMillis(long provisioningMillis) {
+      this.provisioningMillis = provisioningMillis;
+      return this;
+    }
+
+    /**
+     * Sets how long deleted instances stay deleting, in milliseconds.
+     *
+     * @param terminationMillis how long deleted instances stay deleting, in milliseconds
+     * @return the builder
+     */
+    public Builder terminationMillis(long terminationMillis) {
+      this.terminationMillis = terminationMillis;
+      return this;
+    }
+
+    /**
+     * Builds the simulation parameters.
+     *
+     * @return the simulation parameters
+     * @throws IllegalArgumentException if any parameter is out of range
+     */
+    public SimulationParameters build() {
+      return new SimulationParameters(this);
+    }
+  }
+}
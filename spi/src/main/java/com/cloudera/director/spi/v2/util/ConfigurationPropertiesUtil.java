@@ -85,4 +85,18 @@ public final class ConfigurationPropertiesUtil {
 
     return Collections.unmodifiableList(new ArrayList<ConfigurationProperty>(result.values()));
   }
+
+  /**
+   * Returns an index of the sequential composition of the specified lists of configuration
+   * properties, whose properties are those that {@link #merge} would return.
+   *
+   * @param components the component lists
+   * @return an index of the sequential composition of the specified lists of configuration
+   * properties
+   */
+  @SafeVarargs
+  public static ConfigurationPropertyIndex mergeIndex(
+      List<? extends ConfigurationProperty>... components) {
+    return new ConfigurationPropertyIndex(merge(components));
+  }
 }
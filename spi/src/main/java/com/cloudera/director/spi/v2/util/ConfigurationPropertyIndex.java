@@ -0,0 +1,222 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.util;
+
+import static com.cloudera.director.spi.v2.util.Preconditions.checkNotNull;
+
+import com.cloudera.director.spi.v2.model.ConfigurationProperty;
+import com.cloudera.director.spi.v2.model.ConfigurationPropertyToken;
+import com.cloudera.director.spi.v2.model.ConfigurationPropertyValue;
+import com.cloudera.director.spi.v2.model.LocalizationContext;
+import com.cloudera.director.spi.v2.model.util.DefaultLocalizationContext;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index of a list of configuration properties, providing constant-time lookup of properties by
+ * configuration key or token, along with the required, sensitive and hidden properties and the
+ * valid values of each property, all computed once when the index is created.
+ *
+ * <p>If there are duplicate configuration keys among the given properties, the last property
+ * encountered sequentially is indexed, as in {@link ConfigurationPropertiesUtil#merge}.
+ */
+public final class ConfigurationPropertyIndex {
+
+  /**
+   * The localization context used to compute valid values, whose values, unlike their labels,
+   * are not localized.
+   */
+  private static final LocalizationContext VALID_VALUES_LOCALIZATION_CONTEXT =
+      DefaultLocalizationContext.FACTORY.createRootLocalizationContext(Locale.ROOT);
+
+  /**
+   * The configuration properties, by configuration key, in order.
+   */
+  private final Map<String, ConfigurationProperty> propertiesByKey;
+
+  /**
+   * The unmodifiable list of configuration properties.
+   */
+  private final List<ConfigurationProperty> properties;
+
+  /**
+   * The unmodifiable list of required configuration properties.
+   */
+  private final List<ConfigurationProperty> requiredProperties;
+
+  /**
+   * The unmodifiable list of sensitive configuration properties.
+   */
+  private final List<ConfigurationProperty> sensitiveProperties;
+
+  /**
+   * The unmodifiable list of hidden configuration properties.
+   */
+  private final List<ConfigurationProperty> hiddenProperties;
+
+  /**
+   * The unmodifiable sets of valid values, by configuration key, for the properties that have
+   * valid values.
+   */
+  private final Map<String, Set<String>> validValuesByKey;
+
+  /**
+   * Creates an index of the specified configuration properties.
+   *
+   * @param properties the configuration properties
+   */
+  public ConfigurationPropertyIndex(List<? extends ConfigurationProperty> properties) {
+    checkNotNull(properties, "properties is null");
+    Map<String, ConfigurationProperty> propertiesByKey =
+        new LinkedHashMap<String, ConfigurationProperty>();
+    for (ConfigurationProperty property : properties) {
+      propertiesByKey.put(property.getConfigKey(), property);
+    }
+
+    List<ConfigurationProperty> requiredProperties = new ArrayList<ConfigurationProperty>();
+    List<ConfigurationProperty> sensitiveProperties = new ArrayList<ConfigurationProperty>();
+    List<ConfigurationProperty> hiddenProperties = new ArrayList<ConfigurationProperty>();
+    Map<String, Set<String>> validValuesByKey = new HashMap<String, Set<String>>();
+    for (ConfigurationProperty property : propertiesByKey.values()) {
+      if (property.isRequired()) {
+        requiredProperties.add(property);
+      }
+      if (property.isSensitive()) {
+        sensitiveProperties.add(property);
+      }
+      if (property.isHidden()) {
+        hiddenProperties.add(property);
+      }
+      List<ConfigurationPropertyValue> validValues =
+          property.getValidValues(VALID_VALUES_LOCALIZATION_CONTEXT);
+      if (!validValues.isEmpty()) {
+        Set<String> values = new LinkedHashSet<String>();
+        for (ConfigurationPropertyValue validValue : validValues) {
+          values.add(validValue.getValue());
+        }
+        validValuesByKey.put(property.getConfigKey(), Collections.unmodifiableSet(values));
+      }
+    }
+
+    this.propertiesByKey = propertiesByKey;
+    this.properties = Collections.unmodifiableList(
+        new ArrayList<ConfigurationProperty>(propertiesByKey.values()));
+    this.requiredProperties = Collections.unmodifiableList(requiredProperties);
+    this.sensitiveProperties = Collections.unmodifiableList(sensitiveProperties);
+    this.hiddenProperties = Collections.unmodifiableList(hiddenProperties);
+    this.validValuesByKey = validValuesByKey;
+  }
+
+  /**
+   * Returns the unmodifiable list of indexed configuration properties.
+   *
+   * @return the unmodifiable list of indexed configuration properties
+   */
+  public List<ConfigurationProperty> getProperties() {
+    return properties;
+  }
+
+  /**
+   * Returns the number of indexed configuration properties.
+   *
+   * @return the number of indexed configuration properties
+   */
+  public int size() {
+    return properties.size();
+  }
+
+  /**
+   * Returns whether a configuration property with the specified configuration key is indexed.
+   *
+   * @param configKey the configuration key
+   * @return whether a configuration property with the specified configuration key is indexed
+   */
+  public boolean contains(String configKey) {
+    return propertiesByKey.containsKey(configKey);
+  }
+
+  /**
+   * Returns the configuration property with the specified configuration key, or {@code null} if
+   * there is none.
+   *
+   * @param configKey the configuration key
+   * @return the configuration property with the specified configuration key, or {@code null} if
+   * there is none
+   */
+  public ConfigurationProperty getProperty(String configKey) {
+    return propertiesByKey.get(configKey);
+  }
+
+  /**
+   * Returns the indexed configuration property with the configuration key of the specified
+   * token, or {@code null} if there is none.
+   *
+   * @param token the configuration property token
+   * @return the indexed configuration property with the configuration key of the specified
+   * token, or {@code null} if there is none
+   */
+  public ConfigurationProperty getProperty(ConfigurationPropertyToken token) {
+    return propertiesByKey.get(token.unwrap().getConfigKey());
+  }
+
+  /**
+   * Returns the unmodifiable list of required configuration properties.
+   *
+   * @return the unmodifiable list of required configuration properties
+   */
+  public List<ConfigurationProperty> getRequiredProperties() {
+    return requiredProperties;
+  }
+
+  /**
+   * Returns the unmodifiable list of sensitive configuration properties.
+   *
+   * @return the unmodifiable list of sensitive configuration properties
+   */
+  public List<ConfigurationProperty> getSensitiveProperties() {
+    return sensitiveProperties;
+  }
+
+  /**
+   * Returns the unmodifiable list of hidden configuration properties.
+   *
+   * @return the unmodifiable list of hidden configuration properties
+   */
+  public List<ConfigurationProperty> getHiddenProperties() {
+    return hiddenProperties;
+  }
+
+  /**
+   * Returns the unmodifiable set of valid values of the configuration property with the
+   * specified configuration key, in order, or an empty set if the property has no valid values
+   * or is not indexed.
+   *
+   * @param configKey the configuration key
+   * @return the unmodifiable set of valid values of the configuration property with the
+   * specified configuration key
+   */
+  public Set<String> getValidValues(String configKey) {
+    Set<String> validValues = validValuesByKey.get(configKey);
+    return (validValues == null) ? Collections.<String>emptySet() : validValues;
+  }
+}
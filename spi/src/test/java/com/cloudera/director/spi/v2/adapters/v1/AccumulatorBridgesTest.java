@@ -0,0 +1,87 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.adapters.v1;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.cloudera.director.spi.v2.model.exception.PluginExceptionCondition;
+import com.cloudera.director.spi.v2.model.exception.PluginExceptionConditionAccumulator;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link AccumulatorBridges}.
+ */
+public class AccumulatorBridgesTest {
+
+  @Test
+  public void testToV1ForwardsConditions() {
+    PluginExceptionConditionAccumulator accumulator = new PluginExceptionConditionAccumulator();
+    accumulator.addWarning("existing", "existing warning");
+    com.cloudera.director.spi.v1.model.exception.PluginExceptionConditionAccumulator bridge =
+        AccumulatorBridges.toV1(accumulator);
+
+    assertThat(bridge.hasWarning()).isTrue();
+    assertThat(bridge.hasError()).isFalse();
+
+    Map<String, String> exceptionInfo = new HashMap<String, String>();
+    exceptionInfo.put(PluginExceptionCondition.KEY_MESSAGE, "detailed error");
+    exceptionInfo.put("detail", "value");
+    bridge.addError("key", "error");
+    bridge.addError("key", exceptionInfo);
+    bridge.addWarning(exceptionInfo);
+
+    assertThat(accumulator.hasError()).isTrue();
+    assertThat(bridge.hasError()).isTrue();
+    assertThat(accumulator.getConditionsByKey().get("existing")).hasSize(1);
+    Collection<PluginExceptionCondition> conditions = accumulator.getConditionsByKey().get("key");
+    assertThat(conditions).containsExactly(
+        new PluginExceptionCondition(PluginExceptionCondition.Type.ERROR, "error"),
+        new PluginExceptionCondition(PluginExceptionCondition.Type.ERROR, exceptionInfo));
+    assertThat(accumulator.getConditionsByKey().get(null)).containsExactly(
+        new PluginExceptionCondition(PluginExceptionCondition.Type.WARNING, exceptionInfo));
+
+    Map<String, Collection<com.cloudera.director.spi.v1.model.exception.PluginExceptionCondition>> conditionsV1 =
+        bridge.getConditionsByKey();
+    assertThat(conditionsV1.keySet()).containsOnly("existing", "key", null);
+    assertThat(conditionsV1.get("key")).containsExactly(
+        new com.cloudera.director.spi.v1.model.exception.PluginExceptionCondition(
+            com.cloudera.director.spi.v1.model.exception.PluginExceptionCondition.Type.ERROR, "error"),
+        new com.cloudera.director.spi.v1.model.exception.PluginExceptionCondition(
+            com.cloudera.director.spi.v1.model.exception.PluginExceptionCondition.Type.ERROR, exceptionInfo));
+  }
+
+  @Test
+  public void testFromV1ForwardsConditions() {
+    com.cloudera.director.spi.v1.model.exception.PluginExceptionConditionAccumulator accumulator =
+        new com.cloudera.director.spi.v1.model.exception.PluginExceptionConditionAccumulator();
+    PluginExceptionConditionAccumulator bridge = AccumulatorBridges.fromV1(accumulator);
+
+    assertThat(bridge.hasWarning()).isFalse();
+    bridge.addWarning("key", "warning");
+    bridge.addError("key", "error");
+
+    assertThat(accumulator.hasWarning()).isTrue();
+    assertThat(accumulator.hasError()).isTrue();
+    assertThat(accumulator.getConditionsByKey().get("key")).hasSize(2);
+    assertThat(bridge.getConditionsByKey().get("key")).containsExactly(
+        new PluginExceptionCondition(PluginExceptionCondition.Type.WARNING, "warning"),
+        new PluginExceptionCondition(PluginExceptionCondition.Type.ERROR, "error"));
+  }
+}
@@ -0,0 +1,130 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.adapters.v1;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import com.cloudera.director.spi.v2.model.exception.UnrecoverableProviderException;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link Conversion}.
+ */
+public class ConversionTest {
+
+  /**
+   * A conversion which counts its calls.
+   */
+  private static final class CountingConversion extends Conversion<String, StringBuilder> {
+
+    private final AtomicInteger conversions = new AtomicInteger();
+
+    @Override
+    protected StringBuilder convert(String source) {
+      conversions.incrementAndGet();
+      if ("fail".equals(source)) {
+        throw new com.cloudera.director.spi.v1.model.exception.UnrecoverableProviderException(
+            "conversion failed");
+      }
+      return new StringBuilder(source);
+    }
+  }
+
+  @Test
+  public void testCollectionConvertsEachElementOnce() {
+    CountingConversion conversion = new CountingConversion();
+    Collection<StringBuilder> converted = conversion.collection(Arrays.asList("a", "b", "c"));
+    assertThat(conversion.conversions.get()).isEqualTo(0);
+
+    Iterator<StringBuilder> first = converted.iterator();
+    StringBuilder a = first.next();
+    assertThat(a.toString()).isEqualTo("a");
+    assertThat(conversion.conversions.get()).isEqualTo(1);
+
+    Iterator<StringBuilder> second = converted.iterator();
+    assertThat(second.next()).isSameAs(a);
+    assertThat(second.next().toString()).isEqualTo("b");
+    assertThat(second.next().toString()).isEqualTo("c");
+    assertThat(second.hasNext()).isFalse();
+    assertThat(converted).hasSize(3);
+    assertThat(conversion.conversions.get()).isEqualTo(3);
+  }
+
+  @Test
+  public void testMapConvertsEachValueOnce() {
+    CountingConversion conversion = new CountingConversion();
+    Map<String, String> sources = new HashMap<String, String>();
+    sources.put("k1", "a");
+    sources.put("k2", "b");
+    Map<String, StringBuilder> converted = conversion.values(sources);
+
+    StringBuilder a = converted.get("k1");
+    assertThat(a.toString()).isEqualTo("a");
+    assertThat(converted.get("k1")).isSameAs(a);
+    assertThat(converted.get("k3")).isNull();
+    for (Map.Entry<String, StringBuilder> entry : converted.entrySet()) {
+      assertThat(entry.getValue().toString()).isEqualTo(sources.get(entry.getKey()));
+    }
+    assertThat(converted.get("k2").toString()).isEqualTo("b");
+    assertThat(conversion.conversions.get()).isEqualTo(2);
+  }
+
+  @Test
+  public void testConversionExceptionsAreTranslated() {
+    Collection<StringBuilder> converted =
+        new CountingConversion().collection(Arrays.asList("a", "fail"));
+    Iterator<StringBuilder> iterator = converted.iterator();
+    iterator.next();
+    try {
+      iterator.next();
+      fail("Expected exception");
+    } catch (UnrecoverableProviderException e) {
+      assertThat(e.getMessage()).isEqualTo("conversion failed");
+    }
+  }
+
+  @Test
+  public void testIterationExceptionsAreTranslated() {
+    List<String> sources = new AbstractList<String>() {
+      @Override
+      public String get(int index) {
+        throw new com.cloudera.director.spi.v1.model.exception.UnrecoverableProviderException(
+            "iteration failed");
+      }
+
+      @Override
+      public int size() {
+        return 1;
+      }
+    };
+    try {
+      new CountingConversion().collection(sources).iterator().next();
+      fail("Expected exception");
+    } catch (UnrecoverableProviderException e) {
+      assertThat(e.getMessage()).isEqualTo("iteration failed");
+    }
+  }
+}
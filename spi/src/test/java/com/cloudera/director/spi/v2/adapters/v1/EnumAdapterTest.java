@@ -15,14 +15,17 @@
 package com.cloudera.director.spi.v2.adapters.v1;
 
 import com.cloudera.director.spi.v1.compute.VirtualizationType;
+import com.cloudera.director.spi.v1.database.DatabaseType;
 import com.cloudera.director.spi.v1.model.ConfigurationProperty;
 import com.cloudera.director.spi.v1.model.InstanceStatus;
 import com.cloudera.director.spi.v1.model.DisplayProperty;
 import com.cloudera.director.spi.v1.model.Property;
+import com.cloudera.director.spi.v1.model.exception.PluginExceptionCondition;
 import com.google.common.base.Function;
 import org.junit.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
 
 public class EnumAdapterTest {
 
@@ -157,6 +160,84 @@ public class EnumAdapterTest {
     );
   }
 
+  @Test
+  public void testDatabaseTypeFromV1() {
+    testEnum(
+        DatabaseType.values(),
+        new Function<DatabaseType, com.cloudera.director.spi.v2.database.DatabaseType>() {
+          @Override
+          public com.cloudera.director.spi.v2.database.DatabaseType apply(DatabaseType original) {
+            return EnumAdapter.fromV1(original);
+          }
+        }
+    );
+  }
+
+  @Test
+  public void testDatabaseTypeToV1() {
+    testEnum(
+        com.cloudera.director.spi.v2.database.DatabaseType.values(),
+        new Function<com.cloudera.director.spi.v2.database.DatabaseType, DatabaseType>() {
+          @Override
+          public DatabaseType apply(com.cloudera.director.spi.v2.database.DatabaseType original) {
+            return EnumAdapter.toV1(original);
+          }
+        }
+    );
+  }
+
+  @Test
+  public void testPluginExceptionConditionTypeFromV1() {
+    testEnum(
+        PluginExceptionCondition.Type.values(),
+        new Function<PluginExceptionCondition.Type,
+            com.cloudera.director.spi.v2.model.exception.PluginExceptionCondition.Type>() {
+          @Override
+          public com.cloudera.director.spi.v2.model.exception.PluginExceptionCondition.Type apply(
+              PluginExceptionCondition.Type original) {
+            return EnumAdapter.fromV1(original);
+          }
+        }
+    );
+  }
+
+  private enum Complete {
+    FIRST, SECOND
+  }
+
+  private enum Reordered {
+    SECOND, FIRST
+  }
+
+  private enum Incomplete {
+    FIRST
+  }
+
+  @Test
+  public void testEnumTableMapsByName() {
+    EnumAdapter.EnumTable<Complete, Reordered> table = EnumAdapter.EnumTable.of(Complete.class, Reordered.class);
+    assertThat(table.fromV1(Complete.FIRST)).isEqualTo(Reordered.FIRST);
+    assertThat(table.fromV1(Complete.SECOND)).isEqualTo(Reordered.SECOND);
+    assertThat(table.toV1(Reordered.FIRST)).isEqualTo(Complete.FIRST);
+    assertThat(table.toV1(Reordered.SECOND)).isEqualTo(Complete.SECOND);
+  }
+
+  @Test
+  public void testEnumTableRejectsIncompleteMapping() {
+    try {
+      EnumAdapter.EnumTable.of(Complete.class, Incomplete.class);
+      fail("Expected an IllegalStateException");
+    } catch (IllegalStateException e) {
+      assertThat(e.getMessage()).contains("SECOND");
+    }
+    try {
+      EnumAdapter.EnumTable.of(Incomplete.class, Complete.class);
+      fail("Expected an IllegalStateException");
+    } catch (IllegalStateException e) {
+      assertThat(e.getMessage()).contains("SECOND");
+    }
+  }
+
   private <E1 extends Enum, E2 extends Enum> void testEnum(E1[] enum1, Function<E1, E2> adapterFn) {
     for (E1 original : enum1) {
       E2 converted = adapterFn.apply(original);
@@ -27,6 +27,10 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.List;
 import java.util.Map;
 
@@ -115,6 +119,58 @@ public class ExceptionsAdapterTest {
         com.cloudera.director.spi.v2.model.exception.InvalidCredentialsException.class);
   }
 
+  public static class TestValidationException extends ValidationException {
+    TestValidationException(String message, Throwable cause, PluginExceptionDetails details) {
+      super(message, cause, details);
+    }
+  }
+
+  @Test
+  public void testExceptionSubclass() {
+    TestValidationException testException =
+        new TestValidationException(EXCEPTION_MESSAGE, EXCEPTION_CAUSE, PLUGIN_EXCEPTION_DETAILS_V1);
+
+    verifyExceptionConversion(testException,
+        com.cloudera.director.spi.v2.model.exception.ValidationException.class);
+  }
+
+  @Test
+  public void testEmptyDetails() {
+    TransientProviderException testException = new TransientProviderException(EXCEPTION_MESSAGE);
+
+    assertThat(ExceptionsAdapter.fromV1(testException).getDetails())
+        .isSameAs(com.cloudera.director.spi.v2.model.exception.PluginExceptionDetails.DEFAULT_DETAILS);
+  }
+
+  @Test
+  public void testDetailsConvertedOnce() {
+    TransientProviderException testException =
+        new TransientProviderException(EXCEPTION_MESSAGE, EXCEPTION_CAUSE, PLUGIN_EXCEPTION_DETAILS_V1);
+    com.cloudera.director.spi.v2.model.exception.PluginExceptionDetails details =
+        ExceptionsAdapter.fromV1(testException).getDetails();
+
+    assertThat(details.getConditionsByKey()).isSameAs(details.getConditionsByKey());
+  }
+
+  @Test
+  public void testDetailsSerialization() throws Exception {
+    TransientProviderException testException =
+        new TransientProviderException(EXCEPTION_MESSAGE, EXCEPTION_CAUSE, PLUGIN_EXCEPTION_DETAILS_V1);
+    com.cloudera.director.spi.v2.model.exception.PluginExceptionDetails details =
+        ExceptionsAdapter.fromV1(testException).getDetails();
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    ObjectOutputStream out = new ObjectOutputStream(bytes);
+    out.writeObject(details);
+    out.close();
+    Object deserialized = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject();
+
+    assertThat(deserialized.getClass())
+        .isEqualTo(com.cloudera.director.spi.v2.model.exception.PluginExceptionDetails.class);
+    assertThat(((com.cloudera.director.spi.v2.model.exception.PluginExceptionDetails) deserialized)
+        .getConditionsByKey()).isEqualTo(PLUGIN_EXCEPTION_DETAILS_V2.getConditionsByKey());
+  }
+
   private <T extends AbstractPluginException> void verifyExceptionConversion(T exception, Class expectedClass) {
     com.cloudera.director.spi.v2.model.exception.AbstractPluginException converted =
         ExceptionsAdapter.fromV1(exception);
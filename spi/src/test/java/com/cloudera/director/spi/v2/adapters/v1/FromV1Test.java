@@ -14,6 +14,7 @@
 
 package com.cloudera.director.spi.v2.adapters.v1;
 
+import com.cloudera.director.spi.v2.adapters.v1.fixtures.TestCloudProviderV1;
 import com.cloudera.director.spi.v2.adapters.v1.fixtures.TestFixturesV1;
 import com.cloudera.director.spi.v2.adapters.v1.fixtures.TestFixturesV2;
 import com.cloudera.director.spi.v2.compute.ComputeInstance;
@@ -21,13 +22,17 @@ import com.cloudera.director.spi.v2.compute.ComputeInstanceTemplate;
 import com.cloudera.director.spi.v2.compute.ComputeProvider;
 import com.cloudera.director.spi.v2.database.DatabaseServerInstance;
 import com.cloudera.director.spi.v2.database.DatabaseServerProvider;
+import com.cloudera.director.spi.v2.database.DatabaseServerProviderMetadata;
 import com.cloudera.director.spi.v2.model.ConfigurationProperty;
 import com.cloudera.director.spi.v2.model.DisplayProperty;
 import com.cloudera.director.spi.v2.model.Instance;
 import com.cloudera.director.spi.v2.model.InstanceTemplate;
+import com.cloudera.director.spi.v2.model.ResourceTemplate;
 import com.cloudera.director.spi.v2.model.exception.AbstractPluginException;
 import com.cloudera.director.spi.v2.model.exception.UnrecoverableProviderException;
+import com.cloudera.director.spi.v2.model.util.DefaultLocalizationContext;
 import com.cloudera.director.spi.v2.model.util.SimpleConfiguration;
+import com.cloudera.director.spi.v2.model.util.SimpleConfigurationPropertyBuilder;
 import com.cloudera.director.spi.v2.provider.CloudProvider;
 import com.cloudera.director.spi.v2.provider.CloudProviderMetadata;
 import com.cloudera.director.spi.v2.provider.InstanceProvider;
@@ -43,6 +48,7 @@ import org.assertj.core.util.Lists;
 import org.assertj.core.util.Maps;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
@@ -52,7 +58,14 @@ import java.util.Map;
 import static com.cloudera.director.spi.v2.adapters.v1.fixtures.TestFixturesV2.SIMPLE_CONFIGURATION;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 /**
  * Test the adapters by verifying that V2 SPI objects are equivalent to V1 objects
@@ -81,6 +94,30 @@ public class FromV1Test {
     );
   }
 
+  @Test
+  public void testInstanceStates() {
+    Map<String, com.cloudera.director.spi.v1.model.InstanceState> v1 =
+        new HashMap<String, com.cloudera.director.spi.v1.model.InstanceState>();
+    v1.put("id1", TestFixturesV1.INSTANCE_STATE_PENDING);
+    v1.put("id2", TestFixturesV1.INSTANCE_STATE_PENDING);
+    Map<String, InstanceState> convertedV2 = FromV1.fromV1(v1);
+
+    assertThat(convertedV2).hasSize(2);
+    assertThat(convertedV2.keySet()).containsOnly("id1", "id2");
+    assertThat(convertedV2.containsKey("id1")).isTrue();
+    assertThat(convertedV2.containsKey("id3")).isFalse();
+    assertThat(convertedV2.get("id3")).isNull();
+    assertThat(convertedV2.get("id1").getInstanceStatus())
+        .isEqualTo(TestFixturesV2.INSTANCE_STATE_PENDING.getInstanceStatus());
+    for (Map.Entry<String, InstanceState> entry : convertedV2.entrySet()) {
+      assertThat(entry.getValue().getInstanceStatus())
+          .isEqualTo(TestFixturesV2.INSTANCE_STATE_PENDING.getInstanceStatus());
+    }
+
+    v1.remove("id2");
+    assertThat(convertedV2).hasSize(1);
+  }
+
   @Test
   public void testConfigured() {
     Configured v2 = SIMPLE_CONFIGURATION;
@@ -98,6 +135,40 @@ public class FromV1Test {
     assertThat(convertedV2.getLabel()).isEqualTo(v2.getLabel());
   }
 
+  @Test
+  public void testGeneratedAdapterTranslatesExceptions() {
+    com.cloudera.director.spi.v1.model.DisplayProperty v1 =
+        mock(com.cloudera.director.spi.v1.model.DisplayProperty.class);
+    when(v1.getName(any(com.cloudera.director.spi.v1.model.LocalizationContext.class))).thenThrow(
+        new com.cloudera.director.spi.v1.model.exception.UnrecoverableProviderException("broken"));
+    DisplayProperty convertedV2 = FromV1.fromV1(v1);
+
+    try {
+      convertedV2.getName(lcontext);
+      fail("Expected an unrecoverable provider exception");
+    } catch (UnrecoverableProviderException e) {
+      assertThat(e.getMessage()).isEqualTo("broken");
+    }
+  }
+
+  @Test
+  public void testGeneratedAdapterConvertsLists() {
+    ConfigurationProperty v2 = new SimpleConfigurationPropertyBuilder()
+        .configKey("configKey")
+        .name("Configuration property")
+        .defaultDescription("Description")
+        .widget(ConfigurationProperty.Widget.LIST)
+        .addValidValues("first", "second")
+        .build();
+    LocalizationContext localizationContext = new DefaultLocalizationContext(Locale.US, "");
+    List<com.cloudera.director.spi.v1.model.ConfigurationPropertyValue> validValues =
+        ToV1.toV1(v2).getValidValues(ToV1.toV1(localizationContext));
+
+    assertThat(validValues).hasSize(2);
+    assertThat(validValues.get(0).getValue()).isEqualTo("first");
+    assertThat(validValues.get(1).getValue()).isEqualTo("second");
+  }
+
   @Test
   public void testLauncher() throws InterruptedException {
     Launcher v2 = TestFixturesV2.LAUNCHER;
@@ -142,6 +213,44 @@ public class FromV1Test {
     }
   }
 
+  @Test
+  public void testMetadataWrappersAreStable() {
+    CloudProviderMetadata convertedV2 = FromV1.fromV1(TestCloudProviderV1.CLOUD_PROVIDER_METADATA);
+    assertThat(FromV1.fromV1(TestCloudProviderV1.CLOUD_PROVIDER_METADATA)).isSameAs(convertedV2);
+
+    List<ResourceProviderMetadata> rpmListConvertedV2 = convertedV2.getResourceProviderMetadata();
+    for (int i = 0; i < rpmListConvertedV2.size(); i++) {
+      ResourceProviderMetadata rpmConvertedV2 = rpmListConvertedV2.get(i);
+      assertThat(rpmListConvertedV2.get(i)).isSameAs(rpmConvertedV2);
+      assertThat(FromV1.fromV1(ToV1.toV1(rpmConvertedV2))).isSameAs(rpmConvertedV2);
+      if (rpmConvertedV2.getId().equals("test-db-provider")) {
+        assertThat(rpmConvertedV2).isInstanceOf(DatabaseServerProviderMetadata.class);
+      }
+    }
+
+    ResourceProviderMetadata rpmV2 = TestFixturesV2.COMPUTE_PROVIDER.getProviderMetadata();
+    assertThat(FromV1.fromV1(ToV1.toV1(rpmV2))).isSameAs(rpmV2);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testTemplateWrappersAreStable() throws InterruptedException {
+    ComputeProvider convertedV2 = ComputeProviderAdapter.fromV1(TestFixturesV1.COMPUTE_PROVIDER);
+    ComputeInstanceTemplate template = (ComputeInstanceTemplate) convertedV2.createResourceTemplate(
+        "template", SIMPLE_CONFIGURATION, new HashMap<String, String>());
+    assertThat(ToV1.toV1((ResourceTemplate) template))
+        .isSameAs(((ComputeProviderAdapter.ComputeInstanceTemplateWrapper) template).getDelegate());
+
+    List<String> resourceIds = Lists.newArrayList("stable1", "stable2");
+    convertedV2.allocate(template, resourceIds, resourceIds.size());
+    Collection<ComputeInstance> instances = convertedV2.find(template, resourceIds);
+    assertThat(instances).hasSize(2);
+    for (ComputeInstance instance : instances) {
+      assertThat(instance.getTemplate()).isSameAs(template);
+    }
+    convertedV2.delete(template, resourceIds);
+  }
+
   @Test
   public void testDatabaseProvider() throws InterruptedException {
     DatabaseServerProvider v2 = TestFixturesV2.DATABASE_SERVER_PROVIDER;
@@ -169,6 +278,64 @@ public class FromV1Test {
     testInstanceProvider(v2, convertedV2, configs, ComputeInstance.class);
   }
 
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testComputeProviderAllocateDefersFind() throws InterruptedException {
+    ComputeInstanceTemplate template = (ComputeInstanceTemplate) ComputeProviderAdapter
+        .fromV1(TestFixturesV1.COMPUTE_PROVIDER)
+        .createResourceTemplate("template", SIMPLE_CONFIGURATION, new HashMap<String, String>());
+    com.cloudera.director.spi.v1.compute.ComputeProvider computeProviderV1 =
+        mock(com.cloudera.director.spi.v1.compute.ComputeProvider.class);
+    when(computeProviderV1.find(any(com.cloudera.director.spi.v1.compute.ComputeInstanceTemplate.class),
+        anyCollection())).thenReturn(new ArrayList<Object>());
+    ComputeProvider convertedV2 = ComputeProviderAdapter.fromV1(computeProviderV1);
+
+    List<String> resourceIds = Lists.newArrayList("id1", "id2");
+    Collection<?> allocated = convertedV2.allocate(template, resourceIds, resourceIds.size());
+    resourceIds.clear();
+    verify(computeProviderV1).allocate(any(com.cloudera.director.spi.v1.compute.ComputeInstanceTemplate.class),
+        anyCollection(), eq(2));
+    verify(computeProviderV1, never()).find(
+        any(com.cloudera.director.spi.v1.compute.ComputeInstanceTemplate.class), anyCollection());
+
+    assertThat(allocated).isEmpty();
+    assertThat(allocated).isEmpty();
+    verify(computeProviderV1, times(1)).find(
+        any(com.cloudera.director.spi.v1.compute.ComputeInstanceTemplate.class),
+        eq(Lists.newArrayList("id1", "id2")));
+
+    assertThat(convertedV2.allocate(template, resourceIds, 0)).isEmpty();
+    verify(computeProviderV1, times(1)).find(
+        any(com.cloudera.director.spi.v1.compute.ComputeInstanceTemplate.class), anyCollection());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testComputeProviderDeferredFindFailsOnReadAndRetries() throws InterruptedException {
+    ComputeInstanceTemplate template = (ComputeInstanceTemplate) ComputeProviderAdapter
+        .fromV1(TestFixturesV1.COMPUTE_PROVIDER)
+        .createResourceTemplate("template", SIMPLE_CONFIGURATION, new HashMap<String, String>());
+    com.cloudera.director.spi.v1.compute.ComputeProvider computeProviderV1 =
+        mock(com.cloudera.director.spi.v1.compute.ComputeProvider.class);
+    when(computeProviderV1.find(any(com.cloudera.director.spi.v1.compute.ComputeInstanceTemplate.class),
+        anyCollection()))
+        .thenThrow(new com.cloudera.director.spi.v1.model.exception.UnrecoverableProviderException(
+            "find failed"))
+        .thenReturn(new ArrayList<Object>());
+    ComputeProvider convertedV2 = ComputeProviderAdapter.fromV1(computeProviderV1);
+
+    Collection<?> allocated = convertedV2.allocate(template, Lists.newArrayList("id1"), 1);
+    try {
+      allocated.size();
+      fail("Expected exception");
+    } catch (UnrecoverableProviderException e) {
+      assertThat(e.getMessage()).isEqualTo("find failed");
+    }
+    assertThat(allocated).isEmpty();
+    verify(computeProviderV1, times(2)).find(
+        any(com.cloudera.director.spi.v1.compute.ComputeInstanceTemplate.class), anyCollection());
+  }
+
   @SuppressWarnings("unchecked")
   private void testInstanceProvider(InstanceProvider instanceProviderV2,
                                     InstanceProvider instanceProviderConvertedV2,
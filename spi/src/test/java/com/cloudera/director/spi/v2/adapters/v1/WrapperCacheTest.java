@@ -0,0 +1,75 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.adapters.v1;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link WrapperCache}.
+ */
+public class WrapperCacheTest {
+
+  @Test
+  public void testComparesByIdentity() {
+    WrapperCache<String, Object> cache = new WrapperCache<String, Object>();
+    String v1 = new String("key");
+    Object v2 = new Object();
+
+    assertThat(cache.getV2(v1)).isNull();
+    assertThat(cache.putV2(v1, v2)).isSameAs(v2);
+    assertThat(cache.getV2(v1)).isSameAs(v2);
+    assertThat(cache.getV2(new String("key"))).isNull();
+  }
+
+  @Test
+  public void testAssociatesBothWays() {
+    WrapperCache<String, Object> cache = new WrapperCache<String, Object>();
+    String v1 = "v1";
+    Object v2 = new Object();
+    cache.putV2(v1, v2);
+    assertThat(cache.getV1(v2)).isSameAs(v1);
+
+    Object otherV2 = new Object();
+    String wrapper = new String("wrapper");
+    assertThat(cache.putV1(otherV2, wrapper)).isSameAs(wrapper);
+    assertThat(cache.getV1(otherV2)).isSameAs(wrapper);
+    assertThat(cache.getV2(wrapper)).isSameAs(otherV2);
+  }
+
+  @Test
+  public void testKeepsFirstAssociation() {
+    WrapperCache<String, Object> cache = new WrapperCache<String, Object>();
+    String v1 = "v1";
+    Object first = new Object();
+    Object second = new Object();
+
+    assertThat(cache.putV2(v1, first)).isSameAs(first);
+    assertThat(cache.putV2(v1, second)).isSameAs(first);
+    assertThat(cache.getV2(v1)).isSameAs(first);
+    assertThat(cache.getV1(second)).isNull();
+  }
+
+  @Test
+  public void testIgnoresNull() {
+    WrapperCache<String, Object> cache = new WrapperCache<String, Object>();
+    Object v2 = new Object();
+
+    assertThat(cache.putV2(null, v2)).isSameAs(v2);
+    assertThat(cache.getV2(null)).isNull();
+    assertThat(cache.getV1(v2)).isNull();
+  }
+}
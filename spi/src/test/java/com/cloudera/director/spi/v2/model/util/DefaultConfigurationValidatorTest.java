@@ -0,0 +1,153 @@
+package com.cloudera.director.spi.v2.model.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.cloudera.director.spi.v2.model.ConfigurationProperty;
+import com.cloudera.director.spi.v2.model.ConfigurationPropertyToken;
+import com.cloudera.director.spi.v2.model.Configured;
+import com.cloudera.director.spi.v2.model.LocalizationContext;
+import com.cloudera.director.spi.v2.model.exception.PluginExceptionCondition;
+import com.cloudera.director.spi.v2.model.exception.PluginExceptionConditionAccumulator;
+import com.cloudera.director.spi.v2.provider.Launcher;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link DefaultConfigurationValidator}.
+ */
+public class DefaultConfigurationValidatorTest {
+
+  protected static final String KEY1 = "key1";
+  protected static final String KEY2 = "key2";
+  protected static final String KEY3 = "key3";
+  protected static final String KEY4 = "key4";
+
+
+  protected static final List<ConfigurationProperty> CONFIGURATION_PROPERTIES;
+
+  static {
+    List<ConfigurationProperty> list = new ArrayList<ConfigurationProperty>();
+    list.add(buildMockConfigurationProperty(KEY1, true));
+    list.add(buildMockConfigurationProperty(KEY2, false));
+    list.add(buildMockConfigurationProperty(KEY3, true));
+    list.add(buildMockConfigurationProperty(KEY4, true));
+    CONFIGURATION_PROPERTIES = list;
+  }
+
+  private static ConfigurationProperty buildMockConfigurationProperty(String configKey,
+                                                                      boolean required) {
+    ConfigurationProperty configurationProperty = mock(ConfigurationProperty.class);
+    when(configurationProperty.getConfigKey()).thenReturn(configKey);
+    when(configurationProperty.isRequired()).thenReturn(required);
+    when(configurationProperty.getMissingValueErrorMessage(any(LocalizationContext.class)))
+        .thenReturn(configKey);
+    return configurationProperty;
+  }
+
+  @Test
+  public void testValidation() {
+    Configured configuration = new SimpleConfiguration();
+    PluginExceptionConditionAccumulator accumulator = new PluginExceptionConditionAccumulator();
+    DefaultConfigurationValidator validator =
+        new DefaultConfigurationValidator(CONFIGURATION_PROPERTIES);
+    validator.validate(null, configuration, accumulator,
+        Launcher.DEFAULT_PLUGIN_LOCALIZATION_CONTEXT);
+    assertThat(accumulator.hasError()).isTrue();
+    Map<String, Collection<PluginExceptionCondition>> conditionsByKey =
+        accumulator.getConditionsByKey();
+    assertThat(conditionsByKey).containsKey(KEY1);
+    assertThat(conditionsByKey).doesNotContainKey(KEY2);
+    assertThat(conditionsByKey).containsKey(KEY3);
+    assertThat(conditionsByKey).containsKey(KEY4);
+  }
+
+  @Test
+  public void testValidationDoesNotThrowForMissingValues() {
+    Configured configuration = spy(new SimpleConfiguration());
+    PluginExceptionConditionAccumulator accumulator = new PluginExceptionConditionAccumulator();
+    new DefaultConfigurationValidator(CONFIGURATION_PROPERTIES).validate(null, configuration,
+        accumulator, Launcher.DEFAULT_PLUGIN_LOCALIZATION_CONTEXT);
+
+    verify(configuration, never()).getConfigurationValue(any(ConfigurationProperty.class),
+        any(LocalizationContext.class));
+    Map<String, Collection<PluginExceptionCondition>> conditionsByKey =
+        accumulator.getConditionsByKey();
+    assertThat(conditionsByKey.keySet()).containsOnly(KEY1, KEY3, KEY4);
+    assertThat(conditionsByKey.get(KEY1).iterator().next().getMessage()).isEqualTo(KEY1);
+  }
+
+  @Test
+  public void testValidationWithDefaultLookup() {
+    final Configured delegate = new SimpleConfiguration(Collections.singletonMap(KEY1, "value"));
+    Configured configuration = new Configured() {
+      @Override
+      public Map<String, String> getConfiguration(LocalizationContext localizationContext) {
+        return delegate.getConfiguration(localizationContext);
+      }
+
+      @Override
+      public String getConfigurationValue(ConfigurationPropertyToken token,
+          LocalizationContext localizationContext) {
+        return delegate.getConfigurationValue(token, localizationContext);
+      }
+
+      @Override
+      public String getConfigurationValue(ConfigurationProperty property,
+          LocalizationContext localizationContext) {
+        return delegate.getConfigurationValue(property, localizationContext);
+      }
+    };
+    PluginExceptionConditionAccumulator accumulator = new PluginExceptionConditionAccumulator();
+    new DefaultConfigurationValidator(CONFIGURATION_PROPERTIES).validate(null, configuration,
+        accumulator, Launcher.DEFAULT_PLUGIN_LOCALIZATION_CONTEXT);
+
+    assertThat(accumulator.getConditionsByKey().keySet()).containsOnly(KEY3, KEY4);
+  }
+
+  @Test
+  public void testValidationWithDefaultLookupReportsInvalidOptionalValues() {
+    final Configured delegate = new SimpleConfiguration(Collections.singletonMap(KEY1, "value"));
+    Configured configuration = new Configured() {
+      @Override
+      public Map<String, String> getConfiguration(LocalizationContext localizationContext) {
+        return delegate.getConfiguration(localizationContext);
+      }
+
+      @Override
+      public String getConfigurationValue(ConfigurationPropertyToken token,
+          LocalizationContext localizationContext) {
+        return delegate.getConfigurationValue(token, localizationContext);
+      }
+
+      @Override
+      public String getConfigurationValue(ConfigurationProperty property,
+          LocalizationContext localizationContext) {
+        if (KEY2.equals(property.getConfigKey())) {
+          throw new IllegalArgumentException("invalid " + KEY2);
+        }
+        return delegate.getConfigurationValue(property, localizationContext);
+      }
+    };
+    PluginExceptionConditionAccumulator accumulator = new PluginExceptionConditionAccumulator();
+    new DefaultConfigurationValidator(CONFIGURATION_PROPERTIES).validate(null, configuration,
+        accumulator, Launcher.DEFAULT_PLUGIN_LOCALIZATION_CONTEXT);
+
+    Map<String, Collection<PluginExceptionCondition>> conditionsByKey =
+        accumulator.getConditionsByKey();
+    assertThat(conditionsByKey.keySet()).containsOnly(KEY2, KEY3, KEY4);
+    assertThat(conditionsByKey.get(KEY2).iterator().next().getMessage())
+        .isEqualTo("invalid " + KEY2);
+  }
+}
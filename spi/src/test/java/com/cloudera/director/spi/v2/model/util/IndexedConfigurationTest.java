@@ -0,0 +1,154 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.model.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import com.cloudera.director.spi.v2.model.ConfigurationProperty;
+import com.cloudera.director.spi.v2.model.ConfigurationPropertyToken;
+import com.cloudera.director.spi.v2.model.LocalizationContext;
+import com.cloudera.director.spi.v2.util.ConfigurationPropertiesUtil;
+
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link IndexedConfiguration}.
+ */
+public class IndexedConfigurationTest {
+
+  private static final LocalizationContext LOCALIZATION_CONTEXT =
+      new DefaultLocalizationContext(Locale.US, "");
+
+  private static final ConfigurationProperty REQUIRED = property("required", true, null);
+  private static final ConfigurationProperty OPTIONAL = property("optional", false, "default");
+
+  private static final IndexedConfiguration.Layout LAYOUT = new IndexedConfiguration.Layout(
+      ConfigurationPropertiesUtil.merge(Arrays.asList(REQUIRED), Arrays.asList(OPTIONAL)));
+
+  private static ConfigurationProperty property(String configKey, boolean required,
+      String defaultValue) {
+    return new SimpleConfigurationPropertyBuilder()
+        .configKey(configKey)
+        .name(configKey)
+        .defaultDescription(configKey)
+        .required(required)
+        .defaultValue(defaultValue)
+        .build();
+  }
+
+  @Test
+  public void testLayout() {
+    assertThat(LAYOUT.size()).isEqualTo(2);
+    assertThat(LAYOUT.getProperties()).containsExactly(REQUIRED, OPTIONAL);
+    assertThat(LAYOUT.getOrdinal(REQUIRED)).isEqualTo(0);
+    assertThat(LAYOUT.getOrdinal(OPTIONAL)).isEqualTo(1);
+    assertThat(LAYOUT.getOrdinal(property("optional", true, null))).isEqualTo(1);
+    assertThat(LAYOUT.getOrdinal("unknown")).isEqualTo(-1);
+  }
+
+  @Test
+  public void testPropertiesSharedBetweenLayouts() {
+    IndexedConfiguration.Layout reversed =
+        new IndexedConfiguration.Layout(Arrays.asList(OPTIONAL, REQUIRED));
+    for (int i = 0; i < 2; i++) {
+      assertThat(LAYOUT.getOrdinal(OPTIONAL)).isEqualTo(1);
+      assertThat(reversed.getOrdinal(OPTIONAL)).isEqualTo(0);
+      assertThat(new IndexedConfiguration(reversed, Collections.singletonMap("optional", "value"))
+          .getConfigurationValue(OPTIONAL, LOCALIZATION_CONTEXT)).isEqualTo("value");
+      assertThat(new IndexedConfiguration(LAYOUT, Collections.singletonMap("optional", "other"))
+          .getConfigurationValue(OPTIONAL, LOCALIZATION_CONTEXT)).isEqualTo("other");
+    }
+  }
+
+  @Test
+  public void testLayoutsLeavePropertiesSerializable() throws Exception {
+    assertThat(LAYOUT.getOrdinal(REQUIRED)).isEqualTo(0);
+    ObjectOutputStream out = new ObjectOutputStream(new ByteArrayOutputStream());
+    out.writeObject(REQUIRED);
+    out.close();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testLayoutRejectsDuplicateKeys() {
+    new IndexedConfiguration.Layout(Arrays.asList(REQUIRED, property("required", false, null)));
+  }
+
+  @Test
+  public void testValues() {
+    Map<String, String> values = new HashMap<String, String>();
+    values.put("required", "value");
+    values.put("unknown", "other");
+    IndexedConfiguration configuration = new IndexedConfiguration(LAYOUT, values);
+
+    assertThat(configuration.getConfigurationValue(REQUIRED, LOCALIZATION_CONTEXT))
+        .isEqualTo("value");
+    assertThat(configuration.getConfigurationValue(new ConfigurationPropertyToken() {
+      @Override
+      public ConfigurationProperty unwrap() {
+        return REQUIRED;
+      }
+    }, LOCALIZATION_CONTEXT)).isEqualTo("value");
+    assertThat(configuration.getConfigurationValue(OPTIONAL, LOCALIZATION_CONTEXT))
+        .isEqualTo("default");
+    assertThat(configuration.getConfigurationValue(property("unknown", true, null),
+        LOCALIZATION_CONTEXT)).isEqualTo("other");
+    assertThat(configuration.getConfiguration(LOCALIZATION_CONTEXT)).isEqualTo(values);
+  }
+
+  @Test
+  public void testMatchesSimpleConfiguration() {
+    Map<String, String> values = Collections.singletonMap("optional", "value");
+    IndexedConfiguration indexed = new IndexedConfiguration(LAYOUT, values);
+    SimpleConfiguration simple = new SimpleConfiguration(values);
+
+    assertThat(indexed.getConfigurationValue(OPTIONAL, LOCALIZATION_CONTEXT))
+        .isEqualTo(simple.getConfigurationValue(OPTIONAL, LOCALIZATION_CONTEXT));
+    try {
+      indexed.getConfigurationValue(REQUIRED, LOCALIZATION_CONTEXT);
+      fail("Expected a missing required value to be rejected");
+    } catch (IllegalArgumentException e) {
+      try {
+        simple.getConfigurationValue(REQUIRED, LOCALIZATION_CONTEXT);
+        fail("Expected a missing required value to be rejected");
+      } catch (IllegalArgumentException expected) {
+        assertThat(e.getMessage()).isEqualTo(expected.getMessage());
+      }
+    }
+  }
+
+  @Test
+  public void testFindConfigurationValue() {
+    Map<String, String> values = Collections.singletonMap("optional", "value");
+    IndexedConfiguration indexed = new IndexedConfiguration(LAYOUT, values);
+    SimpleConfiguration simple = new SimpleConfiguration(values);
+
+    for (ConfigurationProperty property : Arrays.asList(REQUIRED, OPTIONAL,
+        property("optional", false, null), property("unknown", false, "default"))) {
+      assertThat(indexed.findConfigurationValue(property, LOCALIZATION_CONTEXT))
+          .isEqualTo(simple.findConfigurationValue(property, LOCALIZATION_CONTEXT));
+    }
+    assertThat(indexed.findConfigurationValue(REQUIRED, LOCALIZATION_CONTEXT)).isNull();
+    assertThat(indexed.findConfigurationValue(OPTIONAL, LOCALIZATION_CONTEXT)).isEqualTo("value");
+  }
+}
@@ -0,0 +1,151 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.model.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.cloudera.director.spi.v2.model.Configured;
+import com.cloudera.director.spi.v2.model.LocalizationContext;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link InterningConfigurationFactory}.
+ */
+public class InterningConfigurationFactoryTest {
+
+  private static final LocalizationContext LOCALIZATION_CONTEXT =
+      new DefaultLocalizationContext(Locale.US, "");
+
+  private static Map<String, String> map(int size) {
+    Map<String, String> map = new LinkedHashMap<String, String>();
+    for (int i = 0; i < size; i++) {
+      map.put(new String("key" + i), new String("value" + (i % 3)));
+    }
+    return map;
+  }
+
+  private static Map<String, String> reversed(Map<String, String> map) {
+    List<String> keys = new ArrayList<String>(map.keySet());
+    Collections.reverse(keys);
+    Map<String, String> reversed = new LinkedHashMap<String, String>();
+    for (String key : keys) {
+      reversed.put(key, map.get(key));
+    }
+    return reversed;
+  }
+
+  @Test
+  public void testEqualMapsAreShared() {
+    InterningConfigurationFactory factory = new InterningConfigurationFactory();
+    Map<String, String> first = factory.intern(map(5));
+    Map<String, String> second = factory.intern(map(5));
+
+    assertThat(second).isSameAs(first);
+    assertThat(first).isEqualTo(map(5));
+    assertThat(factory.intern(map(6))).isNotSameAs(first);
+    assertThat(factory.getCanonicalMapCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void testInterningPreservesEntryOrder() {
+    InterningConfigurationFactory factory = new InterningConfigurationFactory();
+    Map<String, String> first = factory.intern(map(5));
+    Map<String, String> reversed = factory.intern(reversed(map(5)));
+
+    assertThat(reversed).isNotSameAs(first).isEqualTo(first);
+    assertThat(reversed.keySet()).containsExactly("key4", "key3", "key2", "key1", "key0");
+    assertThat(reversed.get("key0")).isSameAs(first.get("key0"));
+    assertThat(factory.intern(reversed(map(5)))).isSameAs(reversed);
+  }
+
+  @Test
+  public void testEqualConfigurationsAreSharedRegardlessOfOrder() {
+    InterningConfigurationFactory factory = new InterningConfigurationFactory();
+    Configured first = factory.createConfiguration(map(5));
+    Configured second = factory.createConfiguration(reversed(map(5)));
+
+    assertThat(second.getConfiguration(LOCALIZATION_CONTEXT))
+        .isSameAs(first.getConfiguration(LOCALIZATION_CONTEXT));
+    assertThat(factory.getCanonicalMapCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void testStringsAreShared() {
+    InterningConfigurationFactory factory = new InterningConfigurationFactory();
+    Map<String, String> interned = factory.intern(map(5));
+
+    assertThat(interned.get("key0")).isSameAs(interned.get("key3"));
+    assertThat(factory.intern(new String("value1"))).isSameAs(interned.get("key1"));
+  }
+
+  @Test
+  public void testSmallAndLargeMaps() {
+    InterningConfigurationFactory factory = new InterningConfigurationFactory();
+    for (int size : new int[] {0, 1, 8, 9, 100}) {
+      Map<String, String> expected = map(size);
+      Map<String, String> interned = factory.intern(expected);
+
+      assertThat(interned).isEqualTo(expected);
+      assertThat(expected).isEqualTo(interned);
+      assertThat(interned.hashCode()).isEqualTo(expected.hashCode());
+      assertThat(interned.keySet()).containsExactly(expected.keySet().toArray(new String[size]));
+      for (Map.Entry<String, String> entry : expected.entrySet()) {
+        assertThat(interned.containsKey(entry.getKey())).isTrue();
+        assertThat(interned.get(entry.getKey())).isEqualTo(entry.getValue());
+      }
+      assertThat(interned.containsKey("missing")).isFalse();
+      assertThat(interned.get(null)).isNull();
+    }
+  }
+
+  @Test
+  public void testNullValues() {
+    Map<String, String> map = new HashMap<String, String>();
+    map.put("key", null);
+    Map<String, String> interned = new InterningConfigurationFactory().intern(map);
+
+    assertThat(interned.containsKey("key")).isTrue();
+    assertThat(interned.get("key")).isNull();
+    assertThat(interned).isEqualTo(map);
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testMapsAreImmutable() {
+    new InterningConfigurationFactory().intern(map(3)).put("key", "value");
+  }
+
+  @Test
+  public void testConfigurationsAndTemplatesShareMaps() {
+    InterningConfigurationFactory factory = new InterningConfigurationFactory();
+    Configured first = factory.createConfiguration(map(3));
+    Configured second = factory.createConfiguration(map(3));
+    Map<String, String> tags = factory.intern(map(2));
+    SimpleResourceTemplate template = new SimpleResourceTemplate("template", first, tags,
+        LOCALIZATION_CONTEXT);
+
+    assertThat(second.getConfiguration(LOCALIZATION_CONTEXT))
+        .isSameAs(first.getConfiguration(LOCALIZATION_CONTEXT));
+    assertThat(template.getTags()).isSameAs(tags);
+  }
+}
@@ -0,0 +1,164 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.model.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.assertj.core.api.Assertions.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.cloudera.director.spi.v2.model.ConfigurationProperty;
+import com.cloudera.director.spi.v2.model.Configured;
+import com.cloudera.director.spi.v2.model.LocalizationContext;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link OverlayConfiguration}.
+ */
+public class OverlayConfigurationTest {
+
+  private static final LocalizationContext LOCALIZATION_CONTEXT =
+      new DefaultLocalizationContext(Locale.US, "");
+
+  private static final ConfigurationProperty REQUIRED = property("required", true, null);
+  private static final ConfigurationProperty OPTIONAL = property("optional", false, "default");
+
+  private static ConfigurationProperty property(String configKey, boolean required,
+      String defaultValue) {
+    return new SimpleConfigurationPropertyBuilder()
+        .configKey(configKey)
+        .name(configKey)
+        .defaultDescription(configKey)
+        .required(required)
+        .defaultValue(defaultValue)
+        .build();
+  }
+
+  private static Configured layer(String... keysAndValues) {
+    Map<String, String> configuration = new LinkedHashMap<String, String>();
+    for (int i = 0; i < keysAndValues.length; i += 2) {
+      configuration.put(keysAndValues[i], keysAndValues[i + 1]);
+    }
+    return new SimpleConfiguration(configuration);
+  }
+
+  @Test
+  public void testHigherLayersOverrideLowerLayers() {
+    OverlayConfiguration configuration = new OverlayConfiguration(
+        layer("required", "defaults", "optional", "defaults"),
+        layer("required", "template"),
+        layer());
+
+    assertThat(configuration.getConfigurationValue(REQUIRED, LOCALIZATION_CONTEXT))
+        .isEqualTo("template");
+    assertThat(configuration.getConfigurationValue(OPTIONAL, LOCALIZATION_CONTEXT))
+        .isEqualTo("defaults");
+  }
+
+  @Test
+  public void testNullValuesOverrideLowerLayers() {
+    OverlayConfiguration configuration = new OverlayConfiguration(
+        layer("optional", "defaults"), layer("optional", null));
+
+    assertThat(configuration.getConfigurationValue(OPTIONAL, LOCALIZATION_CONTEXT)).isNull();
+  }
+
+  @Test
+  public void testMissingValues() {
+    OverlayConfiguration configuration = new OverlayConfiguration(layer("other", "value"));
+
+    assertThat(configuration.getConfigurationValue(OPTIONAL, LOCALIZATION_CONTEXT))
+        .isEqualTo("default");
+    try {
+      configuration.getConfigurationValue(REQUIRED, LOCALIZATION_CONTEXT);
+      fail("Expected IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      assertThat(e.getMessage()).contains("required");
+    }
+  }
+
+  @Test
+  public void testMergedConfiguration() {
+    OverlayConfiguration configuration = new OverlayConfiguration(
+        layer("required", "defaults", "optional", "defaults"),
+        layer("required", "template", "other", "template"));
+    Map<String, String> merged = configuration.getConfiguration(LOCALIZATION_CONTEXT);
+
+    assertThat(merged).containsOnly(entry("required", "template"),
+        entry("optional", "defaults"), entry("other", "template"));
+    assertThat(configuration.getConfiguration(LOCALIZATION_CONTEXT)).isSameAs(merged);
+    assertThat(configuration.getConfigurationValue(REQUIRED, LOCALIZATION_CONTEXT))
+        .isEqualTo("template");
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testMergedConfigurationIsUnmodifiable() {
+    new OverlayConfiguration(layer("required", "value"), layer("optional", "value"))
+        .getConfiguration(LOCALIZATION_CONTEXT).put("other", "value");
+  }
+
+  @Test
+  public void testSingleLayerIsNotCopied() {
+    Configured layer = layer("required", "value");
+    OverlayConfiguration configuration = new OverlayConfiguration(layer(), layer, layer());
+
+    assertThat(configuration.getConfiguration(LOCALIZATION_CONTEXT))
+        .isSameAs(layer.getConfiguration(LOCALIZATION_CONTEXT));
+    assertThat(new OverlayConfiguration().getConfiguration(LOCALIZATION_CONTEXT)).isEmpty();
+  }
+
+  @Test
+  public void testValuesAreResolvedWithoutMerging() {
+    Configured layer = mock(Configured.class);
+    OverlayConfiguration configuration = new OverlayConfiguration(layer,
+        new OverlayConfiguration(layer("required", "nested")));
+
+    assertThat(configuration.getConfigurationValue(REQUIRED, LOCALIZATION_CONTEXT))
+        .isEqualTo("nested");
+    verify(layer, never()).getConfiguration(LOCALIZATION_CONTEXT);
+  }
+
+  @Test
+  public void testOverlay() {
+    OverlayConfiguration base = new OverlayConfiguration(layer("required", "base"));
+    Configured override = layer("required", "override");
+    OverlayConfiguration configuration = base.overlay(override);
+
+    assertThat(configuration.getLayers()).hasSize(2).endsWith(override);
+    assertThat(configuration.getConfigurationValue(REQUIRED, LOCALIZATION_CONTEXT))
+        .isEqualTo("override");
+    assertThat(base.getConfigurationValue(REQUIRED, LOCALIZATION_CONTEXT)).isEqualTo("base");
+    assertThat(base.getLayers()).hasSize(1);
+  }
+
+  @Test
+  public void testFindConfigurationValue() {
+    OverlayConfiguration configuration = new OverlayConfiguration(layer("other", "value"),
+        new OverlayConfiguration(layer("optional", "nested")));
+
+    assertThat(configuration.findConfigurationValue(OPTIONAL, LOCALIZATION_CONTEXT))
+        .isEqualTo("nested");
+    assertThat(configuration.findConfigurationValue(REQUIRED, LOCALIZATION_CONTEXT)).isNull();
+    assertThat(new OverlayConfiguration().findConfigurationValue(OPTIONAL, LOCALIZATION_CONTEXT))
+        .isEqualTo("default");
+  }
+}
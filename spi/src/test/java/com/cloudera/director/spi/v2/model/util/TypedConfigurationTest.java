@@ -0,0 +1,140 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.model.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.cloudera.director.spi.v2.model.ConfigurationProperty;
+import com.cloudera.director.spi.v2.model.ConfigurationPropertyToken;
+import com.cloudera.director.spi.v2.model.Configured;
+import com.cloudera.director.spi.v2.model.LocalizationContext;
+import com.cloudera.director.spi.v2.model.Property;
+import com.cloudera.director.spi.v2.model.exception.PluginExceptionConditionAccumulator;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests {@link TypedConfiguration}.
+ */
+public class TypedConfigurationTest {
+
+  private static final LocalizationContext LOCALIZATION_CONTEXT =
+      new DefaultLocalizationContext(Locale.US, "");
+
+  private Configured configuration;
+  private PluginExceptionConditionAccumulator accumulator;
+  private TypedConfiguration typed;
+
+  private static ConfigurationPropertyToken token(String configKey, Property.Type type,
+      boolean required) {
+    final ConfigurationProperty property = new SimpleConfigurationPropertyBuilder()
+        .configKey(configKey)
+        .name(configKey)
+        .defaultDescription(configKey)
+        .type(type)
+        .required(required)
+        .build();
+    return new ConfigurationPropertyToken() {
+      @Override
+      public ConfigurationProperty unwrap() {
+        return property;
+      }
+    };
+  }
+
+  @Before
+  public void setUp() {
+    Map<String, String> values = new HashMap<String, String>();
+    values.put("int", " 22 ");
+    values.put("badInt", "twenty-two");
+    values.put("bool", "TRUE");
+    values.put("double", "0.5");
+    values.put("unit", "SECONDS");
+    values.put("list", "a, b,,c ");
+    configuration = spy(new SimpleConfiguration(values));
+    accumulator = new PluginExceptionConditionAccumulator();
+    typed = new TypedConfiguration(configuration, LOCALIZATION_CONTEXT, accumulator);
+  }
+
+  @Test
+  public void testTypedAccessors() {
+    assertThat(typed.getInt(token("int", Property.Type.INTEGER, false))).isEqualTo(22);
+    assertThat(typed.getBoolean(token("bool", Property.Type.BOOLEAN, false))).isTrue();
+    assertThat(typed.getDouble(token("double", Property.Type.DOUBLE, false))).isEqualTo(0.5);
+    assertThat(typed.getDouble(token("int", Property.Type.INTEGER, false))).isEqualTo(22.0);
+    assertThat(typed.getEnum(token("unit", Property.Type.STRING, false), TimeUnit.class))
+        .isEqualTo(TimeUnit.SECONDS);
+    assertThat(typed.getList(token("list", Property.Type.STRING, false)))
+        .containsExactly("a", "b", "c");
+    assertThat(typed.getValue(token("int", Property.Type.INTEGER, false).unwrap())).isEqualTo(22);
+    assertThat(typed.getString(token("missing", Property.Type.STRING, false))).isNull();
+    assertThat(accumulator.hasError()).isFalse();
+  }
+
+  @Test
+  public void testValuesAreParsedOnce() {
+    ConfigurationPropertyToken token = token("int", Property.Type.INTEGER, false);
+    for (int i = 0; i < 3; i++) {
+      assertThat(typed.getInt(token)).isEqualTo(22);
+    }
+    verify(configuration, times(1))
+        .findConfigurationValue(any(ConfigurationProperty.class), any(LocalizationContext.class));
+  }
+
+  @Test
+  public void testErrorsAreAccumulatedOnce() {
+    ConfigurationPropertyToken badInt = token("badInt", Property.Type.INTEGER, false);
+    ConfigurationPropertyToken missing = token("missing", Property.Type.STRING, true);
+    ConfigurationPropertyToken badEnum = token("bool", Property.Type.STRING, false);
+
+    assertThat(typed.getInt(badInt)).isNull();
+    assertThat(typed.getInt(badInt)).isNull();
+    assertThat(typed.getString(missing)).isNull();
+    assertThat(typed.getEnum(badEnum, TimeUnit.class)).isNull();
+
+    assertThat(accumulator.getConditionsByKey().get("badInt")).hasSize(1);
+    assertThat(accumulator.getConditionsByKey().get("missing")).hasSize(1);
+    assertThat(accumulator.getConditionsByKey().get("bool")).hasSize(1);
+  }
+
+  @Test
+  public void testValuesAreMemoizedPerConversion() {
+    ConfigurationPropertyToken bool = token("bool", Property.Type.STRING, false);
+
+    for (int i = 0; i < 2; i++) {
+      assertThat(typed.getString(bool)).isEqualTo("TRUE");
+      assertThat(typed.getEnum(bool, TimeUnit.class)).isNull();
+    }
+
+    verify(configuration, times(2))
+        .findConfigurationValue(any(ConfigurationProperty.class), any(LocalizationContext.class));
+    assertThat(accumulator.getConditionsByKey().get("bool")).hasSize(1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMismatchedTypeIsRejected() {
+    typed.getInt(token("bool", Property.Type.BOOLEAN, false));
+  }
+}
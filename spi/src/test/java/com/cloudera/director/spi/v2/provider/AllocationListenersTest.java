@@ -0,0 +1,185 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.provider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import com.cloudera.director.spi.v2.compute.ComputeInstanceTemplate;
+import com.cloudera.director.spi.v2.compute.ComputeInstanceTemplate.ComputeInstanceTemplateConfigurationPropertyToken;
+import com.cloudera.director.spi.v2.model.exception.UnrecoverableProviderException;
+import com.cloudera.director.spi.v2.model.util.SimpleConfiguration;
+import com.cloudera.director.spi.v2.provider.util.TestComputeProvider;
+import com.cloudera.director.spi.v2.provider.util.TestComputeProvider.TestComputeInstance;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link AllocationListeners}.
+ */
+public class AllocationListenersTest {
+
+  private static final List<String> IDS = Arrays.asList("id1", "id2", "id3");
+
+  private static class RecordingListener implements AllocationListener<TestComputeInstance> {
+
+    private final List<String> allocated = new ArrayList<String>();
+    private final List<String> failed = new ArrayList<String>();
+
+    @Override
+    public synchronized void onAllocated(TestComputeInstance resource) {
+      allocated.add(resource.getId());
+    }
+
+    @Override
+    public synchronized void onAllocationFailed(String resourceId, Exception cause) {
+      failed.add(resourceId);
+    }
+  }
+
+  @Test
+  public void testNotifiesAllocatedResources() throws Exception {
+    TestComputeProvider provider = new TestComputeProvider();
+    ComputeInstanceTemplate template = createResourceTemplate(provider);
+    RecordingListener listener = new RecordingListener();
+
+    Collection<? extends TestComputeInstance> allocated =
+        provider.allocate(template, IDS, IDS.size(), listener);
+
+    assertThat(allocated).hasSize(3);
+    assertThat(listener.allocated).isEqualTo(IDS);
+    assertThat(listener.failed).isEmpty();
+  }
+
+  @Test
+  public void testNotifiesFailedResources() throws Exception {
+    TestComputeProvider provider = new TestComputeProvider() {
+      @Override
+      public Collection<TestComputeInstance> allocate(ComputeInstanceTemplate template,
+          Collection<String> resourceIds, int minCount) {
+        throw new UnrecoverableProviderException("allocate failed");
+      }
+    };
+    ComputeInstanceTemplate template = createResourceTemplate(provider);
+    RecordingListener listener = new RecordingListener();
+
+    try {
+      provider.allocate(template, IDS, IDS.size(), listener);
+      fail("Expected exception");
+    } catch (UnrecoverableProviderException e) {
+      assertThat(listener.allocated).isEmpty();
+      assertThat(listener.failed).isEqualTo(IDS);
+    }
+  }
+
+  @Test
+  public void testNotifiesResourcesNotAllocated() throws Exception {
+    TestComputeProvider provider = new TestComputeProvider() {
+      @Override
+      public Collection<TestComputeInstance> allocate(ComputeInstanceTemplate template,
+          Collection<String> resourceIds, int minCount) throws InterruptedException {
+        return super.allocate(template, Arrays.asList("id1", "id3"), minCount);
+      }
+    };
+    ComputeInstanceTemplate template = createResourceTemplate(provider);
+    RecordingListener listener = new RecordingListener();
+
+    Collection<? extends TestComputeInstance> allocated =
+        provider.allocate(template, IDS, 2, listener);
+
+    assertThat(allocated).hasSize(2);
+    assertThat(listener.allocated).containsExactly("id1", "id3");
+    assertThat(listener.failed).containsExactly("id2");
+  }
+
+  @Test
+  public void testReturnsAllocatedResourcesWhenListenerFails() throws Exception {
+    TestComputeProvider provider = new TestComputeProvider();
+    ComputeInstanceTemplate template = createResourceTemplate(provider);
+    RecordingListener listener = new RecordingListener() {
+      @Override
+      public synchronized void onAllocated(TestComputeInstance resource) {
+        super.onAllocated(resource);
+        throw new IllegalStateException("listener failed");
+      }
+    };
+
+    Collection<? extends TestComputeInstance> allocated =
+        provider.allocate(template, IDS, IDS.size(), listener);
+
+    assertThat(allocated).hasSize(3);
+    assertThat(listener.allocated).isEqualTo(IDS);
+  }
+
+  @Test
+  public void testListenerFailuresDoNotReplaceAllocationFailure() throws Exception {
+    TestComputeProvider provider = new TestComputeProvider() {
+      @Override
+      public Collection<TestComputeInstance> allocate(ComputeInstanceTemplate template,
+          Collection<String> resourceIds, int minCount) {
+        throw new UnrecoverableProviderException("allocate failed");
+      }
+    };
+    ComputeInstanceTemplate template = createResourceTemplate(provider);
+    RecordingListener listener = new RecordingListener() {
+      @Override
+      public synchronized void onAllocationFailed(String resourceId, Exception cause) {
+        super.onAllocationFailed(resourceId, cause);
+        throw new IllegalStateException("listener failed");
+      }
+    };
+
+    try {
+      provider.allocate(template, IDS, IDS.size(), listener);
+      fail("Expected exception");
+    } catch (UnrecoverableProviderException e) {
+      assertThat(listener.failed).isEqualTo(IDS);
+      assertThat(e.getSuppressed()).hasSize(3);
+    }
+  }
+
+  @Test
+  public void testNotifiesPlaceholdersNotAllocatedForAutomaticTemplates() throws Exception {
+    TestComputeProvider provider = new TestComputeProvider() {
+      @Override
+      public Collection<TestComputeInstance> allocate(ComputeInstanceTemplate template,
+          Collection<String> resourceIds, int minCount) throws InterruptedException {
+        return super.allocate(template, Arrays.asList("i-1", "i-2"), minCount);
+      }
+    };
+    ComputeInstanceTemplate template = provider.createResourceTemplate("template",
+        new SimpleConfiguration(Collections.singletonMap(
+            ComputeInstanceTemplateConfigurationPropertyToken.AUTOMATIC.unwrap().getConfigKey(),
+            "true")),
+        Collections.<String, String>emptyMap());
+    RecordingListener listener = new RecordingListener();
+
+    provider.allocate(template, IDS, 2, listener);
+
+    assertThat(listener.allocated).containsExactly("i-1", "i-2");
+    assertThat(listener.failed).containsExactly("id3");
+  }
+
+  private static ComputeInstanceTemplate createResourceTemplate(TestComputeProvider provider) {
+    return provider.createResourceTemplate("template", new SimpleConfiguration(),
+        Collections.<String, String>emptyMap());
+  }
+}
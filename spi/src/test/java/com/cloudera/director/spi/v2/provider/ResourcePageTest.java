@@ -0,0 +1,60 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.provider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link ResourcePage}.
+ */
+public class ResourcePageTest {
+
+  private static final List<String> RESOURCES = Arrays.asList("a", "b", "c", "d", "e");
+
+  @Test
+  public void testSliceIteratesAllPages() {
+    List<String> collected = new ArrayList<String>();
+    String token = null;
+    int pages = 0;
+    do {
+      ResourcePage<String> page = ResourcePage.slice(RESOURCES, 2, token);
+      assertThat(page.getResources().size()).isLessThanOrEqualTo(2);
+      collected.addAll(page.getResources());
+      token = page.getContinuationToken();
+      pages++;
+    } while (token != null);
+
+    assertThat(pages).isEqualTo(3);
+    assertThat(collected).isEqualTo(RESOURCES);
+  }
+
+  @Test
+  public void testSliceSinglePage() {
+    ResourcePage<String> page = ResourcePage.slice(RESOURCES, 10, null);
+    assertThat(page.isLastPage()).isTrue();
+    assertThat(page.getResources()).isEqualTo(RESOURCES);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testSliceRejectsInvalidToken() {
+    ResourcePage.slice(RESOURCES, 2, "not-a-token");
+  }
+}
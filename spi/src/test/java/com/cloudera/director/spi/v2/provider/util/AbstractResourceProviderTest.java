@@ -0,0 +1,125 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.provider.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import com.cloudera.director.spi.v2.compute.ComputeInstanceTemplate;
+import com.cloudera.director.spi.v2.model.InstanceState;
+import com.cloudera.director.spi.v2.model.InstanceStatus;
+import com.cloudera.director.spi.v2.model.exception.UnrecoverableProviderException;
+import com.cloudera.director.spi.v2.provider.ResourcePage;
+import com.cloudera.director.spi.v2.provider.util.TestComputeProvider.TestComputeInstance;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests {@link AbstractResourceProvider}.
+ */
+public class AbstractResourceProviderTest {
+
+  private static final List<String> IDS = Arrays.asList("id1", "id2", "id3");
+
+  private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void testAsyncBridge() throws Exception {
+    TestComputeProvider provider = new TestComputeProvider();
+    ComputeInstanceTemplate template = provider.createResourceTemplate("template");
+
+    Collection<? extends TestComputeInstance> allocated =
+        provider.allocateAsync(template, IDS, IDS.size(), executor).toCompletableFuture().get();
+    assertThat(allocated).hasSize(3);
+
+    Collection<? extends TestComputeInstance> found =
+        provider.findAsync(template, IDS, executor).toCompletableFuture().get();
+    assertThat(found).hasSize(3);
+
+    Map<String, InstanceState> states =
+        provider.getInstanceStateAsync(template, IDS, executor).toCompletableFuture().get();
+    assertThat(states.get("id1").getInstanceStatus()).isEqualTo(InstanceStatus.RUNNING);
+
+    provider.deleteAsync(template, IDS, executor).toCompletableFuture().get();
+    assertThat(provider.instances).isEmpty();
+  }
+
+  @Test
+  public void testAsyncBridgeFailure() throws Exception {
+    TestComputeProvider provider = new TestComputeProvider() {
+      @Override
+      public Collection<TestComputeInstance> find(ComputeInstanceTemplate template,
+          Collection<String> resourceIds) {
+        throw new UnrecoverableProviderException("find failed");
+      }
+    };
+    ComputeInstanceTemplate template = provider.createResourceTemplate("template");
+
+    try {
+      provider.findAsync(template, IDS, executor).toCompletableFuture().get();
+      fail("Expected exception");
+    } catch (ExecutionException e) {
+      assertThat(e.getCause()).isInstanceOf(UnrecoverableProviderException.class);
+    }
+  }
+
+  @Test
+  public void testAsyncBridgeError() throws Exception {
+    TestComputeProvider provider = new TestComputeProvider() {
+      @Override
+      public Collection<TestComputeInstance> find(ComputeInstanceTemplate template,
+          Collection<String> resourceIds) {
+        throw new AssertionError("find failed");
+      }
+    };
+    ComputeInstanceTemplate template = provider.createResourceTemplate("template");
+
+    try {
+      provider.findAsync(template, IDS, executor).toCompletableFuture().get(10, TimeUnit.SECONDS);
+      fail("Expected exception");
+    } catch (ExecutionException e) {
+      assertThat(e.getCause()).isInstanceOf(AssertionError.class);
+    }
+  }
+
+  @Test
+  public void testFindPagedSlicesFind() throws Exception {
+    TestComputeProvider provider = new TestComputeProvider();
+    ComputeInstanceTemplate template = provider.createResourceTemplate("template");
+    provider.allocate(template, IDS, IDS.size());
+
+    ResourcePage<TestComputeInstance> first = provider.findPaged(template, IDS, 2, null);
+    assertThat(first.getResources()).hasSize(2);
+    ResourcePage<TestComputeInstance> second =
+        provider.findPaged(template, IDS, 2, first.getContinuationToken());
+    assertThat(second.getResources()).hasSize(1);
+    assertThat(second.isLastPage()).isTrue();
+  }
+}
@@ -0,0 +1,163 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.provider.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.cloudera.director.spi.v2.compute.ComputeInstanceTemplate;
+import com.cloudera.director.spi.v2.compute.ComputeProvider;
+import com.cloudera.director.spi.v2.model.InstanceState;
+import com.cloudera.director.spi.v2.model.InstanceStatus;
+import com.cloudera.director.spi.v2.provider.util.TestComputeProvider.TestComputeInstance;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests {@link CachingInterceptor}.
+ */
+public class CachingInterceptorTest {
+
+  private static final List<String> IDS = Arrays.asList("id1", "id2");
+
+  private TestComputeProvider provider;
+  private ComputeInstanceTemplate template;
+
+  @Before
+  public void setUp() {
+    provider = new TestComputeProvider();
+    template = provider.createResourceTemplate("template");
+  }
+
+  @Test
+  public void testCachesFindAndInstanceState() throws Exception {
+    CachingInterceptor cache = new CachingInterceptor(1, TimeUnit.HOURS, 100);
+    ComputeProvider<TestComputeInstance, ComputeInstanceTemplate> caching =
+        ResourceProviderInterceptors.intercept(provider, cache);
+    provider.instances.put("id1", InstanceStatus.RUNNING);
+
+    assertThat(caching.find(template, IDS)).hasSize(1);
+    assertThat(caching.find(template, IDS)).hasSize(1);
+    assertThat(provider.findCount.get()).isEqualTo(1);
+
+    caching.getInstanceState(template, IDS);
+    assertThat(caching.getInstanceState(template, IDS).get("id1").getInstanceStatus())
+        .isEqualTo(InstanceStatus.RUNNING);
+    assertThat(provider.getInstanceStateCount.get()).isEqualTo(1);
+
+    assertThat(cache.getMissCount()).isEqualTo(4);
+    assertThat(cache.getHitCount()).isEqualTo(4);
+  }
+
+  @Test
+  public void testFetchesOnlyMissingIds() throws Exception {
+    CachingInterceptor cache = new CachingInterceptor(1, TimeUnit.HOURS, 100);
+    ComputeProvider<TestComputeInstance, ComputeInstanceTemplate> caching =
+        ResourceProviderInterceptors.intercept(provider, cache);
+    provider.instances.put("id1", InstanceStatus.RUNNING);
+    provider.instances.put("id2", InstanceStatus.PENDING);
+
+    caching.getInstanceState(template, Collections.singletonList("id1"));
+    assertThat(caching.getInstanceState(template, IDS)).hasSize(2);
+    assertThat(cache.getHitCount()).isEqualTo(1);
+    assertThat(cache.getMissCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void testCachesInstancesMissingFromInstanceState() throws Exception {
+    provider = new TestComputeProvider() {
+      @Override
+      public Map<String, InstanceState> getInstanceState(ComputeInstanceTemplate template,
+          Collection<String> instanceIds) {
+        Map<String, InstanceState> states = super.getInstanceState(template, instanceIds);
+        states.keySet().retainAll(instances.keySet());
+        return states;
+      }
+    };
+    CachingInterceptor cache = new CachingInterceptor(1, TimeUnit.HOURS, 100);
+    ComputeProvider<TestComputeInstance, ComputeInstanceTemplate> caching =
+        ResourceProviderInterceptors.intercept(provider, cache);
+    provider.instances.put("id1", InstanceStatus.RUNNING);
+
+    assertThat(caching.getInstanceState(template, IDS).keySet()).containsOnly("id1");
+    assertThat(caching.getInstanceState(template, IDS).keySet()).containsOnly("id1");
+    assertThat(provider.getInstanceStateCount.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void testAllocateAndDeleteInvalidate() throws Exception {
+    CachingInterceptor cache = new CachingInterceptor(1, TimeUnit.HOURS, 100);
+    ComputeProvider<TestComputeInstance, ComputeInstanceTemplate> caching =
+        ResourceProviderInterceptors.intercept(provider, cache);
+
+    assertThat(caching.find(template, IDS)).isEmpty();
+    caching.allocate(template, IDS, IDS.size());
+    assertThat(caching.find(template, IDS)).hasSize(2);
+
+    caching.delete(template, Collections.singletonList("id1"));
+    assertThat(caching.find(template, IDS)).hasSize(1);
+    assertThat(provider.findCount.get()).isEqualTo(3);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testDoesNotCacheResultsFetchedDuringInvalidation() throws Exception {
+    CachingInterceptor cache = new CachingInterceptor(1, TimeUnit.HOURS, 100);
+    final AtomicBoolean allocateDuringFind = new AtomicBoolean(true);
+    final ComputeProvider<TestComputeInstance, ComputeInstanceTemplate>[] caching =
+        new ComputeProvider[1];
+    ComputeProvider<TestComputeInstance, ComputeInstanceTemplate> racing =
+        ResourceProviderInterceptors.intercept(provider, new ResourceProviderInterceptor() {
+          @Override
+          public <V> V intercept(ResourceProviderInvocation<V> invocation)
+              throws InterruptedException {
+            V result = invocation.proceed();
+            if (invocation.getOperation() == ResourceProviderOperation.FIND
+                && allocateDuringFind.getAndSet(false)) {
+              caching[0].allocate(template, IDS, IDS.size());
+            }
+            return result;
+          }
+        });
+    caching[0] = ResourceProviderInterceptors.intercept(racing, cache);
+
+    assertThat(caching[0].find(template, IDS)).isEmpty();
+    assertThat(caching[0].find(template, IDS)).hasSize(2);
+    assertThat(provider.findCount.get()).isEqualTo(2);
+  }
+
+  @Test
+  public void testExpiryAndEviction() throws Exception {
+    CachingInterceptor cache = new CachingInterceptor(50, TimeUnit.MILLISECONDS, 1);
+    ComputeProvider<TestComputeInstance, ComputeInstanceTemplate> caching =
+        ResourceProviderInterceptors.intercept(provider, cache);
+
+    caching.getInstanceState(template, IDS);
+    assertThat(cache.size()).isEqualTo(1);
+    assertThat(cache.getEvictionCount()).isEqualTo(1);
+
+    Thread.sleep(100);
+    caching.getInstanceState(template, Collections.singletonList("id2"));
+    assertThat(provider.getInstanceStateCount.get()).isEqualTo(2);
+  }
+}
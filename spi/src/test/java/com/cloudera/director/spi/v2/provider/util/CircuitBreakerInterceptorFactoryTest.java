@@ -0,0 +1,173 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.provider.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import com.cloudera.director.spi.v2.compute.ComputeInstanceTemplate;
+import com.cloudera.director.spi.v2.compute.ComputeProvider;
+import com.cloudera.director.spi.v2.model.exception.PluginExceptionCondition;
+import com.cloudera.director.spi.v2.model.exception.TransientProviderException;
+import com.cloudera.director.spi.v2.model.exception.UnrecoverableProviderException;
+import com.cloudera.director.spi.v2.provider.util.CircuitBreakerInterceptorFactory.State;
+import com.cloudera.director.spi.v2.provider.util.TestComputeProvider.TestComputeInstance;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests {@link CircuitBreakerInterceptorFactory}.
+ */
+public class CircuitBreakerInterceptorFactoryTest {
+
+  private static final List<String> IDS = Arrays.asList("id1");
+
+  private volatile boolean failing;
+  private volatile boolean unrecoverable;
+  private TestComputeProvider provider;
+  private ComputeInstanceTemplate template;
+  private CircuitBreakerInterceptorFactory breakers;
+  private ComputeProvider<TestComputeInstance, ComputeInstanceTemplate> protectedProvider;
+
+  @Before
+  public void setUp() {
+    provider = new TestComputeProvider() {
+      @Override
+      public Collection<TestComputeInstance> find(ComputeInstanceTemplate template,
+          Collection<String> resourceIds) throws InterruptedException {
+        findCount.incrementAndGet();
+        if (failing) {
+          throw new TransientProviderException("region degraded");
+        }
+        if (unrecoverable) {
+          throw new UnrecoverableProviderException("bad request");
+        }
+        return super.find(template, resourceIds);
+      }
+    };
+    template = provider.createResourceTemplate("template");
+    breakers = CircuitBreakerInterceptorFactory.builder()
+        .slidingWindowSize(4)
+        .minimumCalls(4)
+        .failureRateThreshold(0.5)
+        .openDuration(100, TimeUnit.MILLISECONDS)
+        .halfOpenTrialCalls(1)
+        .build();
+    protectedProvider = ResourceProviderInterceptors.intercept(provider,
+        breakers.createInterceptor("cloud", "compute"));
+  }
+
+  @Test
+  public void testOpensAndFailsFast() throws Exception {
+    failing = true;
+    for (int i = 0; i < 4; i++) {
+      findIgnoringFailure();
+    }
+    assertThat(breakers.getState("cloud", "compute")).isEqualTo(State.OPEN);
+    assertThat(breakers.getState("cloud", "other")).isEqualTo(State.CLOSED);
+
+    try {
+      protectedProvider.find(template, IDS);
+      fail("Expected exception");
+    } catch (TransientProviderException e) {
+      PluginExceptionCondition condition =
+          e.getDetails().getConditionsByKey().get(null).first();
+      assertThat(condition.getExceptionInfo().get(CircuitBreakerInterceptorFactory.KEY_STATE))
+          .isEqualTo("OPEN");
+    }
+    assertThat(provider.findCount.get()).isEqualTo(4);
+  }
+
+  @Test
+  public void testHalfOpenProbe() throws Exception {
+    failing = true;
+    for (int i = 0; i < 4; i++) {
+      findIgnoringFailure();
+    }
+    Thread.sleep(150);
+    assertThat(breakers.getState("cloud", "compute")).isEqualTo(State.HALF_OPEN);
+
+    findIgnoringFailure();
+    assertThat(breakers.getState("cloud", "compute")).isEqualTo(State.OPEN);
+
+    Thread.sleep(150);
+    failing = false;
+    protectedProvider.find(template, IDS);
+    assertThat(breakers.getState("cloud", "compute")).isEqualTo(State.CLOSED);
+  }
+
+  @Test
+  public void testUnrecoverableFailuresDoNotCloseHalfOpenBreaker() throws Exception {
+    failing = true;
+    for (int i = 0; i < 4; i++) {
+      findIgnoringFailure();
+    }
+    Thread.sleep(150);
+    failing = false;
+    unrecoverable = true;
+    try {
+      protectedProvider.find(template, IDS);
+      fail("Expected exception");
+    } catch (UnrecoverableProviderException e) {
+      assertThat(breakers.getState("cloud", "compute")).isEqualTo(State.HALF_OPEN);
+    }
+
+    unrecoverable = false;
+    protectedProvider.find(template, IDS);
+    assertThat(breakers.getState("cloud", "compute")).isEqualTo(State.CLOSED);
+  }
+
+  @Test
+  public void testCallsStartedWhileClosedAreNotTrialCalls() throws Exception {
+    TestComputeProvider slowProvider = new TestComputeProvider() {
+      @Override
+      public Collection<TestComputeInstance> find(ComputeInstanceTemplate template,
+          Collection<String> resourceIds) throws InterruptedException {
+        failing = true;
+        for (int i = 0; i < 4; i++) {
+          findIgnoringFailure();
+        }
+        Thread.sleep(150);
+        assertThat(breakers.getState("cloud", "compute")).isEqualTo(State.HALF_OPEN);
+        failing = false;
+        return super.find(template, resourceIds);
+      }
+    };
+    ComputeProvider<TestComputeInstance, ComputeInstanceTemplate> slowProtectedProvider =
+        ResourceProviderInterceptors.intercept(slowProvider,
+            breakers.createInterceptor("cloud", "compute"));
+
+    slowProtectedProvider.find(template, IDS);
+    assertThat(breakers.getState("cloud", "compute")).isEqualTo(State.HALF_OPEN);
+    assertThat(provider.findCount.get()).isEqualTo(4);
+
+    protectedProvider.find(template, IDS);
+    assertThat(breakers.getState("cloud", "compute")).isEqualTo(State.CLOSED);
+  }
+
+  private void findIgnoringFailure() throws InterruptedException {
+    try {
+      protectedProvider.find(template, IDS);
+    } catch (TransientProviderException e) {
+      // expected
+    }
+  }
+}
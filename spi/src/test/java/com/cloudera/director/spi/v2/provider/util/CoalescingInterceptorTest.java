@@ -0,0 +1,320 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.provider.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import com.cloudera.director.spi.v2.compute.ComputeInstanceTemplate;
+import com.cloudera.director.spi.v2.compute.ComputeProvider;
+import com.cloudera.director.spi.v2.model.InstanceState;
+import com.cloudera.director.spi.v2.model.InstanceStatus;
+import com.cloudera.director.spi.v2.model.util.SimpleInstanceState;
+import com.cloudera.director.spi.v2.provider.util.TestComputeProvider.TestComputeInstance;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests {@link CoalescingInterceptor}.
+ */
+public class CoalescingInterceptorTest {
+
+  private static final int CALLERS = 8;
+
+  /**
+   * The instance ID of a call kept in progress while the callers under test run, so that their
+   * calls are coalesced instead of being made immediately.
+   */
+  private static final String BUSY_ID = "busy";
+
+  private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS + 1);
+
+  private final CountDownLatch busyStarted = new CountDownLatch(1);
+
+  private final CountDownLatch busyReleased = new CountDownLatch(1);
+
+  private final TestComputeProvider provider = new TestComputeProvider() {
+    @Override
+    public Map<String, InstanceState> getInstanceState(ComputeInstanceTemplate template,
+        Collection<String> instanceIds) {
+      awaitReleaseIfBusy(instanceIds);
+      return super.getInstanceState(template, instanceIds);
+    }
+  };
+
+  private final ComputeInstanceTemplate template = provider.createResourceTemplate("template");
+
+  @After
+  public void tearDown() {
+    busyReleased.countDown();
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void testMakesUncontendedCallsImmediately() throws Exception {
+    provider.instances.put("id0", InstanceStatus.RUNNING);
+    ComputeProvider<TestComputeInstance, ComputeInstanceTemplate> coalescing =
+        ResourceProviderInterceptors.intercept(provider,
+            new CoalescingInterceptor(1, TimeUnit.HOURS, 1000));
+
+    Map<String, InstanceState> states =
+        coalescing.getInstanceState(template, Collections.singletonList("id0"));
+    assertThat(states.keySet()).containsOnly("id0");
+    assertThat(provider.getInstanceStateCount.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void testCoalescesConcurrentCalls() throws Exception {
+    List<Map<String, InstanceState>> results = getInstanceStatesConcurrently(
+        new CoalescingInterceptor(1, TimeUnit.HOURS, CALLERS), 1);
+    for (int i = 0; i < CALLERS; i++) {
+      assertThat(results.get(i).keySet()).containsOnly("id" + i);
+      assertThat(results.get(i).get("id" + i).getInstanceStatus()).isEqualTo(InstanceStatus.RUNNING);
+    }
+  }
+
+  @Test
+  public void testBatchSizeLimit() throws Exception {
+    List<Map<String, InstanceState>> results = getInstanceStatesConcurrently(
+        new CoalescingInterceptor(1, TimeUnit.HOURS, CALLERS / 2), 2);
+    for (int i = 0; i < CALLERS; i++) {
+      assertThat(results.get(i).keySet()).containsOnly("id" + i);
+    }
+  }
+
+  @Test
+  public void testBatchesNeverExceedSizeLimit() throws Exception {
+    final AtomicInteger largestBatch = new AtomicInteger();
+    CoalescingInterceptor interceptor = new CoalescingInterceptor(50, TimeUnit.MILLISECONDS, 3);
+    BulkCall bulkCall = new BulkCall() {
+      @Override
+      public Map<String, InstanceState> getInstanceState(Collection<String> instanceIds) {
+        if (!instanceIds.contains(BUSY_ID)) {
+          synchronized (largestBatch) {
+            largestBatch.set(Math.max(largestBatch.get(), instanceIds.size()));
+          }
+        }
+        return running(instanceIds);
+      }
+    };
+    startBusyCall(interceptor, bulkCall);
+
+    List<Future<Map<String, InstanceState>>> futures =
+        new ArrayList<Future<Map<String, InstanceState>>>();
+    for (int i = 0; i < CALLERS; i++) {
+      futures.add(submit(interceptor, bulkCall, "id" + i, "id" + i + "b"));
+    }
+    for (int i = 0; i < CALLERS; i++) {
+      assertThat(futures.get(i).get(5, TimeUnit.SECONDS).keySet())
+          .containsOnly("id" + i, "id" + i + "b");
+    }
+    assertThat(largestBatch.get()).isEqualTo(2);
+  }
+
+  @Test
+  public void testCallersRetryWhenBulkCallIsInterrupted() throws Exception {
+    final AtomicInteger calls = new AtomicInteger();
+    List<Future<Map<String, InstanceState>>> futures = interceptConcurrently(
+        new CoalescingInterceptor(1, TimeUnit.HOURS, 2), new BulkCall() {
+          @Override
+          public Map<String, InstanceState> getInstanceState(Collection<String> instanceIds)
+              throws InterruptedException {
+            if (instanceIds.contains(BUSY_ID)) {
+              return running(instanceIds);
+            }
+            calls.incrementAndGet();
+            if (instanceIds.size() > 1) {
+              throw new InterruptedException();
+            }
+            return running(instanceIds);
+          }
+        });
+
+    int interrupted = 0;
+    for (int i = 0; i < futures.size(); i++) {
+      try {
+        assertThat(futures.get(i).get(5, TimeUnit.SECONDS).keySet()).containsOnly("id" + i);
+      } catch (ExecutionException e) {
+        assertThat(e.getCause()).isInstanceOf(InterruptedException.class);
+        interrupted++;
+      }
+    }
+    assertThat(interrupted).isEqualTo(1);
+    assertThat(calls.get()).isEqualTo(2);
+  }
+
+  @Test
+  public void testCallersFailWhenBulkCallThrowsError() throws Exception {
+    final AssertionError error = new AssertionError("bulk call failed");
+    List<Future<Map<String, InstanceState>>> futures = interceptConcurrently(
+        new CoalescingInterceptor(1, TimeUnit.HOURS, 2), new BulkCall() {
+          @Override
+          public Map<String, InstanceState> getInstanceState(Collection<String> instanceIds) {
+            if (instanceIds.contains(BUSY_ID)) {
+              return running(instanceIds);
+            }
+            throw error;
+          }
+        });
+
+    for (Future<Map<String, InstanceState>> future : futures) {
+      try {
+        future.get(5, TimeUnit.SECONDS);
+        fail("Expected exception");
+      } catch (ExecutionException e) {
+        assertThat(e.getCause()).isSameAs(error);
+      }
+    }
+  }
+
+  /**
+   * The bulk call made by the invocations passed to the interceptor.
+   */
+  private interface BulkCall {
+    Map<String, InstanceState> getInstanceState(Collection<String> instanceIds)
+        throws InterruptedException;
+  }
+
+  /**
+   * Returns running instance states for the specified instance IDs.
+   */
+  private static Map<String, InstanceState> running(Collection<String> instanceIds) {
+    Map<String, InstanceState> states = new HashMap<String, InstanceState>();
+    for (String instanceId : instanceIds) {
+      states.put(instanceId, new SimpleInstanceState(InstanceStatus.RUNNING));
+    }
+    return states;
+  }
+
+  /**
+   * Blocks until the test ends if the specified instance IDs are those of the busy call.
+   */
+  private void awaitReleaseIfBusy(Collection<String> instanceIds) {
+    if (instanceIds.contains(BUSY_ID)) {
+      busyStarted.countDown();
+      try {
+        busyReleased.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /**
+   * Passes a getInstanceState invocation for {@link #BUSY_ID} to the specified interceptor,
+   * which stays in progress until the test ends, and waits for it to start.
+   */
+  private void startBusyCall(CoalescingInterceptor interceptor, BulkCall bulkCall)
+      throws InterruptedException {
+    submit(interceptor, bulkCall, BUSY_ID);
+    assertThat(busyStarted.await(5, TimeUnit.SECONDS)).isTrue();
+  }
+
+  /**
+   * Passes a getInstanceState invocation for the specified instance IDs to the specified
+   * interceptor, on another thread.
+   */
+  private Future<Map<String, InstanceState>> submit(final CoalescingInterceptor interceptor,
+      final BulkCall bulkCall, String... instanceIds) {
+    final ResourceProviderInvocation<Map<String, InstanceState>> invocation =
+        new ResourceProviderInvocation<Map<String, InstanceState>>(provider,
+            ResourceProviderOperation.GET_INSTANCE_STATE, template, Arrays.asList(instanceIds)) {
+          @Override
+          public Map<String, InstanceState> proceed(Collection<String> ids)
+              throws InterruptedException {
+            awaitReleaseIfBusy(ids);
+            return bulkCall.getInstanceState(ids);
+          }
+        };
+    return executor.submit(new Callable<Map<String, InstanceState>>() {
+      @Override
+      public Map<String, InstanceState> call() throws Exception {
+        return interceptor.intercept(invocation);
+      }
+    });
+  }
+
+  /**
+   * Passes two concurrent getInstanceState invocations, for one instance each, to the specified
+   * interceptor while another call is in progress.
+   */
+  private List<Future<Map<String, InstanceState>>> interceptConcurrently(
+      CoalescingInterceptor interceptor, BulkCall bulkCall) throws InterruptedException {
+    startBusyCall(interceptor, bulkCall);
+    List<Future<Map<String, InstanceState>>> futures =
+        new ArrayList<Future<Map<String, InstanceState>>>();
+    for (int i = 0; i < 2; i++) {
+      futures.add(submit(interceptor, bulkCall, "id" + i));
+    }
+    return futures;
+  }
+
+  /**
+   * Calls getInstanceState concurrently for one instance per caller while another call is in
+   * progress, and checks the number of bulk calls made to the underlying provider for the
+   * callers.
+   */
+  private List<Map<String, InstanceState>> getInstanceStatesConcurrently(
+      CoalescingInterceptor interceptor, int expectedCalls) throws Exception {
+    for (int i = 0; i < CALLERS; i++) {
+      provider.instances.put("id" + i, InstanceStatus.RUNNING);
+    }
+    final ComputeProvider<TestComputeInstance, ComputeInstanceTemplate> coalescing =
+        ResourceProviderInterceptors.intercept(provider, interceptor);
+    executor.submit(new Callable<Map<String, InstanceState>>() {
+      @Override
+      public Map<String, InstanceState> call() {
+        return coalescing.getInstanceState(template, Collections.singletonList(BUSY_ID));
+      }
+    });
+    assertThat(busyStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+    List<Future<Map<String, InstanceState>>> futures =
+        new ArrayList<Future<Map<String, InstanceState>>>();
+    for (int i = 0; i < CALLERS; i++) {
+      final String id = "id" + i;
+      futures.add(executor.submit(new Callable<Map<String, InstanceState>>() {
+        @Override
+        public Map<String, InstanceState> call() {
+          return coalescing.getInstanceState(template, Collections.singletonList(id));
+        }
+      }));
+    }
+
+    List<Map<String, InstanceState>> results = new ArrayList<Map<String, InstanceState>>();
+    for (Future<Map<String, InstanceState>> future : futures) {
+      results.add(future.get(5, TimeUnit.SECONDS));
+    }
+    assertThat(provider.getInstanceStateCount.get()).isEqualTo(expectedCalls);
+    return results;
+  }
+}
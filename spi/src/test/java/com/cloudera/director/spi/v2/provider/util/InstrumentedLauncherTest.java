@@ -0,0 +1,100 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.provider.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.cloudera.director.spi.v2.compute.ComputeInstanceTemplate;
+import com.cloudera.director.spi.v2.compute.ComputeProvider;
+import com.cloudera.director.spi.v2.model.Configured;
+import com.cloudera.director.spi.v2.model.exception.ValidationException;
+import com.cloudera.director.spi.v2.model.util.SimpleConfiguration;
+import com.cloudera.director.spi.v2.provider.CloudProvider;
+import com.cloudera.director.spi.v2.provider.Launcher;
+import com.cloudera.director.spi.v2.provider.util.SimpleMetricsSink.CallStatistics;
+import com.cloudera.director.spi.v2.provider.util.TestComputeProvider.TestComputeInstance;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link InstrumentedLauncher}.
+ */
+public class InstrumentedLauncherTest {
+
+  private static final List<String> IDS = Arrays.asList("id1", "id2", "id3");
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testRecordsCalls() throws Exception {
+    TestComputeProvider provider = new TestComputeProvider() {
+      @Override
+      public Collection<TestComputeInstance> find(ComputeInstanceTemplate template,
+          Collection<String> resourceIds) throws InterruptedException {
+        if (resourceIds.isEmpty()) {
+          throw new ValidationException("no ids");
+        }
+        return super.find(template, resourceIds);
+      }
+    };
+    CloudProvider cloudProvider = mock(CloudProvider.class);
+    when(cloudProvider.createResourceProvider(anyString(), any(Configured.class)))
+        .thenReturn(provider);
+    Launcher launcher = mock(Launcher.class);
+    when(launcher.createCloudProvider(anyString(), any(Configured.class), any(Locale.class)))
+        .thenReturn(cloudProvider);
+
+    SimpleMetricsSink metricsSink = new SimpleMetricsSink();
+    Launcher instrumentedLauncher = new InstrumentedLauncher(launcher, metricsSink);
+    CloudProvider instrumentedCloudProvider =
+        instrumentedLauncher.createCloudProvider("cloud", new SimpleConfiguration(), Locale.US);
+    ComputeProvider<TestComputeInstance, ComputeInstanceTemplate> instrumentedProvider =
+        (ComputeProvider<TestComputeInstance, ComputeInstanceTemplate>)
+            instrumentedCloudProvider.createResourceProvider("compute", new SimpleConfiguration());
+
+    ComputeInstanceTemplate template = provider.createResourceTemplate("template");
+    instrumentedProvider.allocate(template, IDS, IDS.size());
+    instrumentedProvider.find(template, IDS);
+    try {
+      instrumentedProvider.find(template, Arrays.<String>asList());
+      fail("Expected exception");
+    } catch (ValidationException e) {
+      // expected
+    }
+
+    assertThat(metricsSink.getStatistics(InstrumentedLauncher.SOURCE, "createCloudProvider")
+        .getCallCount()).isEqualTo(1);
+    assertThat(metricsSink.getStatistics("cloud", "createResourceProvider").getCallCount())
+        .isEqualTo(1);
+    assertThat(metricsSink.getStatistics("cloud/compute", "allocate").getBatchSizes().getMax())
+        .isEqualTo(3);
+
+    CallStatistics find = metricsSink.getStatistics("cloud/compute", "find");
+    assertThat(find.getCallCount()).isEqualTo(2);
+    assertThat(find.getErrorCount()).isEqualTo(1);
+    assertThat(find.getErrorCounts().get(ValidationException.class.getName())).isEqualTo(1L);
+    assertThat(find.getLatencyMillis().getCount()).isEqualTo(2);
+    assertThat(find.getBatchSizes().getCounts()[0]).isEqualTo(1);
+  }
+}
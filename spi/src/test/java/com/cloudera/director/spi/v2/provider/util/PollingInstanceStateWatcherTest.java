@@ -0,0 +1,155 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.provider.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.cloudera.director.spi.v2.compute.ComputeInstanceTemplate;
+import com.cloudera.director.spi.v2.model.InstanceState;
+import com.cloudera.director.spi.v2.model.InstanceStatus;
+import com.cloudera.director.spi.v2.provider.InstanceStateWatcher;
+import com.cloudera.director.spi.v2.provider.InstanceStateWatcher.Registration;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link PollingInstanceStateWatcher}.
+ */
+public class PollingInstanceStateWatcherTest {
+
+  private static final long TIMEOUT_SECONDS = 5L;
+
+  private static class QueueingListener implements InstanceStateWatcher.Listener {
+
+    private final BlockingQueue<String> events = new LinkedBlockingQueue<String>();
+
+    @Override
+    public void onInstanceStateChanged(String instanceId, InstanceState state) {
+      events.add(instanceId + "=" + state.getInstanceStatus());
+    }
+
+    @Override
+    public void onError(Collection<String> instanceIds, RuntimeException error) {
+      events.add(instanceIds + "!" + error.getMessage());
+    }
+
+    private String next() throws InterruptedException {
+      return events.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+  }
+
+  @Test
+  public void testNotifiesStatusChanges() throws Exception {
+    TestComputeProvider provider = new TestComputeProvider();
+    ComputeInstanceTemplate template = provider.createResourceTemplate("template");
+    provider.instances.put("id1", InstanceStatus.PENDING);
+    PollingInstanceStateWatcher<ComputeInstanceTemplate> watcher =
+        new PollingInstanceStateWatcher<ComputeInstanceTemplate>(provider, 10, 50, TimeUnit.MILLISECONDS);
+    QueueingListener listener = new QueueingListener();
+
+    Registration registration = watcher.watch(template, Arrays.asList("id1"), listener);
+    assertThat(listener.next()).isEqualTo("id1=PENDING");
+
+    provider.instances.put("id1", InstanceStatus.RUNNING);
+    assertThat(listener.next()).isEqualTo("id1=RUNNING");
+
+    registration.cancel();
+    provider.instances.put("id1", InstanceStatus.STOPPED);
+    assertThat(listener.events.poll(200, TimeUnit.MILLISECONDS)).isNull();
+  }
+
+  @Test
+  public void testCoalescesRegistrationsIntoBulkCalls() throws Exception {
+    TestComputeProvider provider = new TestComputeProvider();
+    ComputeInstanceTemplate template = provider.createResourceTemplate("template");
+    provider.instances.put("id1", InstanceStatus.RUNNING);
+    provider.instances.put("id2", InstanceStatus.RUNNING);
+    PollingInstanceStateWatcher<ComputeInstanceTemplate> watcher =
+        new PollingInstanceStateWatcher<ComputeInstanceTemplate>(provider, 1, 1, TimeUnit.HOURS);
+    QueueingListener listener1 = new QueueingListener();
+    QueueingListener listener2 = new QueueingListener();
+
+    watcher.watch(template, Arrays.asList("id1"), listener1);
+    assertThat(listener1.next()).isEqualTo("id1=RUNNING");
+    int calls = provider.getInstanceStateCount.get();
+
+    watcher.watch(template, Arrays.asList("id2"), listener2);
+    assertThat(listener2.next()).isEqualTo("id2=RUNNING");
+    assertThat(provider.getInstanceStateCount.get()).isEqualTo(calls + 1);
+  }
+
+  @Test
+  public void testReportsInstanceStateFailures() throws Exception {
+    final AtomicBoolean failing = new AtomicBoolean(true);
+    TestComputeProvider provider = new TestComputeProvider() {
+      @Override
+      public Map<String, InstanceState> getInstanceState(ComputeInstanceTemplate template,
+          Collection<String> instanceIds) {
+        if (failing.get()) {
+          throw new IllegalStateException("lookup failed");
+        }
+        return super.getInstanceState(template, instanceIds);
+      }
+    };
+    ComputeInstanceTemplate template = provider.createResourceTemplate("template");
+    provider.instances.put("id1", InstanceStatus.RUNNING);
+    PollingInstanceStateWatcher<ComputeInstanceTemplate> watcher =
+        new PollingInstanceStateWatcher<ComputeInstanceTemplate>(provider, 10, 10, TimeUnit.MILLISECONDS);
+    QueueingListener listener = new QueueingListener();
+
+    Registration registration = watcher.watch(template, Arrays.asList("id1"), listener);
+    try {
+      assertThat(listener.next()).isEqualTo("[id1]!lookup failed");
+      failing.set(false);
+      String event;
+      do {
+        event = listener.next();
+      } while (event != null && event.startsWith("[id1]!"));
+      assertThat(event).isEqualTo("id1=RUNNING");
+    } finally {
+      registration.cancel();
+    }
+  }
+
+  @Test
+  public void testReportsListenerFailures() throws Exception {
+    TestComputeProvider provider = new TestComputeProvider();
+    ComputeInstanceTemplate template = provider.createResourceTemplate("template");
+    provider.instances.put("id1", InstanceStatus.RUNNING);
+    PollingInstanceStateWatcher<ComputeInstanceTemplate> watcher =
+        new PollingInstanceStateWatcher<ComputeInstanceTemplate>(provider, 1, 1, TimeUnit.HOURS);
+    QueueingListener listener = new QueueingListener() {
+      @Override
+      public void onInstanceStateChanged(String instanceId, InstanceState state) {
+        throw new IllegalStateException("listener failed");
+      }
+    };
+
+    Registration registration = watcher.watch(template, Arrays.asList("id1"), listener);
+    try {
+      assertThat(listener.next()).isEqualTo("[id1]!listener failed");
+    } finally {
+      registration.cancel();
+    }
+  }
+}
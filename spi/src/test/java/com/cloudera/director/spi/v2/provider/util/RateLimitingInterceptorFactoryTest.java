@@ -0,0 +1,117 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.provider.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.cloudera.director.spi.v2.compute.ComputeInstanceTemplate;
+import com.cloudera.director.spi.v2.compute.ComputeProvider;
+import com.cloudera.director.spi.v2.model.Configured;
+import com.cloudera.director.spi.v2.model.util.SimpleConfiguration;
+import com.cloudera.director.spi.v2.provider.CloudProvider;
+import com.cloudera.director.spi.v2.provider.Launcher;
+import com.cloudera.director.spi.v2.provider.util.RateLimitingInterceptorFactory.WaitStatistics;
+import com.cloudera.director.spi.v2.provider.util.TestComputeProvider.TestComputeInstance;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link RateLimitingInterceptorFactory}.
+ */
+public class RateLimitingInterceptorFactoryTest {
+
+  private static final List<String> IDS = Arrays.asList("id1");
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testLimitsAreSharedAcrossLauncher() throws Exception {
+    TestComputeProvider provider1 = new TestComputeProvider();
+    TestComputeProvider provider2 = new TestComputeProvider();
+    CloudProvider cloudProvider = mock(CloudProvider.class);
+    when(cloudProvider.createResourceProvider(eq("compute"), any(Configured.class)))
+        .thenReturn(provider1, provider2);
+    Launcher launcher = mock(Launcher.class);
+    when(launcher.createCloudProvider(anyString(), any(Configured.class), any(Locale.class)))
+        .thenReturn(cloudProvider);
+
+    RateLimitingInterceptorFactory rateLimiter = RateLimitingInterceptorFactory.builder()
+        .rate(ResourceProviderOperation.FIND, 20.0, 1)
+        .build();
+    Launcher limitedLauncher = new InterceptingLauncher(launcher, rateLimiter);
+    CloudProvider limitedCloudProvider =
+        limitedLauncher.createCloudProvider("cloud", new SimpleConfiguration(), Locale.US);
+    ComputeProvider<TestComputeInstance, ComputeInstanceTemplate> limited1 =
+        (ComputeProvider<TestComputeInstance, ComputeInstanceTemplate>)
+            limitedCloudProvider.createResourceProvider("compute", new SimpleConfiguration());
+    ComputeProvider<TestComputeInstance, ComputeInstanceTemplate> limited2 =
+        (ComputeProvider<TestComputeInstance, ComputeInstanceTemplate>)
+            limitedCloudProvider.createResourceProvider("compute", new SimpleConfiguration());
+
+    ComputeInstanceTemplate template = provider1.createResourceTemplate("template");
+    long start = System.nanoTime();
+    for (int i = 0; i < 3; i++) {
+      limited1.find(template, IDS);
+      limited2.find(template, IDS);
+    }
+    long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+    assertThat(elapsedMillis).isGreaterThanOrEqualTo(200L);
+    WaitStatistics statistics =
+        rateLimiter.getWaitStatistics("cloud", ResourceProviderOperation.FIND_PAGED);
+    assertThat(statistics.getAcquireCount()).isEqualTo(6);
+    assertThat(statistics.getWaitCount()).isEqualTo(5);
+    assertThat(statistics.getTotalWaitNanos()).isGreaterThan(0L);
+  }
+
+  @Test
+  public void testUnlimitedOperations() throws Exception {
+    TestComputeProvider provider = new TestComputeProvider();
+    RateLimitingInterceptorFactory rateLimiter = RateLimitingInterceptorFactory.builder()
+        .rate("other-cloud", ResourceProviderOperation.FIND, 0.001, 1)
+        .build();
+    ComputeProvider<TestComputeInstance, ComputeInstanceTemplate> limited =
+        ResourceProviderInterceptors.intercept(provider,
+            rateLimiter.createInterceptor("cloud", "compute"));
+
+    ComputeInstanceTemplate template = provider.createResourceTemplate("template");
+    for (int i = 0; i < 10; i++) {
+      limited.find(template, IDS);
+    }
+    assertThat(rateLimiter.getWaitStatistics("cloud", ResourceProviderOperation.FIND)).isNull();
+  }
+
+  @Test
+  public void testWaitStatisticsOfCloudProvidersNotYetLimited() {
+    RateLimitingInterceptorFactory rateLimiter = RateLimitingInterceptorFactory.builder()
+        .rate(ResourceProviderOperation.FIND, 1.0, 1)
+        .build();
+
+    WaitStatistics statistics =
+        rateLimiter.getWaitStatistics("cloud", ResourceProviderOperation.FIND);
+    assertThat(statistics.getAcquireCount()).isEqualTo(0);
+    assertThat(statistics.getWaitCount()).isEqualTo(0);
+    assertThat(rateLimiter.getWaitStatistics("cloud", ResourceProviderOperation.DELETE)).isNull();
+  }
+}
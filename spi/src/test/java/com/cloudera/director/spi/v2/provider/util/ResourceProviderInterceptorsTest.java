@@ -0,0 +1,144 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.provider.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import com.cloudera.director.spi.v2.compute.ComputeInstanceTemplate;
+import com.cloudera.director.spi.v2.compute.ComputeProvider;
+import com.cloudera.director.spi.v2.model.InstanceState;
+import com.cloudera.director.spi.v2.model.InstanceStatus;
+import com.cloudera.director.spi.v2.model.exception.UnrecoverableProviderException;
+import com.cloudera.director.spi.v2.provider.InstanceProvider;
+import com.cloudera.director.spi.v2.provider.InstanceStateWatcher;
+import com.cloudera.director.spi.v2.provider.ResourceProvider;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link ResourceProviderInterceptors}.
+ */
+public class ResourceProviderInterceptorsTest {
+
+  private static class RecordingInterceptor implements ResourceProviderInterceptor {
+
+    private final List<ResourceProviderOperation> operations =
+        new ArrayList<ResourceProviderOperation>();
+
+    @Override
+    public <V> V intercept(ResourceProviderInvocation<V> invocation) throws InterruptedException {
+      operations.add(invocation.getOperation());
+      return invocation.proceed();
+    }
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testPreservesProviderInterfaces() throws Exception {
+    TestComputeProvider provider = new TestComputeProvider();
+    RecordingInterceptor interceptor = new RecordingInterceptor();
+
+    ResourceProvider wrapped =
+        ResourceProviderInterceptors.intercept((ResourceProvider) provider, interceptor);
+    assertThat(wrapped).isInstanceOf(ComputeProvider.class);
+
+    ComputeProvider computeProvider = (ComputeProvider) wrapped;
+    ComputeInstanceTemplate template = provider.createResourceTemplate("template");
+    List<String> ids = Arrays.asList("id1");
+    computeProvider.allocate(template, ids, 1);
+    computeProvider.find(template, ids);
+    computeProvider.getInstanceState(template, ids);
+    computeProvider.getHostKeyFingerprints(template, ids);
+    computeProvider.delete(template, ids);
+
+    assertThat(interceptor.operations).containsExactly(
+        ResourceProviderOperation.ALLOCATE,
+        ResourceProviderOperation.FIND,
+        ResourceProviderOperation.GET_INSTANCE_STATE,
+        ResourceProviderOperation.GET_HOST_KEY_FINGERPRINTS,
+        ResourceProviderOperation.DELETE);
+    assertThat(provider.instances).isEmpty();
+  }
+
+  @Test
+  public void testInterruptedInstanceStateCall() {
+    TestComputeProvider provider = new TestComputeProvider();
+    InstanceProvider<TestComputeProvider.TestComputeInstance, ComputeInstanceTemplate> wrapped =
+        ResourceProviderInterceptors.intercept(provider, new ResourceProviderInterceptor() {
+          @Override
+          public <V> V intercept(ResourceProviderInvocation<V> invocation)
+              throws InterruptedException {
+            throw new InterruptedException();
+          }
+        });
+
+    try {
+      wrapped.getInstanceState(provider.createResourceTemplate("template"), Arrays.asList("id1"));
+      fail("Expected exception");
+    } catch (UnrecoverableProviderException e) {
+      assertThat(Thread.interrupted()).isTrue();
+    }
+  }
+
+  @Test
+  public void testInstanceStateWatcherPollsThroughInterceptor() throws Exception {
+    TestComputeProvider provider = new TestComputeProvider();
+    ComputeInstanceTemplate template = provider.createResourceTemplate("template");
+    provider.instances.put("id1", InstanceStatus.RUNNING);
+    final BlockingQueue<ResourceProviderOperation> operations =
+        new LinkedBlockingQueue<ResourceProviderOperation>();
+    InstanceProvider<TestComputeProvider.TestComputeInstance, ComputeInstanceTemplate> wrapped =
+        ResourceProviderInterceptors.intercept(provider, new ResourceProviderInterceptor() {
+          @Override
+          public <V> V intercept(ResourceProviderInvocation<V> invocation)
+              throws InterruptedException {
+            operations.add(invocation.getOperation());
+            return invocation.proceed();
+          }
+        });
+    final BlockingQueue<InstanceStatus> statuses = new LinkedBlockingQueue<InstanceStatus>();
+
+    InstanceStateWatcher<ComputeInstanceTemplate> watcher = wrapped.getInstanceStateWatcher();
+    assertThat(wrapped.getInstanceStateWatcher()).isSameAs(watcher);
+    assertThat(watcher).isNotSameAs(provider.getInstanceStateWatcher());
+    InstanceStateWatcher.Registration registration =
+        watcher.watch(template, Arrays.asList("id1"), new InstanceStateWatcher.Listener() {
+          @Override
+          public void onInstanceStateChanged(String instanceId, InstanceState state) {
+            statuses.add(state.getInstanceStatus());
+          }
+
+          @Override
+          public void onError(Collection<String> instanceIds, RuntimeException error) {
+            statuses.add(InstanceStatus.UNKNOWN);
+          }
+        });
+    try {
+      assertThat(statuses.poll(5, TimeUnit.SECONDS)).isEqualTo(InstanceStatus.RUNNING);
+      assertThat(operations.poll()).isEqualTo(ResourceProviderOperation.GET_INSTANCE_STATE);
+    } finally {
+      registration.cancel();
+    }
+  }
+}
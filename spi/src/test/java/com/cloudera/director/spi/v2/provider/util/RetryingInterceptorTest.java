@@ -0,0 +1,178 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.provider.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import com.cloudera.director.spi.v2.compute.ComputeInstanceTemplate;
+import com.cloudera.director.spi.v2.compute.ComputeProvider;
+import com.cloudera.director.spi.v2.model.exception.TransientProviderException;
+import com.cloudera.director.spi.v2.model.exception.UnrecoverableProviderException;
+import com.cloudera.director.spi.v2.provider.util.TestComputeProvider.TestComputeInstance;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link RetryingInterceptor}.
+ */
+public class RetryingInterceptorTest {
+
+  private static final List<String> IDS = Arrays.asList("id1");
+
+  /**
+   * Test provider whose find and allocate fail with the specified exception a number of times.
+   */
+  private static class FailingProvider extends TestComputeProvider {
+
+    private final AtomicInteger failuresLeft;
+    private final RuntimeException failure;
+
+    FailingProvider(int failures, RuntimeException failure) {
+      this.failuresLeft = new AtomicInteger(failures);
+      this.failure = failure;
+    }
+
+    @Override
+    public Collection<TestComputeInstance> find(ComputeInstanceTemplate template,
+        Collection<String> resourceIds) throws InterruptedException {
+      if (failuresLeft.getAndDecrement() > 0) {
+        findCount.incrementAndGet();
+        throw failure;
+      }
+      return super.find(template, resourceIds);
+    }
+
+    @Override
+    public Collection<TestComputeInstance> allocate(ComputeInstanceTemplate template,
+        Collection<String> resourceIds, int minCount) throws InterruptedException {
+      if (failuresLeft.getAndDecrement() > 0) {
+        allocateCount.incrementAndGet();
+        throw failure;
+      }
+      return super.allocate(template, resourceIds, minCount);
+    }
+  }
+
+  private static RetryingInterceptor.Builder fastRetries() {
+    return RetryingInterceptor.builder()
+        .initialBackoff(1, TimeUnit.MILLISECONDS)
+        .maxBackoff(4, TimeUnit.MILLISECONDS);
+  }
+
+  @Test
+  public void testRetriesTransientFailures() throws Exception {
+    FailingProvider provider = new FailingProvider(2, new TransientProviderException("throttled"));
+    ComputeProvider<TestComputeInstance, ComputeInstanceTemplate> retrying =
+        ResourceProviderInterceptors.intercept(provider, fastRetries().build());
+
+    retrying.find(provider.createResourceTemplate("template"), IDS);
+    assertThat(provider.findCount.get()).isEqualTo(3);
+  }
+
+  @Test
+  public void testRetryBudget() throws Exception {
+    FailingProvider provider = new FailingProvider(10, new TransientProviderException("throttled"));
+    ComputeProvider<TestComputeInstance, ComputeInstanceTemplate> retrying =
+        ResourceProviderInterceptors.intercept(provider,
+            fastRetries().maxRetries(ResourceProviderOperation.FIND, 3).build());
+
+    try {
+      retrying.find(provider.createResourceTemplate("template"), IDS);
+      fail("Expected exception");
+    } catch (TransientProviderException e) {
+      assertThat(provider.findCount.get()).isEqualTo(4);
+    }
+  }
+
+  @Test
+  public void testSharedRetryBudget() throws Exception {
+    FailingProvider provider = new FailingProvider(10, new TransientProviderException("throttled"));
+    ComputeProvider<TestComputeInstance, ComputeInstanceTemplate> retrying =
+        ResourceProviderInterceptors.intercept(provider,
+            fastRetries().maxRetries(3).retryBudget(2, 0.5).build());
+    ComputeInstanceTemplate template = provider.createResourceTemplate("template");
+
+    for (int i = 0; i < 2; i++) {
+      try {
+        retrying.find(template, IDS);
+        fail("Expected exception");
+      } catch (TransientProviderException e) {
+        // expected
+      }
+    }
+    assertThat(provider.findCount.get()).isEqualTo(4);
+  }
+
+  @Test
+  public void testAllocateIsNotRetriedByDefault() throws Exception {
+    FailingProvider provider = new FailingProvider(1, new TransientProviderException("throttled"));
+    ComputeProvider<TestComputeInstance, ComputeInstanceTemplate> retrying =
+        ResourceProviderInterceptors.intercept(provider, fastRetries().maxRetries(3).build());
+
+    try {
+      retrying.allocate(provider.createResourceTemplate("template"), IDS, IDS.size());
+      fail("Expected exception");
+    } catch (TransientProviderException e) {
+      assertThat(provider.allocateCount.get()).isEqualTo(1);
+    }
+
+    retrying = ResourceProviderInterceptors.intercept(provider,
+        fastRetries().maxRetries(ResourceProviderOperation.ALLOCATE, 1).build());
+    provider.failuresLeft.set(1);
+    assertThat(retrying.allocate(provider.createResourceTemplate("template"), IDS, IDS.size()))
+        .hasSize(1);
+    assertThat(provider.allocateCount.get()).isEqualTo(3);
+  }
+
+  @Test
+  public void testDeadline() throws Exception {
+    FailingProvider provider = new FailingProvider(10, new TransientProviderException("throttled"));
+    ComputeProvider<TestComputeInstance, ComputeInstanceTemplate> retrying =
+        ResourceProviderInterceptors.intercept(provider, RetryingInterceptor.builder()
+            .initialBackoff(1, TimeUnit.SECONDS)
+            .deadline(100, TimeUnit.MILLISECONDS)
+            .jitter(0.0)
+            .build());
+
+    try {
+      retrying.find(provider.createResourceTemplate("template"), IDS);
+      fail("Expected exception");
+    } catch (TransientProviderException e) {
+      assertThat(provider.findCount.get()).isEqualTo(1);
+    }
+  }
+
+  @Test
+  public void testUnrecoverableFailuresAreNotRetried() throws Exception {
+    FailingProvider provider =
+        new FailingProvider(1, new UnrecoverableProviderException("bad request"));
+    ComputeProvider<TestComputeInstance, ComputeInstanceTemplate> retrying =
+        ResourceProviderInterceptors.intercept(provider, fastRetries().build());
+
+    try {
+      retrying.find(provider.createResourceTemplate("template"), IDS);
+      fail("Expected exception");
+    } catch (UnrecoverableProviderException e) {
+      assertThat(provider.findCount.get()).isEqualTo(1);
+    }
+  }
+}
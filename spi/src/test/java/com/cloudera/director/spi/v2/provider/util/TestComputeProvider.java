@@ -0,0 +1,158 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.provider.util;
+
+import com.cloudera.director.spi.v2.compute.ComputeInstanceTemplate;
+import com.cloudera.director.spi.v2.compute.util.AbstractComputeInstance;
+import com.cloudera.director.spi.v2.compute.util.AbstractComputeProvider;
+import com.cloudera.director.spi.v2.model.ConfigurationProperty;
+import com.cloudera.director.spi.v2.model.Configured;
+import com.cloudera.director.spi.v2.model.DisplayProperty;
+import com.cloudera.director.spi.v2.model.InstanceState;
+import com.cloudera.director.spi.v2.model.InstanceStatus;
+import com.cloudera.director.spi.v2.model.Resource;
+import com.cloudera.director.spi.v2.model.util.DefaultLocalizationContext;
+import com.cloudera.director.spi.v2.model.util.SimpleConfiguration;
+import com.cloudera.director.spi.v2.model.util.SimpleInstanceState;
+import com.cloudera.director.spi.v2.provider.ResourceProviderMetadata;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Simple in-memory compute provider used to test provider utilities. Counts the cloud
+ * operations it performs.
+ */
+public class TestComputeProvider
+    extends AbstractComputeProvider<TestComputeProvider.TestComputeInstance, ComputeInstanceTemplate> {
+
+  static final ResourceProviderMetadata METADATA = SimpleResourceProviderMetadata.builder()
+      .id("test-compute-provider")
+      .name("Test-Compute-Provider")
+      .description("Test Compute Provider")
+      .providerClass(TestComputeProvider.class)
+      .providerConfigurationProperties(Collections.<ConfigurationProperty>emptyList())
+      .resourceTemplateConfigurationProperties(Collections.<ConfigurationProperty>emptyList())
+      .resourceDisplayProperties(Collections.<DisplayProperty>emptyList())
+      .build();
+
+  /**
+   * Test compute instance.
+   */
+  public static final class TestComputeInstance
+      extends AbstractComputeInstance<ComputeInstanceTemplate, Object> {
+
+    TestComputeInstance(ComputeInstanceTemplate template, String instanceId) {
+      super(template, instanceId, null);
+    }
+
+    @Override
+    public Map<String, String> getProperties() {
+      return Collections.emptyMap();
+    }
+  }
+
+  final Map<String, InstanceStatus> instances =
+      Collections.synchronizedMap(new LinkedHashMap<String, InstanceStatus>());
+
+  final AtomicInteger allocateCount = new AtomicInteger();
+  final AtomicInteger findCount = new AtomicInteger();
+  final AtomicInteger deleteCount = new AtomicInteger();
+  final AtomicInteger getInstanceStateCount = new AtomicInteger();
+
+  public TestComputeProvider() {
+    super(new SimpleConfiguration(), METADATA,
+        DefaultLocalizationContext.FACTORY.createRootLocalizationContext(Locale.US));
+  }
+
+  ComputeInstanceTemplate createResourceTemplate(String name) {
+    return createResourceTemplate(name, new SimpleConfiguration(),
+        Collections.<String, String>emptyMap());
+  }
+
+  @Override
+  public Resource.Type getResourceType() {
+    return TestComputeInstance.TYPE;
+  }
+
+  @Override
+  public ComputeInstanceTemplate createResourceTemplate(String name, Configured configuration,
+      Map<String, String> tags) {
+    return new ComputeInstanceTemplate(name, configuration, tags, getLocalizationContext());
+  }
+
+  @Override
+  public Collection<TestComputeInstance> allocate(ComputeInstanceTemplate template,
+      Collection<String> resourceIds, int minCount) throws InterruptedException {
+    allocateCount.incrementAndGet();
+    List<TestComputeInstance> allocated = new ArrayList<TestComputeInstance>();
+    for (String id : resourceIds) {
+      instances.put(id, InstanceStatus.RUNNING);
+      allocated.add(new TestComputeInstance(template, id));
+    }
+    return allocated;
+  }
+
+  @Override
+  public Collection<TestComputeInstance> find(ComputeInstanceTemplate template,
+      Collection<String> resourceIds) throws InterruptedException {
+    findCount.incrementAndGet();
+    List<TestComputeInstance> found = new ArrayList<TestComputeInstance>();
+    synchronized (instances) {
+      Collection<String> ids = resourceIds.isEmpty() ? instances.keySet() : resourceIds;
+      for (String id : ids) {
+        if (instances.containsKey(id)) {
+          found.add(new TestComputeInstance(template, id));
+        }
+      }
+    }
+    return found;
+  }
+
+  @Override
+  public void delete(ComputeInstanceTemplate template, Collection<String> resourceIds)
+      throws InterruptedException {
+    deleteCount.incrementAndGet();
+    for (String id : resourceIds) {
+      instances.remove(id);
+    }
+  }
+
+  @Override
+  public Map<String, InstanceState> getInstanceState(ComputeInstanceTemplate template,
+      Collection<String> instanceIds) {
+    getInstanceStateCount.incrementAndGet();
+    Map<String, InstanceState> states = new HashMap<String, InstanceState>();
+    for (String id : instanceIds) {
+      InstanceStatus status = instances.get(id);
+      states.put(id, new SimpleInstanceState(status == null ? InstanceStatus.UNKNOWN : status));
+    }
+    return states;
+  }
+
+  @Override
+  public Map<String, Set<String>> getHostKeyFingerprints(ComputeInstanceTemplate template,
+      Collection<String> instanceIds) throws InterruptedException {
+    return Collections.emptyMap();
+  }
+}
@@ -0,0 +1,44 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.provider.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link TokenBucket}.
+ */
+public class TokenBucketTest {
+
+  @Test
+  public void testInterruptedAcquireGivesTokenBack() throws Exception {
+    TokenBucket bucket = new TokenBucket(1.0, 1);
+    assertThat(bucket.reserve()).isEqualTo(0L);
+
+    Thread.currentThread().interrupt();
+    try {
+      bucket.acquire();
+      fail("Expected exception");
+    } catch (InterruptedException e) {
+      // expected
+    }
+
+    assertThat(bucket.reserve()).isLessThanOrEqualTo(TimeUnit.SECONDS.toNanos(1L));
+  }
+}
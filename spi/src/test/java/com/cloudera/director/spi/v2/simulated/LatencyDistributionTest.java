@@ -0,0 +1,72 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.simulated;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link LatencyDistribution}.
+ */
+public class LatencyDistributionTest {
+
+  private static final int SAMPLES = 20000;
+
+  private static double meanMillis(LatencyDistribution distribution, double mean, double spread) {
+    Random random = new Random(1L);
+    long totalNanos = 0;
+    for (int i = 0; i < SAMPLES; i++) {
+      long sample = distribution.sampleNanos(random, mean, spread);
+      assertThat(sample).isGreaterThanOrEqualTo(0L);
+      totalNanos += sample;
+    }
+    return (double) totalNanos / SAMPLES / TimeUnit.MILLISECONDS.toNanos(1);
+  }
+
+  @Test
+  public void testFixed() {
+    assertThat(LatencyDistribution.FIXED.sampleNanos(new Random(), 5, 100))
+        .isEqualTo(TimeUnit.MILLISECONDS.toNanos(5));
+  }
+
+  @Test
+  public void testMeans() {
+    for (LatencyDistribution distribution : LatencyDistribution.values()) {
+      double mean = meanMillis(distribution, 20, 5);
+      assertThat(mean).as(distribution.name()).isGreaterThan(19.0).isLessThan(21.0);
+    }
+  }
+
+  @Test
+  public void testZeroMean() {
+    for (LatencyDistribution distribution : LatencyDistribution.values()) {
+      assertThat(meanMillis(distribution, 0, 0)).as(distribution.name()).isEqualTo(0.0);
+    }
+  }
+
+  @Test
+  public void testReproducible() {
+    Random first = new Random(7L);
+    Random second = new Random(7L);
+    for (int i = 0; i < 100; i++) {
+      assertThat(LatencyDistribution.LOG_NORMAL.sampleNanos(first, 10, 30))
+          .isEqualTo(LatencyDistribution.LOG_NORMAL.sampleNanos(second, 10, 30));
+    }
+  }
+}
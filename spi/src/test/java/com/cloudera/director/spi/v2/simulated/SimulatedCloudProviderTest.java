@@ -0,0 +1,269 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.simulated;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+import com.cloudera.director.spi.v2.compute.ComputeInstanceTemplate;
+import com.cloudera.director.spi.v2.database.DatabaseServerInstanceTemplate;
+import com.cloudera.director.spi.v2.model.InstanceState;
+import com.cloudera.director.spi.v2.model.InstanceStatus;
+import com.cloudera.director.spi.v2.model.exception.TransientProviderException;
+import com.cloudera.director.spi.v2.model.exception.UnrecoverableProviderException;
+import com.cloudera.director.spi.v2.model.util.SimpleConfiguration;
+import com.cloudera.director.spi.v2.provider.CloudProvider;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link SimulatedCloudProvider}.
+ */
+public class SimulatedCloudProviderTest {
+
+  private static final List<String> IDS = Arrays.asList("id1", "id2", "id3");
+
+  private final SimulatedLauncher launcher = new SimulatedLauncher();
+
+  private SimulatedComputeProvider createComputeProvider(Map<String, String> configuration) {
+    CloudProvider cloudProvider = launcher.createCloudProvider(SimulatedCloudProvider.ID,
+        new SimpleConfiguration(), Locale.US);
+    return (SimulatedComputeProvider) cloudProvider.createResourceProvider(
+        SimulatedComputeProvider.ID, new SimpleConfiguration(configuration));
+  }
+
+  private static Map<String, String> config(String... keysAndValues) {
+    Map<String, String> configuration = new HashMap<String, String>();
+    for (int i = 0; i < keysAndValues.length; i += 2) {
+      configuration.put(keysAndValues[i], keysAndValues[i + 1]);
+    }
+    return configuration;
+  }
+
+  private static ComputeInstanceTemplate createTemplate(SimulatedComputeProvider provider) {
+    return provider.createResourceTemplate("template", new SimpleConfiguration(),
+        Collections.<String, String>emptyMap());
+  }
+
+  @Test
+  public void testLifecycle() throws Exception {
+    SimulatedComputeProvider provider = createComputeProvider(config());
+    ComputeInstanceTemplate template = createTemplate(provider);
+
+    Collection<SimulatedComputeInstance> allocated = provider.allocate(template, IDS, IDS.size());
+    assertThat(allocated).hasSize(3);
+    assertThat(allocated.iterator().next().getPrivateIpAddress()).isNotNull();
+
+    Map<String, InstanceState> states = provider.getInstanceState(template, IDS);
+    for (String id : IDS) {
+      assertThat(states.get(id).getInstanceStatus()).isEqualTo(InstanceStatus.RUNNING);
+    }
+    assertThat(provider.getHostKeyFingerprints(template, IDS)).hasSize(3);
+
+    provider.delete(template, Collections.singletonList("id1"));
+    assertThat(provider.find(template, IDS)).hasSize(2);
+    assertThat(provider.getInstanceState(template, IDS).get("id1").getInstanceStatus())
+        .isEqualTo(InstanceStatus.DELETED);
+    assertThat(provider.getInstanceState(template, IDS).get("id1").getInstanceStatus())
+        .isEqualTo(InstanceStatus.UNKNOWN);
+  }
+
+  @Test
+  public void testLifecycleTimings() throws Exception {
+    SimulatedComputeProvider provider = createComputeProvider(
+        config("provisioningMillis", "60000", "terminationMillis", "60000"));
+    ComputeInstanceTemplate template = createTemplate(provider);
+
+    provider.allocate(template, IDS, IDS.size());
+    assertThat(provider.getInstanceState(template, IDS).get("id1").getInstanceStatus())
+        .isEqualTo(InstanceStatus.PENDING);
+    assertThat(provider.find(template, IDS)).hasSize(3);
+    assertThat(provider.getHostKeyFingerprints(template, IDS)).isEmpty();
+
+    provider.delete(template, IDS);
+    assertThat(provider.getInstanceState(template, IDS).get("id1").getInstanceStatus())
+        .isEqualTo(InstanceStatus.DELETING);
+    assertThat(provider.find(template, IDS)).isEmpty();
+  }
+
+  @Test
+  public void testCapacity() throws Exception {
+    SimulatedComputeProvider provider = createComputeProvider(config("capacity", "2"));
+    ComputeInstanceTemplate template = createTemplate(provider);
+
+    assertThat(provider.allocate(template, IDS, 1)).hasSize(2);
+
+    try {
+      provider.allocate(template, Collections.singletonList("id4"), 1);
+      fail("Expected exception");
+    } catch (UnrecoverableProviderException e) {
+      assertThat(e.getMessage()).contains("Insufficient simulated capacity");
+    }
+
+    // Existing instances are returned without consuming capacity
+    assertThat(provider.allocate(template, Arrays.asList("id1", "id2"), 2)).hasSize(2);
+
+    provider.delete(template, Collections.singletonList("id1"));
+    assertThat(provider.allocate(template, Collections.singletonList("id4"), 1)).hasSize(1);
+  }
+
+  @Test
+  public void testFailureInjection() throws Exception {
+    SimulatedComputeProvider transientProvider =
+        createComputeProvider(config("transientFailureRate", "1"));
+    try {
+      transientProvider.find(createTemplate(transientProvider), IDS);
+      fail("Expected exception");
+    } catch (TransientProviderException e) {
+      assertThat(e.getMessage()).contains("find");
+    }
+
+    SimulatedComputeProvider unrecoverableProvider =
+        createComputeProvider(config("unrecoverableFailureRate", "1"));
+    try {
+      unrecoverableProvider.getInstanceState(createTemplate(unrecoverableProvider), IDS);
+      fail("Expected exception");
+    } catch (UnrecoverableProviderException e) {
+      assertThat(e.getMessage()).contains("getInstanceState");
+    }
+  }
+
+  @Test
+  public void testFailureInjectionIsReproducible() throws Exception {
+    Map<String, String> configuration =
+        config("simulationSeed", "42", "transientFailureRate", "0.5");
+    assertThat(failurePattern(createComputeProvider(configuration)))
+        .isEqualTo(failurePattern(createComputeProvider(configuration)));
+  }
+
+  private static List<Boolean> failurePattern(SimulatedComputeProvider provider)
+      throws InterruptedException {
+    ComputeInstanceTemplate template = createTemplate(provider);
+    List<Boolean> pattern = new ArrayList<Boolean>();
+    for (int i = 0; i < 32; i++) {
+      try {
+        provider.find(template, IDS);
+        pattern.add(false);
+      } catch (TransientProviderException e) {
+        pattern.add(true);
+      }
+    }
+    assertThat(pattern).contains(true, false);
+    return pattern;
+  }
+
+  @Test
+  public void testInvalidConfiguration() {
+    try {
+      createComputeProvider(config("latencyMeanMillis", "fast"));
+      fail("Expected exception");
+    } catch (IllegalArgumentException e) {
+      assertThat(e.getMessage()).contains("latencyMeanMillis");
+    }
+    try {
+      createComputeProvider(
+          config("transientFailureRate", "0.6", "unrecoverableFailureRate", "0.6"));
+      fail("Expected exception");
+    } catch (IllegalArgumentException e) {
+      assertThat(e.getMessage()).contains("Failure rates");
+    }
+  }
+
+  @Test
+  public void testAutomaticGroups() throws Exception {
+    SimulatedComputeProvider provider = createComputeProvider(config());
+    ComputeInstanceTemplate template = provider.createResourceTemplate("template",
+        new SimpleConfiguration(config("automatic", "true", "group", "g1")),
+        Collections.<String, String>emptyMap());
+    ComputeInstanceTemplate other = provider.createResourceTemplate("other",
+        new SimpleConfiguration(config("automatic", "true", "group", "g2")),
+        Collections.<String, String>emptyMap());
+
+    List<String> instanceIds = new ArrayList<String>();
+    for (SimulatedComputeInstance instance : provider.allocate(template, IDS, IDS.size())) {
+      instanceIds.add(instance.getId());
+    }
+    assertThat(instanceIds).hasSize(3).doesNotContainAnyElementsOf(IDS);
+    assertThat(provider.allocate(template, IDS, IDS.size())).hasSize(3);
+    assertThat(provider.getInstanceState(template, instanceIds).get(instanceIds.get(0))
+        .getInstanceStatus()).isEqualTo(InstanceStatus.RUNNING);
+
+    assertThat(provider.find(template, Collections.<String>emptyList())).hasSize(3);
+    assertThat(provider.find(other, Collections.<String>emptyList())).isEmpty();
+    assertThat(provider.find(other, instanceIds)).isEmpty();
+
+    provider.delete(template, Collections.<String>emptyList());
+    assertThat(provider.find(template, Collections.<String>emptyList())).isEmpty();
+  }
+
+  @Test
+  public void testCloudProvidersShareSimulatedCloud() throws Exception {
+    SimulatedComputeProvider first = createComputeProvider(config());
+    first.allocate(createTemplate(first), IDS, IDS.size());
+
+    SimulatedComputeProvider second = createComputeProvider(config());
+    assertThat(second.find(createTemplate(second), IDS)).hasSize(3);
+  }
+
+  @Test
+  public void testDatabaseServerProvider() throws Exception {
+    CloudProvider cloudProvider = new SimulatedCloudProvider(launcher.getLocalizationContext(
+        Locale.US));
+    SimulatedDatabaseServerProvider provider =
+        (SimulatedDatabaseServerProvider) cloudProvider.createResourceProvider(
+            SimulatedDatabaseServerProvider.ID, new SimpleConfiguration());
+    DatabaseServerInstanceTemplate template = provider.createResourceTemplate("db",
+        new SimpleConfiguration(config(
+            "type", "POSTGRESQL", "adminUsername", "admin", "adminPassword", "password")),
+        Collections.<String, String>emptyMap());
+
+    Collection<SimulatedDatabaseServerInstance> allocated =
+        provider.allocate(template, Collections.singletonList("db1"), 1);
+    assertThat(allocated).hasSize(1);
+    assertThat(allocated.iterator().next().getPort()).isEqualTo(5432);
+    assertThat(provider.getInstanceState(template, Collections.singletonList("db1"))
+        .get("db1").getInstanceStatus()).isEqualTo(InstanceStatus.RUNNING);
+  }
+
+  @Test
+  public void testScale() throws Exception {
+    SimulatedComputeProvider provider = createComputeProvider(config());
+    ComputeInstanceTemplate template = createTemplate(provider);
+    List<String> ids = new ArrayList<String>(100000);
+    for (int i = 0; i < 100000; i++) {
+      ids.add("instance-" + i);
+    }
+
+    assertThat(provider.allocate(template, ids, ids.size())).hasSize(ids.size());
+    assertThat(provider.getInstanceState(template, ids)).hasSize(ids.size());
+
+    provider.delete(template, ids);
+    SimulatedInstanceStore store =
+        ((SimulatedCloudProvider) launcher.createCloudProvider(SimulatedCloudProvider.ID,
+            new SimpleConfiguration(), Locale.US)).getComputeInstances();
+    assertThat(store.getLiveCount()).isEqualTo(0);
+    store.purgeDeleted();
+    assertThat(store.size()).isEqualTo(0);
+  }
+}
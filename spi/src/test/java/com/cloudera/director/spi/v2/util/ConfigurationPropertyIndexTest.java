@@ -0,0 +1,123 @@
+// (c) Copyright 2017 Cloudera, Inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//   http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.cloudera.director.spi.v2.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.cloudera.director.spi.v2.model.ConfigurationProperty;
+import com.cloudera.director.spi.v2.model.ConfigurationPropertyToken;
+import com.cloudera.director.spi.v2.model.DisplayProperty;
+import com.cloudera.director.spi.v2.model.util.SimpleConfigurationPropertyBuilder;
+import com.cloudera.director.spi.v2.provider.ResourceProvider;
+import com.cloudera.director.spi.v2.provider.util.SimpleResourceProviderMetadata;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link ConfigurationPropertyIndex}.
+ */
+public class ConfigurationPropertyIndexTest {
+
+  private static final ConfigurationProperty REQUIRED = new SimpleConfigurationPropertyBuilder()
+      .configKey("required")
+      .defaultDescription("required")
+      .required(true)
+      .build();
+
+  private static final ConfigurationProperty SENSITIVE = new SimpleConfigurationPropertyBuilder()
+      .configKey("sensitive")
+      .defaultDescription("sensitive")
+      .sensitive(true)
+      .hidden(true)
+      .build();
+
+  private static final ConfigurationProperty CHOICE = new SimpleConfigurationPropertyBuilder()
+      .configKey("choice")
+      .defaultDescription("choice")
+      .widget(ConfigurationProperty.Widget.LIST)
+      .addValidValues("b", "a", "b")
+      .build();
+
+  private static final ConfigurationProperty REPLACEMENT = new SimpleConfigurationPropertyBuilder()
+      .configKey("required")
+      .defaultDescription("replacement")
+      .build();
+
+  @Test
+  public void testLookup() {
+    ConfigurationPropertyIndex index =
+        new ConfigurationPropertyIndex(Arrays.asList(REQUIRED, SENSITIVE, CHOICE));
+
+    assertThat(index.size()).isEqualTo(3);
+    assertThat(index.getProperties()).containsExactly(REQUIRED, SENSITIVE, CHOICE);
+    assertThat(index.contains("sensitive")).isTrue();
+    assertThat(index.contains("unknown")).isFalse();
+    assertThat(index.getProperty("choice")).isSameAs(CHOICE);
+    assertThat(index.getProperty("unknown")).isNull();
+    assertThat(index.getProperty(new ConfigurationPropertyToken() {
+      @Override
+      public ConfigurationProperty unwrap() {
+        return REQUIRED;
+      }
+    })).isSameAs(REQUIRED);
+  }
+
+  @Test
+  public void testPartitions() {
+    ConfigurationPropertyIndex index =
+        new ConfigurationPropertyIndex(Arrays.asList(REQUIRED, SENSITIVE, CHOICE));
+
+    assertThat(index.getRequiredProperties()).containsExactly(REQUIRED);
+    assertThat(index.getSensitiveProperties()).containsExactly(SENSITIVE);
+    assertThat(index.getHiddenProperties()).containsExactly(SENSITIVE);
+  }
+
+  @Test
+  public void testValidValues() {
+    ConfigurationPropertyIndex index =
+        new ConfigurationPropertyIndex(Arrays.asList(REQUIRED, CHOICE));
+
+    assertThat(index.getValidValues("choice")).containsExactly("b", "a");
+    assertThat(index.getValidValues("required")).isEmpty();
+    assertThat(index.getValidValues("unknown")).isEmpty();
+  }
+
+  @Test
+  public void testLastDuplicateIsIndexed() {
+    ConfigurationPropertyIndex index = ConfigurationPropertiesUtil.mergeIndex(
+        Arrays.asList(REQUIRED, CHOICE), Collections.singletonList(REPLACEMENT));
+
+    assertThat(index.getProperties()).containsExactly(REPLACEMENT, CHOICE);
+    assertThat(index.getProperty("required")).isSameAs(REPLACEMENT);
+    assertThat(index.getRequiredProperties()).isEmpty();
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testResourceProviderMetadataIndex() {
+    SimpleResourceProviderMetadata metadata = new SimpleResourceProviderMetadata("id", "name",
+        "description", (Class<? extends ResourceProvider<?, ?>>) (Class<?>) ResourceProvider.class,
+        Collections.<ConfigurationProperty>emptyList(), Arrays.asList(REQUIRED, CHOICE),
+        Collections.<DisplayProperty>emptyList());
+
+    assertThat(metadata.getResourceTemplateConfigurationPropertyIndex())
+        .isSameAs(metadata.getResourceTemplateConfigurationPropertyIndex());
+    assertThat(metadata.getResourceTemplateConfigurationPropertyIndex().getProperties())
+        .containsExactly(REQUIRED, CHOICE);
+  }
+}